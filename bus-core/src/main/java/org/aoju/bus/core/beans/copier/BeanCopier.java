@@ -26,7 +26,6 @@
 package org.aoju.bus.core.beans.copier;
 
 import org.aoju.bus.core.beans.BeanDesc;
-import org.aoju.bus.core.beans.copier.provider.BeanValueProvider;
 import org.aoju.bus.core.beans.copier.provider.MapValueProvider;
 import org.aoju.bus.core.convert.Convert;
 import org.aoju.bus.core.lang.Typed;
@@ -116,7 +115,7 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
      * @param fieldName 字段名
      * @return 映射值，无对应值返回字段名
      */
-    private static String mappingKey(Map<String, String> mapping, String fieldName) {
+    static String mappingKey(Map<String, String> mapping, String fieldName) {
         if (MapKit.isEmpty(mapping)) {
             return fieldName;
         }
@@ -153,7 +152,8 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
      * @param destBean     目标Bean
      */
     private void beanToBean(Object providerBean, Object destBean) {
-        valueProviderToBean(new BeanValueProvider(providerBean, this.copyOptions.ignoreCase, this.copyOptions.ignoreError), destBean);
+        CopyPlan.of(providerBean.getClass(), editable(destBean), this.destType, this.copyOptions)
+                .copy(providerBean, destBean, this.copyOptions);
     }
 
     /**
@@ -188,42 +188,53 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
      * @param targetMap 目标的Map
      */
     private void beanToMap(Object bean, Map targetMap) {
-        final Collection<BeanDesc.PropDesc> props = BeanKit.getBeanDesc(bean.getClass()).getProps();
-        final HashSet<String> ignoreSet = (null != copyOptions.ignoreProperties) ? CollKit.newHashSet(copyOptions.ignoreProperties) : null;
+        final String[] ignoreProperties = this.copyOptions.ignoreProperties;
         final CopyOptions copyOptions = this.copyOptions;
 
         String key;
-        Method getter;
         Object value;
-        for (BeanDesc.PropDesc prop : props) {
-            key = prop.getFieldName();
-            // 过滤class属性
-            // 得到property对应的getter方法
-            getter = prop.getGetter();
-            if (null != getter) {
-                // 只读取有getter方法的属性
-                try {
-                    value = getter.invoke(bean);
-                } catch (Exception e) {
-                    if (copyOptions.ignoreError) {
-                        continue;// 忽略反射失败
-                    } else {
-                        throw new InstrumentException("Get value of [{}] error!", prop.getFieldName());
-                    }
-                }
-                if (CollKit.contains(ignoreSet, key)) {
-                    // 目标属性值被忽略或值提供者无此key时跳过
-                    continue;
-                }
-                if (null == value && copyOptions.ignoreNullValue) {
-                    continue;// 当允许跳过空时,跳过
-                }
-                if (bean.equals(value)) {
-                    continue;// 值不能为bean本身,防止循环引用
+        for (CopyPlan.Reader reader : CopyPlan.readers(bean.getClass())) {
+            key = reader.getFieldName();
+            // 只读取有getter方法的属性
+            try {
+                value = reader.get(bean);
+            } catch (Exception e) {
+                if (copyOptions.ignoreError) {
+                    continue;// 忽略反射失败
+                } else {
+                    throw new InstrumentException("Get value of [{}] error!", key);
                 }
-                targetMap.put(mappingKey(copyOptions.fieldMapping, key), value);
             }
+            if (null != ignoreProperties && ArrayKit.contains(ignoreProperties, key)) {
+                // 目标属性值被忽略或值提供者无此key时跳过
+                continue;
+            }
+            if (null == value && copyOptions.ignoreNullValue) {
+                continue;// 当允许跳过空时,跳过
+            }
+            if (bean.equals(value)) {
+                continue;// 值不能为bean本身,防止循环引用
+            }
+            targetMap.put(mappingKey(copyOptions.fieldMapping, key), value);
+        }
+    }
+
+    /**
+     * 获取目标Bean中限制拷贝的类型
+     *
+     * @param bean 目标Bean
+     * @return 限制拷贝的类型, 未设置时为目标Bean的类型
+     */
+    private Class<?> editable(Object bean) {
+        final Class<?> editable = this.copyOptions.editable;
+        if (null == editable) {
+            return bean.getClass();
         }
+        // 检查限制类是否为target的父类或接口
+        if (false == editable.isInstance(bean)) {
+            throw new IllegalArgumentException(StringKit.format("Target class [{}] not assignable to Editable class [{}]", bean.getClass().getName(), editable.getName()));
+        }
+        return editable;
     }
 
     /**
@@ -238,14 +249,7 @@ public class BeanCopier<T> implements Copier<T>, Serializable {
         }
 
         final CopyOptions copyOptions = this.copyOptions;
-        Class<?> actualEditable = bean.getClass();
-        if (null != copyOptions.editable) {
-            // 检查限制类是否为target的父类或接口
-            if (false == copyOptions.editable.isInstance(bean)) {
-                throw new IllegalArgumentException(StringKit.format("Target class [{}] not assignable to Editable class [{}]", bean.getClass().getName(), copyOptions.editable.getName()));
-            }
-            actualEditable = copyOptions.editable;
-        }
+        final Class<?> actualEditable = editable(bean);
         final HashSet<String> ignoreSet = (null != copyOptions.ignoreProperties) ? CollKit.newHashSet(copyOptions.ignoreProperties) : null;
         final Map<String, String> fieldReverseMapping = copyOptions.getReversedMapping();
 
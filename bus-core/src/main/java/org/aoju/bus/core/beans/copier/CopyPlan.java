@@ -0,0 +1,435 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.beans.copier;
+
+import org.aoju.bus.core.beans.BeanDesc;
+import org.aoju.bus.core.convert.BasicType;
+import org.aoju.bus.core.convert.Convert;
+import org.aoju.bus.core.convert.ConverterRegistry;
+import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.core.lang.Typed;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bean拷贝计划
+ * 每组(来源类型、目标类型、拷贝选项)只解析一次需要拷贝的属性、值类型和读写方式,
+ * 属性通过{@link MethodHandle}读写;值已是目标类型的不可变类型(字符串、数字、布尔、字符、枚举)时不再经过{@link Convert}
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public final class CopyPlan {
+
+    /**
+     * 缓存的拷贝计划数量上限,超过后清空重新缓存,避免动态的拷贝选项导致缓存无限增长
+     */
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final Map<Key, CopyPlan> PLAN_CACHE = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Reader[]> READER_CACHE = new ConcurrentHashMap<>();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    /**
+     * 转换结果与原值相等的不可变类型
+     */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class, BigDecimal.class, BigInteger.class));
+
+    private final Step[] steps;
+
+    private CopyPlan(Class<?> sourceClass, Class<?> editable, Type destType, CopyOptions copyOptions) {
+        final Map<String, BeanDesc.PropDesc> sourcePdMap = BeanKit.getBeanDesc(sourceClass).getPropMap(copyOptions.ignoreCase);
+        final HashSet<String> ignoreSet = (null != copyOptions.ignoreProperties) ? CollKit.newHashSet(copyOptions.ignoreProperties) : null;
+        final Map<String, String> fieldReverseMapping = copyOptions.getReversedMapping();
+
+        final List<Step> steps = new ArrayList<>();
+        for (BeanDesc.PropDesc prop : BeanKit.getBeanDesc(editable).getProps()) {
+            final Field field = prop.getField();
+            final String fieldName = prop.getFieldName();
+            if (CollKit.contains(ignoreSet, fieldName)) {
+                continue;
+            }
+            final String providerKey = BeanCopier.mappingKey(fieldReverseMapping, fieldName);
+            if (false == sourcePdMap.containsKey(providerKey)
+                    && false == sourcePdMap.containsKey(StringKit.upperFirstAndAddPre(providerKey, Normal.IS))) {
+                continue;
+            }
+            final Method setterMethod = prop.getSetter();
+            if (null == setterMethod && false == BeanKit.isPublic(field)) {
+                continue;
+            }
+
+            final Type valueType = valueType(destType, field, setterMethod);
+            BeanDesc.PropDesc sourcePd = sourcePdMap.get(providerKey);
+            if (null == sourcePd && (Boolean.class == valueType || boolean.class == valueType)) {
+                // boolean类型字段字段名支持两种方式
+                sourcePd = sourcePdMap.get(StringKit.upperFirstAndAddPre(providerKey, Normal.IS));
+            }
+            steps.add(new Step(prop, providerKey, null == sourcePd ? null : sourcePd.getGetter(), valueType));
+        }
+        this.steps = steps.toArray(new Step[0]);
+    }
+
+    /**
+     * 获取Bean之间的拷贝计划
+     *
+     * @param sourceClass 来源Bean类型
+     * @param editable    目标Bean中限制拷贝的类型
+     * @param destType    目标的泛型类型
+     * @param copyOptions 拷贝选项
+     * @return 拷贝计划
+     */
+    static CopyPlan of(Class<?> sourceClass, Class<?> editable, Type destType, CopyOptions copyOptions) {
+        final Key key = new Key(sourceClass, editable, destType, copyOptions);
+        CopyPlan plan = PLAN_CACHE.get(key);
+        if (null == plan) {
+            plan = new CopyPlan(sourceClass, editable, destType, copyOptions);
+            if (PLAN_CACHE.size() >= MAX_CACHE_SIZE) {
+                PLAN_CACHE.clear();
+            }
+            PLAN_CACHE.putIfAbsent(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * 获取Bean中所有可读属性
+     *
+     * @param beanClass Bean类型
+     * @return 可读属性
+     */
+    public static Reader[] readers(Class<?> beanClass) {
+        return READER_CACHE.computeIfAbsent(beanClass, clazz -> {
+            final List<Reader> readers = new ArrayList<>();
+            for (BeanDesc.PropDesc prop : BeanKit.getBeanDesc(clazz).getProps()) {
+                if (null != prop.getGetter()) {
+                    readers.add(new Reader(prop.getFieldName(), prop.getGetter()));
+                }
+            }
+            return readers.toArray(new Reader[0]);
+        });
+    }
+
+    /**
+     * 解析目标属性的值类型,泛型参数替换为实际类型
+     *
+     * @param destType     目标的泛型类型
+     * @param field        字段
+     * @param setterMethod Setter方法
+     * @return 值类型
+     */
+    private static Type valueType(Type destType, Field field, Method setterMethod) {
+        Type valueType = (null == setterMethod) ? TypeKit.getType(field) : TypeKit.getFirstParamType(setterMethod);
+        if (valueType instanceof ParameterizedType) {
+            // 参数为泛型参数类型，解析对应泛型类型为真实类型
+            ParameterizedType tmp = (ParameterizedType) valueType;
+            Type[] actualTypeArguments = tmp.getActualTypeArguments();
+            if (TypeKit.hasTypeVeriable(actualTypeArguments)) {
+                // 泛型对象中含有未被转换的泛型变量
+                actualTypeArguments = TypeKit.getActualTypes(destType, field.getDeclaringClass(), tmp.getActualTypeArguments());
+                if (ArrayKit.isNotEmpty(actualTypeArguments)) {
+                    // 替换泛型变量为实际类型
+                    valueType = new Typed(actualTypeArguments, tmp.getOwnerType(), tmp.getRawType());
+                }
+            }
+        } else if (valueType instanceof TypeVariable) {
+            // 参数为泛型，查找其真实类型(适用于泛型方法定义于泛型父类)
+            valueType = TypeKit.getActualType(destType, field.getDeclaringClass(), valueType);
+        }
+        return valueType;
+    }
+
+    /**
+     * 读取方法对应的{@link MethodHandle},访问规则与{@link Method#invoke(Object, Object...)}一致,无法访问时返回null
+     *
+     * @param getter 读取方法
+     * @return 方法句柄
+     */
+    private static MethodHandle getter(Method getter) {
+        try {
+            final MethodHandles.Lookup lookup = getter.isAccessible() ? LOOKUP : MethodHandles.publicLookup();
+            return lookup.unreflect(getter).asType(GETTER);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 拷贝属性
+     *
+     * @param source      来源Bean
+     * @param bean        目标Bean
+     * @param copyOptions 拷贝选项
+     */
+    void copy(Object source, Object bean, CopyOptions copyOptions) {
+        final ConverterRegistry registry = ConverterRegistry.getInstance();
+        final boolean ignoreError = copyOptions.ignoreError;
+        final boolean ignoreNullValue = copyOptions.ignoreNullValue;
+        for (Step step : this.steps) {
+            // 获取值
+            Object value = null;
+            boolean converted = false;
+            if (null != step.getter) {
+                try {
+                    value = step.get(source);
+                } catch (Exception e) {
+                    if (false == ignoreError) {
+                        throw new InstrumentException("Inject [{}] error!", step.providerKey);
+                    }
+                }
+                if (null != value && step.isDirect(value) && null == registry.getCustomConverter(step.propClass)) {
+                    // 转换结果与原值相同
+                    converted = true;
+                } else {
+                    // 尝试转换为目标类型，失败将返回原类型
+                    final Object convertValue = Convert.convertWithCheck(step.valueType, value, null, ignoreError);
+                    if (null != convertValue) {
+                        value = convertValue;
+                    }
+                }
+            }
+            if (null == value && ignoreNullValue) {
+                continue;// 当允许跳过空时，跳过
+            }
+            if (bean == value) {
+                continue;// 值不能为bean本身，防止循环引用
+            }
+
+            try {
+                // valueProvider在没有对值做转换且当类型不匹配的时候，执行默认转换
+                if (false == converted && false == step.propClass.isInstance(value)) {
+                    value = Convert.convertWithCheck(step.propClass, value, null, ignoreError);
+                    if (null == value && ignoreNullValue) {
+                        continue;// 当允许跳过空时，跳过
+                    }
+                }
+                step.set(bean, value);
+            } catch (Exception e) {
+                if (false == ignoreError) {
+                    throw new InstrumentException("Inject [{}] error!", step.prop.getFieldName());
+                }
+                // 忽略注入失败
+            }
+        }
+    }
+
+    /**
+     * 可读属性
+     */
+    public static final class Reader {
+
+        private final String fieldName;
+        private final Method getter;
+        /**
+         * 为空时使用反射读取
+         */
+        private final MethodHandle handle;
+
+        Reader(String fieldName, Method getter) {
+            this.fieldName = fieldName;
+            this.getter = getter;
+            this.handle = getter(getter);
+        }
+
+        /**
+         * 属性名
+         *
+         * @return 属性名
+         */
+        public String getFieldName() {
+            return this.fieldName;
+        }
+
+        /**
+         * 读取属性值
+         *
+         * @param bean Bean对象
+         * @return 属性值
+         * @throws Exception 读取失败,读取方法抛出的异常包装为{@link InvocationTargetException}
+         */
+        public Object get(Object bean) throws Exception {
+            if (null == this.handle) {
+                return this.getter.invoke(bean);
+            }
+            try {
+                return (Object) this.handle.invokeExact(bean);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+
+    /**
+     * 单个属性的拷贝
+     */
+    private static final class Step {
+
+        private final BeanDesc.PropDesc prop;
+        private final String providerKey;
+        /**
+         * 来源属性的读取方法,为空表示来源无可读的值
+         */
+        private final Reader getter;
+        private final Type valueType;
+        private final Class<?> propClass;
+        /**
+         * 值类型与属性类型一致且为不可变类型时的包装类型,否则为空
+         */
+        private final Class<?> valueClass;
+        /**
+         * 写入的参数类型
+         */
+        private final Class<?> paramClass;
+        /**
+         * 为空时(如final字段)使用反射写入
+         */
+        private final MethodHandle setter;
+
+        Step(BeanDesc.PropDesc prop, String providerKey, Method getter, Type valueType) {
+            this.prop = prop;
+            this.providerKey = providerKey;
+            this.getter = null == getter ? null : new Reader(providerKey, getter);
+            this.valueType = valueType;
+            this.propClass = prop.getFieldClass();
+            final Class<?> wrapped = BasicType.wrap(this.propClass);
+            this.valueClass = valueType == this.propClass
+                    && (IMMUTABLE_TYPES.contains(wrapped) || wrapped.isEnum()) ? wrapped : null;
+
+            final Method setterMethod = prop.getSetter();
+            Class<?> paramClass = null;
+            MethodHandle setter = null;
+            try {
+                if (null != setterMethod) {
+                    if (1 == setterMethod.getParameterCount()) {
+                        paramClass = setterMethod.getParameterTypes()[0];
+                        setter = LOOKUP.unreflect(ReflectKit.setAccessible(setterMethod));
+                    }
+                } else {
+                    paramClass = prop.getField().getType();
+                    setter = LOOKUP.unreflectSetter(ReflectKit.setAccessible(prop.getField()));
+                }
+            } catch (IllegalAccessException | RuntimeException e) {
+                setter = null;
+            }
+            this.paramClass = paramClass;
+            this.setter = null == setter ? null : setter.asType(SETTER);
+        }
+
+        Object get(Object source) throws Exception {
+            return this.getter.get(source);
+        }
+
+        /**
+         * 值的类型为不可变类型且与目标类型一致,转换结果与原值相同
+         *
+         * @param value 值
+         * @return the boolean
+         */
+        boolean isDirect(Object value) {
+            return null != this.valueClass && this.valueClass == value.getClass();
+        }
+
+        /**
+         * 写入属性值,需要默认值或类型转换时交由{@link BeanDesc.PropDesc#setValue(Object, Object)}处理
+         *
+         * @param bean  Bean对象
+         * @param value 值
+         * @throws Exception 写入失败,写入方法抛出的异常包装为{@link InvocationTargetException}
+         */
+        void set(Object bean, Object value) throws Exception {
+            if (null != this.setter && (null == value
+                    ? false == this.paramClass.isPrimitive()
+                    : BasicType.wrap(this.paramClass).isInstance(value))) {
+                try {
+                    this.setter.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw new InvocationTargetException(e);
+                }
+            } else {
+                this.prop.setValue(bean, value);
+            }
+        }
+    }
+
+    /**
+     * 拷贝计划的缓存键
+     */
+    private static final class Key {
+
+        private final Class<?> sourceClass;
+        private final Class<?> editable;
+        private final Type destType;
+        private final boolean ignoreCase;
+        private final List<String> ignoreProperties;
+        private final Map<String, String> fieldMapping;
+        private final int hash;
+
+        Key(Class<?> sourceClass, Class<?> editable, Type destType, CopyOptions copyOptions) {
+            this.sourceClass = sourceClass;
+            this.editable = editable;
+            this.destType = destType;
+            this.ignoreCase = copyOptions.ignoreCase;
+            this.ignoreProperties = null == copyOptions.ignoreProperties ? null : Arrays.asList(copyOptions.ignoreProperties.clone());
+            this.fieldMapping = null == copyOptions.fieldMapping ? null : new HashMap<>(copyOptions.fieldMapping);
+            this.hash = Objects.hash(sourceClass, editable, destType, ignoreCase, ignoreProperties, fieldMapping);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) object;
+            return this.sourceClass == key.sourceClass
+                    && this.editable == key.editable
+                    && this.ignoreCase == key.ignoreCase
+                    && Objects.equals(this.destType, key.destType)
+                    && Objects.equals(this.ignoreProperties, key.ignoreProperties)
+                    && Objects.equals(this.fieldMapping, key.fieldMapping);
+        }
+    }
+
+}
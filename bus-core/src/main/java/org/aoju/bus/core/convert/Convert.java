@@ -251,6 +251,19 @@ public class Convert {
         return toInt(value, null);
     }
 
+    /**
+     * 转换为int,简单的数字及数字字符串不经过装箱
+     * 如果给定的值为<code>null</code>,或者转换失败,返回默认值
+     * 转换失败不会报错
+     *
+     * @param value        被转换的值
+     * @param defaultValue 转换错误时的默认值
+     * @return 结果
+     */
+    public static int toIntValue(Object value, int defaultValue) {
+        return ConverterRegistry.getInstance().toInt(value, defaultValue);
+    }
+
     /**
      * 转换为Integer数组
      *
@@ -286,6 +299,19 @@ public class Convert {
         return toLong(value, null);
     }
 
+    /**
+     * 转换为long,简单的数字及数字字符串不经过装箱
+     * 如果给定的值为<code>null</code>,或者转换失败,返回默认值
+     * 转换失败不会报错
+     *
+     * @param value        被转换的值
+     * @param defaultValue 转换错误时的默认值
+     * @return 结果
+     */
+    public static long toLongValue(Object value, long defaultValue) {
+        return ConverterRegistry.getInstance().toLong(value, defaultValue);
+    }
+
     /**
      * 转换为Long数组
      *
@@ -321,6 +347,19 @@ public class Convert {
         return toDouble(value, null);
     }
 
+    /**
+     * 转换为double,简单的数字及数字字符串不经过装箱
+     * 如果给定的值为<code>null</code>,或者转换失败,返回默认值
+     * 转换失败不会报错
+     *
+     * @param value        被转换的值
+     * @param defaultValue 转换错误时的默认值
+     * @return 结果
+     */
+    public static double toDoubleValue(Object value, double defaultValue) {
+        return ConverterRegistry.getInstance().toDouble(value, defaultValue);
+    }
+
     /**
      * 转换为Double数组
      *
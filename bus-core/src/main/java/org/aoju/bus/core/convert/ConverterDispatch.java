@@ -0,0 +1,355 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.time.zone.ZoneRules;
+import java.util.Map;
+
+/**
+ * 按(源类型, 目标类型)预先解析的转换分派
+ * 对于常见的类型组合，在默认转换器的基础上提供专用的转换函数，跳过通用的类型判断和字符串规范化，
+ * 仅处理结果与默认转换器完全一致的简单输入，其余输入仍交由默认转换器处理
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+final class ConverterDispatch implements Converter<Object> {
+
+    /**
+     * int不会溢出的最大十进制位数
+     */
+    private static final int INT_DIGITS = 9;
+    /**
+     * long不会溢出的最大十进制位数
+     */
+    private static final int LONG_DIGITS = 18;
+
+    /**
+     * 默认值需要满足的类型，与{@link AbstractConverter#getTargetType()}一致
+     */
+    private final Class<?> checkType;
+    private final Fast fast;
+    private final Converter<Object> fallback;
+
+    private ConverterDispatch(Class<?> checkType, Fast fast, Converter<Object> fallback) {
+        this.checkType = checkType;
+        this.fast = fast;
+        this.fallback = fallback;
+    }
+
+    /**
+     * 为源类型和目标类型解析转换函数
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @param converter  目标类型的默认转换器
+     * @return 专用的转换函数，无专用实现时返回转换器本身
+     */
+    static Converter<?> of(Class<?> sourceType, Class<?> targetType, Converter<?> converter) {
+        if (false == converter instanceof AbstractConverter) {
+            return converter;
+        }
+        final Class<?> checkType = ((AbstractConverter<?>) converter).getTargetType();
+        if (null == checkType) {
+            return converter;
+        }
+        final Fast fast = fast(sourceType, targetType, checkType);
+        return null == fast ? converter : new ConverterDispatch(checkType, fast, (Converter<Object>) converter);
+    }
+
+    /**
+     * 查找专用的转换函数
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @param checkType  转换器的目标类型
+     * @return 转换函数，无专用实现时返回{@code null}
+     */
+    private static Fast fast(Class<?> sourceType, Class<?> targetType, Class<?> checkType) {
+        // 已经是目标类型，不需要转换(Map类型涉及参数类型，需要单独转换)
+        if (checkType.isAssignableFrom(sourceType) && false == Map.class.isAssignableFrom(checkType)) {
+            return (value, defaultValue, fallback) -> value;
+        }
+
+        if (String.class == sourceType) {
+            if (Integer.class == targetType || int.class == targetType) {
+                return (value, defaultValue, fallback) -> isInteger((String) value, INT_DIGITS)
+                        ? Integer.valueOf(Integer.parseInt((String) value))
+                        : fallback.convert(value, defaultValue);
+            }
+            if (Long.class == targetType || long.class == targetType) {
+                return (value, defaultValue, fallback) -> isInteger((String) value, LONG_DIGITS)
+                        ? Long.valueOf(Long.parseLong((String) value))
+                        : fallback.convert(value, defaultValue);
+            }
+            if (Double.class == targetType || double.class == targetType) {
+                return (value, defaultValue, fallback) -> isDecimal((String) value)
+                        ? Double.valueOf(Double.parseDouble((String) value))
+                        : fallback.convert(value, defaultValue);
+            }
+            if (BigDecimal.class == targetType) {
+                return (value, defaultValue, fallback) -> isDecimal((String) value)
+                        ? new BigDecimal((String) value)
+                        : fallback.convert(value, defaultValue);
+            }
+            if (Boolean.class == targetType) {
+                return (value, defaultValue, fallback) -> {
+                    if ("true".equals(value)) {
+                        return Boolean.TRUE;
+                    }
+                    return "false".equals(value) ? Boolean.FALSE : fallback.convert(value, defaultValue);
+                };
+            }
+            if (LocalDateTime.class == targetType) {
+                return (value, defaultValue, fallback) -> {
+                    final LocalDateTime result = isDefaultFormat(fallback) ? parseDateTime((String) value) : null;
+                    return null == result ? fallback.convert(value, defaultValue) : result;
+                };
+            }
+            if (LocalDate.class == targetType) {
+                return (value, defaultValue, fallback) -> {
+                    final LocalDate result = isDefaultFormat(fallback) ? parseDate((String) value) : null;
+                    return null == result ? fallback.convert(value, defaultValue) : result;
+                };
+            }
+            return null;
+        }
+
+        if (isNumber(sourceType)) {
+            if (Integer.class == targetType || int.class == targetType) {
+                return (value, defaultValue, fallback) -> ((Number) value).intValue();
+            }
+            if (Long.class == targetType || long.class == targetType) {
+                return (value, defaultValue, fallback) -> ((Number) value).longValue();
+            }
+            if (Double.class == targetType || double.class == targetType) {
+                return (value, defaultValue, fallback) -> ((Number) value).doubleValue();
+            }
+            if (Float.class == targetType || float.class == targetType) {
+                return (value, defaultValue, fallback) -> ((Number) value).floatValue();
+            }
+            if (Short.class == targetType || short.class == targetType) {
+                return (value, defaultValue, fallback) -> ((Number) value).shortValue();
+            }
+            if (String.class == targetType) {
+                return (value, defaultValue, fallback) -> value.toString();
+            }
+        }
+
+        if (Boolean.class == sourceType && String.class == targetType) {
+            return (value, defaultValue, fallback) -> value.toString();
+        }
+        return null;
+    }
+
+    /**
+     * 日期转换器是否未指定格式
+     *
+     * @param converter 转换器
+     * @return 是否
+     */
+    private static boolean isDefaultFormat(Converter<?> converter) {
+        return converter instanceof TemporalConverter && null == ((TemporalConverter) converter).getFormat();
+    }
+
+    /**
+     * 是否为JDK中toString结果确定的数字类型
+     *
+     * @param type 类型
+     * @return 是否
+     */
+    private static boolean isNumber(Class<?> type) {
+        return Integer.class == type || Long.class == type || Double.class == type || Float.class == type
+                || Short.class == type || Byte.class == type || BigDecimal.class == type || BigInteger.class == type;
+    }
+
+    /**
+     * 是否为不会溢出的简单十进制整数，即可选的正负号后跟不超过指定位数的数字
+     *
+     * @param text      字符串
+     * @param maxDigits 最大位数
+     * @return 是否
+     */
+    static boolean isInteger(CharSequence text, int maxDigits) {
+        final int length = text.length();
+        int i = 0;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            i = 1;
+        }
+        if (i == length || length - i > maxDigits) {
+            return false;
+        }
+        for (; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 是否为简单十进制小数，即可选的正负号后跟数字，中间可有一个小数点，小数点两侧均需有数字
+     *
+     * @param text 字符串
+     * @return 是否
+     */
+    static boolean isDecimal(CharSequence text) {
+        final int length = text.length();
+        int i = 0;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            i = 1;
+        }
+        int digits = 0;
+        int dot = -1;
+        for (; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c == '.') {
+                if (dot >= 0 || digits == 0) {
+                    return false;
+                }
+                dot = i;
+            } else if (c >= '0' && c <= '9') {
+                digits++;
+            } else {
+                return false;
+            }
+        }
+        return digits > 0 && dot != length - 1;
+    }
+
+    /**
+     * 解析"yyyy-MM-dd"格式的日期
+     *
+     * @param text 字符串
+     * @return 日期，格式不符或日期无效时返回{@code null}
+     */
+    private static LocalDate parseDate(String text) {
+        return text.length() == 10 ? parseDate(text, 0) : null;
+    }
+
+    /**
+     * 解析"yyyy-MM-dd HH:mm:ss"或"yyyy-MM-dd'T'HH:mm:ss"格式的日期时间
+     * 位于夏令时切换时段的时间交由默认转换器处理
+     *
+     * @param text 字符串
+     * @return 日期时间，格式不符或时间无效时返回{@code null}
+     */
+    private static LocalDateTime parseDateTime(String text) {
+        if (text.length() != 19 || (text.charAt(10) != ' ' && text.charAt(10) != 'T')
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return null;
+        }
+        final LocalDate date = parseDate(text, 0);
+        final int hour = digits(text, 11, 13);
+        final int minute = digits(text, 14, 16);
+        final int second = digits(text, 17, 19);
+        if (null == date || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        final LocalDateTime result = date.atTime(hour, minute, second);
+        final ZoneRules rules = ZoneId.systemDefault().getRules();
+        if (false == rules.isFixedOffset() && null != rules.getTransition(result)) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * 解析指定位置起的"yyyy-MM-dd"
+     * 仅处理1900年以后的日期，更早的日期涉及儒略历与地方时，交由默认转换器处理
+     *
+     * @param text   字符串
+     * @param offset 起始位置
+     * @return 日期，格式不符或日期无效时返回{@code null}
+     */
+    private static LocalDate parseDate(String text, int offset) {
+        if (text.charAt(offset + 4) != '-' || text.charAt(offset + 7) != '-') {
+            return null;
+        }
+        final int year = digits(text, offset, offset + 4);
+        final int month = digits(text, offset + 5, offset + 7);
+        final int day = digits(text, offset + 8, offset + 10);
+        if (year < 1900 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * 解析指定范围内的十进制数字
+     *
+     * @param text 字符串
+     * @param from 起始位置
+     * @param to   结束位置(不包含)
+     * @return 数值，含非数字字符时返回-1
+     */
+    private static int digits(String text, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            final char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    @Override
+    public Object convert(Object value, Object defaultValue) {
+        if (null == value) {
+            return defaultValue;
+        }
+        if (null != defaultValue && false == checkType.isInstance(defaultValue)) {
+            // 由默认转换器给出一致的异常
+            return fallback.convert(value, defaultValue);
+        }
+        return fast.convert(value, defaultValue, fallback);
+    }
+
+    /**
+     * 专用的转换函数
+     */
+    @FunctionalInterface
+    private interface Fast {
+
+        /**
+         * 转换
+         *
+         * @param value        非空的被转换值
+         * @param defaultValue 默认值
+         * @param fallback     默认转换器，输入不是简单形式时使用
+         * @return 转换后的值
+         */
+        Object convert(Object value, Object defaultValue, Converter<Object> fallback);
+    }
+
+}
@@ -59,6 +59,11 @@ import java.util.concurrent.atomic.*;
  */
 public class ConverterRegistry {
 
+    /**
+     * 转换分派缓存的最大条目数,超出后整体丢弃
+     */
+    private static final int MAX_DISPATCH_SIZE = 4096;
+
     /**
      * 默认类型转换器
      */
@@ -67,6 +72,10 @@ public class ConverterRegistry {
      * 用户自定义类型转换器
      */
     private volatile Map<Type, Converter<?>> customConverterMap;
+    /**
+     * 按(目标类型, 源类型)预先解析的转换分派，登记自定义转换器或超出上限时整体失效
+     */
+    private volatile DispatchCache dispatchCache = new DispatchCache();
 
     public ConverterRegistry() {
         defaultConverter();
@@ -108,6 +117,7 @@ public class ConverterRegistry {
             }
         }
         customConverterMap.put(type, converter);
+        dispatchCache = new DispatchCache();
         return this;
     }
 
@@ -169,6 +179,13 @@ public class ConverterRegistry {
      * @throws InstrumentException 转换器不存在
      */
     public <T> T convert(Type type, Object value, T defaultValue, boolean isCustomFirst) throws InstrumentException {
+        if (type instanceof Class) {
+            // 具体类型按(源类型, 目标类型)分派，跳过泛型类型的判断
+            if (ObjectKit.isNull(value)) {
+                return defaultValue;
+            }
+            return ((Converter<T>) dispatch(value.getClass(), (Class<?>) type, isCustomFirst)).convert(value, defaultValue);
+        }
         if (TypeKit.isUnknow(type) && null == defaultValue) {
             // 对于用户不指定目标类型的情况，返回原值
             return (T) value;
@@ -189,7 +206,203 @@ public class ConverterRegistry {
         if (null != converter) {
             return converter.convert(value, defaultValue);
         }
+        return convertGeneric(type, value, defaultValue);
+    }
+
+    /**
+     * 转换值为int，简单的数字及数字字符串不经过装箱
+     * 注册了{@link Integer}或int的自定义转换器时按自定义转换器转换
+     *
+     * @param value        被转换值
+     * @param defaultValue 转换失败时的默认值
+     * @return 转换后的值
+     */
+    public int toInt(Object value, int defaultValue) {
+        if (ObjectKit.isNull(value)) {
+            return defaultValue;
+        }
+        if (false == hasCustom(Integer.class, int.class)) {
+            if (value instanceof Number) {
+                return ((Number) value).intValue();
+            }
+            if (value instanceof String && ConverterDispatch.isInteger((String) value, 9)) {
+                return Integer.parseInt((String) value);
+            }
+        }
+        final Integer result = convertQuietly(Integer.class, value);
+        return null == result ? defaultValue : result;
+    }
 
+    /**
+     * 转换值为long，简单的数字及数字字符串不经过装箱
+     * 注册了{@link Long}或long的自定义转换器时按自定义转换器转换
+     *
+     * @param value        被转换值
+     * @param defaultValue 转换失败时的默认值
+     * @return 转换后的值
+     */
+    public long toLong(Object value, long defaultValue) {
+        if (ObjectKit.isNull(value)) {
+            return defaultValue;
+        }
+        if (false == hasCustom(Long.class, long.class)) {
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            }
+            if (value instanceof String && ConverterDispatch.isInteger((String) value, 18)) {
+                return Long.parseLong((String) value);
+            }
+        }
+        final Long result = convertQuietly(Long.class, value);
+        return null == result ? defaultValue : result;
+    }
+
+    /**
+     * 转换值为double，简单的数字及数字字符串不经过装箱
+     * 注册了{@link Double}或double的自定义转换器时按自定义转换器转换
+     *
+     * @param value        被转换值
+     * @param defaultValue 转换失败时的默认值
+     * @return 转换后的值
+     */
+    public double toDouble(Object value, double defaultValue) {
+        if (ObjectKit.isNull(value)) {
+            return defaultValue;
+        }
+        if (false == hasCustom(Double.class, double.class)) {
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue();
+            }
+            if (value instanceof String && ConverterDispatch.isDecimal((String) value)) {
+                return Double.parseDouble((String) value);
+            }
+        }
+        final Double result = convertQuietly(Double.class, value);
+        return null == result ? defaultValue : result;
+    }
+
+    /**
+     * 不抛异常转换，失败时返回{@code null}
+     *
+     * @param <T>   目标类型
+     * @param type  目标类型
+     * @param value 被转换值
+     * @return 转换后的值
+     */
+    private <T> T convertQuietly(Class<T> type, Object value) {
+        try {
+            return convert(type, value, null, true);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 是否登记了任一类型的自定义转换器
+     *
+     * @param types 类型
+     * @return 是否
+     */
+    private boolean hasCustom(Type... types) {
+        final Map<Type, Converter<?>> map = customConverterMap;
+        if (null == map) {
+            return false;
+        }
+        for (Type type : types) {
+            if (map.containsKey(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取(源类型, 目标类型)对应的转换分派，首次使用时解析并缓存
+     *
+     * @param sourceType    源类型
+     * @param targetType    目标类型
+     * @param isCustomFirst 是否自定义转换器优先
+     * @return 转换器
+     */
+    private Converter<?> dispatch(Class<?> sourceType, Class<?> targetType, boolean isCustomFirst) {
+        final DispatchCache cache = this.dispatchCache;
+        final Map<Class<?>, Map<Class<?>, Converter<?>>> byTarget = isCustomFirst ? cache.customFirst : cache.defaultFirst;
+        final Map<Class<?>, Converter<?>> cached = byTarget.get(targetType);
+        Converter<?> converter = null == cached ? null : cached.get(sourceType);
+        if (null != converter) {
+            return converter;
+        }
+        converter = resolve(sourceType, targetType, isCustomFirst);
+        // 其他类加载器(如子容器中的应用)的类不缓存,避免注册表长期持有其类加载器
+        if (!isCacheable(sourceType) || !isCacheable(targetType)) {
+            return converter;
+        }
+        Map<Class<?>, Converter<?>> bySource = cached;
+        if (null == bySource) {
+            bySource = new ConcurrentHashMap<>();
+            final Map<Class<?>, Converter<?>> existing = byTarget.putIfAbsent(targetType, bySource);
+            if (null != existing) {
+                bySource = existing;
+            }
+        }
+        if (null == bySource.putIfAbsent(sourceType, converter)
+                && cache.size.incrementAndGet() > MAX_DISPATCH_SIZE) {
+            // 超出上限时整体丢弃,重新开始缓存
+            this.dispatchCache = new DispatchCache();
+        }
+        return converter;
+    }
+
+    /**
+     * 类是否可以放入分派缓存
+     * 仅缓存由引导类加载器、本类的类加载器或其父加载器加载的类
+     *
+     * @param type 类型
+     * @return 是否可以缓存
+     */
+    private static boolean isCacheable(Class<?> type) {
+        final ClassLoader loader = type.getClassLoader();
+        if (null == loader) {
+            return true;
+        }
+        for (ClassLoader own = ConverterRegistry.class.getClassLoader(); null != own; own = own.getParent()) {
+            if (own == loader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析(源类型, 目标类型)对应的转换器
+     * 使用默认转换器时尝试替换为专用的转换函数，无转换器时使用特殊类型及Bean转换
+     *
+     * @param sourceType    源类型
+     * @param targetType    目标类型
+     * @param isCustomFirst 是否自定义转换器优先
+     * @return 转换器
+     */
+    private Converter<?> resolve(Class<?> sourceType, Class<?> targetType, boolean isCustomFirst) {
+        final Converter<?> converter = getConverter(targetType, isCustomFirst);
+        if (null == converter) {
+            return (Converter<Object>) (value, defaultValue) -> convertGeneric(targetType, value, defaultValue);
+        }
+        return converter == getDefaultConverter(targetType)
+                ? ConverterDispatch.of(sourceType, targetType, converter)
+                : converter;
+    }
+
+    /**
+     * 无标准转换器时的转换，包括特殊类型及Bean
+     *
+     * @param <T>          转换的目标类型
+     * @param type         类型目标
+     * @param value        被转换值
+     * @param defaultValue 默认值
+     * @return 转换后的值
+     * @throws InstrumentException 转换器不存在
+     */
+    private <T> T convertGeneric(Type type, Object value, T defaultValue) throws InstrumentException {
         Class<T> rowType = (Class<T>) TypeKit.getClass(type);
         if (null == rowType) {
             if (null != defaultValue) {
@@ -383,6 +596,15 @@ public class ConverterRegistry {
         return this;
     }
 
+    /**
+     * 转换分派缓存，按是否自定义转换器优先分别存放
+     */
+    private static class DispatchCache {
+        private final AtomicInteger size = new AtomicInteger();
+        private final Map<Class<?>, Map<Class<?>, Converter<?>>> customFirst = new ConcurrentHashMap<>();
+        private final Map<Class<?>, Map<Class<?>, Converter<?>>> defaultFirst = new ConcurrentHashMap<>();
+    }
+
     /**
      * 类级的内部类，也就是静态的成员式内部类，该内部类的实例与外部类的实例 没有绑定关系，而且只有被调用到才会装载，从而实现了延迟加载
      */
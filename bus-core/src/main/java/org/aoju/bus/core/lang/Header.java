@@ -170,5 +170,13 @@ public class Header {
      * The header Sec-WebSocket-Version
      */
     public static final String SEC_WEBSOCKET_VERSION = "Sec-WebSocket-Version";
+    /**
+     * The header Sec-WebSocket-Accept
+     */
+    public static final String SEC_WEBSOCKET_ACCEPT = "Sec-WebSocket-Accept";
+    /**
+     * The header Sec-WebSocket-Extensions
+     */
+    public static final String SEC_WEBSOCKET_EXTENSIONS = "Sec-WebSocket-Extensions";
 
 }
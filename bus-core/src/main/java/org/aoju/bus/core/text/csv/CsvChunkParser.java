@@ -0,0 +1,289 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.text.csv;
+
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 内存映射文件中一段数据的CSV解析器，按字节解析，规则与{@link CsvParser}一致
+ * 仅用于字段分隔符、文本包装符、换行符均为单字节的编码(如UTF-8)，字段只记录位置，见{@link CsvFields}
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+final class CsvChunkParser {
+
+    private static final int DEFAULT_ROW_CAPACITY = 10;
+
+    private final ByteBuffer buffer;
+    private final CsvReadConfig config;
+    private final Charset charset;
+    /**
+     * 数据结束位置
+     */
+    private final int end;
+    /**
+     * 是否为文件的最后一段，最后一段需处理没有换行结尾的行
+     */
+    private final boolean last;
+    /**
+     * 当前位置
+     */
+    private int pos;
+    /**
+     * 前一个字符
+     */
+    private int preChar;
+    /**
+     * 是否在引号包装内
+     */
+    private boolean inQuotes;
+    /**
+     * 是否读取结束
+     */
+    private boolean finished;
+    /**
+     * 当前行各字段的开始、结束位置
+     */
+    private int[] bounds = new int[DEFAULT_ROW_CAPACITY << 1];
+    /**
+     * 当前行字段数
+     */
+    private int fieldCount;
+    /**
+     * 当前行号
+     */
+    private long lineNo;
+    /**
+     * 当前行的起始行号
+     */
+    private long rowLineNo;
+
+    /**
+     * 构造
+     *
+     * @param buffer  映射的数据
+     * @param pos     开始位置
+     * @param last    是否为文件的最后一段
+     * @param config  配置
+     * @param charset 编码
+     * @param preChar 开始位置前一个字符，无则为-1
+     * @param lineNo  开始位置前的行号
+     */
+    CsvChunkParser(ByteBuffer buffer, int pos, boolean last, CsvReadConfig config, Charset charset, int preChar, long lineNo) {
+        this.buffer = buffer;
+        this.end = buffer.limit();
+        this.pos = pos;
+        this.last = last;
+        this.config = config;
+        this.charset = charset;
+        this.preChar = preChar;
+        this.lineNo = lineNo;
+    }
+
+    /**
+     * 解析本段所有行
+     *
+     * @param headerMap       标题Map
+     * @param firstFieldCount 第一行字段数，用于检查每行字段数是否一致
+     * @param rows            解析出的行，出现异常时保留异常之前的行
+     * @throws InstrumentException 每行字段数不一致
+     */
+    void parse(Map<String, Integer> headerMap, int firstFieldCount, List<CsvRow> rows) throws InstrumentException {
+        while (readLine()) {
+            // 跳过空行
+            if (config.skipEmptyRows && isEmptyRow()) {
+                continue;
+            }
+            // 检查每行的字段数是否一致
+            if (config.errorOnDifferentFieldCount && fieldCount != firstFieldCount) {
+                throw new InstrumentException(String.format("Line %d has %d fields, but first line has %d fields", lineNo, fieldCount, firstFieldCount));
+            }
+            rows.add(new CsvRow(rowLineNo, headerMap, fields()));
+        }
+    }
+
+    /**
+     * 读取一行数据，字段见{@link #fields()}
+     *
+     * @return 是否读取到数据，本段结束返回{@code false}
+     */
+    boolean readLine() {
+        if (finished || (pos == end && false == last)) {
+            return false;
+        }
+        rowLineNo = ++lineNo;
+        fieldCount = 0;
+
+        final ByteBuffer localBuffer = this.buffer;
+        final int separator = config.fieldSeparator;
+        final int delimiter = config.textDelimiter;
+        int localPos = pos;
+        int localPreChar = preChar;
+        boolean localInQuotes = inQuotes;
+        // 字段开始位置
+        int copyStart = localPos;
+        // 字段内所有字节的或值，用于判断是否为纯ASCII
+        int bits = 0;
+
+        while (true) {
+            if (localPos == end) {
+                // 文件读取结束，剩余部分作为一个字段
+                finished = true;
+                if (localPreChar == separator || localPos > copyStart) {
+                    add(copyStart, localPos, bits, false);
+                }
+                break;
+            }
+
+            final int c = localBuffer.get(localPos++) & 0xff;
+            bits |= c;
+            if (localInQuotes) {
+                //引号内,做为内容,直到引号结束
+                if (c == delimiter) {
+                    localInQuotes = false;
+                } else if ((c == Symbol.C_CR || c == Symbol.C_LF) && localPreChar != Symbol.C_CR) {
+                    lineNo++;
+                }
+            } else if (c == separator) {
+                //一个字段结束
+                add(copyStart, localPos - 1, bits, true);
+                copyStart = localPos;
+                bits = 0;
+            } else if (c == delimiter) {
+                // 引号开始
+                localInQuotes = true;
+            } else if (c == Symbol.C_CR) {
+                add(copyStart, localPos - 1, bits, true);
+                localPreChar = c;
+                break;
+            } else if (c == Symbol.C_LF) {
+                if (localPreChar != Symbol.C_CR) {
+                    add(copyStart, localPos - 1, bits, true);
+                    localPreChar = c;
+                    break;
+                }
+                copyStart = localPos;
+                bits = 0;
+            }
+
+            localPreChar = c;
+        }
+
+        pos = localPos;
+        preChar = localPreChar;
+        inQuotes = localInQuotes;
+
+        return fieldCount > 0;
+    }
+
+    /**
+     * 当前行的字段列表
+     *
+     * @return 字段列表
+     */
+    CsvFields fields() {
+        return new CsvFields(buffer, charset, Arrays.copyOf(bounds, fieldCount << 1));
+    }
+
+    /**
+     * 当前行字段数
+     *
+     * @return 字段数
+     */
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * 当前行是否为空行，即只有一个空字段
+     *
+     * @return 是否为空行
+     */
+    boolean isEmptyRow() {
+        return fieldCount == 1 && bounds[0] == bounds[1];
+    }
+
+    /**
+     * 当前位置
+     *
+     * @return 当前位置
+     */
+    int position() {
+        return pos;
+    }
+
+    /**
+     * 前一个字符
+     *
+     * @return 前一个字符，无则为-1
+     */
+    int preChar() {
+        return preChar;
+    }
+
+    /**
+     * 当前行号
+     *
+     * @return 当前行号
+     */
+    long lineNo() {
+        return lineNo;
+    }
+
+    /**
+     * 记录一个字段
+     *
+     * @param from   开始位置
+     * @param to     结束位置
+     * @param bits   字段内所有字节的或值
+     * @param unWrap 是否去掉两边的文本包装符
+     */
+    private void add(int from, int to, int bits, boolean unWrap) {
+        if (unWrap && to - from > 1
+                && buffer.get(from) == config.textDelimiter && buffer.get(to - 1) == config.textDelimiter) {
+            from++;
+            to--;
+        }
+        final int index = fieldCount << 1;
+        if (index == bounds.length) {
+            bounds = Arrays.copyOf(bounds, index << 1);
+        }
+        // 含非ASCII字符的字段开始位置按位取反
+        bounds[index] = (bits & 0x80) == 0 ? from : ~from;
+        bounds[index + 1] = to;
+        fieldCount++;
+    }
+
+}
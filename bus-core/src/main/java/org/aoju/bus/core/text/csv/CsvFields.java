@@ -0,0 +1,112 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.text.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * 内存映射文件中一行的字段列表，只记录各字段的位置，读取字段时才解码为字符串
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+final class CsvFields extends AbstractList<String> implements RandomAccess {
+
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    /**
+     * 各字段的开始、结束位置，含非ASCII字符的字段开始位置按位取反
+     */
+    private final int[] bounds;
+    /**
+     * 已解码或修改过的字段值
+     */
+    private CharSequence[] values;
+
+    /**
+     * 构造
+     *
+     * @param buffer  映射的字节缓冲
+     * @param charset 编码
+     * @param bounds  各字段的开始、结束位置
+     */
+    CsvFields(ByteBuffer buffer, Charset charset, int[] bounds) {
+        this.buffer = buffer;
+        this.charset = charset;
+        this.bounds = bounds;
+    }
+
+    /**
+     * 获取字段内容，未解码时返回{@link CsvSlice}
+     *
+     * @param index 位置
+     * @return 字段内容
+     */
+    CharSequence sequence(int index) {
+        if (null != values && null != values[index]) {
+            return values[index];
+        }
+        final int start = bounds[index << 1];
+        final int end = bounds[(index << 1) + 1];
+        return start < 0 ? new CsvSlice(buffer, ~start, end, charset, false) : new CsvSlice(buffer, start, end, charset, true);
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        if (null == values) {
+            values = new CharSequence[size()];
+        } else if (null != values[index]) {
+            return values[index].toString();
+        }
+        final int start = bounds[index << 1];
+        final int end = bounds[(index << 1) + 1];
+        final String value = start < 0 ? CsvSlice.decode(buffer, ~start, end, charset)
+                : CsvSlice.decode(buffer, start, end, StandardCharsets.ISO_8859_1);
+        values[index] = value;
+        return value;
+    }
+
+    @Override
+    public String set(int index, String element) {
+        final String old = get(index);
+        values[index] = element;
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return bounds.length >> 1;
+    }
+
+}
@@ -184,6 +184,16 @@ public final class CsvParser implements Closeable {
      * @param currentFields 当前行字段列表
      */
     private void initHeader(final List<String> currentFields) {
+        header = new CsvRow(this.lineNo, headerMap(currentFields), Collections.unmodifiableList(currentFields));
+    }
+
+    /**
+     * 构建标题Map,标题名对应其首次出现的位置
+     *
+     * @param currentFields 标题行字段列表
+     * @return 标题Map
+     */
+    static Map<String, Integer> headerMap(final List<String> currentFields) {
         final Map<String, Integer> localHeaderMap = new LinkedHashMap<>(currentFields.size());
         for (int i = 0; i < currentFields.size(); i++) {
             final String field = currentFields.get(i);
@@ -191,8 +201,7 @@ public final class CsvParser implements Closeable {
                 localHeaderMap.put(field, i);
             }
         }
-
-        header = new CsvRow(this.lineNo, Collections.unmodifiableMap(localHeaderMap), Collections.unmodifiableList(currentFields));
+        return Collections.unmodifiableMap(localHeaderMap);
     }
 
     /**
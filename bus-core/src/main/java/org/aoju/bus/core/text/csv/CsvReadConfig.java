@@ -50,6 +50,14 @@ public class CsvReadConfig extends CsvConfig implements Serializable {
      * 每行字段个数不同时是否抛出异常,默认false
      */
     protected boolean errorOnDifferentFieldCount;
+    /**
+     * 并行读取时每段数据的大小,默认8MB
+     */
+    protected int chunkSize = 8 << 20;
+    /**
+     * 并行读取时是否按文件中的顺序输出行,默认true
+     */
+    protected boolean ordered = true;
 
     /**
      * 默认配置
@@ -87,4 +95,22 @@ public class CsvReadConfig extends CsvConfig implements Serializable {
         this.errorOnDifferentFieldCount = errorOnDifferentFieldCount;
     }
 
+    /**
+     * 设置并行读取时每段数据的大小,默认8MB
+     *
+     * @param chunkSize 每段数据的大小
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 设置并行读取时是否按文件中的顺序输出行,默认true
+     *
+     * @param ordered 是否按顺序输出
+     */
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
 }
@@ -33,14 +33,14 @@ import org.aoju.bus.core.toolkit.IoKit;
 import org.aoju.bus.core.toolkit.ObjectKit;
 import org.aoju.bus.core.toolkit.StringKit;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * CSV文件读取器,参考：FastCSV
@@ -114,6 +114,24 @@ public final class CsvReader {
         this.setErrorOnDifferentFieldCount(errorOnDifferentFieldCount);
     }
 
+    /**
+     * 设置并行读取时每段数据的大小,默认8MB
+     *
+     * @param chunkSize 每段数据的大小
+     */
+    public void setChunkSize(int chunkSize) {
+        this.config.setChunkSize(chunkSize);
+    }
+
+    /**
+     * 设置并行读取时是否按文件中的顺序输出行,默认true
+     *
+     * @param ordered 是否按顺序输出
+     */
+    public void setOrdered(boolean ordered) {
+        this.config.setOrdered(ordered);
+    }
+
     /**
      * 读取CSV文件,默认UTF-8编码
      *
@@ -191,6 +209,94 @@ public final class CsvReader {
         read(parse(reader), rowHandler);
     }
 
+    /**
+     * 并行读取CSV文件，文件按行切分为多段，使用内存映射在{@link java.util.concurrent.ForkJoinPool}上并行解析
+     * 行处理器在当前线程中调用，行的输出顺序见{@link CsvReadConfig#setOrdered(boolean)}
+     * 字段可通过{@link CsvRow#getSequence(int)}获取未解码的内容
+     * 编码不支持按字节切分时(UTF-8、US-ASCII、ISO-8859-1以外)，退化为顺序读取
+     *
+     * @param path       CSV文件
+     * @param charset    文件编码
+     * @param rowHandler 行处理器，用于一行一行的处理数据
+     * @throws InstrumentException IO异常
+     */
+    public void readParallel(Path path, java.nio.charset.Charset charset, CsvHandler rowHandler) throws InstrumentException {
+        Assert.notNull(path, "path must not be null");
+        if (false == CsvSplitter.isSupported(charset, config)) {
+            read(FileKit.getReader(path, charset), rowHandler);
+            return;
+        }
+        try (CsvSplitter splitter = new CsvSplitter(path, charset, config)) {
+            while (splitter.hasNext()) {
+                rowHandler.handle(splitter.next());
+            }
+        }
+    }
+
+    /**
+     * 并行读取CSV文件，默认UTF-8编码
+     *
+     * @param file       CSV文件
+     * @param rowHandler 行处理器，用于一行一行的处理数据
+     * @throws InstrumentException IO异常
+     * @see #readParallel(Path, java.nio.charset.Charset, CsvHandler)
+     */
+    public void readParallel(File file, CsvHandler rowHandler) throws InstrumentException {
+        readParallel(Objects.requireNonNull(file, "file must not be null").toPath(), Charset.UTF_8, rowHandler);
+    }
+
+    /**
+     * 以流的方式并行读取CSV文件，规则同{@link #readParallel(Path, java.nio.charset.Charset, CsvHandler)}
+     * 使用完毕后需关闭流
+     *
+     * @param path    CSV文件
+     * @param charset 文件编码
+     * @return 行的流
+     * @throws InstrumentException IO异常
+     */
+    public Stream<CsvRow> stream(Path path, java.nio.charset.Charset charset) throws InstrumentException {
+        Assert.notNull(path, "path must not be null");
+        final Iterator<CsvRow> iterator;
+        final Closeable closeable;
+        if (CsvSplitter.isSupported(charset, config)) {
+            final CsvSplitter splitter = new CsvSplitter(path, charset, config);
+            iterator = splitter;
+            closeable = splitter;
+        } else {
+            final CsvParser csvParser = parse(FileKit.getReader(path, charset));
+            final CsvRow first;
+            try {
+                first = csvParser.nextRow();
+            } catch (RuntimeException e) {
+                // 流尚未返回给调用方,读取首行失败时由此关闭
+                IoKit.close(csvParser);
+                throw e;
+            }
+            iterator = new Iterator<CsvRow>() {
+                private CsvRow next = first;
+
+                @Override
+                public boolean hasNext() {
+                    return null != next;
+                }
+
+                @Override
+                public CsvRow next() {
+                    if (null == next) {
+                        throw new NoSuchElementException();
+                    }
+                    final CsvRow row = next;
+                    next = csvParser.nextRow();
+                    return row;
+                }
+            };
+            closeable = csvParser;
+        }
+        final int characteristics = config.ordered ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false)
+                .onClose(() -> IoKit.close(closeable));
+    }
+
     /**
      * 读取CSV数据，读取后关闭Parser
      *
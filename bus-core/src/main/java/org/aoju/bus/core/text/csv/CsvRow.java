@@ -88,6 +88,19 @@ public final class CsvRow implements List<String> {
         return null;
     }
 
+    /**
+     * 获取指定位置的字段内容,并行读取时为未解码的{@link CsvSlice},只需部分字段时可避免创建字符串
+     *
+     * @param index 位置
+     * @return 字段内容, null表示无此字段值
+     */
+    public CharSequence getSequence(final int index) {
+        if (index >= fields.size()) {
+            return null;
+        }
+        return fields instanceof CsvFields ? ((CsvFields) fields).sequence(index) : fields.get(index);
+    }
+
     /**
      * 获取本行所有字段值列表
      *
@@ -0,0 +1,136 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.text.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CSV字段在内存映射文件中的片段，首次访问内容时才解码
+ * 纯ASCII内容直接按字节读取，无需创建字符串
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public final class CsvSlice implements CharSequence {
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int end;
+    private final Charset charset;
+    /**
+     * 是否全部为ASCII字符
+     */
+    private final boolean ascii;
+    /**
+     * 解码后的字符串
+     */
+    private String value;
+
+    /**
+     * 构造
+     *
+     * @param buffer  映射的字节缓冲
+     * @param start   开始位置(包含)
+     * @param end     结束位置(不包含)
+     * @param charset 编码
+     * @param ascii   是否全部为ASCII字符
+     */
+    CsvSlice(ByteBuffer buffer, int start, int end, Charset charset, boolean ascii) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.charset = charset;
+        this.ascii = ascii;
+    }
+
+    /**
+     * 字段的字节长度
+     *
+     * @return 字节长度
+     */
+    public int byteLength() {
+        return end - start;
+    }
+
+    @Override
+    public int length() {
+        return ascii ? end - start : toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (ascii) {
+            if (index < 0 || index >= end - start) {
+                throw new StringIndexOutOfBoundsException(index);
+            }
+            return (char) buffer.get(start + index);
+        }
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (ascii) {
+            if (start < 0 || end > this.end - this.start || start > end) {
+                throw new StringIndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + length());
+            }
+            return new CsvSlice(buffer, this.start + start, this.start + end, charset, true);
+        }
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        String value = this.value;
+        if (null == value) {
+            value = decode(buffer, start, end, ascii ? StandardCharsets.ISO_8859_1 : charset);
+            this.value = value;
+        }
+        return value;
+    }
+
+    /**
+     * 解码指定区域的字节
+     *
+     * @param buffer  映射的字节缓冲
+     * @param start   开始位置(包含)
+     * @param end     结束位置(不包含)
+     * @param charset 编码
+     * @return 字符串
+     */
+    static String decode(ByteBuffer buffer, int start, int end, Charset charset) {
+        final byte[] bytes = new byte[end - start];
+        // 多线程下读取，使用独立的位置
+        final ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(start);
+        duplicate.get(bytes);
+        return new String(bytes, charset);
+    }
+
+}
@@ -0,0 +1,450 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.core.text.csv;
+
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.IoKit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 基于内存映射的CSV并行读取
+ * <ol>
+ *     <li>将文件按{@link CsvReadConfig#chunkSize}切分，并行统计每段的引号奇偶性及换行数</li>
+ *     <li>根据段首的引号状态，将每段的起始位置调整到引号外的换行之后，得到按行对齐的数据段及其起始行号</li>
+ *     <li>在{@link ForkJoinPool#commonPool()}上并行解析各数据段，按顺序或完成顺序输出行</li>
+ * </ol>
+ * 同时解析的数据段数量有限，避免大文件占用过多内存；仅支持ASCII兼容的单字节分界编码，见{@link #isSupported(Charset, CsvReadConfig)}
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+final class CsvSplitter implements Iterator<CsvRow>, Closeable {
+
+    /**
+     * 按字节切分安全的编码，分界字符不会出现在多字节字符中
+     */
+    private static final Set<Charset> SUPPORTED_CHARSETS = new HashSet<>(Arrays.asList(
+            StandardCharsets.UTF_8, StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1));
+
+    private final FileChannel channel;
+    private final CsvReadConfig config;
+    private final Charset charset;
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    /**
+     * 同时解析的数据段上限
+     */
+    private final int window = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+    /**
+     * 等待中的解析任务，按顺序输出时依次获取结果，否则仅用于关闭时取消
+     */
+    private final Deque<Future<Chunk>> pending = new ArrayDeque<>();
+    /**
+     * 不要求顺序时，按完成顺序获取解析结果
+     */
+    private final CompletionService<Chunk> completion;
+    /**
+     * 文件大小
+     */
+    private final long size;
+    /**
+     * 各数据段的起始位置
+     */
+    private long[] starts = new long[0];
+    /**
+     * 各数据段起始位置前的行号
+     */
+    private long[] lineNos = new long[0];
+    /**
+     * 标题Map
+     */
+    private Map<String, Integer> headerMap;
+    /**
+     * 第一行字段数
+     */
+    private int firstFieldCount = -1;
+    /**
+     * 下一个提交的数据段
+     */
+    private int next;
+    /**
+     * 正在解析的数据段数量
+     */
+    private int running;
+    /**
+     * 当前数据段的行
+     */
+    private Iterator<CsvRow> current = Collections.emptyIterator();
+    /**
+     * 当前数据段解析中的异常，在其之前的行输出后抛出
+     */
+    private InstrumentException error;
+
+    /**
+     * 构造，完成数据段切分
+     *
+     * @param path    CSV文件
+     * @param charset 编码
+     * @param config  配置
+     * @throws InstrumentException IO异常
+     */
+    CsvSplitter(Path path, Charset charset, CsvReadConfig config) throws InstrumentException {
+        this.config = config;
+        this.charset = charset;
+        this.completion = config.ordered ? null : new ExecutorCompletionService<>(pool);
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        try {
+            this.size = channel.size();
+            split();
+        } catch (IOException | RuntimeException e) {
+            IoKit.close(channel);
+            throw e instanceof InstrumentException ? (InstrumentException) e : new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 是否支持按字节切分并行解析
+     *
+     * @param charset 编码
+     * @param config  配置
+     * @return 是否支持
+     */
+    static boolean isSupported(Charset charset, CsvReadConfig config) {
+        return SUPPORTED_CHARSETS.contains(charset) && config.fieldSeparator < 0x80 && config.textDelimiter < 0x80;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (false == current.hasNext()) {
+            if (null != error) {
+                final InstrumentException e = error;
+                error = null;
+                close();
+                throw e;
+            }
+            final Chunk chunk = take();
+            if (null == chunk) {
+                return false;
+            }
+            current = chunk.rows.iterator();
+            error = chunk.error;
+        }
+        return true;
+    }
+
+    @Override
+    public CsvRow next() {
+        if (false == hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    @Override
+    public void close() {
+        for (Future<Chunk> future : pending) {
+            future.cancel(true);
+        }
+        pending.clear();
+        next = starts.length;
+        running = 0;
+        current = Collections.emptyIterator();
+        error = null;
+        IoKit.close(channel);
+    }
+
+    /**
+     * 读取标题行，并将文件切分为按行对齐的数据段
+     *
+     * @throws IOException IO异常
+     */
+    private void split() throws IOException {
+        // 标题行及第一行字段数
+        final ByteBuffer head = map(0, Math.min(size, Integer.MAX_VALUE));
+        final CsvChunkParser parser = new CsvChunkParser(head, 0, size <= Integer.MAX_VALUE, config, charset, -1, 0);
+        boolean found = false;
+        while (parser.readLine()) {
+            if (false == config.skipEmptyRows || false == parser.isEmptyRow()) {
+                found = true;
+                break;
+            }
+        }
+        if (false == found) {
+            return;
+        }
+        firstFieldCount = parser.fieldCount();
+
+        long start = 0;
+        long lineNo = 0;
+        if (config.containsHeader) {
+            headerMap = CsvParser.headerMap(parser.fields());
+            start = parser.position();
+            lineNo = parser.lineNo();
+        }
+        if (start >= size) {
+            return;
+        }
+
+        // 并行统计各段的引号及换行
+        final long chunkSize = Math.max(1, config.chunkSize);
+        final List<Future<Scan>> scans = new ArrayList<>();
+        for (long from = start; from < size; from += chunkSize) {
+            final long begin = from;
+            scans.add(submit(() -> scan(begin, Math.min(begin + chunkSize, size))));
+        }
+
+        // 根据段首的引号状态对齐到行首
+        final List<Long> alignedStarts = new ArrayList<>();
+        final List<Long> alignedLineNos = new ArrayList<>();
+        alignedStarts.add(start);
+        alignedLineNos.add(lineNo);
+        int quoted = 0;
+        for (int i = 0; i < scans.size(); i++) {
+            final Scan scan = await(scans.get(i));
+            if (i > 0 && scan.boundary[quoted] >= 0) {
+                final long boundary = start + i * chunkSize + scan.boundary[quoted];
+                if (boundary < size && boundary > alignedStarts.get(alignedStarts.size() - 1)) {
+                    alignedStarts.add(boundary);
+                    alignedLineNos.add(lineNo + scan.before[quoted]);
+                }
+            }
+            lineNo += scan.lines[quoted];
+            quoted ^= scan.parity;
+        }
+
+        final int count = alignedStarts.size();
+        starts = new long[count];
+        lineNos = new long[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = alignedStarts.get(i);
+            lineNos[i] = alignedLineNos.get(i);
+            if ((i + 1 < count ? alignedStarts.get(i + 1) : size) - starts[i] >= Integer.MAX_VALUE) {
+                throw new InstrumentException("CSV row at offset {} is too large to be mapped", starts[i]);
+            }
+        }
+    }
+
+    /**
+     * 统计一段数据的引号奇偶性、换行数及段首引号状态分别为外/内时第一个可切分的位置
+     *
+     * @param from 开始位置
+     * @param to   结束位置
+     * @return 统计结果
+     * @throws IOException IO异常
+     */
+    private Scan scan(long from, long to) throws IOException {
+        // 多映射前后各一个字符，用于判断换行
+        final long begin = from > 0 ? from - 1 : from;
+        final ByteBuffer buffer = map(begin, Math.min(to + 1, size) - begin);
+        final int offset = (int) (from - begin);
+        final int end = (int) (to - begin);
+        final int limit = buffer.limit();
+        final int delimiter = config.textDelimiter;
+        final Scan scan = new Scan();
+
+        int preChar = offset > 0 ? buffer.get(0) & 0xff : -1;
+        int parity = 0;
+        for (int i = offset; i < end; i++) {
+            final int c = buffer.get(i) & 0xff;
+            if (c == delimiter) {
+                parity ^= 1;
+            } else if (c == Symbol.C_CR || c == Symbol.C_LF) {
+                for (int state = 0; state < 2; state++) {
+                    final boolean inQuotes = (state ^ parity) == 1;
+                    // 与CsvParser一致：引号外的CR、不在CR之后的LF及引号内不在CR之后的CR均增加行号
+                    if (preChar != Symbol.C_CR || (c == Symbol.C_CR && false == inQuotes)) {
+                        scan.lines[state]++;
+                    }
+                    if (false == inQuotes && scan.boundary[state] < 0
+                            && (c == Symbol.C_LF || i + 1 == limit || buffer.get(i + 1) != Symbol.C_LF)) {
+                        scan.boundary[state] = i + 1 - offset;
+                        scan.before[state] = scan.lines[state];
+                    }
+                }
+            }
+            preChar = c;
+        }
+        scan.parity = parity;
+        return scan;
+    }
+
+    /**
+     * 解析数据段
+     *
+     * @param index 数据段序号
+     * @return 解析结果
+     * @throws IOException IO异常
+     */
+    private Chunk parse(int index) throws IOException {
+        final long from = starts[index];
+        final long to = index + 1 < starts.length ? starts[index + 1] : size;
+        // 多映射前一个字符，作为解析的初始前置字符
+        final long begin = from > 0 ? from - 1 : from;
+        final ByteBuffer buffer = map(begin, to - begin);
+        final int offset = (int) (from - begin);
+        final int preChar = offset > 0 ? buffer.get(0) & 0xff : -1;
+        final Chunk chunk = new Chunk();
+        try {
+            new CsvChunkParser(buffer, offset, to == size, config, charset, preChar, lineNos[index])
+                    .parse(headerMap, firstFieldCount, chunk.rows);
+        } catch (InstrumentException e) {
+            chunk.error = e;
+        }
+        return chunk;
+    }
+
+    /**
+     * 获取下一个数据段的解析结果
+     *
+     * @return 解析结果，全部读取完毕返回{@code null}
+     */
+    private Chunk take() {
+        while (running < window && next < starts.length) {
+            final int index = next++;
+            final Callable<Chunk> task = () -> parse(index);
+            pending.add(null == completion ? submit(task) : completion.submit(task));
+            running++;
+        }
+        if (running == 0) {
+            return null;
+        }
+        running--;
+        if (null == completion) {
+            return await(pending.poll());
+        }
+        try {
+            final Future<Chunk> future = completion.take();
+            pending.remove(future);
+            return await(future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 提交任务，使用{@link FutureTask}以保留任务中的原始异常
+     *
+     * @param task 任务
+     * @param <T>  结果类型
+     * @return 任务
+     */
+    private <T> Future<T> submit(Callable<T> task) {
+        final FutureTask<T> future = new FutureTask<>(task);
+        pool.execute(future);
+        return future;
+    }
+
+    /**
+     * 映射文件的指定区域
+     *
+     * @param position 开始位置
+     * @param length   长度
+     * @return 映射的数据
+     * @throws IOException IO异常
+     */
+    private ByteBuffer map(long position, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+
+    /**
+     * 等待任务完成，任务中的异常原样抛出
+     *
+     * @param future 任务
+     * @param <T>    结果类型
+     * @return 结果
+     */
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InstrumentException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new InstrumentException(cause);
+        }
+    }
+
+    /**
+     * 数据段的解析结果
+     */
+    private static class Chunk {
+
+        /**
+         * 解析出的行
+         */
+        final List<CsvRow> rows = new ArrayList<>();
+        /**
+         * 解析中的异常
+         */
+        InstrumentException error;
+
+    }
+
+    /**
+     * 一段数据的统计结果，数组下标0、1分别对应段首在引号外、引号内
+     */
+    private static class Scan {
+
+        /**
+         * 第一个可切分的位置(相对段首)，无则为-1
+         */
+        final int[] boundary = {-1, -1};
+        /**
+         * 换行数
+         */
+        final long[] lines = new long[2];
+        /**
+         * 第一个可切分位置之前的换行数
+         */
+        final long[] before = new long[2];
+        /**
+         * 引号数量的奇偶性
+         */
+        int parity;
+
+    }
+
+}
@@ -28,6 +28,7 @@ package org.aoju.bus.core.toolkit;
 import org.aoju.bus.core.beans.*;
 import org.aoju.bus.core.beans.copier.BeanCopier;
 import org.aoju.bus.core.beans.copier.CopyOptions;
+import org.aoju.bus.core.beans.copier.CopyPlan;
 import org.aoju.bus.core.beans.copier.ValueProvider;
 import org.aoju.bus.core.convert.Convert;
 import org.aoju.bus.core.lang.Editor;
@@ -720,28 +721,20 @@ public class BeanKit {
             return null;
         }
 
-        final Collection<BeanDesc.PropDesc> props = BeanKit.getBeanDesc(bean.getClass()).getProps();
-
         String key;
-        Method getter;
         Object value;
-        for (BeanDesc.PropDesc prop : props) {
-            key = prop.getFieldName();
-            // 过滤class属性
-            // 得到property对应的getter方法
-            getter = prop.getGetter();
-            if (null != getter) {
-                // 只读取有getter方法的属性
-                try {
-                    value = getter.invoke(bean);
-                } catch (Exception ignore) {
-                    continue;
-                }
-                if (false == ignoreNullValue || (null != value && false == value.equals(bean))) {
-                    key = keyEditor.edit(key);
-                    if (null != key) {
-                        targetMap.put(key, value);
-                    }
+        for (CopyPlan.Reader reader : CopyPlan.readers(bean.getClass())) {
+            key = reader.getFieldName();
+            // 只读取有getter方法的属性
+            try {
+                value = reader.get(bean);
+            } catch (Exception ignore) {
+                continue;
+            }
+            if (false == ignoreNullValue || (null != value && false == value.equals(bean))) {
+                key = keyEditor.edit(key);
+                if (null != key) {
+                    targetMap.put(key, value);
                 }
             }
         }
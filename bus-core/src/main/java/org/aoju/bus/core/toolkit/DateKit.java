@@ -47,6 +47,7 @@ import java.time.temporal.TemporalField;
 import java.time.temporal.UnsupportedTemporalTypeException;
 import java.util.Locale;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -73,6 +74,22 @@ public class DateKit extends GregorianCalendar {
     public final static int MAX_MONTH = 11;
     public final static int MAX_DATE = 31;
 
+    /**
+     * 缓存的{@link DateTimeFormatter}数量上限,超过后不再缓存,避免动态格式导致缓存无限增长
+     */
+    private static final int MAX_FORMATTER_SIZE = 256;
+    /**
+     * 按格式缓存的{@link DateTimeFormatter},其本身不可变且线程安全
+     */
+    private static final Map<String, DateTimeFormatter> FORMATTER_CACHE = new ConcurrentHashMap<>();
+    /**
+     * 快速解析时依次设置的日历字段：年、月、日、时、分、秒、毫秒
+     */
+    private static final int[] PARSE_FIELDS = {
+            Calendar.YEAR, Calendar.MONTH, Calendar.DAY_OF_MONTH,
+            Calendar.HOUR_OF_DAY, Calendar.MINUTE, Calendar.SECOND, Calendar.MILLISECOND
+    };
+
     /**
      * 农历年份
      */
@@ -1001,6 +1018,12 @@ public class DateKit extends GregorianCalendar {
             return null;
         }
         String dateStr = dateCharSequence.toString();
+        // 单次扫描识别常见格式，无需正则及中间字符串
+        final DateTime dateTime = lexer(dateStr);
+        if (null != dateTime) {
+            return dateTime;
+        }
+
         // 去掉两边空格并去掉中文日期中的“日”和“秒”，以规范长度
         dateStr = StringKit.removeAll(dateStr.trim(), '日', '秒');
         int length = dateStr.length();
@@ -1064,7 +1087,13 @@ public class DateKit extends GregorianCalendar {
      */
     public static LocalDateTime parse(CharSequence dateStr, String format) {
         dateStr = normalize(dateStr);
-        DateTimeFormatter df = DateTimeFormatter.ofPattern(format);
+        DateTimeFormatter df = FORMATTER_CACHE.get(format);
+        if (null == df) {
+            df = DateTimeFormatter.ofPattern(format);
+            if (FORMATTER_CACHE.size() < MAX_FORMATTER_SIZE) {
+                FORMATTER_CACHE.putIfAbsent(format, df);
+            }
+        }
         try {
             return LocalDateTime.parse(dateStr, df);
         } catch (DateTimeParseException e) {
@@ -1159,7 +1188,7 @@ public class DateKit extends GregorianCalendar {
         timeString = StringKit.format("{} {}", formatDate(new DateTime()), timeString);
         if (1 == StringKit.count(timeString, Symbol.C_COLON)) {
             // 时间格式为 HH:mm
-            return parse(timeString, Fields.NORM_DATETIME_MINUTE_PATTERN);
+            return parse(timeString, Fields.NORM_DATETIME_MINUTE_FORMAT);
         } else {
             // 时间格式为 HH:mm:ss
             return parse(timeString, Fields.NORM_DATETIME_FORMAT);
@@ -3265,6 +3294,260 @@ public class DateKit extends GregorianCalendar {
         return calendar.getActualMaximum(dateField);
     }
 
+    /**
+     * 单次扫描解析常见的日期时间格式，支持：
+     * <ol>
+     * <li>yyyyMMddHHmmss、yyyyMMddHHmmssSSS、yyyyMMdd、HHmmss</li>
+     * <li>HH:mm:ss、HH:mm</li>
+     * <li>yyyy-MM-dd、yyyy-MM-dd HH:mm、yyyy-MM-dd HH:mm:ss、yyyy-MM-dd HH:mm:ss.SSS，
+     * 日期分隔符也可为"/"、"."、"年"、"月"，时间分隔符也可为"时"、"分"</li>
+     * <li>yyyy-MM-dd'T'HH:mm:ss'Z'等UTC时间</li>
+     * </ol>
+     * 直接按字符读取各时间字段并设置日历，其它格式返回{@code null}，由{@link #parse(CharSequence)}按原规则处理
+     *
+     * @param dateStr 日期字符串
+     * @return 日期对象，无法识别时返回{@code null}
+     */
+    private static DateTime lexer(String dateStr) {
+        int begin = 0;
+        int end = dateStr.length();
+        while (begin < end && dateStr.charAt(begin) <= Symbol.C_SPACE) {
+            begin++;
+        }
+        while (end > begin && dateStr.charAt(end - 1) <= Symbol.C_SPACE) {
+            end--;
+        }
+
+        final int[] values = new int[PARSE_FIELDS.length];
+        int pos = digits(dateStr, begin, end);
+        final int width = pos - begin;
+        if (pos == end) {
+            // 纯数字形式
+            switch (width) {
+                case 14:
+                case 17:
+                    // yyyyMMddHHmmss 或 yyyyMMddHHmmssSSS
+                    values[0] = number(dateStr, begin, begin + 4);
+                    for (int i = 1, p = begin + 4; i < 6; i++, p += 2) {
+                        values[i] = number(dateStr, p, p + 2);
+                    }
+                    if (width == 14) {
+                        return build(Fields.PURE_DATETIME_FORMAT, values, 0, 6);
+                    }
+                    values[6] = number(dateStr, begin + 14, end);
+                    return build(Fields.PURE_DATETIME_MS_FORMAT, values, 0, 7);
+                case 8:
+                    // yyyyMMdd
+                    values[0] = number(dateStr, begin, begin + 4);
+                    values[1] = number(dateStr, begin + 4, begin + 6);
+                    values[2] = number(dateStr, begin + 6, end);
+                    return build(Fields.PURE_DATE_FORMAT, values, 0, 3);
+                case 6:
+                    // HHmmss
+                    for (int i = 3, p = begin; i < 6; i++, p += 2) {
+                        values[i] = number(dateStr, p, p + 2);
+                    }
+                    return build(Fields.PURE_TIME_FORMAT, values, 3, 6);
+                default:
+                    return null;
+            }
+        }
+
+        if ((width == 1 || width == 2) && dateStr.charAt(pos) == Symbol.C_COLON) {
+            // HH:mm:ss 或者 HH:mm 时间格式
+            pos = field(dateStr, pos + 1, end, 2);
+            if (pos > 0 && pos < end && dateStr.charAt(pos) == Symbol.C_COLON) {
+                pos = field(dateStr, pos + 1, end, 2);
+            }
+            return pos == end ? parseTimeToday(dateStr.substring(begin, end)) : null;
+        }
+        if (width != 4) {
+            return null;
+        }
+        if (dateStr.charAt(pos) == Symbol.C_HYPHEN && isUTC(dateStr, pos, end)) {
+            // UTC时间
+            return parseUTC(dateStr.substring(begin, end));
+        }
+
+        // 日期部分
+        values[0] = number(dateStr, begin, pos);
+        for (int i = 1; i < 3; i++) {
+            if (pos == end || !isDateSeparator(dateStr.charAt(pos))) {
+                return null;
+            }
+            final int from = pos + 1;
+            pos = field(dateStr, from, end, 2);
+            if (pos < 0) {
+                return null;
+            }
+            values[i] = number(dateStr, from, pos);
+        }
+        if (pos < end && dateStr.charAt(pos) == '日') {
+            pos++;
+        }
+        if (pos == end) {
+            // yyyy-MM-dd
+            return build(Fields.NORM_DATE_FORMAT, values, 0, 3);
+        }
+        if (dateStr.charAt(pos) != Symbol.C_SPACE) {
+            return null;
+        }
+
+        // 时间部分
+        int from = pos + 1;
+        pos = field(dateStr, from, end, 2);
+        if (pos < 0 || pos == end || !isTimeSeparator(dateStr.charAt(pos))) {
+            return null;
+        }
+        values[3] = number(dateStr, from, pos);
+        from = pos + 1;
+        pos = field(dateStr, from, end, 2);
+        if (pos < 0) {
+            return null;
+        }
+        values[4] = number(dateStr, from, pos);
+        if (pos == end || (pos + 1 == end && isTimeSeparator(dateStr.charAt(pos)))) {
+            // yyyy-MM-dd HH:mm，末位的分隔符忽略
+            return build(Fields.NORM_DATETIME_MINUTE_FORMAT, values, 0, 5);
+        }
+        if (!isTimeSeparator(dateStr.charAt(pos))) {
+            return null;
+        }
+        from = pos + 1;
+        pos = field(dateStr, from, end, 2);
+        if (pos < 0) {
+            return null;
+        }
+        values[5] = number(dateStr, from, pos);
+        if (pos == end || (pos + 1 == end && dateStr.charAt(pos) == '秒')) {
+            // yyyy-MM-dd HH:mm:ss
+            return build(Fields.NORM_DATETIME_FORMAT, values, 0, 6);
+        }
+        final char c = dateStr.charAt(pos);
+        if (c != Symbol.C_DOT && c != Symbol.C_COMMA) {
+            return null;
+        }
+        from = pos + 1;
+        pos = field(dateStr, from, end, 3);
+        if (pos != end) {
+            return null;
+        }
+        // yyyy-MM-dd HH:mm:ss.SSS
+        values[6] = number(dateStr, from, pos);
+        return build(Fields.NORM_DATETIME_MS_FORMAT, values, 0, 7);
+    }
+
+    /**
+     * 按解析出的字段值构建日期，与{@link FormatBuilder}解析时一致：使用其时区及区域的空白日历，依次设置字段
+     *
+     * @param format 对应的格式
+     * @param values 字段值，顺序见{@link #PARSE_FIELDS}
+     * @param from   起始字段(包含)
+     * @param to     结束字段(不包含)
+     * @return 日期对象
+     */
+    private static DateTime build(FormatBuilder format, int[] values, int from, int to) {
+        final Calendar calendar = Calendar.getInstance(format.getTimeZone(), format.getLocale());
+        calendar.clear();
+        for (int i = from; i < to; i++) {
+            final int field = PARSE_FIELDS[i];
+            calendar.set(field, Calendar.MONTH == field ? values[i] - 1 : values[i]);
+        }
+        return new DateTime(calendar.getTime(), format.getTimeZone());
+    }
+
+    /**
+     * 读取1到maxWidth位数字
+     *
+     * @param text     字符串
+     * @param from     开始位置
+     * @param end      结束位置
+     * @param maxWidth 最大位数
+     * @return 数字之后的位置，位数不符时返回-1
+     */
+    private static int field(String text, int from, int end, int maxWidth) {
+        final int pos = digits(text, from, end);
+        final int width = pos - from;
+        return width < 1 || width > maxWidth ? -1 : pos;
+    }
+
+    /**
+     * 跳过连续的数字
+     *
+     * @param text 字符串
+     * @param from 开始位置
+     * @param end  结束位置
+     * @return 第一个非数字字符的位置
+     */
+    private static int digits(String text, int from, int end) {
+        while (from < end) {
+            final char c = text.charAt(from);
+            if (c < Symbol.C_ZERO || c > Symbol.C_NINE) {
+                break;
+            }
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * 将数字字符转换为整数
+     *
+     * @param text 字符串
+     * @param from 开始位置
+     * @param to   结束位置
+     * @return 整数值
+     */
+    private static int number(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + (text.charAt(i) - Symbol.C_ZERO);
+        }
+        return value;
+    }
+
+    /**
+     * 是否为UTC时间，即包含"T"且只由数字及"-"、":"、"."、"+"、"T"、"Z"组成
+     *
+     * @param text 字符串
+     * @param from 开始位置
+     * @param end  结束位置
+     * @return 是否为UTC时间
+     */
+    private static boolean isUTC(String text, int from, int end) {
+        boolean hasT = false;
+        for (int i = from; i < end; i++) {
+            final char c = text.charAt(i);
+            if (c == 'T') {
+                hasT = true;
+            } else if ((c < Symbol.C_ZERO || c > Symbol.C_NINE) && c != Symbol.C_HYPHEN && c != Symbol.C_COLON
+                    && c != Symbol.C_DOT && c != Symbol.C_PLUS && c != 'Z') {
+                return false;
+            }
+        }
+        return hasT;
+    }
+
+    /**
+     * 是否为日期分隔符："-"、"/"、"."、"年"、"月"
+     *
+     * @param c 字符
+     * @return 是否为日期分隔符
+     */
+    private static boolean isDateSeparator(char c) {
+        return c == Symbol.C_HYPHEN || c == Symbol.C_SLASH || c == Symbol.C_DOT || c == '年' || c == '月';
+    }
+
+    /**
+     * 是否为时间分隔符：":"、"时"、"分"
+     *
+     * @param c 字符
+     * @return 是否为时间分隔符
+     */
+    private static boolean isTimeSeparator(char c) {
+        return c == Symbol.C_COLON || c == '时' || c == '分';
+    }
+
     /**
      * 标准化日期，默认处理以空格区分的日期时间格式，空格前为日期
      * 将以下字符替换为"-"
@@ -3311,21 +3594,37 @@ public class DateKit extends GregorianCalendar {
         final StringBuilder builder = StringKit.builder();
 
         // 日期部分("\"、"/"、"."、"年"、"月"都替换为"-")
-        String datePart = dateAndTime.get(0).replaceAll("[/.年月]", Symbol.HYPHEN);
-        datePart = StringKit.removeSuffix(datePart, "日");
-        builder.append(datePart);
+        final String datePart = dateAndTime.get(0);
+        int length = datePart.length();
+        if (length > 0 && datePart.charAt(length - 1) == '日') {
+            length--;
+        }
+        for (int i = 0; i < length; i++) {
+            final char c = datePart.charAt(i);
+            builder.append(c == Symbol.C_SLASH || c == Symbol.C_DOT || c == '年' || c == '月' ? Symbol.C_HYPHEN : c);
+        }
 
-        // 时间部分
+        // 时间部分("时"、"分"、"秒"都替换为":"，并去除末位的":")
         if (size == 2) {
             builder.append(Symbol.C_SPACE);
-            String timePart = dateAndTime.get(1).replaceAll("[时分秒]", Symbol.COLON);
-            timePart = StringKit.removeSuffix(timePart, Symbol.COLON);
-            //将ISO8601中的逗号替换为.
-            timePart = timePart.replace(Symbol.C_COMMA, Symbol.C_DOT);
-            builder.append(timePart);
+            final String timePart = dateAndTime.get(1);
+            length = timePart.length();
+            if (length > 0 && (isTimeSeparator(timePart.charAt(length - 1)) || timePart.charAt(length - 1) == '秒')) {
+                length--;
+            }
+            for (int i = 0; i < length; i++) {
+                final char c = timePart.charAt(i);
+                if (isTimeSeparator(c) || c == '秒') {
+                    builder.append(Symbol.C_COLON);
+                } else if (c == Symbol.C_COMMA) {
+                    //将ISO8601中的逗号替换为.
+                    builder.append(Symbol.C_DOT);
+                } else {
+                    builder.append(c);
+                }
+            }
         }
 
-
         return builder.toString();
     }
 
@@ -25,6 +25,9 @@
  ********************************************************************************/
 package org.aoju.bus.crypto.digest;
 
+import org.aoju.bus.core.io.Buffer;
+import org.aoju.bus.core.io.Segment;
+import org.aoju.bus.core.lang.Assert;
 import org.aoju.bus.core.lang.Charset;
 import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.*;
@@ -34,9 +37,14 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * 摘要算法
@@ -49,6 +57,15 @@ import java.security.Provider;
 public class Digester implements Serializable {
 
     private static final long serialVersionUID = 1L;
+    /**
+     * 文件摘要的读取缓存大小
+     */
+    private static final int FILE_BUFFER_SIZE = 1024 * 1024;
+    /**
+     * 树形摘要中叶子节点与内部节点的前缀,避免二者产生相同的输入
+     */
+    private static final byte LEAF = 0x00;
+    private static final byte NODE = 0x01;
     /**
      * 盐值
      */
@@ -62,6 +79,20 @@ public class Digester implements Serializable {
      */
     protected int digestCount;
     private MessageDigest digest;
+    private String algorithm;
+    private Provider provider;
+    /**
+     * 增量摘要时已写入的数据长度,用于定位加盐位置
+     */
+    private long position;
+    /**
+     * 增量摘要时盐值是否已写入
+     */
+    private boolean salted;
+    /**
+     * 树形摘要时每个线程独立的{@link MessageDigest}
+     */
+    private transient ThreadLocal<MessageDigest> digests;
 
     /**
      * 构造
@@ -91,6 +122,9 @@ public class Digester implements Serializable {
      * @throws InstrumentException Cause by IOException
      */
     public Digester init(String algorithm, Provider provider) {
+        this.algorithm = algorithm;
+        this.provider = provider;
+        this.digests = null;
         if (null == provider) {
             this.digest = Builder.createMessageDigest(algorithm);
         } else {
@@ -154,9 +188,92 @@ public class Digester implements Serializable {
      */
     public Digester reset() {
         this.digest.reset();
+        this.position = 0;
+        this.salted = false;
+        return this;
+    }
+
+    /**
+     * 增量写入数据,写入完成后调用{@link #doFinal()}获得摘要
+     * 盐值按{@link #saltPosition}插入到对应位置
+     *
+     * @param data 数据
+     * @return this
+     */
+    public Digester update(byte[] data) {
+        return update(data, 0, data.length);
+    }
+
+    /**
+     * 增量写入数据,写入完成后调用{@link #doFinal()}获得摘要
+     * 盐值按{@link #saltPosition}插入到对应位置
+     *
+     * @param data   数据
+     * @param offset 开始位置
+     * @param length 长度
+     * @return this
+     */
+    public Digester update(byte[] data, int offset, int length) {
+        return update(ByteBuffer.wrap(data, offset, length));
+    }
+
+    /**
+     * 增量写入数据,写入完成后调用{@link #doFinal()}获得摘要
+     * 盐值按{@link #saltPosition}插入到对应位置,数据不会被复制
+     *
+     * @param data 数据,读取其position到limit之间的内容
+     * @return this
+     */
+    public Digester update(ByteBuffer data) {
+        final int length = data.remaining();
+        if (!this.salted && ArrayKit.isNotEmpty(this.salt)) {
+            final long until = Math.max(0, this.saltPosition - this.position);
+            if (until < length) {
+                // 盐值位于本段数据内部或开头
+                final int limit = data.limit();
+                data.limit(data.position() + (int) until);
+                this.digest.update(data);
+                data.limit(limit);
+                this.digest.update(this.salt);
+                this.salted = true;
+            }
+        }
+        this.digest.update(data);
+        this.position += length;
+        return this;
+    }
+
+    /**
+     * 增量写入{@link Buffer}中的全部数据,直接读取其内部数据段,不会复制或消费数据
+     *
+     * @param data {@link Buffer}
+     * @return this
+     */
+    public Digester update(Buffer data) {
+        final Segment head = data.head;
+        if (null != head) {
+            Segment segment = head;
+            do {
+                update(segment.data, segment.pos, segment.limit - segment.pos);
+                segment = segment.next;
+            } while (segment != head);
+        }
         return this;
     }
 
+    /**
+     * 完成增量摘要,考虑加盐和重复摘要次数,完成后重置状态
+     *
+     * @return 摘要
+     */
+    public byte[] doFinal() {
+        if (!this.salted && ArrayKit.isNotEmpty(this.salt)) {
+            // 加盐在末尾
+            this.digest.update(this.salt);
+        }
+        return resetAndRepeatDigest(this.digest.digest());
+    }
+
     /**
      * 生成文件摘要
      *
@@ -223,19 +340,93 @@ public class Digester implements Serializable {
 
     /**
      * 生成文件摘要
-     * 使用默认缓存大小，见 {@link IoKit#DEFAULT_BUFFER_SIZE}
+     * 使用{@link FileChannel}按1MB的缓存读取
      *
      * @param file 被摘要文件
      * @return 摘要bytes
      * @throws InstrumentException Cause by IOException
      */
     public byte[] digest(File file) throws InstrumentException {
-        InputStream in = null;
-        try {
-            in = FileKit.getInputStream(file);
-            return digest(in);
-        } finally {
-            IoKit.close(in);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(FILE_BUFFER_SIZE, Math.max(1, channel.size())));
+            while (channel.read(buffer) > -1) {
+                buffer.flip();
+                update(buffer);
+                buffer.clear();
+            }
+            return doFinal();
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 生成文件的树形摘要,用于内容寻址存储等场景
+     * 文件按固定大小分块,各块在{@link ForkJoinPool#commonPool()}中并行计算叶子摘要,
+     * 再两两合并为根摘要;叶子为H(0x00||块),内部节点为H(0x01||左||右),
+     * 奇数个节点时最后一个直接进入上一层;此模式不使用盐值和重复摘要次数
+     *
+     * @param file      被摘要文件
+     * @param chunkSize 分块大小
+     * @return 根摘要
+     * @throws InstrumentException Cause by IOException
+     */
+    public byte[] digestTree(File file, int chunkSize) throws InstrumentException {
+        return digestTree(file, chunkSize, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 生成文件的树形摘要,并转为16进制字符串
+     *
+     * @param file      被摘要文件
+     * @param chunkSize 分块大小
+     * @return 根摘要
+     */
+    public String digestTreeHex(File file, int chunkSize) {
+        return HexKit.encodeHexStr(digestTree(file, chunkSize));
+    }
+
+    /**
+     * 生成文件的树形摘要,见{@link #digestTree(File, int)}
+     *
+     * @param file      被摘要文件
+     * @param chunkSize 分块大小
+     * @param pool      计算叶子摘要的线程池
+     * @return 根摘要
+     * @throws InstrumentException Cause by IOException
+     */
+    public byte[] digestTree(File file, int chunkSize, ForkJoinPool pool) throws InstrumentException {
+        Assert.isTrue(chunkSize > 0, "'chunkSize' must be greater than 0 !");
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final int count = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+            byte[][] nodes = pool.submit(() -> IntStream.range(0, count).parallel()
+                    .mapToObj(index -> leaf(channel, (long) index * chunkSize, (int) Math.min(chunkSize, size - (long) index * chunkSize)))
+                    .toArray(byte[][]::new)).get();
+
+            final MessageDigest digest = localDigest();
+            while (nodes.length > 1) {
+                final byte[][] parents = new byte[(nodes.length + 1) / 2][];
+                for (int i = 0; i < parents.length; i++) {
+                    if (2 * i + 1 < nodes.length) {
+                        digest.update(NODE);
+                        digest.update(nodes[2 * i]);
+                        digest.update(nodes[2 * i + 1]);
+                        parents[i] = digest.digest();
+                    } else {
+                        parents[i] = nodes[2 * i];
+                    }
+                }
+                nodes = parents;
+            }
+            return nodes[0];
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InstrumentException(e);
+        } catch (Exception e) {
+            throw new InstrumentException(e.getCause() == null ? e : e.getCause());
         }
     }
 
@@ -322,18 +513,17 @@ public class Digester implements Serializable {
             bufferLength = IoKit.DEFAULT_BUFFER_SIZE;
         }
 
-        byte[] result;
         try {
-            if (ArrayKit.isEmpty(this.salt)) {
-                result = digestWithoutSalt(data, bufferLength);
-            } else {
-                result = digestWithSalt(data, bufferLength);
+            final byte[] buffer = new byte[bufferLength];
+            int read;
+            while ((read = data.read(buffer, 0, bufferLength)) > -1) {
+                update(buffer, 0, read);
             }
         } catch (IOException e) {
             throw new InstrumentException(e);
         }
 
-        return resetAndRepeatDigest(result);
+        return doFinal();
     }
 
     /**
@@ -367,59 +557,53 @@ public class Digester implements Serializable {
     }
 
     /**
-     * 生成摘要
+     * 计算一个分块的叶子摘要,分块以只读方式映射到内存
      *
-     * @param data         {@link InputStream} 数据流
-     * @param bufferLength 缓存长度，不足1使用 {@link IoKit#DEFAULT_BUFFER_SIZE} 做为默认值
-     * @return 摘要bytes
-     * @throws IOException 从流中读取数据引发的IO异常
+     * @param channel 文件
+     * @param offset  分块位置
+     * @param length  分块长度
+     * @return 叶子摘要
      */
-    private byte[] digestWithoutSalt(InputStream data, int bufferLength) throws IOException {
-        final byte[] buffer = new byte[bufferLength];
-        int read;
-        while ((read = data.read(buffer, 0, bufferLength)) > -1) {
-            this.digest.update(buffer, 0, read);
+    private byte[] leaf(FileChannel channel, long offset, int length) {
+        final MessageDigest digest = localDigest();
+        digest.update(LEAF);
+        if (length > 0) {
+            try {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+            } catch (IOException e) {
+                throw new InstrumentException(e);
+            }
         }
-        return this.digest.digest();
+        return digest.digest();
     }
 
     /**
-     * 生成摘要
+     * 获得当前线程的{@link MessageDigest},与{@link #digest}算法相同
      *
-     * @param data         {@link InputStream} 数据流
-     * @param bufferLength 缓存长度，不足1使用 {@link IoKit#DEFAULT_BUFFER_SIZE} 做为默认值
-     * @return 摘要bytes
-     * @throws IOException 从流中读取数据引发的IO异常
+     * @return {@link MessageDigest}
      */
-    private byte[] digestWithSalt(InputStream data, int bufferLength) throws IOException {
-        if (this.saltPosition <= 0) {
-            // 加盐在开头
-            this.digest.update(this.salt);
-        }
-
-        final byte[] buffer = new byte[bufferLength];
-        int total = 0;
-        int read;
-        while ((read = data.read(buffer, 0, bufferLength)) > -1) {
-            total += read;
-            if (this.saltPosition > 0 && total >= this.saltPosition) {
-                if (total != this.saltPosition) {
-                    digest.update(buffer, 0, total - this.saltPosition);
+    private MessageDigest localDigest() {
+        ThreadLocal<MessageDigest> digests = this.digests;
+        if (null == digests) {
+            synchronized (this) {
+                if (null == this.digests) {
+                    this.digests = new ThreadLocal<>();
                 }
-                // 加盐在中间
-                this.digest.update(this.salt);
-                this.digest.update(buffer, total - this.saltPosition, read);
-            } else {
-                this.digest.update(buffer, 0, read);
+                digests = this.digests;
             }
         }
-
-        if (total < this.saltPosition) {
-            // 加盐在末尾
-            this.digest.update(this.salt);
+        MessageDigest digest = digests.get();
+        if (null == digest) {
+            try {
+                digest = null == this.provider ? Builder.createMessageDigest(this.algorithm)
+                        : MessageDigest.getInstance(this.algorithm, this.provider);
+            } catch (NoSuchAlgorithmException e) {
+                throw new InstrumentException(e);
+            }
+            digests.set(digest);
         }
-
-        return this.digest.digest();
+        digest.reset();
+        return digest;
     }
 
     /**
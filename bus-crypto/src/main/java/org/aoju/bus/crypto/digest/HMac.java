@@ -25,10 +25,11 @@
  ********************************************************************************/
 package org.aoju.bus.crypto.digest;
 
+import org.aoju.bus.core.io.Buffer;
+import org.aoju.bus.core.io.Segment;
 import org.aoju.bus.core.lang.Algorithm;
 import org.aoju.bus.core.lang.Charset;
 import org.aoju.bus.core.lang.exception.InstrumentException;
-import org.aoju.bus.core.toolkit.FileKit;
 import org.aoju.bus.core.toolkit.HexKit;
 import org.aoju.bus.core.toolkit.IoKit;
 import org.aoju.bus.core.toolkit.StringKit;
@@ -36,10 +37,13 @@ import org.aoju.bus.crypto.digest.mac.MacEngine;
 import org.aoju.bus.crypto.digest.mac.MacEngineFactory;
 
 import javax.crypto.spec.SecretKeySpec;
-import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.security.Key;
 
 /**
@@ -49,6 +53,8 @@ import java.security.Key;
  * 一般的，消息鉴别码用于验证传输于两个共 同享有一个密钥的单位之间的消息。
  * HMAC 可以与任何迭代散列函数捆绑使用。MD5 和 SHA-1 就是这种散列函数。HMAC 还可以使用一个用于计算和确认消息鉴别值的密钥。
  * 注意：此对象实例化后为非线程安全！
+ * 引擎支持{@link MacEngine#copy()}时,一次性的摘要方法在每个线程中使用独立的引擎,可以并发调用;
+ * 增量摘要方法({@link #update(byte[])}、{@link #doFinal()}等)始终使用同一个引擎
  *
  * @author Kimi Liu
  * @version 6.1.6
@@ -57,8 +63,16 @@ import java.security.Key;
 public class HMac implements Serializable {
 
     private static final long serialVersionUID = 1L;
+    /**
+     * 文件摘要的读取缓存大小
+     */
+    private static final int FILE_BUFFER_SIZE = 1024 * 1024;
 
     private MacEngine engine;
+    /**
+     * 一次性摘要时每个线程独立的{@link MacEngine}
+     */
+    private transient ThreadLocal<MacEngine> engines;
 
     /**
      * 构造，自动生成密钥
@@ -142,19 +156,25 @@ public class HMac implements Serializable {
 
     /**
      * 生成文件摘要
-     * 使用默认缓存大小，见 {@link IoKit#DEFAULT_BUFFER_SIZE}
+     * 使用{@link FileChannel}按1MB的缓存读取
      *
      * @param file 被摘要文件
      * @return 摘要bytes
      * @throws InstrumentException Cause by IOException
      */
     public byte[] digest(File file) throws InstrumentException {
-        InputStream in = null;
-        try {
-            in = FileKit.getInputStream(file);
-            return digest(in);
-        } finally {
-            IoKit.close(in);
+        final MacEngine engine = localEngine();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(FILE_BUFFER_SIZE, Math.max(1, channel.size())));
+            while (channel.read(buffer) > -1) {
+                buffer.flip();
+                update(engine, buffer);
+                buffer.clear();
+            }
+            return engine.doFinal();
+        } catch (IOException e) {
+            engine.reset();
+            throw new InstrumentException(e);
         }
     }
 
@@ -176,7 +196,9 @@ public class HMac implements Serializable {
      * @return 摘要bytes
      */
     public byte[] digest(byte[] data) {
-        return digest(new ByteArrayInputStream(data), -1);
+        final MacEngine engine = localEngine();
+        engine.update(data, 0, data.length);
+        return engine.doFinal();
     }
 
     /**
@@ -218,7 +240,7 @@ public class HMac implements Serializable {
      * @return 摘要bytes
      */
     public byte[] digest(InputStream data, int bufferLength) {
-        return this.engine.digest(data, bufferLength);
+        return localEngine().digest(data, bufferLength);
     }
 
     /**
@@ -233,6 +255,78 @@ public class HMac implements Serializable {
         return HexKit.encodeHexStr(digest(data, bufferLength));
     }
 
+    /**
+     * 增量加入数据,加入完成后调用{@link #doFinal()}获得摘要
+     *
+     * @param data 数据
+     * @return this
+     */
+    public HMac update(byte[] data) {
+        return update(data, 0, data.length);
+    }
+
+    /**
+     * 增量加入数据,加入完成后调用{@link #doFinal()}获得摘要
+     *
+     * @param data   数据
+     * @param offset 开始位置
+     * @param length 长度
+     * @return this
+     */
+    public HMac update(byte[] data, int offset, int length) {
+        this.engine.update(data, offset, length);
+        return this;
+    }
+
+    /**
+     * 增量加入数据,加入完成后调用{@link #doFinal()}获得摘要
+     * 堆内缓存直接读取其数组,不会复制
+     *
+     * @param data 数据,读取其position到limit之间的内容
+     * @return this
+     */
+    public HMac update(ByteBuffer data) {
+        update(this.engine, data);
+        return this;
+    }
+
+    /**
+     * 增量加入{@link Buffer}中的全部数据,直接读取其内部数据段,不会复制或消费数据
+     *
+     * @param data {@link Buffer}
+     * @return this
+     */
+    public HMac update(Buffer data) {
+        final Segment head = data.head;
+        if (null != head) {
+            Segment segment = head;
+            do {
+                this.engine.update(segment.data, segment.pos, segment.limit - segment.pos);
+                segment = segment.next;
+            } while (segment != head);
+        }
+        return this;
+    }
+
+    /**
+     * 完成增量摘要,完成后状态被重置
+     *
+     * @return 摘要
+     */
+    public byte[] doFinal() {
+        return this.engine.doFinal();
+    }
+
+    /**
+     * 重置,丢弃已加入的数据
+     *
+     * @return this
+     */
+    public HMac reset() {
+        this.engine.reset();
+        return this;
+    }
+
     /**
      * 获取MAC算法块长度
      *
@@ -251,4 +345,51 @@ public class HMac implements Serializable {
         return this.engine.getAlgorithm();
     }
 
+    /**
+     * 获得当前线程用于一次性摘要的{@link MacEngine},引擎不支持复制时使用共享的引擎
+     *
+     * @return {@link MacEngine}
+     */
+    private MacEngine localEngine() {
+        ThreadLocal<MacEngine> engines = this.engines;
+        if (null == engines) {
+            synchronized (this) {
+                if (null == this.engines) {
+                    this.engines = new ThreadLocal<>();
+                }
+                engines = this.engines;
+            }
+        }
+        MacEngine engine = engines.get();
+        if (null == engine) {
+            engine = this.engine.copy();
+            if (null == engine) {
+                return this.engine;
+            }
+            engines.set(engine);
+        }
+        engine.reset();
+        return engine;
+    }
+
+    /**
+     * 将{@link ByteBuffer}中的数据加入引擎,堆内缓存直接读取其数组,不会复制
+     *
+     * @param engine 引擎
+     * @param data   数据,读取其position到limit之间的内容
+     */
+    private static void update(MacEngine engine, ByteBuffer data) {
+        if (data.hasArray()) {
+            engine.update(data.array(), data.arrayOffset() + data.position(), data.remaining());
+            data.position(data.limit());
+        } else {
+            final byte[] buffer = new byte[Math.min(data.remaining(), IoKit.DEFAULT_BUFFER_SIZE)];
+            while (data.hasRemaining()) {
+                final int length = Math.min(data.remaining(), buffer.length);
+                data.get(buffer, 0, length);
+                engine.update(buffer, 0, length);
+            }
+        }
+    }
+
 }
@@ -25,16 +25,12 @@
  ********************************************************************************/
 package org.aoju.bus.crypto.digest.mac;
 
-import org.aoju.bus.core.lang.exception.InstrumentException;
-import org.aoju.bus.core.toolkit.IoKit;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.Digest;
 import org.bouncycastle.crypto.Mac;
 import org.bouncycastle.crypto.macs.HMac;
 import org.bouncycastle.crypto.params.KeyParameter;
-
-import java.io.IOException;
-import java.io.InputStream;
+import org.bouncycastle.util.Memoable;
 
 /**
  * BouncyCastle的HMAC算法实现引擎，使用{@link Mac} 实现摘要
@@ -47,6 +43,8 @@ import java.io.InputStream;
 public class BCHMacEngine implements MacEngine {
 
     private Mac mac;
+    private Digest digest;
+    private CipherParameters params;
 
     /**
      * 构造
@@ -78,32 +76,34 @@ public class BCHMacEngine implements MacEngine {
     public BCHMacEngine init(Digest digest, CipherParameters params) {
         mac = new HMac(digest);
         mac.init(params);
+        this.digest = digest;
+        this.params = params;
         return this;
     }
 
     @Override
-    public byte[] digest(InputStream data, int bufferLength) {
-        if (bufferLength < 1) {
-            bufferLength = IoKit.DEFAULT_BUFFER_SIZE;
-        }
-        final byte[] buffer = new byte[bufferLength];
+    public void update(byte[] in, int inOff, int len) {
+        mac.update(in, inOff, len);
+    }
 
-        byte[] result;
-        try {
-            int read = data.read(buffer, 0, bufferLength);
+    @Override
+    public byte[] doFinal() {
+        final byte[] result = new byte[this.mac.getMacSize()];
+        mac.doFinal(result, 0);
+        return result;
+    }
 
-            while (read > -1) {
-                mac.update(buffer, 0, read);
-                read = data.read(buffer, 0, bufferLength);
-            }
-            result = new byte[this.mac.getMacSize()];
-            mac.doFinal(result, 0);
-        } catch (IOException e) {
-            throw new InstrumentException(e);
-        } finally {
-            mac.reset();
+    @Override
+    public void reset() {
+        mac.reset();
+    }
+
+    @Override
+    public MacEngine copy() {
+        if (digest instanceof Memoable) {
+            return new BCHMacEngine((Digest) ((Memoable) digest).copy(), params);
         }
-        return result;
+        return null;
     }
 
     /**
@@ -26,14 +26,11 @@
 package org.aoju.bus.crypto.digest.mac;
 
 import org.aoju.bus.core.lang.exception.InstrumentException;
-import org.aoju.bus.core.toolkit.IoKit;
 import org.aoju.bus.crypto.Builder;
 
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
-import java.io.IOException;
-import java.io.InputStream;
 import java.security.Key;
 
 /**
@@ -47,6 +44,8 @@ import java.security.Key;
 public class DefaultHMacEngine implements MacEngine {
 
     private Mac mac;
+    private String algorithm;
+    private Key key;
 
     /**
      * 构造
@@ -94,6 +93,8 @@ public class DefaultHMacEngine implements MacEngine {
                 key = Builder.generateKey(algorithm);
             }
             mac.init(key);
+            this.algorithm = algorithm;
+            this.key = key;
         } catch (Exception e) {
             throw new InstrumentException(e);
         }
@@ -101,27 +102,23 @@ public class DefaultHMacEngine implements MacEngine {
     }
 
     @Override
-    public byte[] digest(InputStream data, int bufferLength) {
-        if (bufferLength < 1) {
-            bufferLength = IoKit.DEFAULT_BUFFER_SIZE;
-        }
-        byte[] buffer = new byte[bufferLength];
+    public void update(byte[] in, int inOff, int len) {
+        mac.update(in, inOff, len);
+    }
 
-        byte[] result;
-        try {
-            int read = data.read(buffer, 0, bufferLength);
+    @Override
+    public byte[] doFinal() {
+        return mac.doFinal();
+    }
 
-            while (read > -1) {
-                mac.update(buffer, 0, read);
-                read = data.read(buffer, 0, bufferLength);
-            }
-            result = mac.doFinal();
-        } catch (IOException e) {
-            throw new InstrumentException(e);
-        } finally {
-            mac.reset();
-        }
-        return result;
+    @Override
+    public void reset() {
+        mac.reset();
+    }
+
+    @Override
+    public MacEngine copy() {
+        return new DefaultHMacEngine(algorithm, key);
     }
 
     /**
@@ -25,12 +25,16 @@
  ********************************************************************************/
 package org.aoju.bus.crypto.digest.mac;
 
+import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.IoKit;
 
+import java.io.IOException;
 import java.io.InputStream;
 
 /**
  * MAC(Message Authentication Code)算法引擎
+ * 实现类需要实现增量方法({@link #update}、{@link #doFinal()}、{@link #reset()}),
+ * 或者覆盖{@link #digest(InputStream, int)}
  *
  * @author Kimi Liu
  * @version 6.1.6
@@ -45,7 +49,64 @@ public interface MacEngine {
      * @param bufferLength 缓存长度，不足1使用 {@link  IoKit#DEFAULT_BUFFER_SIZE} 做为默认值
      * @return 摘要bytes
      */
-    byte[] digest(InputStream data, int bufferLength);
+    default byte[] digest(InputStream data, int bufferLength) {
+        if (bufferLength < 1) {
+            bufferLength = IoKit.DEFAULT_BUFFER_SIZE;
+        }
+        final byte[] buffer = new byte[bufferLength];
+
+        byte[] result;
+        try {
+            int read = data.read(buffer, 0, bufferLength);
+
+            while (read > -1) {
+                update(buffer, 0, read);
+                read = data.read(buffer, 0, bufferLength);
+            }
+            result = doFinal();
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        } finally {
+            reset();
+        }
+        return result;
+    }
+
+    /**
+     * 增量加入数据
+     *
+     * @param in    数据
+     * @param inOff 开始位置
+     * @param len   长度
+     */
+    default void update(byte[] in, int inOff, int len) {
+        throw new UnsupportedOperationException("Incremental update is not supported by " + getClass().getName());
+    }
+
+    /**
+     * 结束数据并生成摘要,完成后状态被重置
+     *
+     * @return 摘要bytes
+     */
+    default byte[] doFinal() {
+        throw new UnsupportedOperationException("Incremental update is not supported by " + getClass().getName());
+    }
+
+    /**
+     * 重置,丢弃已加入的数据
+     */
+    default void reset() {
+
+    }
+
+    /**
+     * 复制一个使用相同算法和密钥、处于初始状态的引擎,用于在其他线程中独立计算
+     *
+     * @return 新的引擎,不支持复制时为null
+     */
+    default MacEngine copy() {
+        return null;
+    }
 
 
     /**
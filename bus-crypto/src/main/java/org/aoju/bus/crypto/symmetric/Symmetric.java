@@ -37,11 +37,10 @@ import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.PBEParameterSpec;
-import java.io.InputStream;
-import java.io.Serializable;
+import java.io.*;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
 import java.security.spec.AlgorithmParameterSpec;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 对称加密算法
@@ -62,9 +61,14 @@ public class Symmetric implements Serializable {
      */
     private SecretKey secretKey;
     /**
-     * Cipher负责完成加密或解密工作
+     * 算法,ZeroPadding已替换为NoPadding
      */
-    private Cipher cipher;
+    private String algorithm;
+    /**
+     * 每个线程独立的Cipher,负责完成加密或解密工作
+     * Cipher非线程安全,按线程持有可避免共享实例的加锁竞争
+     */
+    private transient ThreadLocal<Cipher> ciphers;
     /**
      * 加密解密参数
      */
@@ -73,7 +77,6 @@ public class Symmetric implements Serializable {
      * 是否0填充
      */
     private boolean isZeroPadding;
-    private Lock lock = new ReentrantLock();
 
     /**
      * 构造，使用随机密钥
@@ -140,7 +143,11 @@ public class Symmetric implements Serializable {
             this.isZeroPadding = true;
         }
 
-        this.cipher = Builder.createCipher(algorithm);
+        this.algorithm = algorithm;
+        final Cipher cipher = Builder.createCipher(algorithm);
+        final ThreadLocal<Cipher> ciphers = new ThreadLocal<>();
+        ciphers.set(cipher);
+        this.ciphers = ciphers;
         return this;
     }
 
@@ -185,18 +192,49 @@ public class Symmetric implements Serializable {
      * @return 加密后的bytes
      */
     public byte[] encrypt(byte[] data) {
-        lock.lock();
         try {
-            if (null == this.params) {
-                cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-            } else {
-                cipher.init(Cipher.ENCRYPT_MODE, secretKey, params);
-            }
+            final Cipher cipher = initCipher(Cipher.ENCRYPT_MODE);
             return cipher.doFinal(paddingDataWithZero(data, cipher.getBlockSize()));
         } catch (Exception e) {
             throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 加密,按块读取数据并写出密文,不会将整个流读入内存
+     *
+     * @param data    被加密的流
+     * @param out     输出流,可以是文件或网络位置
+     * @param isClose 是否关闭流
+     * @throws InstrumentException IO异常
+     */
+    public void encrypt(InputStream data, OutputStream out, boolean isClose) throws InstrumentException {
+        try {
+            final Cipher cipher = initCipher(Cipher.ENCRYPT_MODE);
+            final byte[] buffer = new byte[IoKit.DEFAULT_BUFFER_SIZE];
+            long length = 0;
+            int read;
+            while ((read = data.read(buffer)) > -1) {
+                length += read;
+                write(out, cipher.update(buffer, 0, read));
+            }
+            final int blockSize = cipher.getBlockSize();
+            if (this.isZeroPadding && blockSize > 0) {
+                // 按照块拆分后的数据中多余的数据,补0至blockSize的整数倍
+                final int remainLength = (int) (length % blockSize);
+                if (remainLength > 0) {
+                    write(out, cipher.update(new byte[blockSize - remainLength]));
+                }
+            }
+            write(out, cipher.doFinal());
+            out.flush();
+        } catch (Exception e) {
+            throw new InstrumentException(e);
         } finally {
-            lock.unlock();
+            if (isClose) {
+                IoKit.close(data);
+                IoKit.close(out);
+            }
         }
     }
 
@@ -324,7 +362,9 @@ public class Symmetric implements Serializable {
      * @throws InstrumentException IO异常
      */
     public byte[] encrypt(InputStream data) throws InstrumentException {
-        return encrypt(IoKit.readBytes(data));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encrypt(data, out, true);
+        return out.toByteArray();
     }
 
     /**
@@ -357,24 +397,47 @@ public class Symmetric implements Serializable {
         final int blockSize;
         final byte[] decryptData;
 
-        lock.lock();
         try {
-            if (null == this.params) {
-                cipher.init(Cipher.DECRYPT_MODE, secretKey);
-            } else {
-                cipher.init(Cipher.DECRYPT_MODE, secretKey, params);
-            }
+            final Cipher cipher = initCipher(Cipher.DECRYPT_MODE);
             blockSize = cipher.getBlockSize();
             decryptData = cipher.doFinal(bytes);
         } catch (Exception e) {
             throw new InstrumentException(e);
-        } finally {
-            lock.unlock();
         }
 
         return removePadding(decryptData, blockSize);
     }
 
+    /**
+     * 解密,按块读取密文并写出明文,不会将整个流读入内存
+     *
+     * @param data    被解密的流
+     * @param out     输出流,可以是文件或网络位置
+     * @param isClose 是否关闭流
+     * @throws InstrumentException IO异常
+     */
+    public void decrypt(InputStream data, OutputStream out, boolean isClose) throws InstrumentException {
+        try {
+            final Cipher cipher = initCipher(Cipher.DECRYPT_MODE);
+            final byte[] buffer = new byte[IoKit.DEFAULT_BUFFER_SIZE];
+            // ZeroPadding模式下末尾连续的0可能是填充,待后续出现非0数据时再写出
+            long zeros = 0;
+            int read;
+            while ((read = data.read(buffer)) > -1) {
+                zeros = writeWithoutPadding(out, cipher.update(buffer, 0, read), zeros);
+            }
+            writeWithoutPadding(out, cipher.doFinal(), zeros);
+            out.flush();
+        } catch (Exception e) {
+            throw new InstrumentException(e);
+        } finally {
+            if (isClose) {
+                IoKit.close(data);
+                IoKit.close(out);
+            }
+        }
+    }
+
     /**
      * 解密为字符串
      *
@@ -428,18 +491,20 @@ public class Symmetric implements Serializable {
     }
 
     /**
-     * 解密，不会关闭流
+     * 解密，完成后关闭流
      *
      * @param data 被解密的bytes
      * @return 解密后的bytes
      * @throws InstrumentException IO异常
      */
     public byte[] decrypt(InputStream data) throws InstrumentException {
-        return decrypt(IoKit.readBytes(data));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        decrypt(data, out, true);
+        return out.toByteArray();
     }
 
     /**
-     * 解密，不会关闭流
+     * 解密，完成后关闭流
      *
      * @param data    被解密的InputStream
      * @param charset 解密后的charset
@@ -469,14 +534,94 @@ public class Symmetric implements Serializable {
     }
 
     /**
-     * 获得加密或解密器
+     * 获得当前线程的加密或解密器
      *
      * @return 加密或解密
      */
     public Cipher getCipher() {
+        ThreadLocal<Cipher> ciphers = this.ciphers;
+        if (null == ciphers) {
+            // 反序列化后重新创建
+            synchronized (this) {
+                if (null == this.ciphers) {
+                    this.ciphers = new ThreadLocal<>();
+                }
+                ciphers = this.ciphers;
+            }
+        }
+        Cipher cipher = ciphers.get();
+        if (null == cipher) {
+            cipher = Builder.createCipher(this.algorithm);
+            ciphers.set(cipher);
+        }
         return cipher;
     }
 
+    /**
+     * 使用密钥和参数初始化当前线程的{@link Cipher}
+     *
+     * @param mode 模式,{@link Cipher#ENCRYPT_MODE}或{@link Cipher#DECRYPT_MODE}
+     * @return {@link Cipher}
+     * @throws InvalidKeyException                密钥无效
+     * @throws InvalidAlgorithmParameterException 参数无效
+     */
+    private Cipher initCipher(int mode) throws InvalidKeyException, InvalidAlgorithmParameterException {
+        final Cipher cipher = getCipher();
+        if (null == this.params) {
+            cipher.init(mode, secretKey);
+        } else {
+            cipher.init(mode, secretKey, params);
+        }
+        return cipher;
+    }
+
+    /**
+     * 写出数据
+     *
+     * @param out  输出流
+     * @param data 数据,可能为{@code null}
+     * @throws IOException IO异常
+     */
+    private static void write(OutputStream out, byte[] data) throws IOException {
+        if (null != data && data.length > 0) {
+            out.write(data);
+        }
+    }
+
+    /**
+     * 写出解密后的数据,ZeroPadding模式下保留末尾连续的0,直到确认其不是填充
+     *
+     * @param out   输出流
+     * @param data  解密后的数据
+     * @param zeros 之前保留的0的个数
+     * @return 当前保留的0的个数
+     * @throws IOException IO异常
+     */
+    private long writeWithoutPadding(OutputStream out, byte[] data, long zeros) throws IOException {
+        if (null == data || data.length == 0) {
+            return zeros;
+        }
+        if (!this.isZeroPadding) {
+            out.write(data);
+            return 0;
+        }
+        int end = data.length;
+        while (end > 0 && 0 == data[end - 1]) {
+            end--;
+        }
+        if (end == 0) {
+            return zeros + data.length;
+        }
+        final byte[] padding = new byte[(int) Math.min(zeros, IoKit.DEFAULT_BUFFER_SIZE)];
+        while (zeros > 0) {
+            final int length = (int) Math.min(zeros, padding.length);
+            out.write(padding, 0, length);
+            zeros -= length;
+        }
+        out.write(data, 0, end);
+        return data.length - end;
+    }
+
     /**
      * 数据按照blockSize的整数倍长度填充填充0
      *
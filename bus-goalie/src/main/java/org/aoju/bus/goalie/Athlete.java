@@ -31,7 +31,10 @@ import org.aoju.bus.logger.Logger;
 import reactor.netty.DisposableServer;
 import reactor.netty.http.server.HttpServer;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -46,6 +49,10 @@ public class Athlete {
     private final HttpServer httpServer;
     private final Set<Assets> assets = new ConcurrentHashSet<>();
     private final List<Registry> assetRegistries;
+    /**
+     * 路由索引 method -> version -> assets，每次变更时整体重建并替换，查询无需加锁
+     */
+    private volatile Map<String, Map<String, Assets>> index = Collections.emptyMap();
     private DisposableServer disposableServer;
 
     public Athlete(HttpServer httpServer, List<Registry> assetRegistries) {
@@ -57,24 +64,56 @@ public class Athlete {
         return assets;
     }
 
-    public boolean addAssets(Assets assets) {
-        return this.assets.add(assets);
+    /**
+     * 按方法名查找路由
+     *
+     * @param method 方法名
+     * @return 版本号到路由的映射，不存在时返回null
+     */
+    public Map<String, Assets> getAssets(String method) {
+        return index.get(method);
     }
 
-    public boolean amendAssets(Assets assets) {
+    /**
+     * 按方法名和版本号查找路由
+     *
+     * @param method  方法名
+     * @param version 版本号
+     * @return 路由，不存在时返回null
+     */
+    public Assets getAssets(String method, String version) {
+        Map<String, Assets> versions = index.get(method);
+        return null == versions ? null : versions.get(version);
+    }
+
+    public synchronized boolean addAssets(Assets assets) {
+        boolean added = this.assets.add(assets);
+        if (added) {
+            reindex();
+        }
+        return added;
+    }
+
+    public synchronized boolean amendAssets(Assets assets) {
         if (this.assets.contains(assets)) {
             this.assets.remove(assets);
-            return this.assets.add(assets);
+            boolean added = this.assets.add(assets);
+            reindex();
+            return added;
         } else {
             return false;
         }
     }
 
-    public boolean removeAssets(Assets assets) {
-        return this.assets.remove(assets);
+    public synchronized boolean removeAssets(Assets assets) {
+        boolean removed = this.assets.remove(assets);
+        if (removed) {
+            reindex();
+        }
+        return removed;
     }
 
-    public void refreshAssets() {
+    public synchronized void refreshAssets() {
         assets.clear();
         if (CollKit.isNotEmpty(assetRegistries)) {
             assetRegistries.forEach(registry -> {
@@ -82,6 +121,21 @@ public class Athlete {
                 registry.setAthlete(this);
             });
         }
+        reindex();
+    }
+
+    /**
+     * 根据当前路由重建索引，并以新索引整体替换旧索引
+     */
+    private void reindex() {
+        Map<String, Map<String, Assets>> methods = new HashMap<>();
+        for (Assets asset : assets) {
+            methods.computeIfAbsent(asset.getMethod(), k -> new HashMap<>())
+                    .putIfAbsent(asset.getVersion(), asset);
+        }
+        Map<String, Map<String, Assets>> index = new HashMap<>(methods.size() * 4 / 3 + 1);
+        methods.forEach((method, versions) -> index.put(method, Collections.unmodifiableMap(versions)));
+        this.index = Collections.unmodifiableMap(index);
     }
 
     private void init() {
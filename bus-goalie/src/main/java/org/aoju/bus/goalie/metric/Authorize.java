@@ -1,5 +1,8 @@
 package org.aoju.bus.goalie.metric;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 /**
  * 访问授权认证
  */
@@ -15,4 +18,16 @@ public interface Authorize {
         return new Delegate();
     }
 
+    /**
+     * 非阻塞认证接口,网关在事件循环线程上调用该方法
+     * 默认在弹性线程池中执行{@link #authorize(String)},远程校验令牌的实现应当覆盖该方法,
+     * 使用非阻塞客户端直接返回结果
+     *
+     * @param token 授权令牌
+     * @return OAuth2
+     */
+    default Mono<Delegate> authorizeAsync(String token) {
+        return Mono.fromCallable(() -> authorize(token)).subscribeOn(Schedulers.boundedElastic());
+    }
+
 }
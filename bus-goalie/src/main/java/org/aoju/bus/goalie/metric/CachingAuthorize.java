@@ -0,0 +1,162 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.goalie.metric;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 带本地缓存的访问授权认证
+ * 校验通过的令牌在有效期内直接返回缓存结果,校验未通过的令牌按较短的有效期缓存,
+ * 避免无效令牌反复触发远程校验;同一令牌的并发校验只会调用一次被包装的认证
+ * 缓存数量超过上限时先清理过期的令牌,仍然超出时随机淘汰一部分
+ *
+ * @author Justubborn
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public class CachingAuthorize implements Authorize {
+
+    private final Authorize authorize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final int maximumSize;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final Map<String, Mono<Delegate>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param authorize   被包装的认证
+     * @param ttl         校验通过的令牌缓存时间
+     * @param negativeTtl 校验未通过的令牌缓存时间,为0时不缓存
+     * @param maximumSize 最多缓存的令牌数
+     */
+    public CachingAuthorize(Authorize authorize, Duration ttl, Duration negativeTtl, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize <= 0: " + maximumSize);
+        }
+        this.authorize = authorize;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public Delegate authorize(String token) {
+        if (null == token) {
+            return authorize.authorize(null);
+        }
+        Delegate cached = lookup(token);
+        if (null != cached) {
+            return cached;
+        }
+        Delegate delegate = authorize.authorize(token);
+        store(token, delegate);
+        return delegate;
+    }
+
+    @Override
+    public Mono<Delegate> authorizeAsync(String token) {
+        if (null == token) {
+            return authorize.authorizeAsync(null);
+        }
+        Delegate cached = lookup(token);
+        if (null != cached) {
+            return Mono.just(cached);
+        }
+        return inFlight.computeIfAbsent(token, key -> authorize.authorizeAsync(key)
+                .doOnNext(delegate -> store(key, delegate))
+                .doFinally(signal -> inFlight.remove(key))
+                .cache());
+    }
+
+    /**
+     * 使令牌的缓存失效,例如令牌被注销时
+     *
+     * @param token 授权令牌
+     */
+    public void invalidate(String token) {
+        cache.remove(token);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    private Delegate lookup(String token) {
+        Entry entry = cache.get(token);
+        if (null == entry) {
+            return null;
+        }
+        if (entry.expiresAtNanos - System.nanoTime() <= 0) {
+            cache.remove(token, entry);
+            return null;
+        }
+        return entry.delegate;
+    }
+
+    private void store(String token, Delegate delegate) {
+        if (null == delegate || null == delegate.getMessage()) {
+            return;
+        }
+        long ttl = delegate.isOk() ? ttlNanos : negativeTtlNanos;
+        if (ttl <= 0) {
+            return;
+        }
+        if (cache.size() >= maximumSize) {
+            evict();
+        }
+        cache.put(token, new Entry(delegate, System.nanoTime() + ttl));
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        cache.values().removeIf(entry -> entry.expiresAtNanos - now <= 0);
+        int excess = cache.size() - maximumSize + Math.max(1, maximumSize / 10);
+        for (Iterator<String> it = cache.keySet().iterator(); excess > 0 && it.hasNext(); excess--) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static class Entry {
+
+        final Delegate delegate;
+        final long expiresAtNanos;
+
+        Entry(Delegate delegate, long expiresAtNanos) {
+            this.delegate = delegate;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+}
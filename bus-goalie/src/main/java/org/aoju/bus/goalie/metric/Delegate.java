@@ -25,10 +25,19 @@
  ********************************************************************************/
 package org.aoju.bus.goalie.metric;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 import org.aoju.bus.base.consts.Consts;
 import org.aoju.bus.base.entity.Message;
 import org.aoju.bus.base.entity.OAuth2;
+import org.aoju.bus.core.toolkit.BeanKit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 认证及委托处理
@@ -42,9 +51,63 @@ public class Delegate {
 
     private Message message;
     private OAuth2 oAuth2;
+    /**
+     * 授权信息转换后的请求参数,第一次使用时计算
+     */
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient volatile Map<String, String> params;
 
     public boolean isOk() {
         return Consts.STATUS_ZERO.equals(message.getErrcode());
     }
 
+    public void setOAuth2(OAuth2 oAuth2) {
+        this.oAuth2 = oAuth2;
+        this.params = null;
+    }
+
+    /**
+     * 授权信息中非空的属性,用于填充请求参数
+     * 同一个委托对象只计算一次,缓存的委托对象可以在多个请求间共享
+     *
+     * @return 参数(只读)
+     */
+    public Map<String, String> getParams() {
+        Map<String, String> params = this.params;
+        if (null == params) {
+            params = Collections.unmodifiableMap(toParams(oAuth2));
+            this.params = params;
+        }
+        return params;
+    }
+
+    private static Map<String, String> toParams(OAuth2 oAuth2) {
+        Map<String, String> params = new HashMap<>();
+        if (null == oAuth2) {
+            return params;
+        }
+        if (OAuth2.class != oAuth2.getClass()) {
+            // 扩展的授权信息无法预先知道属性,按属性反射转换
+            BeanKit.beanToMap(oAuth2, false, true).forEach((k, v) -> params.put(k, v.toString()));
+            return params;
+        }
+        put(params, "id", oAuth2.getId());
+        put(params, "x_user_id", oAuth2.getX_user_id());
+        put(params, "x_user_name", oAuth2.getX_user_name());
+        put(params, "x_user_code", oAuth2.getX_user_code());
+        put(params, "x_role_id", oAuth2.getX_role_id());
+        put(params, "x_duty_id", oAuth2.getX_duty_id());
+        put(params, "x_org_id", oAuth2.getX_org_id());
+        put(params, "x_extract", oAuth2.getX_extract());
+        return params;
+    }
+
+    private static void put(Map<String, String> params, String key, String value) {
+        if (null != value) {
+            params.put(key, value);
+        }
+    }
+
 }
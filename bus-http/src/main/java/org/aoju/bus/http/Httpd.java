@@ -35,6 +35,10 @@ import org.aoju.bus.http.metric.CookieJar;
 import org.aoju.bus.http.metric.Dispatcher;
 import org.aoju.bus.http.metric.EventListener;
 import org.aoju.bus.http.metric.Interceptor;
+import org.aoju.bus.http.metric.coding.ContentCoding;
+import org.aoju.bus.http.metric.coding.ContentDecoding;
+import org.aoju.bus.http.metric.http.HedgePolicy;
+import org.aoju.bus.http.metric.http.RetryBudget;
 import org.aoju.bus.http.metric.proxy.NullProxySelector;
 import org.aoju.bus.http.secure.Authenticator;
 import org.aoju.bus.http.secure.CertificateChainCleaner;
@@ -42,6 +46,7 @@ import org.aoju.bus.http.secure.CertificatePinner;
 import org.aoju.bus.http.secure.HostnameVerifier;
 import org.aoju.bus.http.socket.RealWebSocket;
 import org.aoju.bus.http.socket.WebSocket;
+import org.aoju.bus.http.socket.WebSocketExtensions;
 import org.aoju.bus.http.socket.WebSocketListener;
 
 import javax.net.SocketFactory;
@@ -191,6 +196,18 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
     final boolean followSslRedirects;
     final boolean followRedirects;
     final boolean retryOnConnectionFailure;
+    /**
+     * 是否对多个地址进行连接竞速
+     */
+    final boolean fastFallback;
+    /**
+     * 幂等请求的对冲策略,为null时不对冲
+     */
+    final HedgePolicy hedgePolicy;
+    /**
+     * 重试和对冲请求的预算,为null时不限制
+     */
+    final RetryBudget retryBudget;
     /**
      * 默认调用超时(毫秒).
      */
@@ -211,6 +228,22 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
      * Web socket ping间隔(毫秒)
      */
     final int pingInterval;
+    /**
+     * Web socket 握手时请求的扩展
+     */
+    final WebSocketExtensions webSocketExtensions;
+    /**
+     * Web socket 消息压缩阈值(字节)
+     */
+    final long minWebSocketMessageToCompress;
+    /**
+     * 支持透明解码的响应内容编码
+     */
+    final List<ContentDecoding> contentCodings;
+    /**
+     * 请求体内容编码,为null时不压缩请求体
+     */
+    final ContentCoding requestCoding;
 
     public Httpd() {
         this(new Builder());
@@ -258,11 +291,18 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
         this.followSslRedirects = builder.followSslRedirects;
         this.followRedirects = builder.followRedirects;
         this.retryOnConnectionFailure = builder.retryOnConnectionFailure;
+        this.fastFallback = builder.fastFallback;
+        this.hedgePolicy = builder.hedgePolicy;
+        this.retryBudget = builder.retryBudget;
         this.callTimeout = builder.callTimeout;
         this.connectTimeout = builder.connectTimeout;
         this.readTimeout = builder.readTimeout;
         this.writeTimeout = builder.writeTimeout;
         this.pingInterval = builder.pingInterval;
+        this.webSocketExtensions = builder.webSocketExtensions;
+        this.minWebSocketMessageToCompress = builder.minWebSocketMessageToCompress;
+        this.contentCodings = org.aoju.bus.http.Builder.immutableList(builder.contentCodings);
+        this.requestCoding = builder.requestCoding;
 
         if (interceptors.contains(null)) {
             throw new IllegalStateException("Null interceptor: " + interceptors);
@@ -289,7 +329,8 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
 
     @Override
     public WebSocket newWebSocket(Request request, WebSocketListener listener) {
-        RealWebSocket webSocket = new RealWebSocket(request, listener, new Random(), pingInterval);
+        RealWebSocket webSocket = new RealWebSocket(request, listener, new Random(), pingInterval,
+                webSocketExtensions, minWebSocketMessageToCompress);
         webSocket.connect(this);
         return webSocket;
     }
@@ -315,6 +356,22 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
         return pingInterval;
     }
 
+    public WebSocketExtensions webSocketExtensions() {
+        return webSocketExtensions;
+    }
+
+    public long minWebSocketMessageToCompress() {
+        return minWebSocketMessageToCompress;
+    }
+
+    public List<ContentDecoding> contentCodings() {
+        return contentCodings;
+    }
+
+    public ContentCoding requestCoding() {
+        return requestCoding;
+    }
+
     public Proxy proxy() {
         return proxy;
     }
@@ -367,6 +424,27 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
         return connectionPool;
     }
 
+    /**
+     * 按当前客户端配置构造{@code url}对应的连接地址，相同配置下得到的地址可以共享连接池中的连接
+     *
+     * @param url URL信息
+     * @return 连接地址
+     */
+    public Address address(UnoUrl url) {
+        SSLSocketFactory sslSocketFactory = null;
+        javax.net.ssl.HostnameVerifier hostnameVerifier = null;
+        CertificatePinner certificatePinner = null;
+        if (url.isHttps()) {
+            sslSocketFactory = sslSocketFactory();
+            hostnameVerifier = hostnameVerifier();
+            certificatePinner = certificatePinner();
+        }
+
+        return new Address(url.host(), url.port(), dns(), socketFactory(),
+                sslSocketFactory, hostnameVerifier, certificatePinner, proxyAuthenticator(),
+                proxy(), protocols(), connectionSpecs(), proxySelector());
+    }
+
     public boolean followSslRedirects() {
         return followSslRedirects;
     }
@@ -379,6 +457,18 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
         return retryOnConnectionFailure;
     }
 
+    public boolean fastFallback() {
+        return fastFallback;
+    }
+
+    public HedgePolicy hedgePolicy() {
+        return hedgePolicy;
+    }
+
+    public RetryBudget retryBudget() {
+        return retryBudget;
+    }
+
     public Dispatcher dispatcher() {
         return dispatcher;
     }
@@ -433,11 +523,18 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
         boolean followSslRedirects;
         boolean followRedirects;
         boolean retryOnConnectionFailure;
+        boolean fastFallback;
+        HedgePolicy hedgePolicy;
+        RetryBudget retryBudget;
         int callTimeout;
         int connectTimeout;
         int readTimeout;
         int writeTimeout;
         int pingInterval;
+        WebSocketExtensions webSocketExtensions;
+        long minWebSocketMessageToCompress;
+        List<ContentDecoding> contentCodings;
+        ContentCoding requestCoding;
 
         public Builder() {
             dispatcher = new Dispatcher();
@@ -464,6 +561,9 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
             readTimeout = 10_000;
             writeTimeout = 10_000;
             pingInterval = 0;
+            webSocketExtensions = WebSocketExtensions.DEFAULT;
+            minWebSocketMessageToCompress = RealWebSocket.DEFAULT_MINIMUM_DEFLATE_SIZE;
+            contentCodings = ContentDecoding.available();
         }
 
         Builder(Httpd httpd) {
@@ -490,11 +590,18 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
             this.followSslRedirects = httpd.followSslRedirects;
             this.followRedirects = httpd.followRedirects;
             this.retryOnConnectionFailure = httpd.retryOnConnectionFailure;
+            this.fastFallback = httpd.fastFallback;
+            this.hedgePolicy = httpd.hedgePolicy;
+            this.retryBudget = httpd.retryBudget;
             this.callTimeout = httpd.callTimeout;
             this.connectTimeout = httpd.connectTimeout;
             this.readTimeout = httpd.readTimeout;
             this.writeTimeout = httpd.writeTimeout;
             this.pingInterval = httpd.pingInterval;
+            this.webSocketExtensions = httpd.webSocketExtensions;
+            this.minWebSocketMessageToCompress = httpd.minWebSocketMessageToCompress;
+            this.contentCodings = httpd.contentCodings;
+            this.requestCoding = httpd.requestCoding;
         }
 
         /**
@@ -620,6 +727,61 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
             return this;
         }
 
+        /**
+         * 设置web套接字握手时请求的扩展,默认请求permessage-deflate压缩
+         * 传入null则不请求任何扩展,消息以明文帧发送
+         *
+         * @param webSocketExtensions 扩展请求
+         * @return 构造器
+         * @see WebSocketExtensions#perMessageDeflate(boolean, boolean)
+         */
+        public Builder webSocketExtensions(WebSocketExtensions webSocketExtensions) {
+            this.webSocketExtensions = webSocketExtensions;
+            return this;
+        }
+
+        /**
+         * 设置web套接字消息的压缩阈值,小于该字节数的消息不压缩,设置为0则压缩全部消息
+         *
+         * @param bytes 压缩阈值
+         * @return 构造器
+         */
+        public Builder minWebSocketMessageToCompress(long bytes) {
+            if (bytes < 0) {
+                throw new IllegalArgumentException("minWebSocketMessageToCompress must be positive: " + bytes);
+            }
+            this.minWebSocketMessageToCompress = bytes;
+            return this;
+        }
+
+        /**
+         * 设置透明解码的响应内容编码,Accept-Encoding 头由此构建
+         * 默认使用{@link ContentDecoding#available()},即类路径下可用的 zstd、br 与 gzip
+         *
+         * @param contentCodings 内容编码,传入空列表则不再自动添加 Accept-Encoding
+         * @return 构造器
+         */
+        public Builder contentCodings(List<ContentDecoding> contentCodings) {
+            if (contentCodings == null) throw new NullPointerException("contentCodings == null");
+            if (contentCodings.contains(null)) {
+                throw new IllegalArgumentException("contentCodings must not contain null");
+            }
+            this.contentCodings = new ArrayList<>(contentCodings);
+            return this;
+        }
+
+        /**
+         * 设置请求体内容编码,请求体将以该编码流式压缩并分块传输
+         * 仅当服务端支持对应的 Content-Encoding 时使用
+         *
+         * @param requestCoding 内容编码,为null时不压缩请求体
+         * @return 构造器
+         */
+        public Builder requestCoding(ContentCoding requestCoding) {
+            this.requestCoding = requestCoding;
+            return this;
+        }
+
         /**
          * 设置此客户端创建的连接将使用的HTTP代理。它优先于{@link #proxySelector}，
          * 后者仅在此代理为空(默认为空)时才被启用。要完全禁用代理使用，请调用{@code proxy(proxy . no_proxy)}
@@ -858,6 +1020,44 @@ public class Httpd implements Cloneable, NewCall.Factory, WebSocket.Factory {
             return this;
         }
 
+        /**
+         * 配置是否启用连接竞速(happy eyeballs),默认关闭
+         * 启用后当主机解析出多个地址时,按IPv6/IPv4交替的顺序每隔250毫秒发起一个新的TCP连接,
+         * 使用最先建立的连接,而不是等待前一个地址超时后再依次尝试
+         * 可与{@link org.aoju.bus.http.metric.CachingDns}配合使用以减少DNS解析耗时
+         *
+         * @param fastFallback 是否启用
+         * @return 构造器
+         */
+        public Builder fastFallback(boolean fastFallback) {
+            this.fastFallback = fastFallback;
+            return this;
+        }
+
+        /**
+         * 配置幂等请求的对冲策略,默认不对冲
+         * 请求在策略给出的延迟内没有响应时,使用新的连接再发起一次相同的请求,先返回的响应胜出
+         * 建议同时配置{@link #retryBudget(RetryBudget)},避免故障期间对冲请求放大负载
+         *
+         * @param hedgePolicy 对冲策略,为null时不对冲
+         * @return 构造器
+         */
+        public Builder hedgePolicy(HedgePolicy hedgePolicy) {
+            this.hedgePolicy = hedgePolicy;
+            return this;
+        }
+
+        /**
+         * 配置连接失败重试和对冲请求共用的预算,默认不限制
+         *
+         * @param retryBudget 重试预算,为null时不限制
+         * @return 构造器
+         */
+        public Builder retryBudget(RetryBudget retryBudget) {
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
         /**
          * 设置用于设置策略和执行异步请求的调度程序。不能为空.
          *
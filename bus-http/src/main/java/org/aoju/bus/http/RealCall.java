@@ -191,7 +191,7 @@ public final class RealCall implements NewCall {
         List<Interceptor> interceptors = new ArrayList<>();
         interceptors.addAll(client.interceptors());
         interceptors.add(retryAndFollowUp);
-        interceptors.add(new BridgeInterceptor(client.cookieJar()));
+        interceptors.add(new BridgeInterceptor(client.cookieJar(), client.contentCodings(), client.requestCoding()));
         interceptors.add(new CacheInterceptor(client.internalCache()));
         interceptors.add(new ConnectInterceptor(client));
         if (!forWebSocket) {
@@ -26,13 +26,15 @@
 package org.aoju.bus.http.accord;
 
 import org.aoju.bus.core.toolkit.IoKit;
-import org.aoju.bus.http.Address;
-import org.aoju.bus.http.Builder;
-import org.aoju.bus.http.Route;
+import org.aoju.bus.http.*;
 import org.aoju.bus.http.accord.platform.Platform;
+import org.aoju.bus.http.metric.EventListener;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.ref.Reference;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.util.*;
 import java.util.concurrent.Executor;
 import java.util.concurrent.SynchronousQueue;
@@ -43,6 +45,10 @@ import java.util.concurrent.TimeUnit;
  * 管理HTTP和HTTP/2连接的重用，以减少网络延迟。 共享相同的
  * {@link Address}的HTTP请求可能共享一个{@link Connection}
  * 该类实现了哪些连接保持开放以供将来使用的策略
+ * <p>
+ * 除全局的空闲连接数和保活时间外，还可以通过{@link #policy(Httpd, UnoUrl, int, int)}
+ * 为单个地址设置最少空闲连接数和最大连接数，通过{@link #warmUp(Httpd, UnoUrl, int)}
+ * 预先建立连接，并通过{@link #stats()}获取连接池的统计快照
  *
  * @author Kimi Liu
  * @version 6.1.6
@@ -57,6 +63,14 @@ public final class ConnectionPool {
     private static final Executor executor = new ThreadPoolExecutor(0,
             Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
             new SynchronousQueue<>(), Builder.threadFactory("Httpd ConnectionPool", true));
+    /**
+     * HTTP/2连接的流使用率达到该比例后视为接近饱和，会为地址提前建立新的连接
+     */
+    private static final double STREAM_HIGH_WATER = 0.75D;
+    /**
+     * 提前建立的连接在该时间内没有完成时，允许其他请求再次尝试
+     */
+    private static final long EXPANSION_TIMEOUT_NS = TimeUnit.SECONDS.toNanos(10);
     public final Deque<RealConnection> connections = new ArrayDeque<>();
     public final RouteDatabase routeDatabase = new RouteDatabase();
     /**
@@ -64,6 +78,24 @@ public final class ConnectionPool {
      */
     private final int maxIdleConnections;
     private final long keepAliveDurationNs;
+    /**
+     * 按地址设置的连接策略
+     */
+    private final Map<Address, Policy> policies = new HashMap<>();
+    /**
+     * 因为HTTP/2连接接近饱和而正在建立新连接的地址
+     */
+    private final Map<Address, Expansion> expanding = new HashMap<>();
+    /**
+     * 最近60秒内每秒新建的连接数，用于计算建连速率
+     */
+    private final long[] connectSeconds = new long[60];
+    private final int[] connectBuckets = new int[60];
+    private final long createdAtNanos = System.nanoTime();
+    private long connectCount;
+    private long reuseCount;
+    private long waitCount;
+    private long waitNanos;
     boolean cleanupRunning;
     private final Runnable cleanupRunnable = () -> {
         while (true) {
@@ -124,9 +156,96 @@ public final class ConnectionPool {
         return connections.size();
     }
 
+    /**
+     * 为{@code url}对应的地址设置连接策略。清理任务不会让该地址的空闲连接少于
+     * {@code minIdleConnections}个，不足时会在后台补充；同一地址的连接总数
+     * (包括正在建立的连接)不会超过{@code maxConnections}个，超出时请求会等待
+     * 已有连接释放，最长等待连接超时时间。两个参数都为0时移除该地址的策略
+     *
+     * @param client             用于建立连接的客户端，同时决定连接地址
+     * @param url                URL信息
+     * @param minIdleConnections 最少空闲连接数，0表示不保留
+     * @param maxConnections     最大连接数，0表示不限制
+     */
+    public void policy(Httpd client, UnoUrl url, int minIdleConnections, int maxConnections) {
+        if (minIdleConnections < 0) {
+            throw new IllegalArgumentException("minIdleConnections < 0: " + minIdleConnections);
+        }
+        if (maxConnections < 0) {
+            throw new IllegalArgumentException("maxConnections < 0: " + maxConnections);
+        }
+        if (maxConnections > 0 && minIdleConnections > maxConnections) {
+            throw new IllegalArgumentException("minIdleConnections > maxConnections: "
+                    + minIdleConnections + " > " + maxConnections);
+        }
+        Address address = client.address(url);
+        synchronized (this) {
+            Policy previous = policies.remove(address);
+            if (minIdleConnections == 0 && maxConnections == 0) {
+                notifyAll();
+                return;
+            }
+            Policy policy = new Policy(client, address, minIdleConnections, maxConnections);
+            if (previous != null) {
+                policy.pending = previous.pending;
+                policy.warming = previous.warming;
+            }
+            policies.put(address, policy);
+            if (!cleanupRunning) {
+                cleanupRunning = true;
+                executor.execute(cleanupRunnable);
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * 预先建立到{@code url}的连接，直到该地址至少有{@code connections}个空闲连接。
+     * 如果已经存在HTTP/2连接或达到地址的最大连接数，则提前结束。该方法会阻塞直到连接建立完成
+     *
+     * @param client      用于建立连接的客户端，同时决定连接地址
+     * @param url         URL信息
+     * @param connections 期望的空闲连接数
+     * @return 本次新建的连接数
+     * @throws IOException 所有路由都无法连接
+     */
+    public int warmUp(Httpd client, UnoUrl url, int connections) throws IOException {
+        if (connections < 0) throw new IllegalArgumentException("connections < 0: " + connections);
+        return open(client, client.address(url), connections);
+    }
+
+    /**
+     * 返回连接池当前状态的快照
+     *
+     * @return 统计信息
+     */
+    public synchronized Stats stats() {
+        long now = System.nanoTime();
+        int idle = 0;
+        List<ConnectionStats> details = new ArrayList<>(connections.size());
+        for (RealConnection connection : connections) {
+            int allocations = connection.allocations.size();
+            if (allocations == 0) idle++;
+            details.add(new ConnectionStats(connection.route(), connection.protocol(), allocations,
+                    connection.allocationLimit, allocations == 0 ? now - connection.idleAtNanos : 0L));
+        }
+
+        long second = now / 1_000_000_000L;
+        long window = Math.max(1L, Math.min(connectSeconds.length, (now - createdAtNanos) / 1_000_000_000L + 1));
+        long recent = 0;
+        for (int i = 0; i < connectSeconds.length; i++) {
+            if (second - connectSeconds[i] < window) recent += connectBuckets[i];
+        }
+
+        return new Stats(idle, connections.size() - idle, connectCount, reuseCount,
+                (double) recent / window, waitCount, waitNanos, details);
+    }
+
     /**
      * 返回一个循环连接到{@code address}，如果不存在这样的连接，
      * 则返回null。如果地址尚未被路由，则路由为空.
+     * 多个HTTP/2连接可用时选择流使用率最低的连接；如果它也接近饱和，
+     * 则返回null让调用方建立新连接，同一地址同时只有一个调用方这样做，其余调用方仍使用该连接
      *
      * @param address          地址
      * @param streamAllocation 协调者
@@ -135,13 +254,33 @@ public final class ConnectionPool {
      */
     public RealConnection get(Address address, StreamAllocation streamAllocation, Route route) {
         assert (Thread.holdsLock(this));
+        RealConnection leastLoaded = null;
         for (RealConnection connection : connections) {
-            if (connection.isEligible(address, route)) {
+            if (!connection.isEligible(address, route)) continue;
+            if (connection == streamAllocation.avoided()) continue;
+            if (!connection.isMultiplexed()) {
                 streamAllocation.acquire(connection, true);
+                reuseCount++;
                 return connection;
             }
+            if (leastLoaded == null || load(connection) < load(leastLoaded)) {
+                leastLoaded = connection;
+            }
+        }
+        if (leastLoaded == null) return null;
+
+        if (load(leastLoaded) >= STREAM_HIGH_WATER) {
+            long now = System.nanoTime();
+            Expansion expansion = expanding.get(address);
+            if (expansion == null || now - expansion.startNanos > EXPANSION_TIMEOUT_NS) {
+                expanding.put(address, new Expansion(streamAllocation, now));
+                return null;
+            }
+            if (expansion.owner == streamAllocation) return null;
         }
-        return null;
+        streamAllocation.acquire(leastLoaded, true);
+        reuseCount++;
+        return leastLoaded;
     }
 
     /**
@@ -154,14 +293,25 @@ public final class ConnectionPool {
      */
     public Socket deduplicate(Address address, StreamAllocation streamAllocation) {
         assert (Thread.holdsLock(this));
+        RealConnection leastLoaded = null;
         for (RealConnection connection : connections) {
             if (connection.isEligible(address, null)
                     && connection.isMultiplexed()
-                    && connection != streamAllocation.connection()) {
-                return streamAllocation.releaseAndAcquire(connection);
+                    && connection != streamAllocation.connection()
+                    && connection != streamAllocation.avoided()
+                    && load(connection) < STREAM_HIGH_WATER
+                    && (leastLoaded == null || load(connection) < load(leastLoaded))) {
+                leastLoaded = connection;
             }
         }
-        return null;
+        return leastLoaded != null ? streamAllocation.releaseAndAcquire(leastLoaded) : null;
+    }
+
+    /**
+     * 连接的流使用率，HTTP/1.x连接在使用中时为1
+     */
+    private static double load(RealConnection connection) {
+        return (double) connection.allocations.size() / connection.allocationLimit;
     }
 
     public void put(RealConnection connection) {
@@ -171,6 +321,77 @@ public final class ConnectionPool {
             executor.execute(cleanupRunnable);
         }
         connections.add(connection);
+        if (!expanding.isEmpty()) expanding.remove(connection.route().address());
+
+        connectCount++;
+        long second = System.nanoTime() / 1_000_000_000L;
+        int bucket = (int) (second % connectSeconds.length);
+        if (connectSeconds[bucket] != second) {
+            connectSeconds[bucket] = second;
+            connectBuckets[bucket] = 0;
+        }
+        connectBuckets[bucket]++;
+    }
+
+    /**
+     * 在为{@code address}新建连接之前占用一个连接名额。如果地址的连接数已达上限，
+     * 则等待其他连接空闲或关闭；等待期间有空闲连接时直接把它分配给{@code streamAllocation}
+     *
+     * @param address          地址
+     * @param streamAllocation 协调者
+     * @param timeoutMillis    最长等待时间，0表示不限
+     * @return 占用了名额返回true，之后必须调用{@link #release(Address)}；地址不限制连接数或已分配到池连接时返回false
+     * @throws IOException 等待超时或被中断
+     */
+    boolean reserve(Address address, StreamAllocation streamAllocation, int timeoutMillis) throws IOException {
+        assert (Thread.holdsLock(this));
+        Policy policy = policies.get(address);
+        if (policy == null || policy.maxConnections == 0) return false;
+
+        long waitStartNanos = 0L;
+        try {
+            while (connectionCount(address) + policy.pending >= policy.maxConnections) {
+                long now = System.nanoTime();
+                if (waitStartNanos == 0L) {
+                    waitStartNanos = now;
+                    waitCount++;
+                }
+                long remainingMillis = 0L;
+                if (timeoutMillis > 0) {
+                    remainingMillis = timeoutMillis - (now - waitStartNanos) / 1_000_000L;
+                    if (remainingMillis <= 0) {
+                        throw new SocketTimeoutException("Timed out waiting for a connection to " + address.url());
+                    }
+                }
+                try {
+                    wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for a connection to " + address.url());
+                }
+
+                if (get(address, streamAllocation, null) != null) return false;
+                // 等待期间策略可能被修改或移除
+                policy = policies.get(address);
+                if (policy == null || policy.maxConnections == 0) return false;
+            }
+            policy.pending++;
+            return true;
+        } finally {
+            if (waitStartNanos != 0L) waitNanos += System.nanoTime() - waitStartNanos;
+        }
+    }
+
+    /**
+     * 归还{@link #reserve}占用的连接名额
+     *
+     * @param address 地址
+     */
+    void release(Address address) {
+        assert (Thread.holdsLock(this));
+        Policy policy = policies.get(address);
+        if (policy != null && policy.pending > 0) policy.pending--;
+        notifyAll();
     }
 
     /**
@@ -183,6 +404,8 @@ public final class ConnectionPool {
         assert (Thread.holdsLock(this));
         if (connection.noNewStreams || maxIdleConnections == 0) {
             connections.remove(connection);
+            // 唤醒等待连接名额的请求
+            notifyAll();
             return true;
         } else {
             // 唤醒清理线程:可能已经超过了空闲连接限制
@@ -205,6 +428,7 @@ public final class ConnectionPool {
                     i.remove();
                 }
             }
+            notifyAll();
         }
 
         for (RealConnection connection : evictedConnections) {
@@ -214,7 +438,8 @@ public final class ConnectionPool {
 
     /**
      * 对这个池执行维护，如果连接超出了keep alive限制或idle connections限制，就会清除空闲时间最长的连接
-     * 返回到该方法的下一次预定调用之前在nanos中的睡眠时间。如果不需要进一步清理，则返回-1
+     * 设置了最少空闲连接数的地址，其空闲连接不会因为超出idle connections限制而被清除，
+     * 空闲连接不足时会在后台补充。返回到该方法的下一次预定调用之前在nanos中的睡眠时间。如果不需要进一步清理，则返回-1
      *
      * @param now 空闲时间
      * @return 睡眠时间
@@ -224,9 +449,25 @@ public final class ConnectionPool {
         int idleConnectionCount = 0;
         RealConnection longestIdleConnection = null;
         long longestIdleDurationNs = Long.MIN_VALUE;
+        RealConnection longestIdleEvictable = null;
+        long longestIdleEvictableNs = Long.MIN_VALUE;
 
         // 找到与清除的联系，或者下一次清除的时间
         synchronized (this) {
+            if (!expanding.isEmpty()) {
+                expanding.values().removeIf(expansion -> now - expansion.startNanos > EXPANSION_TIMEOUT_NS);
+            }
+
+            Map<Address, Integer> idleByAddress = new HashMap<>();
+            if (!policies.isEmpty()) {
+                for (RealConnection connection : connections) {
+                    Address address = connection.route().address();
+                    if (connection.allocations.isEmpty() && policies.containsKey(address)) {
+                        idleByAddress.merge(address, 1, Integer::sum);
+                    }
+                }
+            }
+
             for (Iterator<RealConnection> i = connections.iterator(); i.hasNext(); ) {
                 RealConnection connection = i.next();
 
@@ -244,22 +485,38 @@ public final class ConnectionPool {
                     longestIdleDurationNs = idleDurationNs;
                     longestIdleConnection = connection;
                 }
+
+                // 保留策略要求的最少空闲连接，它们只会因为保活超时而被替换
+                Policy policy = policies.get(connection.route().address());
+                Integer idle = idleByAddress.get(connection.route().address());
+                boolean reserved = policy != null && idle != null && idle <= policy.minIdleConnections;
+                if (!reserved && idleDurationNs > longestIdleEvictableNs) {
+                    longestIdleEvictableNs = idleDurationNs;
+                    longestIdleEvictable = connection;
+                }
             }
 
-            if (longestIdleDurationNs >= this.keepAliveDurationNs
-                    || idleConnectionCount > this.maxIdleConnections) {
+            if (longestIdleDurationNs >= this.keepAliveDurationNs) {
                 // 我们发现了与驱逐有关的证据。将它从列表中移除，然后在下面(同步块外部)关闭它
                 connections.remove(longestIdleConnection);
-            } else if (idleConnectionCount > 0) {
-                // 一个连接将准备驱逐很快.
-                return keepAliveDurationNs - longestIdleDurationNs;
-            } else if (inUseConnectionCount > 0) {
-                // 所有连接都在使用中。至少能维持生命直到我们再次运行.
-                return keepAliveDurationNs;
+                notifyAll();
+            } else if (idleConnectionCount > this.maxIdleConnections && longestIdleEvictable != null) {
+                longestIdleConnection = longestIdleEvictable;
+                connections.remove(longestIdleConnection);
+                notifyAll();
             } else {
-                // 没有连接，空闲或正在使用
-                cleanupRunning = false;
-                return -1;
+                topUp();
+                if (idleConnectionCount > 0) {
+                    // 一个连接将准备驱逐很快.
+                    return keepAliveDurationNs - longestIdleDurationNs;
+                } else if (inUseConnectionCount > 0 || !policies.isEmpty()) {
+                    // 所有连接都在使用中，或者需要维持最少空闲连接。至少能维持生命直到我们再次运行.
+                    return keepAliveDurationNs;
+                } else {
+                    // 没有连接，空闲或正在使用
+                    cleanupRunning = false;
+                    return -1;
+                }
             }
         }
 
@@ -268,6 +525,132 @@ public final class ConnectionPool {
         return 0;
     }
 
+    /**
+     * 为空闲连接不足的地址在后台补充连接
+     */
+    private void topUp() {
+        assert (Thread.holdsLock(this));
+        for (Policy policy : policies.values()) {
+            if (policy.warming || policy.minIdleConnections == 0
+                    || !needsConnection(policy.address, policy.minIdleConnections)) {
+                continue;
+            }
+            policy.warming = true;
+            executor.execute(() -> {
+                try {
+                    open(policy.client, policy.address, policy.minIdleConnections);
+                } catch (IOException ignored) {
+                    // 下一轮清理时重试
+                } finally {
+                    synchronized (ConnectionPool.this) {
+                        policy.warming = false;
+                        Policy current = policies.get(policy.address);
+                        if (current != null) current.warming = false;
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 逐个建立到{@code address}的连接并放入池中，直到该地址至少有{@code idleTarget}个空闲连接
+     *
+     * @param client     客户端
+     * @param address    地址
+     * @param idleTarget 期望的空闲连接数
+     * @return 新建的连接数
+     * @throws IOException 所有路由都无法连接
+     */
+    private int open(Httpd client, Address address, int idleTarget) throws IOException {
+        List<Route> routes = null;
+        int opened = 0;
+        while (true) {
+            boolean reserved;
+            synchronized (this) {
+                if (!needsConnection(address, idleTarget)) return opened;
+                Policy policy = policies.get(address);
+                reserved = policy != null;
+                if (reserved) policy.pending++;
+            }
+
+            RealConnection connection = null;
+            try {
+                if (routes == null) {
+                    routes = new ArrayList<>();
+                    RouteSelector routeSelector = new RouteSelector(address, routeDatabase, null, EventListener.NONE);
+                    while (routeSelector.hasNext()) {
+                        routes.addAll(routeSelector.next().getAll());
+                    }
+                }
+                connection = connect(client, address, routes);
+            } finally {
+                synchronized (this) {
+                    if (reserved) release(address);
+                    if (connection != null) {
+                        connection.idleAtNanos = System.nanoTime();
+                        put(connection);
+                        opened++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 依次尝试每条路由，返回第一个建立成功的连接
+     */
+    private RealConnection connect(Httpd client, Address address, List<Route> routes) throws IOException {
+        IOException failure = null;
+        for (Route route : routes) {
+            RealConnection connection = new RealConnection(this, route);
+            try {
+                connection.connect(client.connectTimeoutMillis(), client.readTimeoutMillis(),
+                        client.writeTimeoutMillis(), client.pingIntervalMillis(),
+                        client.retryOnConnectionFailure(), null, EventListener.NONE);
+                routeDatabase.connected(route);
+                return connection;
+            } catch (RouteException e) {
+                routeDatabase.failed(route);
+                if (failure == null) {
+                    failure = e.getFirstConnectException();
+                } else {
+                    failure.addSuppressed(e.getLastConnectException());
+                }
+            }
+        }
+        throw failure != null ? failure : new IOException("No route to " + address.url());
+    }
+
+    /**
+     * 判断{@code address}是否还需要新建连接才能达到{@code idleTarget}个空闲连接
+     * 已有HTTP/2连接或已达到最大连接数时不再新建
+     */
+    private boolean needsConnection(Address address, int idleTarget) {
+        assert (Thread.holdsLock(this));
+        int idle = 0;
+        int total = 0;
+        for (RealConnection connection : connections) {
+            if (!connection.route().address().equals(address)) continue;
+            if (connection.isMultiplexed() && !connection.noNewStreams) return false;
+            total++;
+            if (connection.allocations.isEmpty() && !connection.noNewStreams) idle++;
+        }
+        Policy policy = policies.get(address);
+        if (policy != null && policy.maxConnections > 0
+                && total + policy.pending >= policy.maxConnections) {
+            return false;
+        }
+        return idle < idleTarget;
+    }
+
+    private int connectionCount(Address address) {
+        int total = 0;
+        for (RealConnection connection : connections) {
+            if (connection.route().address().equals(address)) total++;
+        }
+        return total;
+    }
+
     /**
      * 删除任何泄漏的分配，然后返回{@code connection}上剩余的活动分配的数量。
      * 泄漏检测是不精确的，并且依赖于垃圾收集
@@ -305,4 +688,205 @@ public final class ConnectionPool {
         return references.size();
     }
 
+    /**
+     * 单个地址的连接策略
+     */
+    private static final class Policy {
+
+        final Httpd client;
+        final Address address;
+        final int minIdleConnections;
+        final int maxConnections;
+        /**
+         * 已占用名额但尚未放入连接池的连接数
+         */
+        int pending;
+        boolean warming;
+
+        Policy(Httpd client, Address address, int minIdleConnections, int maxConnections) {
+            this.client = client;
+            this.address = address;
+            this.minIdleConnections = minIdleConnections;
+            this.maxConnections = maxConnections;
+        }
+    }
+
+    /**
+     * 正在为接近饱和的地址建立的连接
+     */
+    private static final class Expansion {
+
+        final StreamAllocation owner;
+        final long startNanos;
+
+        Expansion(StreamAllocation owner, long startNanos) {
+            this.owner = owner;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * 连接池统计快照
+     */
+    public static final class Stats {
+
+        private final int idleConnections;
+        private final int activeConnections;
+        private final long connectCount;
+        private final long reuseCount;
+        private final double connectsPerSecond;
+        private final long waitCount;
+        private final long waitNanos;
+        private final List<ConnectionStats> connections;
+
+        Stats(int idleConnections, int activeConnections, long connectCount, long reuseCount,
+              double connectsPerSecond, long waitCount, long waitNanos, List<ConnectionStats> connections) {
+            this.idleConnections = idleConnections;
+            this.activeConnections = activeConnections;
+            this.connectCount = connectCount;
+            this.reuseCount = reuseCount;
+            this.connectsPerSecond = connectsPerSecond;
+            this.waitCount = waitCount;
+            this.waitNanos = waitNanos;
+            this.connections = Collections.unmodifiableList(connections);
+        }
+
+        /**
+         * @return 空闲连接数
+         */
+        public int idleConnections() {
+            return idleConnections;
+        }
+
+        /**
+         * @return 正在使用的连接数
+         */
+        public int activeConnections() {
+            return activeConnections;
+        }
+
+        /**
+         * @return 累计新建的连接数
+         */
+        public long connectCount() {
+            return connectCount;
+        }
+
+        /**
+         * @return 累计复用池中连接的次数
+         */
+        public long reuseCount() {
+            return reuseCount;
+        }
+
+        /**
+         * @return 最近60秒的平均建连速率
+         */
+        public double connectsPerSecond() {
+            return connectsPerSecond;
+        }
+
+        /**
+         * @return 复用连接占全部连接获取的比例
+         */
+        public double reuseRatio() {
+            long total = connectCount + reuseCount;
+            return total == 0 ? 0D : (double) reuseCount / total;
+        }
+
+        /**
+         * @return 因地址连接数达到上限而等待的次数
+         */
+        public long waitCount() {
+            return waitCount;
+        }
+
+        /**
+         * @return 累计等待时间
+         */
+        public long waitNanos() {
+            return waitNanos;
+        }
+
+        /**
+         * @return 每个连接的状态
+         */
+        public List<ConnectionStats> connections() {
+            return connections;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{idle=" + idleConnections
+                    + ", active=" + activeConnections
+                    + ", connects=" + connectCount
+                    + ", reuses=" + reuseCount
+                    + ", connectsPerSecond=" + String.format("%.2f", connectsPerSecond)
+                    + ", reuseRatio=" + String.format("%.2f", reuseRatio())
+                    + ", waits=" + waitCount
+                    + "}";
+        }
+    }
+
+    /**
+     * 单个连接的状态，对HTTP/2连接可以得到流的使用率
+     */
+    public static final class ConnectionStats {
+
+        private final Route route;
+        private final Protocol protocol;
+        private final int allocations;
+        private final int allocationLimit;
+        private final long idleNanos;
+
+        ConnectionStats(Route route, Protocol protocol, int allocations, int allocationLimit, long idleNanos) {
+            this.route = route;
+            this.protocol = protocol;
+            this.allocations = allocations;
+            this.allocationLimit = allocationLimit;
+            this.idleNanos = idleNanos;
+        }
+
+        public Route route() {
+            return route;
+        }
+
+        public Protocol protocol() {
+            return protocol;
+        }
+
+        /**
+         * @return 当前承载的流数量
+         */
+        public int allocations() {
+            return allocations;
+        }
+
+        /**
+         * @return 可以同时承载的流数量，HTTP/1.x为1
+         */
+        public int allocationLimit() {
+            return allocationLimit;
+        }
+
+        /**
+         * @return 流的使用率
+         */
+        public double utilization() {
+            return allocationLimit == 0 ? 0D : (double) allocations / allocationLimit;
+        }
+
+        /**
+         * @return 空闲时长，正在使用时为0
+         */
+        public long idleNanos() {
+            return idleNanos;
+        }
+
+        @Override
+        public String toString() {
+            return route.socketAddress() + " " + protocol + " " + allocations + "/" + allocationLimit;
+        }
+    }
+
 }
@@ -0,0 +1,279 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.http.accord;
+
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.http.Builder;
+import org.aoju.bus.http.NewCall;
+import org.aoju.bus.http.Route;
+import org.aoju.bus.http.accord.platform.Platform;
+import org.aoju.bus.http.metric.EventListener;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.Proxy;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * 并发连接竞速(Happy Eyeballs, RFC 8305)
+ * 按IPv6/IPv4交替的顺序依次发起TCP连接,前一个连接在{@link #CONNECT_ATTEMPT_DELAY_MILLIS}
+ * 内未建立或已失败时立即发起下一个,最先建立的连接胜出,其余连接被关闭
+ * 所有事件回调均在调用线程中触发
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+final class FastFallback {
+
+    /**
+     * 相邻两次连接尝试的间隔
+     */
+    static final long CONNECT_ATTEMPT_DELAY_MILLIS = 250;
+
+    /**
+     * 后台连接线程,空闲时自动回收
+     */
+    private static final Executor executor = new ThreadPoolExecutor(0,
+            Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), Builder.threadFactory("Httpd FastFallback", true));
+
+    private FastFallback() {
+
+    }
+
+    /**
+     * 对一组路由进行连接竞速
+     *
+     * @param routes         候选路由,需使用同一代理
+     * @param connectTimeout 连接超时时间
+     * @param readTimeout    读取超时时间
+     * @param routeDatabase  失败路由记录
+     * @param call           调用信息
+     * @param eventListener  监听器
+     * @return 胜出的连接
+     * @throws IOException 所有路由均连接失败
+     */
+    static Result race(List<Route> routes, int connectTimeout, int readTimeout, RouteDatabase routeDatabase,
+                       NewCall call, EventListener eventListener) throws IOException {
+        long startNanos = System.nanoTime();
+        List<Route> pending = interleave(routes);
+        List<Attempt> started = new ArrayList<>();
+        BlockingQueue<Attempt> completed = new LinkedBlockingQueue<>();
+        IOException failure = null;
+        Attempt winner = null;
+        int running = 0;
+
+        try {
+            while (true) {
+                if (call.isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                // 首次进入、间隔已到或上一个连接失败时,发起下一个连接
+                if (!pending.isEmpty()) {
+                    Attempt attempt = new Attempt(pending.remove(0), connectTimeout, readTimeout, completed);
+                    eventListener.connectStart(call, attempt.route.socketAddress(), attempt.route.proxy());
+                    started.add(attempt);
+                    running++;
+                    executor.execute(attempt);
+                }
+                if (running == 0) {
+                    break;
+                }
+
+                Attempt done = completed.poll(CONNECT_ATTEMPT_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                if (done == null) {
+                    continue;
+                }
+                running--;
+                if (done.failure == null) {
+                    winner = done;
+                    break;
+                }
+
+                done.reported = true;
+                eventListener.connectFailed(call, done.route.socketAddress(), done.route.proxy(), null, done.failure);
+                routeDatabase.failed(done.route);
+                if (failure == null) {
+                    failure = done.failure;
+                } else {
+                    Builder.addSuppressedIfPossible(failure, done.failure);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } finally {
+            // 被取消的连接同样以connectFailed结束,保证与connectStart成对出现
+            for (Attempt attempt : started) {
+                if (attempt != winner) {
+                    attempt.cancel();
+                    if (!attempt.reported) {
+                        eventListener.connectFailed(call, attempt.route.socketAddress(), attempt.route.proxy(),
+                                null, new IOException("Canceled"));
+                    }
+                }
+            }
+        }
+
+        if (winner == null) {
+            throw failure != null ? failure : new ConnectException("No route to connect");
+        }
+        eventListener.connectRaceEnd(call, winner.route, started.size(), System.nanoTime() - startNanos);
+        return new Result(winner.route, winner.socket, pending);
+    }
+
+    /**
+     * 按地址族交替排序,保持各地址族内部的原有顺序
+     *
+     * @param routes 路由
+     * @return 排序后的路由
+     */
+    static List<Route> interleave(List<Route> routes) {
+        List<Route> ipv6 = new ArrayList<>();
+        List<Route> ipv4 = new ArrayList<>();
+        for (Route route : routes) {
+            InetAddress address = route.socketAddress().getAddress();
+            if (address instanceof Inet6Address) {
+                ipv6.add(route);
+            } else {
+                ipv4.add(route);
+            }
+        }
+        if (ipv6.isEmpty() || ipv4.isEmpty()) {
+            return new ArrayList<>(routes);
+        }
+
+        // 以解析结果中的首个地址族开头
+        boolean ipv6First = routes.get(0).socketAddress().getAddress() instanceof Inet6Address;
+        List<Route> first = ipv6First ? ipv6 : ipv4;
+        List<Route> second = ipv6First ? ipv4 : ipv6;
+        List<Route> result = new ArrayList<>(routes.size());
+        for (int i = 0; i < Math.max(first.size(), second.size()); i++) {
+            if (i < first.size()) result.add(first.get(i));
+            if (i < second.size()) result.add(second.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 竞速结果
+     */
+    static final class Result {
+
+        /**
+         * 胜出的路由
+         */
+        final Route route;
+        /**
+         * 已建立连接的套接字
+         */
+        final Socket socket;
+        /**
+         * 尚未尝试的路由
+         */
+        final List<Route> unstarted;
+
+        Result(Route route, Socket socket, List<Route> unstarted) {
+            this.route = route;
+            this.socket = socket;
+            this.unstarted = unstarted;
+        }
+    }
+
+    /**
+     * 单次连接尝试
+     */
+    private static final class Attempt implements Runnable {
+
+        final Route route;
+        final int connectTimeout;
+        final int readTimeout;
+        final BlockingQueue<Attempt> completed;
+        Socket socket;
+        IOException failure;
+        /**
+         * 是否已上报connectFailed,仅在调用线程中访问
+         */
+        boolean reported;
+        private boolean canceled;
+
+        Attempt(Route route, int connectTimeout, int readTimeout, BlockingQueue<Attempt> completed) {
+            this.route = route;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.completed = completed;
+        }
+
+        @Override
+        public void run() {
+            Socket rawSocket = null;
+            try {
+                Proxy proxy = route.proxy();
+                rawSocket = proxy.type() == Proxy.Type.DIRECT || proxy.type() == Proxy.Type.HTTP
+                        ? route.address().socketFactory().createSocket()
+                        : new Socket(proxy);
+                synchronized (this) {
+                    if (canceled) {
+                        IoKit.close(rawSocket);
+                        return;
+                    }
+                    socket = rawSocket;
+                }
+                rawSocket.setSoTimeout(readTimeout);
+                try {
+                    Platform.get().connectSocket(rawSocket, route.socketAddress(), connectTimeout);
+                } catch (ConnectException e) {
+                    ConnectException ce = new ConnectException("Failed to connect to " + route.socketAddress());
+                    ce.initCause(e);
+                    throw ce;
+                }
+            } catch (IOException | RuntimeException e) {
+                IoKit.close(rawSocket);
+                failure = e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+            completed.add(this);
+        }
+
+        /**
+         * 取消尝试,关闭已创建的套接字
+         */
+        void cancel() {
+            Socket toClose;
+            synchronized (this) {
+                canceled = true;
+                toClose = socket;
+            }
+            IoKit.close(toClose);
+        }
+    }
+
+}
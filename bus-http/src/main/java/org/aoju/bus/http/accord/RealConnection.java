@@ -111,12 +111,21 @@ public final class RealConnection extends Http2Connection.Listener implements Co
     private Http2Connection http2Connection;
     private BufferSource source;
     private BufferSink sink;
+    /**
+     * 连接竞速中已建立的TCP套接字,首次连接时直接使用
+     */
+    private Socket connectedSocket;
 
     public RealConnection(ConnectionPool connectionPool, Route route) {
         this.connectionPool = connectionPool;
         this.route = route;
     }
 
+    RealConnection(ConnectionPool connectionPool, Route route, Socket connectedSocket) {
+        this(connectionPool, route);
+        this.connectedSocket = connectedSocket;
+    }
+
     public static RealConnection testConnection(
             ConnectionPool connectionPool, Route route, Socket socket, long idleAtNanos) {
         RealConnection result = new RealConnection(connectionPool, route);
@@ -250,18 +259,25 @@ public final class RealConnection extends Http2Connection.Listener implements Co
         Proxy proxy = route.proxy();
         Address address = route.address();
 
-        rawSocket = proxy.type() == Proxy.Type.DIRECT || proxy.type() == Proxy.Type.HTTP
-                ? address.socketFactory().createSocket()
-                : new Socket(proxy);
+        if (connectedSocket != null) {
+            // 连接竞速中已完成TCP连接,相应事件也已触发
+            rawSocket = connectedSocket;
+            connectedSocket = null;
+            rawSocket.setSoTimeout(readTimeout);
+        } else {
+            rawSocket = proxy.type() == Proxy.Type.DIRECT || proxy.type() == Proxy.Type.HTTP
+                    ? address.socketFactory().createSocket()
+                    : new Socket(proxy);
 
-        eventListener.connectStart(call, route.socketAddress(), proxy);
-        rawSocket.setSoTimeout(readTimeout);
-        try {
-            Platform.get().connectSocket(rawSocket, route.socketAddress(), connectTimeout);
-        } catch (ConnectException e) {
-            ConnectException ce = new ConnectException("Failed to connect to " + route.socketAddress());
-            ce.initCause(e);
-            throw ce;
+            eventListener.connectStart(call, route.socketAddress(), proxy);
+            rawSocket.setSoTimeout(readTimeout);
+            try {
+                Platform.get().connectSocket(rawSocket, route.socketAddress(), connectTimeout);
+            } catch (ConnectException e) {
+                ConnectException ce = new ConnectException("Failed to connect to " + route.socketAddress());
+                ce.initCause(e);
+                throw ce;
+            }
         }
 
         // 下面的try/catch块是一种避免Android 7.0崩溃的伪代码
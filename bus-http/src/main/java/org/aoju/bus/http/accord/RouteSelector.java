@@ -27,6 +27,7 @@ package org.aoju.bus.http.accord;
 
 import org.aoju.bus.core.lang.Symbol;
 import org.aoju.bus.http.*;
+import org.aoju.bus.http.metric.CachingDns;
 import org.aoju.bus.http.metric.EventListener;
 
 import java.io.IOException;
@@ -232,13 +233,25 @@ public final class RouteSelector {
             inetSocketAddresses.add(InetSocketAddress.createUnresolved(socketHost, socketPort));
         } else {
             eventListener.dnsStart(call, socketHost);
+            long dnsStartNanos = System.nanoTime();
 
             // 在IPv4/IPv6混合环境中尝试每个地址以获得最佳性能
-            List<InetAddress> addresses = address.dns().lookup(socketHost);
+            List<InetAddress> addresses;
+            boolean cached = false;
+            boolean stale = false;
+            if (address.dns() instanceof CachingDns) {
+                CachingDns.Resolution resolution = ((CachingDns) address.dns()).resolve(socketHost);
+                addresses = resolution.addresses;
+                cached = resolution.cached;
+                stale = resolution.stale;
+            } else {
+                addresses = address.dns().lookup(socketHost);
+            }
             if (addresses.isEmpty()) {
                 throw new UnknownHostException(address.dns() + " returned no addresses for " + socketHost);
             }
 
+            eventListener.dnsResolved(call, socketHost, System.nanoTime() - dnsStartNanos, cached, stale);
             eventListener.dnsEnd(call, socketHost, addresses);
 
             for (int i = 0, size = addresses.size(); i < size; i++) {
@@ -273,6 +286,15 @@ public final class RouteSelector {
         public List<Route> getAll() {
             return new ArrayList<>(routes);
         }
+
+        /**
+         * 返回尚未尝试的路由
+         *
+         * @return 路由列表
+         */
+        public List<Route> remaining() {
+            return new ArrayList<>(routes.subList(nextRouteIndex, routes.size()));
+        }
     }
 
 }
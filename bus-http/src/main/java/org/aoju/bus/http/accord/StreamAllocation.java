@@ -38,6 +38,7 @@ import java.io.IOException;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.net.Socket;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -66,6 +67,10 @@ public final class StreamAllocation {
     private boolean released;
     private boolean canceled;
     private HttpCodec codec;
+    /**
+     * 不从连接池复用的连接
+     */
+    private RealConnection avoided;
 
     public StreamAllocation(ConnectionPool connectionPool, Address address, NewCall call,
                             EventListener eventListener, Object callStackTrace) {
@@ -84,10 +89,11 @@ public final class StreamAllocation {
         int writeTimeout = chain.writeTimeoutMillis();
         int pingIntervalMillis = client.pingIntervalMillis();
         boolean connectionRetryEnabled = client.retryOnConnectionFailure();
+        boolean fastFallback = client.fastFallback();
 
         try {
             RealConnection resultConnection = findHealthyConnection(connectTimeout, readTimeout,
-                    writeTimeout, pingIntervalMillis, connectionRetryEnabled, doExtensiveHealthChecks);
+                    writeTimeout, pingIntervalMillis, connectionRetryEnabled, fastFallback, doExtensiveHealthChecks);
             HttpCodec resultCodec = resultConnection.newCodec(client, chain, this);
 
             synchronized (connectionPool) {
@@ -107,16 +113,17 @@ public final class StreamAllocation {
      * @param writeTimeout            写入超时时间
      * @param pingIntervalMillis      ping间隔时间
      * @param connectionRetryEnabled  是否重试
+     * @param fastFallback            是否进行连接竞速
      * @param doExtensiveHealthChecks 是否健康检查
      * @return 连接信息
      * @throws IOException 异常
      */
     private RealConnection findHealthyConnection(int connectTimeout, int readTimeout,
                                                  int writeTimeout, int pingIntervalMillis, boolean connectionRetryEnabled,
-                                                 boolean doExtensiveHealthChecks) throws IOException {
+                                                 boolean fastFallback, boolean doExtensiveHealthChecks) throws IOException {
         while (true) {
             RealConnection candidate = findConnection(connectTimeout, readTimeout, writeTimeout,
-                    pingIntervalMillis, connectionRetryEnabled);
+                    pingIntervalMillis, connectionRetryEnabled, fastFallback);
 
             // 如果这是一个全新的连接，可以跳过大量的健康检查
             synchronized (connectionPool) {
@@ -143,12 +150,16 @@ public final class StreamAllocation {
      * @param writeTimeout           写入超时时间
      * @param pingIntervalMillis     ping间隔时间
      * @param connectionRetryEnabled 是否重试
+     * @param fastFallback           是否进行连接竞速
      * @return 连接信息
      * @throws IOException 异常
      */
     private RealConnection findConnection(int connectTimeout, int readTimeout, int writeTimeout,
-                                          int pingIntervalMillis, boolean connectionRetryEnabled) throws IOException {
+                                          int pingIntervalMillis, boolean connectionRetryEnabled,
+                                          boolean fastFallback) throws IOException {
         boolean foundPooledConnection = false;
+        boolean reserved = false;
+        List<Route> raceRoutes = null;
         RealConnection result = null;
         Route selectedRoute = null;
         Connection releasedConnection;
@@ -220,16 +231,32 @@ public final class StreamAllocation {
                 }
             }
 
+            if (!foundPooledConnection) {
+                // 地址的连接数达到上限时等待其他连接释放
+                reserved = connectionPool.reserve(address, this, connectTimeout);
+                if (connection != null) {
+                    foundPooledConnection = true;
+                    result = connection;
+                    this.route = connection.route();
+                }
+            }
+
             if (!foundPooledConnection) {
                 if (selectedRoute == null) {
                     selectedRoute = routeSelection.next();
+                    if (fastFallback && routeSelection.hasNext()) {
+                        raceRoutes = routeSelection.remaining();
+                        raceRoutes.add(0, selectedRoute);
+                    }
                 }
 
-                // 创建一个连接并立即将其分配给这个分配。这使得异步cancel()可以中断我们将要进行的握手
                 route = selectedRoute;
                 refusedStreamCount = 0;
-                result = new RealConnection(connectionPool, selectedRoute);
-                acquire(result, false);
+                if (raceRoutes == null) {
+                    // 创建一个连接并立即将其分配给这个分配。这使得异步cancel()可以中断我们将要进行的握手
+                    result = new RealConnection(connectionPool, selectedRoute);
+                    acquire(result, false);
+                }
             }
         }
 
@@ -239,10 +266,44 @@ public final class StreamAllocation {
             return result;
         }
 
-        // TCP + TLS握手，这是一个阻塞操作
-        result.connect(connectTimeout, readTimeout, writeTimeout, pingIntervalMillis,
-                connectionRetryEnabled, call, eventListener);
-        routeDatabase().connected(result.route());
+        try {
+            // 同时对多个地址发起TCP连接，使用最先建立的连接
+            if (raceRoutes != null) {
+                FastFallback.Result raced;
+                try {
+                    raced = FastFallback.race(raceRoutes, connectTimeout, readTimeout, routeDatabase(),
+                            call, eventListener);
+                } catch (IOException e) {
+                    synchronized (connectionPool) {
+                        routeSelection = new RouteSelector.Selection(Collections.emptyList());
+                    }
+                    throw e;
+                }
+
+                synchronized (connectionPool) {
+                    routeSelection = new RouteSelector.Selection(raced.unstarted);
+                    if (canceled) {
+                        IoKit.close(raced.socket);
+                        throw new IOException("Canceled");
+                    }
+                    route = raced.route;
+                    result = new RealConnection(connectionPool, raced.route, raced.socket);
+                    acquire(result, false);
+                }
+            }
+
+            // TCP + TLS握手，这是一个阻塞操作
+            result.connect(connectTimeout, readTimeout, writeTimeout, pingIntervalMillis,
+                    connectionRetryEnabled, call, eventListener);
+            routeDatabase().connected(result.route());
+        } catch (IOException | RuntimeException e) {
+            if (reserved) {
+                synchronized (connectionPool) {
+                    connectionPool.release(address);
+                }
+            }
+            throw e;
+        }
 
         Socket socket = null;
         synchronized (connectionPool) {
@@ -250,6 +311,7 @@ public final class StreamAllocation {
 
             // 连接池信息
             Builder.instance.put(connectionPool, result);
+            if (reserved) connectionPool.release(address);
 
             // 如果并发地创建了到同一地址的另一个多路复用连接，则释放该连接并获取该连接
             if (result.isMultiplexed()) {
@@ -324,6 +386,22 @@ public final class StreamAllocation {
         return route;
     }
 
+    /**
+     * 不从连接池复用指定的连接,对冲请求用它避免与原请求共用同一个HTTP/2连接
+     *
+     * @param connection 不复用的连接,为null时不限制
+     */
+    public void avoid(RealConnection connection) {
+        synchronized (connectionPool) {
+            this.avoided = connection;
+        }
+    }
+
+    RealConnection avoided() {
+        assert (Thread.holdsLock(connectionPool));
+        return avoided;
+    }
+
     public synchronized RealConnection connection() {
         return connection;
     }
@@ -35,6 +35,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * HTTP状态
+ * 只提供全局的请求计数,按主机统计各阶段耗时请使用{@link org.aoju.bus.http.metric.LatencyListener}
  *
  * @author Kimi Liu
  * @version 6.1.6
@@ -47,9 +48,13 @@ public class HttpxStat {
     protected static AtomicInteger reqFailureCount = new AtomicInteger(0);
     protected static AtomicInteger reqExceptionCount = new AtomicInteger(0);
     protected static Date startTime = new Date();
-    protected static Date lastAccessTime;
+    protected static volatile Date lastAccessTime;
     protected static LinkedBlockingDeque<String> errorMsgs = new LinkedBlockingDeque<>(MAX_ERROR_MSG_COUNT);
-    private static boolean isStop = false;
+    private static volatile boolean isStop = false;
+    /**
+     * 最近访问的毫秒数,同一毫秒内的请求共用同一个{@link #lastAccessTime}对象
+     */
+    private static volatile long lastAccessMillis;
 
     public static void stopStat() {
         HttpxStat.isStop = true;
@@ -83,23 +88,23 @@ public class HttpxStat {
         if (isStop) {
             return;
         }
-        lastAccessTime = new Date();
+        long now = access();
         reqTotalCount.incrementAndGet();
         reqFailureCount.incrementAndGet();
         if (e != null) {
             reqExceptionCount.incrementAndGet();
-            if (errorMsgs.size() >= MAX_ERROR_MSG_COUNT) {
-                errorMsgs.removeFirst();
-            }
             StringBuilder errorMsg = new StringBuilder();
-            errorMsg.append(DateKit.format(new Date(), Fields.NORM_DATETIME_PATTERN))
+            errorMsg.append(DateKit.format(new Date(now), Fields.NORM_DATETIME_PATTERN))
                     .append(Symbol.HT)
                     .append(url)
                     .append(Symbol.HT)
                     .append(e.getClass().getName())
                     .append(Symbol.HT)
                     .append(e.getMessage());
-            errorMsgs.add(errorMsg.toString());
+            // 队列已满时丢弃最旧的记录,并发时不会因为队列满而抛出异常
+            while (!errorMsgs.offerLast(errorMsg.toString())) {
+                errorMsgs.pollFirst();
+            }
         }
     }
 
@@ -107,8 +112,22 @@ public class HttpxStat {
         if (isStop) {
             return;
         }
-        lastAccessTime = new Date();
+        access();
         reqTotalCount.incrementAndGet();
     }
 
+    /**
+     * 记录访问时间,仅在毫秒数变化时创建新的{@link Date}
+     *
+     * @return 当前毫秒数
+     */
+    private static long access() {
+        long now = System.currentTimeMillis();
+        if (now != lastAccessMillis) {
+            lastAccessMillis = now;
+            lastAccessTime = new Date(now);
+        }
+        return now;
+    }
+
 }
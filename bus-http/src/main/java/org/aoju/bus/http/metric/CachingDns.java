@@ -0,0 +1,412 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.http.metric;
+
+import org.aoju.bus.http.DnsX;
+import org.aoju.bus.logger.Logger;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Security;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * 带缓存的DNS解析器
+ * 在有效期内直接返回缓存结果;临近过期时在后台提前刷新,不阻塞请求;
+ * 过期后在宽限期内直接返回过期结果,同时在后台刷新一次(stale-while-revalidate)
+ * 解析失败的结果也会短暂缓存,故障期间不会每次请求都阻塞在底层查询上
+ * 同一主机名的并发解析只会触发一次底层查询
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public final class CachingDns implements DnsX {
+
+    /**
+     * 后台刷新线程,允许解析器本身被垃圾回收
+     * 线程数和排队数都有上限,超出时放弃本次刷新,由下次请求再触发
+     */
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(4,
+            4, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(256),
+            org.aoju.bus.http.Builder.threadFactory("Httpd CachingDns", true));
+
+    static {
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private final DnsX delegate;
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final long staleTtlNanos;
+    private final long negativeTtlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    /**
+     * 最近解析失败的主机名
+     */
+    private final Map<String, Failure> failures = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<List<InetAddress>>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private CachingDns(Builder builder) {
+        this.delegate = builder.delegate;
+        this.ttlNanos = builder.ttlNanos;
+        this.refreshAheadNanos = (long) (builder.ttlNanos * builder.refreshAheadFactor);
+        this.staleTtlNanos = builder.staleTtlNanos;
+        this.negativeTtlNanos = builder.negativeTtlNanos;
+        this.maxEntries = builder.maxEntries;
+    }
+
+    /**
+     * JVM 配置的正向缓存时间(networkaddress.cache.ttl),未配置时为30秒
+     *
+     * @return 秒
+     */
+    static long defaultTtlSeconds() {
+        try {
+            String value = Security.getProperty("networkaddress.cache.ttl");
+            if (value != null) {
+                long ttl = Long.parseLong(value.trim());
+                if (ttl > 0) {
+                    return ttl;
+                }
+            }
+        } catch (NumberFormatException | SecurityException ignored) {
+        }
+        return 30;
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        return resolve(hostname).addresses;
+    }
+
+    /**
+     * 解析主机名并返回结果来源
+     *
+     * @param hostname 主机名
+     * @return 解析结果
+     * @throws UnknownHostException 解析失败且无可用的过期结果
+     */
+    public Resolution resolve(String hostname) throws UnknownHostException {
+        if (hostname == null) throw new UnknownHostException("hostname == null");
+
+        long now = System.nanoTime();
+        Entry entry = cache.get(hostname);
+        if (entry != null && now - entry.resolvedAtNanos < ttlNanos) {
+            if (now - entry.resolvedAtNanos >= refreshAheadNanos) {
+                refreshAsync(hostname, now);
+            }
+            return new Resolution(entry.addresses, true, false);
+        }
+        if (entry != null && now - entry.resolvedAtNanos < ttlNanos + staleTtlNanos) {
+            // 先返回过期结果,由后台刷新
+            refreshAsync(hostname, now);
+            return new Resolution(entry.addresses, true, true);
+        }
+
+        Failure failure = failures.get(hostname);
+        if (failure != null && now - failure.failedAtNanos < negativeTtlNanos) {
+            throw new UnknownHostException(failure.message);
+        }
+        return new Resolution(await(hostname, query(hostname)), false, false);
+    }
+
+    /**
+     * 清除全部缓存
+     */
+    public void evictAll() {
+        cache.clear();
+        failures.clear();
+    }
+
+    /**
+     * 缓存的主机名数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    private void refreshAsync(String hostname, long now) {
+        Failure failure = failures.get(hostname);
+        if (failure != null && now - failure.failedAtNanos < negativeTtlNanos) {
+            return;
+        }
+        if (!refreshing.add(hostname)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    await(hostname, query(hostname));
+                } catch (UnknownHostException e) {
+                    // 保留原有结果,宽限期内继续返回过期结果
+                    Logger.warn("Background DNS refresh failed for " + hostname + ": " + e.getMessage());
+                } finally {
+                    refreshing.remove(hostname);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(hostname);
+        }
+    }
+
+    /**
+     * 发起查询,同一主机名的并发查询共享同一结果
+     *
+     * @param hostname 主机名
+     * @return 查询结果
+     */
+    private CompletableFuture<List<InetAddress>> query(String hostname) {
+        CompletableFuture<List<InetAddress>> created = new CompletableFuture<>();
+        CompletableFuture<List<InetAddress>> existing = inFlight.putIfAbsent(hostname, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            List<InetAddress> addresses = delegate.lookup(hostname);
+            if (addresses.isEmpty()) {
+                throw new UnknownHostException(delegate + " returned no addresses for " + hostname);
+            }
+            addresses = Collections.unmodifiableList(addresses);
+            put(hostname, addresses);
+            failures.remove(hostname);
+            created.complete(addresses);
+        } catch (Throwable e) {
+            if (e instanceof UnknownHostException) {
+                fail(hostname, e.getMessage());
+            }
+            created.completeExceptionally(e);
+        } finally {
+            inFlight.remove(hostname, created);
+        }
+        return created;
+    }
+
+    private List<InetAddress> await(String hostname, CompletableFuture<List<InetAddress>> future)
+            throws UnknownHostException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw (UnknownHostException) new UnknownHostException(hostname).initCause(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UnknownHostException) {
+                throw (UnknownHostException) cause;
+            }
+            throw (UnknownHostException) new UnknownHostException(hostname).initCause(cause);
+        }
+    }
+
+    private void put(String hostname, List<InetAddress> addresses) {
+        long now = System.nanoTime();
+        if (cache.size() >= maxEntries && !cache.containsKey(hostname)) {
+            // 先清除已彻底过期的条目,仍然超限时任意淘汰一个
+            Iterator<Entry> iterator = cache.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().resolvedAtNanos >= ttlNanos + staleTtlNanos) {
+                    iterator.remove();
+                }
+            }
+            iterator = cache.values().iterator();
+            while (cache.size() >= maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        cache.put(hostname, new Entry(addresses, now));
+    }
+
+    private void fail(String hostname, String message) {
+        if (negativeTtlNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (failures.size() >= maxEntries && !failures.containsKey(hostname)) {
+            failures.values().removeIf(failure -> now - failure.failedAtNanos >= negativeTtlNanos);
+            Iterator<Failure> iterator = failures.values().iterator();
+            while (failures.size() >= maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        failures.put(hostname, new Failure(message, now));
+    }
+
+    @Override
+    public String toString() {
+        return "CachingDns(" + delegate + ")";
+    }
+
+    /**
+     * 解析结果
+     */
+    public static final class Resolution {
+
+        /**
+         * 地址列表
+         */
+        public final List<InetAddress> addresses;
+        /**
+         * 是否来自缓存
+         */
+        public final boolean cached;
+        /**
+         * 是否为超过有效期后返回的过期结果
+         */
+        public final boolean stale;
+
+        Resolution(List<InetAddress> addresses, boolean cached, boolean stale) {
+            this.addresses = addresses;
+            this.cached = cached;
+            this.stale = stale;
+        }
+    }
+
+    private static final class Entry {
+
+        final List<InetAddress> addresses;
+        final long resolvedAtNanos;
+
+        Entry(List<InetAddress> addresses, long resolvedAtNanos) {
+            this.addresses = addresses;
+            this.resolvedAtNanos = resolvedAtNanos;
+        }
+    }
+
+    private static final class Failure {
+
+        final String message;
+        final long failedAtNanos;
+
+        Failure(String message, long failedAtNanos) {
+            this.message = message;
+            this.failedAtNanos = failedAtNanos;
+        }
+    }
+
+    public static final class Builder {
+
+        DnsX delegate = DnsX.SYSTEM;
+        long ttlNanos = TimeUnit.SECONDS.toNanos(defaultTtlSeconds());
+        double refreshAheadFactor = 0.75;
+        long staleTtlNanos = TimeUnit.MINUTES.toNanos(5);
+        long negativeTtlNanos = TimeUnit.SECONDS.toNanos(2);
+        int maxEntries = 1024;
+
+        /**
+         * 设置底层解析器,默认为{@link DnsX#SYSTEM}
+         *
+         * @param delegate 底层解析器
+         * @return 构造器
+         */
+        public Builder delegate(DnsX delegate) {
+            if (delegate == null) throw new NullPointerException("delegate == null");
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * 设置缓存有效期,默认读取 networkaddress.cache.ttl,未配置时为30秒
+         *
+         * @param ttl  有效期
+         * @param unit 单位
+         * @return 构造器
+         */
+        public Builder ttl(long ttl, TimeUnit unit) {
+            if (ttl <= 0) throw new IllegalArgumentException("ttl <= 0: " + ttl);
+            this.ttlNanos = unit.toNanos(ttl);
+            return this;
+        }
+
+        /**
+         * 设置提前刷新的时间点,按有效期的比例计算,默认0.75
+         * 设置为1则不提前刷新
+         *
+         * @param factor 比例,取值(0, 1]
+         * @return 构造器
+         */
+        public Builder refreshAhead(double factor) {
+            if (factor <= 0 || factor > 1) throw new IllegalArgumentException("factor must be in (0, 1]: " + factor);
+            this.refreshAheadFactor = factor;
+            return this;
+        }
+
+        /**
+         * 设置超过有效期后可继续使用过期结果的时长,默认5分钟,设置为0则禁用
+         * 宽限期内直接返回过期结果并在后台刷新
+         *
+         * @param staleTtl 宽限期
+         * @param unit     单位
+         * @return 构造器
+         */
+        public Builder staleTtl(long staleTtl, TimeUnit unit) {
+            if (staleTtl < 0) throw new IllegalArgumentException("staleTtl < 0: " + staleTtl);
+            this.staleTtlNanos = unit.toNanos(staleTtl);
+            return this;
+        }
+
+        /**
+         * 设置解析失败结果的缓存时长,默认2秒,设置为0则禁用
+         * 缓存期内再次解析同一主机名直接失败,不再发起查询
+         *
+         * @param negativeTtl 缓存时长
+         * @param unit        单位
+         * @return 构造器
+         */
+        public Builder negativeTtl(long negativeTtl, TimeUnit unit) {
+            if (negativeTtl < 0) throw new IllegalArgumentException("negativeTtl < 0: " + negativeTtl);
+            this.negativeTtlNanos = unit.toNanos(negativeTtl);
+            return this;
+        }
+
+        /**
+         * 设置缓存的最大主机名数量,默认1024
+         *
+         * @param maxEntries 最大数量
+         * @return 构造器
+         */
+        public Builder maxEntries(int maxEntries) {
+            if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries <= 0: " + maxEntries);
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        public CachingDns build() {
+            return new CachingDns(this);
+        }
+    }
+
+}
@@ -87,6 +87,19 @@ public abstract class EventListener {
 
     }
 
+    /**
+     * 在DNS解析完成后、{@link #dnsEnd}之前调用,报告解析耗时及结果来源
+     *
+     * @param call       调用信息
+     * @param domainName 主机名
+     * @param tookNanos  解析耗时(纳秒)
+     * @param cached     是否来自{@link CachingDns}缓存
+     * @param stale      是否为超过有效期后返回的过期结果
+     */
+    public void dnsResolved(NewCall call, String domainName, long tookNanos, boolean cached, boolean stale) {
+
+    }
+
     /**
      * 仅在初始化套接字连接之前调用.
      * 如果不能重用{@link ConnectionPool}中的现有连接，则将调用此方法.
@@ -146,6 +159,61 @@ public abstract class EventListener {
 
     }
 
+    /**
+     * 连接竞速(happy eyeballs)中有连接建立成功后调用,此后在该路由上继续进行TLS握手
+     * 竞速中每个连接尝试均会触发{@link #connectStart},失败的尝试会触发{@link #connectFailed}
+     *
+     * @param call      调用信息
+     * @param route     胜出的路由
+     * @param attempts  发起的连接尝试数
+     * @param tookNanos 竞速耗时(纳秒)
+     */
+    public void connectRaceEnd(NewCall call, Route route, int attempts, long tookNanos) {
+
+    }
+
+    /**
+     * 连接失败后决定重试时调用,每次重试调用一次
+     *
+     * @param call       调用信息
+     * @param ioe        导致重试的异常
+     * @param retryCount 本次调用中的第几次重试
+     */
+    public void retryStart(NewCall call, IOException ioe, int retryCount) {
+
+    }
+
+    /**
+     * 请求在对冲延迟内没有响应,发起对冲请求时调用
+     * 该方法在对冲定时线程上调用,可能与调用线程上的其他事件并发
+     *
+     * @param call       调用信息
+     * @param delayNanos 发起对冲请求前等待的时间(纳秒)
+     */
+    public void hedgeStart(NewCall call, long delayNanos) {
+
+    }
+
+    /**
+     * 对冲请求分出胜负后调用,落败的请求已被取消
+     *
+     * @param call     调用信息
+     * @param hedgeWon true: 对冲请求先返回; false: 原请求先返回
+     */
+    public void hedgeEnd(NewCall call, boolean hedgeWon) {
+
+    }
+
+    /**
+     * 重试预算不足而放弃重试或对冲时调用
+     *
+     * @param call  调用信息
+     * @param hedge true: 放弃的是对冲请求; false: 放弃的是重试
+     */
+    public void retryBudgetExhausted(NewCall call, boolean hedge) {
+
+    }
+
     /**
      * 为{@code call}获取连接后调用.
      *
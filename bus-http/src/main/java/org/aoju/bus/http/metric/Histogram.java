@@ -0,0 +1,180 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.http.metric;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的耗时直方图
+ * 以微秒为单位按对数-线性分桶:小于16微秒每微秒一个桶,之后每个2的幂区间再均分为8个桶,
+ * 相对误差不超过12.5%,最大记录约1小时,超出部分计入最后一个桶
+ * 记录操作只做原子累加,不分配对象,可以在高并发下常开
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public final class Histogram {
+
+    private static final int LINEAR = 16;
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    /**
+     * 最大记录的二进制位数,2^42微秒约48天,实际按1小时以内设计
+     */
+    private static final int MAX_EXPONENT = 41;
+    private static final int BUCKETS = LINEAR + (MAX_EXPONENT - 4 + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    private static int bucket(long micros) {
+        if (micros < LINEAR) return (int) Math.max(0, micros);
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * 桶的上界(微秒),用于估算百分位
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR) return bucket;
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+        int sub = (bucket - LINEAR) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时(纳秒),小于0时忽略
+     */
+    public void record(long nanos) {
+        if (nanos < 0) return;
+        long micros = nanos / 1000L;
+        counts.incrementAndGet(bucket(micros));
+        sumMicros.add(micros);
+        long max;
+        while (micros > (max = maxMicros.get())) {
+            if (maxMicros.compareAndSet(max, micros)) break;
+        }
+    }
+
+    /**
+     * 清空已记录的数据,与并发的记录操作之间不保证原子性
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0L);
+        }
+        sumMicros.reset();
+        maxMicros.set(0L);
+    }
+
+    /**
+     * @return 当前数据的快照
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sumMicros.sum(), maxMicros.get());
+    }
+
+    /**
+     * 直方图快照
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sumMicros;
+        private final long maxMicros;
+
+        Snapshot(long[] counts, long count, long sumMicros, long maxMicros) {
+            this.counts = counts;
+            this.count = count;
+            this.sumMicros = sumMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        /**
+         * @return 记录次数
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * @param unit 时间单位
+         * @return 平均耗时
+         */
+        public double mean(TimeUnit unit) {
+            return count == 0 ? 0D : (double) unit.convert(sumMicros, TimeUnit.MICROSECONDS) / count;
+        }
+
+        /**
+         * @param unit 时间单位
+         * @return 最大耗时
+         */
+        public long max(TimeUnit unit) {
+            return unit.convert(maxMicros, TimeUnit.MICROSECONDS);
+        }
+
+        /**
+         * 估算百分位耗时,返回所在桶的上界(不超过最大值)
+         *
+         * @param percentile 百分位,取值[0, 1]
+         * @param unit       时间单位
+         * @return 耗时
+         */
+        public long percentile(double percentile, TimeUnit unit) {
+            if (percentile < 0 || percentile > 1) {
+                throw new IllegalArgumentException("percentile must be in [0, 1]: " + percentile);
+            }
+            if (count == 0) return 0L;
+            long rank = Math.max(1L, (long) Math.ceil(percentile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return unit.convert(Math.min(upperBound(i), maxMicros), TimeUnit.MICROSECONDS);
+                }
+            }
+            return unit.convert(maxMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+}
@@ -0,0 +1,370 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.http.metric;
+
+import org.aoju.bus.http.NewCall;
+import org.aoju.bus.http.Protocol;
+import org.aoju.bus.http.Request;
+import org.aoju.bus.http.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 按主机统计各阶段耗时的事件监听
+ * 记录DNS解析、TCP连接、TLS握手、请求写出、首字节和整个调用的耗时,
+ * 每个主机(可选再按路由模板细分)对应一组{@link Histogram}
+ * 每个调用只创建一个监听实例,各阶段只记录时间戳和原子累加,不额外分配对象
+ * <pre>
+ *     LatencyListener latency = new LatencyListener();
+ *     Httpd httpd = new Httpd.Builder().eventListenerFactory(latency).build();
+ *     ...
+ *     String report = latency.export(0.5, 0.99);
+ * </pre>
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public final class LatencyListener implements EventListener.Factory {
+
+    /**
+     * 未指定路由模板时使用的键
+     */
+    private static final String NO_TEMPLATE = "";
+
+    private final Function<Request, String> template;
+    private final ConcurrentMap<String, ConcurrentMap<String, Stats>> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * 只按主机统计
+     */
+    public LatencyListener() {
+        this(null);
+    }
+
+    /**
+     * 按主机和路由模板统计
+     * 模板应当是有限的集合(例如"/users/{id}"),不要直接使用包含参数的路径
+     *
+     * @param template 从请求中提取路由模板,返回null时只按主机统计
+     */
+    public LatencyListener(Function<Request, String> template) {
+        this.template = template;
+    }
+
+    @Override
+    public EventListener create(NewCall call) {
+        return new Timer(stats(call.request()));
+    }
+
+    private Stats stats(Request request) {
+        String host = request.url().host();
+        String key = NO_TEMPLATE;
+        if (null != template) {
+            String value = template.apply(request);
+            if (null != value) key = value;
+        }
+        ConcurrentMap<String, Stats> byTemplate = hosts.get(host);
+        if (null == byTemplate) {
+            byTemplate = hosts.computeIfAbsent(host, k -> new ConcurrentHashMap<>());
+        }
+        Stats stats = byTemplate.get(key);
+        if (null == stats) {
+            stats = byTemplate.computeIfAbsent(key, k -> new Stats());
+        }
+        return stats;
+    }
+
+    /**
+     * 返回所有主机的统计快照,键为主机名,按路由模板统计时为"主机名 模板"
+     *
+     * @return 统计快照
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> result = new TreeMap<>();
+        for (Map.Entry<String, ConcurrentMap<String, Stats>> host : hosts.entrySet()) {
+            for (Map.Entry<String, Stats> entry : host.getValue().entrySet()) {
+                String key = entry.getKey().isEmpty() ? host.getKey() : host.getKey() + " " + entry.getKey();
+                result.put(key, entry.getValue().snapshot());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 以文本形式导出各主机各阶段的次数、平均值和百分位(毫秒),每行一个阶段,例如
+     * <pre>
+     *     api.example.com total count=1024 failures=2 mean=12.31 p50=10.23 p99=85.50 max=120.02
+     * </pre>
+     *
+     * @param percentiles 需要导出的百分位,取值[0, 1]
+     * @return 文本
+     */
+    public String export(double... percentiles) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Snapshot> entry : snapshot().entrySet()) {
+            Snapshot snapshot = entry.getValue();
+            for (Phase phase : Phase.values()) {
+                Histogram.Snapshot histogram = snapshot.phase(phase);
+                if (histogram.count() == 0) continue;
+                builder.append(entry.getKey()).append(' ').append(phase.label)
+                        .append(" count=").append(histogram.count());
+                if (phase == Phase.TOTAL) {
+                    builder.append(" failures=").append(snapshot.failures());
+                }
+                builder.append(" mean=").append(millis(histogram.mean(TimeUnit.MICROSECONDS)));
+                for (double percentile : percentiles) {
+                    builder.append(" p").append(label(percentile)).append('=')
+                            .append(millis(histogram.percentile(percentile, TimeUnit.MICROSECONDS)));
+                }
+                builder.append(" max=").append(millis(histogram.max(TimeUnit.MICROSECONDS))).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 清空所有统计数据
+     */
+    public void reset() {
+        for (ConcurrentMap<String, Stats> byTemplate : hosts.values()) {
+            for (Stats stats : byTemplate.values()) {
+                stats.reset();
+            }
+        }
+    }
+
+    private static String millis(double micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / 1000D);
+    }
+
+    private static String label(double percentile) {
+        String value = String.format(Locale.ROOT, "%.3f", percentile * 100).replaceAll("\\.?0+$", "");
+        return value.replace('.', '_');
+    }
+
+    /**
+     * 统计的阶段
+     */
+    public enum Phase {
+        /**
+         * DNS解析
+         */
+        DNS("dns"),
+        /**
+         * 建立连接,包括TLS握手和代理隧道
+         */
+        CONNECT("connect"),
+        /**
+         * TLS握手
+         */
+        TLS("tls"),
+        /**
+         * 写出请求头和请求体
+         */
+        REQUEST("request"),
+        /**
+         * 从开始写出请求到收到响应头
+         */
+        FIRST_BYTE("ttfb"),
+        /**
+         * 整个调用,包括读取响应体
+         */
+        TOTAL("total");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * 单个主机的统计数据
+     */
+    private static final class Stats {
+
+        final Histogram[] histograms = new Histogram[Phase.values().length];
+        final LongAdder failures = new LongAdder();
+
+        Stats() {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new Histogram();
+            }
+        }
+
+        void record(Phase phase, long startNanos, long endNanos) {
+            if (startNanos != 0L) histograms[phase.ordinal()].record(endNanos - startNanos);
+        }
+
+        Snapshot snapshot() {
+            Histogram.Snapshot[] phases = new Histogram.Snapshot[histograms.length];
+            for (int i = 0; i < histograms.length; i++) {
+                phases[i] = histograms[i].snapshot();
+            }
+            return new Snapshot(phases, failures.sum());
+        }
+
+        void reset() {
+            for (Histogram histogram : histograms) {
+                histogram.reset();
+            }
+            failures.reset();
+        }
+    }
+
+    /**
+     * 单个主机的统计快照
+     */
+    public static final class Snapshot {
+
+        private final Histogram.Snapshot[] phases;
+        private final long failures;
+
+        Snapshot(Histogram.Snapshot[] phases, long failures) {
+            this.phases = phases;
+            this.failures = failures;
+        }
+
+        /**
+         * @param phase 阶段
+         * @return 该阶段的耗时分布
+         */
+        public Histogram.Snapshot phase(Phase phase) {
+            return phases[phase.ordinal()];
+        }
+
+        /**
+         * @return 失败的调用次数
+         */
+        public long failures() {
+            return failures;
+        }
+    }
+
+    /**
+     * 单个调用的计时器,只保存各阶段的开始时间
+     */
+    private static final class Timer extends EventListener {
+
+        private final Stats stats;
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long secureConnectStart;
+        private long requestStart;
+        private long requestEnd;
+
+        Timer(Stats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public void callStart(NewCall call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(NewCall call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(NewCall call, String domainName, List<InetAddress> inetAddressList) {
+            stats.record(Phase.DNS, dnsStart, System.nanoTime());
+        }
+
+        @Override
+        public void connectStart(NewCall call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectStart(NewCall call) {
+            secureConnectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(NewCall call, Handshake handshake) {
+            stats.record(Phase.TLS, secureConnectStart, System.nanoTime());
+        }
+
+        @Override
+        public void connectEnd(NewCall call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                               Protocol protocol) {
+            stats.record(Phase.CONNECT, connectStart, System.nanoTime());
+        }
+
+        @Override
+        public void requestHeadersStart(NewCall call) {
+            requestStart = System.nanoTime();
+            requestEnd = 0L;
+        }
+
+        @Override
+        public void requestHeadersEnd(NewCall call, Request request) {
+            requestEnd = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(NewCall call, long byteCount) {
+            requestEnd = System.nanoTime();
+        }
+
+        @Override
+        public void responseHeadersStart(NewCall call) {
+            if (requestEnd != 0L) stats.record(Phase.REQUEST, requestStart, requestEnd);
+            requestEnd = 0L;
+        }
+
+        @Override
+        public void responseHeadersEnd(NewCall call, Response response) {
+            stats.record(Phase.FIRST_BYTE, requestStart, System.nanoTime());
+            requestStart = 0L;
+        }
+
+        @Override
+        public void callEnd(NewCall call) {
+            stats.record(Phase.TOTAL, callStart, System.nanoTime());
+        }
+
+        @Override
+        public void callFailed(NewCall call, IOException ioe) {
+            stats.record(Phase.TOTAL, callStart, System.nanoTime());
+            stats.failures.increment();
+        }
+    }
+
+}
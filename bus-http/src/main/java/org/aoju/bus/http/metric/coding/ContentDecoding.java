@@ -0,0 +1,131 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.http.metric.coding;
+
+import org.aoju.bus.core.io.BufferSource;
+import org.aoju.bus.core.io.Source;
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.toolkit.ClassKit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * HTTP 内容解码(Content-Encoding)
+ * 负责对响应体进行流式解码,同时支持编码的实现见{@link ContentCoding}
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public interface ContentDecoding {
+
+    /**
+     * 当前类路径下可用的内容解码,按优先顺序排列
+     * brotli 与 zstd 依赖可选的第三方库,缺失时自动忽略
+     *
+     * @return 内容解码列表
+     */
+    static List<ContentDecoding> available() {
+        return Holder.AVAILABLE;
+    }
+
+    /**
+     * 根据名称查找内容解码
+     *
+     * @param decodings 候选解码
+     * @param name      编码名称,如 gzip
+     * @return 内容解码, 未找到时为null
+     */
+    static ContentDecoding find(List<ContentDecoding> decodings, String name) {
+        for (ContentDecoding decoding : decodings) {
+            if (decoding.name().equalsIgnoreCase(name)) {
+                return decoding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 构建 Accept-Encoding 头的值
+     *
+     * @param decodings 内容解码
+     * @return 头值
+     */
+    static String acceptEncoding(List<ContentDecoding> decodings) {
+        StringBuilder builder = new StringBuilder();
+        for (ContentDecoding decoding : decodings) {
+            if (builder.length() > 0) {
+                builder.append(Symbol.COMMA).append(Symbol.SPACE);
+            }
+            builder.append(decoding.name());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 编码名称,与 Content-Encoding 头中的取值一致
+     *
+     * @return 编码名称
+     */
+    String name();
+
+    /**
+     * 对编码后的数据进行流式解码
+     *
+     * @param source 编码后的数据
+     * @return 解码后的数据
+     * @throws IOException 异常
+     */
+    Source decode(BufferSource source) throws IOException;
+
+    /**
+     * 延迟探测可选依赖
+     */
+    final class Holder {
+
+        static final List<ContentDecoding> AVAILABLE;
+
+        static {
+            List<ContentDecoding> decodings = new ArrayList<>();
+            if (ClassKit.isPresent("com.github.luben.zstd.ZstdInputStream")) {
+                decodings.add(new ZstdCoding());
+            }
+            if (ClassKit.isPresent("org.brotli.dec.BrotliInputStream")) {
+                decodings.add(new BrotliDecoding());
+            }
+            decodings.add(new GzipCoding());
+            AVAILABLE = Collections.unmodifiableList(decodings);
+        }
+
+        private Holder() {
+
+        }
+    }
+
+}
@@ -26,7 +26,9 @@
 package org.aoju.bus.http.metric.http;
 
 import org.aoju.bus.core.Version;
-import org.aoju.bus.core.io.GzipSource;
+import org.aoju.bus.core.io.BufferSink;
+import org.aoju.bus.core.io.BufferSource;
+import org.aoju.bus.core.io.Source;
 import org.aoju.bus.core.lang.Header;
 import org.aoju.bus.core.lang.MediaType;
 import org.aoju.bus.core.lang.Symbol;
@@ -36,8 +38,11 @@ import org.aoju.bus.http.bodys.RealResponseBody;
 import org.aoju.bus.http.bodys.RequestBody;
 import org.aoju.bus.http.metric.CookieJar;
 import org.aoju.bus.http.metric.Interceptor;
+import org.aoju.bus.http.metric.coding.ContentCoding;
+import org.aoju.bus.http.metric.coding.ContentDecoding;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -51,9 +56,28 @@ import java.util.List;
 public final class BridgeInterceptor implements Interceptor {
 
     private final CookieJar cookieJar;
+    /**
+     * 支持透明解码的内容编码
+     */
+    private final List<ContentDecoding> contentCodings;
+    /**
+     * 请求体编码,为null时不压缩请求体
+     */
+    private final ContentCoding requestCoding;
+    /**
+     * 预先构建的 Accept-Encoding 头
+     */
+    private final String acceptEncoding;
 
     public BridgeInterceptor(CookieJar cookieJar) {
+        this(cookieJar, ContentDecoding.available(), null);
+    }
+
+    public BridgeInterceptor(CookieJar cookieJar, List<ContentDecoding> contentCodings, ContentCoding requestCoding) {
         this.cookieJar = cookieJar;
+        this.contentCodings = contentCodings;
+        this.requestCoding = requestCoding;
+        this.acceptEncoding = ContentDecoding.acceptEncoding(contentCodings);
     }
 
     @Override
@@ -62,6 +86,11 @@ public final class BridgeInterceptor implements Interceptor {
         Request.Builder requestBuilder = userRequest.newBuilder();
 
         RequestBody body = userRequest.body();
+        if (body != null && requestCoding != null && userRequest.header(Header.CONTENT_ENCODING) == null) {
+            body = encode(body, requestCoding);
+            requestBuilder.header(Header.CONTENT_ENCODING, requestCoding.name());
+            requestBuilder.method(userRequest.method(), body);
+        }
         if (body != null) {
             MediaType contentType = body.contentType();
             if (contentType != null) {
@@ -86,12 +115,12 @@ public final class BridgeInterceptor implements Interceptor {
             requestBuilder.header(Header.CONNECTION, Header.KEEP_ALIVE);
         }
 
-        // If we add an "Accept-Encoding: gzip" header field we're responsible for also decompressing
-        // the transfer stream.
-        boolean transparentGzip = false;
-        if (userRequest.header(Header.ACCEPT_ENCODING) == null && userRequest.header("Range") == null) {
-            transparentGzip = true;
-            requestBuilder.header(Header.ACCEPT_ENCODING, "gzip");
+        // 如果由此添加了 Accept-Encoding 头,则同样由此负责解码响应
+        boolean transparentDecoding = false;
+        if (userRequest.header(Header.ACCEPT_ENCODING) == null && userRequest.header("Range") == null
+                && !contentCodings.isEmpty()) {
+            transparentDecoding = true;
+            requestBuilder.header(Header.ACCEPT_ENCODING, acceptEncoding);
         }
 
         List<Cookie> cookies = cookieJar.loadForRequest(userRequest.url());
@@ -110,10 +139,18 @@ public final class BridgeInterceptor implements Interceptor {
         Response.Builder responseBuilder = networkResponse.newBuilder()
                 .request(userRequest);
 
-        if (transparentGzip
-                && "gzip".equalsIgnoreCase(networkResponse.header(Header.CONTENT_ENCODING))
-                && HttpHeaders.hasBody(networkResponse)) {
-            GzipSource responseBody = new GzipSource(networkResponse.body().source());
+        List<ContentDecoding> codings = transparentDecoding
+                ? decodings(networkResponse.header(Header.CONTENT_ENCODING))
+                : null;
+        if (codings != null && HttpHeaders.hasBody(networkResponse)) {
+            Source responseBody = networkResponse.body().source();
+            // 按编码的逆序依次解码
+            for (int i = codings.size() - 1; i >= 0; i--) {
+                BufferSource encoded = responseBody instanceof BufferSource
+                        ? (BufferSource) responseBody
+                        : IoKit.buffer(responseBody);
+                responseBody = codings.get(i).decode(encoded);
+            }
             Headers strippedHeaders = networkResponse.headers().newBuilder()
                     .removeAll(Header.CONTENT_ENCODING)
                     .removeAll(Header.CONTENT_LENGTH)
@@ -126,6 +163,59 @@ public final class BridgeInterceptor implements Interceptor {
         return responseBuilder.build();
     }
 
+    /**
+     * 解析 Content-Encoding 头,仅当所有编码均可解码时返回
+     *
+     * @param contentEncoding Content-Encoding 头
+     * @return 按出现顺序排列的内容编码, 无需或无法解码时为null
+     */
+    private List<ContentDecoding> decodings(String contentEncoding) {
+        if (contentEncoding == null) {
+            return null;
+        }
+        List<ContentDecoding> result = new ArrayList<>(1);
+        for (String name : contentEncoding.split(Symbol.COMMA)) {
+            name = name.trim();
+            if (name.isEmpty() || "identity".equalsIgnoreCase(name)) {
+                continue;
+            }
+            ContentDecoding coding = ContentDecoding.find(contentCodings, name);
+            if (coding == null) {
+                return null;
+            }
+            result.add(coding);
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * 使用指定编码包装请求体,编码后长度未知,将以分块方式传输
+     *
+     * @param body   原始请求体
+     * @param coding 内容编码
+     * @return 编码后的请求体
+     */
+    private static RequestBody encode(RequestBody body, ContentCoding coding) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return body.contentType();
+            }
+
+            @Override
+            public long contentLength() {
+                return -1;
+            }
+
+            @Override
+            public void writeTo(BufferSink sink) throws IOException {
+                BufferSink encodedSink = IoKit.buffer(coding.encode(sink));
+                body.writeTo(encodedSink);
+                encodedSink.close();
+            }
+        };
+    }
+
     private String cookieHeader(List<Cookie> cookies) {
         StringBuilder cookieHeader = new StringBuilder();
         for (int i = 0, size = cookies.size(); i < size; i++) {
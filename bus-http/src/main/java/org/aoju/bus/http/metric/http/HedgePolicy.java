@@ -0,0 +1,124 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.http.metric.http;
+
+import org.aoju.bus.core.lang.Http;
+import org.aoju.bus.http.Request;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求对冲策略
+ * 对幂等请求(GET、HEAD、OPTIONS且没有请求体),如果在延迟时间内没有收到响应,
+ * 则使用新的连接再发起一次相同的请求,先返回的响应胜出,另一个请求被取消
+ * 延迟时间取最近响应耗时的指定百分位,并限制在最小和最大延迟之间;样本不足时使用最大延迟
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public final class HedgePolicy {
+
+    /**
+     * 保留的最近响应耗时样本数
+     */
+    private static final int SAMPLES = 256;
+    /**
+     * 计算百分位所需的最少样本数
+     */
+    private static final int MIN_SAMPLES = 32;
+    /**
+     * 每记录多少个样本重新计算一次延迟
+     */
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final long[] samples = new long[SAMPLES];
+    private int count;
+    private int next;
+    private int sinceRecompute;
+    private long delayNanos;
+
+    /**
+     * @param percentile 百分位,取值(0, 1),例如0.95表示在p95耗时后发起对冲请求
+     * @param minDelay   最小延迟
+     * @param maxDelay   最大延迟,样本不足时使用
+     * @param unit       时间单位
+     */
+    public HedgePolicy(double percentile, long minDelay, long maxDelay, TimeUnit unit) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1): " + percentile);
+        }
+        if (minDelay < 0 || maxDelay < minDelay) {
+            throw new IllegalArgumentException("invalid delay range: " + minDelay + ".." + maxDelay);
+        }
+        this.percentile = percentile;
+        this.minDelayNanos = unit.toNanos(minDelay);
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.delayNanos = maxDelayNanos;
+    }
+
+    /**
+     * 判断请求是否可以对冲
+     *
+     * @param request 请求
+     * @return true: 可以对冲
+     */
+    public boolean isHedgeable(Request request) {
+        if (request.body() != null) return false;
+        String method = request.method();
+        return Http.GET.equals(method) || Http.HEAD.equals(method) || Http.OPTIONS.equals(method);
+    }
+
+    /**
+     * 记录一次原请求的响应耗时,对冲请求胜出时记录原请求已经等待的时间
+     *
+     * @param tookNanos 从发起原请求到收到响应头的耗时
+     */
+    public synchronized void record(long tookNanos) {
+        samples[next] = tookNanos;
+        next = (next + 1) % SAMPLES;
+        if (count < SAMPLES) count++;
+        if (++sinceRecompute >= RECOMPUTE_INTERVAL && count >= MIN_SAMPLES) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            long value = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+            delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+        }
+    }
+
+    /**
+     * @return 发起对冲请求前的等待时间(纳秒)
+     */
+    public synchronized long delayNanos() {
+        return delayNanos;
+    }
+
+}
@@ -136,6 +136,17 @@ public final class RealInterceptorChain implements Interceptor.Chain {
         return eventListener;
     }
 
+    /**
+     * 返回使用指定事件监听器的拦截器链副本,用于在其他线程上独立执行请求
+     *
+     * @param eventListener 事件监听器
+     * @return 拦截器链
+     */
+    public RealInterceptorChain withEventListener(EventListener eventListener) {
+        return new RealInterceptorChain(interceptors, streamAllocation, httpCodec, connection, index,
+                request, call, eventListener, connectTimeout, readTimeout, writeTimeout);
+    }
+
     @Override
     public Request request() {
         return request;
@@ -35,12 +35,9 @@ import org.aoju.bus.http.bodys.RequestBody;
 import org.aoju.bus.http.bodys.UnrepeatableBody;
 import org.aoju.bus.http.metric.EventListener;
 import org.aoju.bus.http.metric.Interceptor;
-import org.aoju.bus.http.secure.CertificatePinner;
 
-import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLHandshakeException;
 import javax.net.ssl.SSLPeerUnverifiedException;
-import javax.net.ssl.SSLSocketFactory;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InterruptedIOException;
@@ -49,6 +46,7 @@ import java.net.ProtocolException;
 import java.net.Proxy;
 import java.net.SocketTimeoutException;
 import java.security.cert.CertificateException;
+import java.util.concurrent.*;
 
 /**
  * 该拦截器从失败中恢复，并根据需要进行重定向
@@ -65,10 +63,23 @@ public final class RetryAndFollowUp implements Interceptor {
      * Firefox、curl和wget遵循20;Safari是16;HTTP/1.0建议5
      */
     private static final int MAX_FOLLOW_UPS = 20;
+    /**
+     * 到达对冲延迟时发起对冲请求,只负责把请求交给调度器执行
+     */
+    private static final ScheduledThreadPoolExecutor HEDGE_TIMER = new ScheduledThreadPoolExecutor(1,
+            Builder.threadFactory("Httpd Hedge Timer", true));
+
+    static {
+        HEDGE_TIMER.setRemoveOnCancelPolicy(true);
+    }
 
     private final Httpd client;
     private final boolean forWebSocket;
     private volatile StreamAllocation streamAllocation;
+    /**
+     * 正在进行的对冲请求
+     */
+    private volatile StreamAllocation hedgeAllocation;
     private Object callStackTrace;
     private volatile boolean canceled;
 
@@ -87,6 +98,8 @@ public final class RetryAndFollowUp implements Interceptor {
         canceled = true;
         StreamAllocation streamAllocation = this.streamAllocation;
         if (streamAllocation != null) streamAllocation.cancel();
+        StreamAllocation hedgeAllocation = this.hedgeAllocation;
+        if (hedgeAllocation != null) hedgeAllocation.cancel();
     }
 
     public boolean isCanceled() {
@@ -112,7 +125,12 @@ public final class RetryAndFollowUp implements Interceptor {
                 createAddress(request.url()), call, eventListener, callStackTrace);
         this.streamAllocation = streamAllocation;
 
+        RetryBudget retryBudget = client.retryBudget();
+        if (retryBudget != null) retryBudget.deposit();
+        HedgePolicy hedgePolicy = forWebSocket ? null : client.hedgePolicy();
+
         int followUpCount = 0;
+        int retryCount = 0;
         Response priorResponse = null;
         while (true) {
             if (canceled) {
@@ -123,19 +141,27 @@ public final class RetryAndFollowUp implements Interceptor {
             Response response;
             boolean releaseConnection = true;
             try {
-                response = realChain.proceed(request, streamAllocation, null, null);
+                if (hedgePolicy != null && hedgePolicy.isHedgeable(request)) {
+                    response = proceedHedged(realChain, request, streamAllocation, hedgePolicy);
+                    // 对冲请求胜出时改用它的连接
+                    streamAllocation = this.streamAllocation;
+                } else {
+                    response = realChain.proceed(request, streamAllocation, null, null);
+                }
                 releaseConnection = false;
             } catch (RouteException e) {
                 // 图通过路由连接失败。请求将不会被发送.
-                if (!recover(e.getLastConnectException(), streamAllocation, false, request)) {
+                if (!recover(e.getLastConnectException(), streamAllocation, false, request, call, eventListener)) {
                     throw e.getFirstConnectException();
                 }
+                eventListener.retryStart(call, e.getLastConnectException(), ++retryCount);
                 releaseConnection = false;
                 continue;
             } catch (IOException e) {
                 // 试图与服务器通信失败。请求可能已经发送.
                 boolean requestSendStarted = !(e instanceof RelevantException);
-                if (!recover(e, streamAllocation, requestSendStarted, request)) throw e;
+                if (!recover(e, streamAllocation, requestSendStarted, request, call, eventListener)) throw e;
+                eventListener.retryStart(call, e, ++retryCount);
                 releaseConnection = false;
                 continue;
             } finally {
@@ -196,22 +222,140 @@ public final class RetryAndFollowUp implements Interceptor {
     }
 
     private Address createAddress(UnoUrl url) {
-        SSLSocketFactory sslSocketFactory = null;
-        HostnameVerifier hostnameVerifier = null;
-        CertificatePinner certificatePinner = null;
-        if (url.isHttps()) {
-            sslSocketFactory = client.sslSocketFactory();
-            hostnameVerifier = client.hostnameVerifier();
-            certificatePinner = client.certificatePinner();
+        return client.address(url);
+    }
+
+    /**
+     * 以对冲方式执行请求:原请求在调用线程上执行,超过对冲延迟仍未收到响应时,
+     * 在调度器线程上使用另一个连接再发起一次相同的请求,先返回的响应胜出,另一个请求被取消
+     * 对冲请求使用独立的拦截器链且不上报事件,除发起对冲时在定时线程上发出的
+     * {@link EventListener#hedgeStart}外,其余事件只在调用线程上发出
+     * 只有所有请求都失败时才抛出原请求的异常,由调用方按照普通失败处理
+     *
+     * @param chain       拦截器链
+     * @param request     请求
+     * @param primary     原请求的连接协调者
+     * @param hedgePolicy 对冲策略
+     * @return 响应
+     * @throws IOException 所有请求都失败
+     */
+    private Response proceedHedged(RealInterceptorChain chain, Request request,
+                                   StreamAllocation primary, HedgePolicy hedgePolicy) throws IOException {
+        NewCall call = chain.call();
+        EventListener eventListener = chain.eventListener();
+        Race race = new Race();
+        Attempt first = new Attempt(chain, request, primary, race, null);
+
+        long startNanos = System.nanoTime();
+        long delayNanos = hedgePolicy.delayNanos();
+        ScheduledFuture<?> timer = HEDGE_TIMER.schedule(
+                () -> launchHedge(chain, request, first, race, delayNanos), delayNanos, TimeUnit.NANOSECONDS);
+        first.run();
+        timer.cancel(false);
+
+        Attempt hedge = race.close();
+        if (hedge == null) {
+            if (race.budgetExhausted) eventListener.retryBudgetExhausted(call, true);
+            if (first.response == null) throw rethrow(first.failure, null);
+            hedgePolicy.record(System.nanoTime() - startNanos);
+            return first.response;
+        }
+
+        // 原请求失败时等待对冲请求结束
+        boolean interrupted = false;
+        try {
+            while (race.winner() == null && !race.isDone(hedge)) {
+                try {
+                    race.awaitDone(hedge);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    hedge.allocation.cancel();
+                }
+            }
+        } finally {
+            this.hedgeAllocation = null;
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+
+        Attempt winner = race.winner();
+        eventListener.hedgeEnd(call, winner == hedge);
+        if (winner == first) {
+            // 取消落败的对冲请求，它结束后自行释放资源
+            hedgePolicy.record(first.tookNanos);
+            if (race.abandon(hedge)) {
+                hedge.discard();
+            } else {
+                hedge.allocation.cancel();
+            }
+            return first.response;
         }
 
-        return new Address(url.host(), url.port(), client.dns(), client.socketFactory(),
-                sslSocketFactory, hostnameVerifier, certificatePinner, client.proxyAuthenticator(),
-                client.proxy(), client.protocols(), client.connectionSpecs(), client.proxySelector());
+        // 都失败时释放对冲请求的连接,原请求的连接交给调用方按普通失败处理
+        if (winner == null) {
+            hedge.discard();
+            throw rethrow(first.failure, hedge.failure);
+        }
+        first.discard();
+
+        // 原请求至少耗时这么久,按此记录避免对冲胜出后延迟被低估
+        hedgePolicy.record(hedge.finishNanos - startNanos);
+        this.streamAllocation = hedge.allocation;
+        if (canceled) hedge.allocation.cancel();
+        return winner.response;
+    }
+
+    /**
+     * 对冲延迟已到且原请求仍未结束时,在调度器线程上发起对冲请求
+     * 调度器有排队的请求时不发起,对冲请求不应挤占其他请求的并发额度
+     *
+     * @param chain      拦截器链
+     * @param request    请求
+     * @param first      原请求
+     * @param race       对冲请求的执行状态
+     * @param delayNanos 对冲延迟
+     */
+    private void launchHedge(RealInterceptorChain chain, Request request, Attempt first, Race race,
+                             long delayNanos) {
+        if (canceled || race.isClosed() || client.dispatcher().queuedCallsCount() > 0) return;
+        RetryBudget retryBudget = client.retryBudget();
+        if (retryBudget != null && !retryBudget.tryWithdraw()) {
+            race.budgetExhausted = true;
+            return;
+        }
+
+        StreamAllocation allocation = new StreamAllocation(client.connectionPool(),
+                createAddress(request.url()), chain.call(), EventListener.NONE, callStackTrace);
+        allocation.avoid(first.allocation.connection());
+        Attempt hedge = new Attempt(chain.withEventListener(EventListener.NONE), request, allocation, race, first);
+        this.hedgeAllocation = allocation;
+        if (!race.launch(hedge)) {
+            this.hedgeAllocation = null;
+            allocation.release();
+            return;
+        }
+        if (canceled) allocation.cancel();
+        try {
+            // 在对冲请求开始执行前发出,保证先于hedgeEnd
+            chain.eventListener().hedgeStart(chain.call(), delayNanos);
+            client.dispatcher().executorService().execute(hedge);
+        } catch (RuntimeException e) {
+            // 监听器异常或调度器拒绝执行,对冲请求按失败结束
+            hedge.failure = e;
+            if (!race.complete(hedge)) hedge.discard();
+        }
+    }
+
+    private static IOException rethrow(Throwable failure, Throwable suppressed) {
+        if (suppressed != null && suppressed != failure) failure.addSuppressed(suppressed);
+        if (failure instanceof IOException) return (IOException) failure;
+        if (failure instanceof RuntimeException) throw (RuntimeException) failure;
+        if (failure instanceof Error) throw (Error) failure;
+        return new IOException(failure);
     }
 
     private boolean recover(IOException e, StreamAllocation streamAllocation,
-                            boolean requestSendStarted, Request userRequest) {
+                            boolean requestSendStarted, Request userRequest,
+                            NewCall call, EventListener eventListener) {
         streamAllocation.streamFailed(e);
 
         // 应用层禁止重试.
@@ -226,6 +370,13 @@ public final class RetryAndFollowUp implements Interceptor {
         // 没有更多的路线可以尝试
         if (!streamAllocation.hasMoreRoutes()) return false;
 
+        // 重试预算不足，避免故障期间重试放大负载
+        RetryBudget retryBudget = client.retryBudget();
+        if (retryBudget != null && !retryBudget.tryWithdraw()) {
+            eventListener.retryBudgetExhausted(call, false);
+            return false;
+        }
+
         // 对于故障恢复，使用与新连接相同的路由选择器
         return true;
     }
@@ -377,4 +528,145 @@ public final class RetryAndFollowUp implements Interceptor {
                 && url.scheme().equals(followUp.scheme());
     }
 
+    /**
+     * 对冲请求中的一次执行
+     */
+    private static final class Attempt implements Runnable {
+
+        final RealInterceptorChain chain;
+        final Request request;
+        final StreamAllocation allocation;
+        final Race race;
+        /**
+         * 胜出时需要取消的另一个执行,原请求为null
+         */
+        final Attempt rival;
+        Response response;
+        Throwable failure;
+        long tookNanos;
+        long finishNanos;
+        boolean done;
+        boolean abandoned;
+
+        Attempt(RealInterceptorChain chain, Request request, StreamAllocation allocation, Race race,
+                Attempt rival) {
+            this.chain = chain;
+            this.request = request;
+            this.allocation = allocation;
+            this.race = race;
+            this.rival = rival;
+        }
+
+        @Override
+        public void run() {
+            long startNanos = System.nanoTime();
+            try {
+                response = chain.proceed(request, allocation, null, null);
+            } catch (Throwable e) {
+                failure = e;
+            }
+            finishNanos = System.nanoTime();
+            tookNanos = finishNanos - startNanos;
+            if (!race.complete(this)) {
+                discard();
+            } else if (rival != null && race.winner() == this && !race.isDone(rival)) {
+                // 对冲请求先返回，中断仍在等待响应的原请求
+                rival.allocation.cancel();
+            }
+        }
+
+        /**
+         * 释放落败请求占用的连接和响应
+         */
+        void discard() {
+            if (response != null) {
+                IoKit.close(response);
+            } else if (failure instanceof RouteException) {
+                allocation.streamFailed(((RouteException) failure).getLastConnectException());
+            } else {
+                allocation.streamFailed(failure instanceof IOException ? (IOException) failure : null);
+            }
+            allocation.release();
+        }
+    }
+
+    /**
+     * 对冲请求的执行状态
+     */
+    private static final class Race {
+
+        /**
+         * 重试预算不足而没有发起对冲请求
+         */
+        volatile boolean budgetExhausted;
+        private Attempt hedge;
+        private Attempt winner;
+        private boolean closed;
+
+        /**
+         * 登记对冲请求
+         *
+         * @return false: 原请求已经结束，不再发起
+         */
+        synchronized boolean launch(Attempt attempt) {
+            if (closed) return false;
+            hedge = attempt;
+            return true;
+        }
+
+        synchronized boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * 原请求结束后调用，此后不再发起对冲请求
+         *
+         * @return 已经发起的对冲请求，没有则返回null
+         */
+        synchronized Attempt close() {
+            closed = true;
+            return hedge;
+        }
+
+        /**
+         * 记录执行结束，第一个收到响应的执行胜出
+         *
+         * @return false: 结果不再需要，由执行自行释放资源
+         */
+        synchronized boolean complete(Attempt attempt) {
+            if (attempt.abandoned) return false;
+            attempt.done = true;
+            if (winner == null && attempt.response != null) winner = attempt;
+            notifyAll();
+            return true;
+        }
+
+        /**
+         * 标记{@code attempt}的结果不再需要
+         *
+         * @return true: 已经结束，需要调用方释放资源
+         */
+        synchronized boolean abandon(Attempt attempt) {
+            attempt.abandoned = true;
+            return attempt.done;
+        }
+
+        synchronized boolean isDone(Attempt attempt) {
+            return attempt.done;
+        }
+
+        synchronized Attempt winner() {
+            return winner;
+        }
+
+        /**
+         * 等待执行结束或者已有执行胜出
+         */
+        synchronized void awaitDone(Attempt attempt) throws InterruptedException {
+            while (winner == null && !attempt.done) {
+                wait();
+            }
+        }
+    }
+
 }
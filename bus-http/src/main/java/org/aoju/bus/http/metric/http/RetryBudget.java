@@ -0,0 +1,98 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.http.metric.http;
+
+/**
+ * 重试预算(令牌桶)
+ * 每个请求存入{@code ratio}个令牌,每次重试或对冲取出一个令牌,令牌不足时放弃重试,
+ * 从而在故障期间把额外请求限制在正常流量的一定比例内,避免重试放大负载
+ * 另外每秒固定补充{@code minPerSecond}个令牌,保证低流量时仍可以重试
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public final class RetryBudget {
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double maxTokens;
+    private double tokens;
+    private long refilledAtNanos;
+
+    /**
+     * @param ratio        每个请求存入的令牌数,例如0.1表示重试最多占正常请求的10%
+     * @param minPerSecond 每秒固定补充的令牌数
+     * @param maxTokens    令牌桶容量
+     */
+    public RetryBudget(double ratio, double minPerSecond, double maxTokens) {
+        if (ratio < 0) throw new IllegalArgumentException("ratio < 0: " + ratio);
+        if (minPerSecond < 0) throw new IllegalArgumentException("minPerSecond < 0: " + minPerSecond);
+        if (maxTokens < 1) throw new IllegalArgumentException("maxTokens < 1: " + maxTokens);
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.maxTokens = maxTokens;
+        this.tokens = Math.min(maxTokens, minPerSecond);
+        this.refilledAtNanos = System.nanoTime();
+    }
+
+    /**
+     * 记录一次请求,存入令牌
+     */
+    public synchronized void deposit() {
+        refill();
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * 尝试为一次重试或对冲取出令牌
+     *
+     * @return true: 取出成功,可以重试
+     */
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * @return 当前可用令牌数
+     */
+    public synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        if (minPerSecond > 0) {
+            tokens = Math.min(maxTokens, tokens + (now - refilledAtNanos) / 1e9 * minPerSecond);
+        }
+        refilledAtNanos = now;
+    }
+
+}
@@ -0,0 +1,99 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.http.socket;
+
+import org.aoju.bus.core.io.Buffer;
+import org.aoju.bus.core.io.ByteString;
+import org.aoju.bus.core.io.DeflaterSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+/**
+ * permessage-deflate 消息压缩器
+ * 每个WebSocket持有一个实例,{@link Deflater}在整个连接生命周期内复用,
+ * 仅在协商了{@code no_context_takeover}时才于每条消息前重置
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+final class MessageDeflater implements Closeable {
+
+    /**
+     * SYNC_FLUSH 产生的空块尾部,按RFC 7692 第7.2.1节需从消息中移除
+     */
+    static final ByteString EMPTY_DEFLATE_BLOCK = ByteString.decodeHex("0000ffff");
+
+    private final boolean noContextTakeover;
+    private final Buffer deflatedBytes = new Buffer();
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final DeflaterSink deflaterSink = new DeflaterSink(deflatedBytes, deflater);
+    private boolean closed;
+
+    MessageDeflater(boolean noContextTakeover) {
+        this.noContextTakeover = noContextTakeover;
+    }
+
+    /**
+     * 将{@code buffer}中的全部内容压缩后写回{@code buffer}
+     *
+     * @param buffer 待压缩的消息
+     * @throws IOException 异常
+     */
+    synchronized void deflate(Buffer buffer) throws IOException {
+        if (closed) throw new IOException("closed");
+        if (deflatedBytes.size() != 0) throw new IllegalArgumentException("deflatedBytes not empty");
+
+        if (noContextTakeover) {
+            deflater.reset();
+        }
+
+        deflaterSink.write(buffer, buffer.size());
+        deflaterSink.flush();
+
+        long size = deflatedBytes.size();
+        if (size >= EMPTY_DEFLATE_BLOCK.size()
+                && deflatedBytes.rangeEquals(size - EMPTY_DEFLATE_BLOCK.size(), EMPTY_DEFLATE_BLOCK)) {
+            buffer.write(deflatedBytes, size - EMPTY_DEFLATE_BLOCK.size());
+            deflatedBytes.clear();
+        } else {
+            // 不以空块结尾时补一个空的非最终块(RFC 7692 第7.2.3.4节)
+            buffer.write(deflatedBytes, size);
+            buffer.writeByte(0x00);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        deflater.end();
+        deflatedBytes.clear();
+    }
+
+}
@@ -0,0 +1,94 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.http.socket;
+
+import org.aoju.bus.core.io.Buffer;
+import org.aoju.bus.core.io.InflaterSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.zip.Inflater;
+
+/**
+ * permessage-deflate 消息解压器
+ * 每个WebSocket持有一个实例,{@link Inflater}在整个连接生命周期内复用,
+ * 仅在对端声明{@code no_context_takeover}时才于每条消息前重置
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+final class MessageInflater implements Closeable {
+
+    /**
+     * 发送端移除的空块尾部,解压前需补回
+     */
+    private static final int OCTETS_TO_ADD_BEFORE_INFLATION = 0x0000ffff;
+
+    private final boolean noContextTakeover;
+    private final Buffer deflatedBytes = new Buffer();
+    private final Inflater inflater = new Inflater(true);
+    private final InflaterSource inflaterSource = new InflaterSource(deflatedBytes, inflater);
+    private boolean closed;
+
+    MessageInflater(boolean noContextTakeover) {
+        this.noContextTakeover = noContextTakeover;
+    }
+
+    /**
+     * 将{@code buffer}中的全部压缩内容解压后写回{@code buffer}
+     *
+     * @param buffer 压缩的消息
+     * @throws IOException 异常
+     */
+    synchronized void inflate(Buffer buffer) throws IOException {
+        if (closed) throw new IOException("closed");
+
+        if (noContextTakeover) {
+            inflater.reset();
+        }
+
+        long bytesToInflate = buffer.size() + 4;
+        deflatedBytes.writeAll(buffer);
+        deflatedBytes.writeInt(OCTETS_TO_ADD_BEFORE_INFLATION);
+
+        long totalBytesToRead = inflater.getBytesRead() + bytesToInflate;
+        while (inflater.getBytesRead() < totalBytesToRead) {
+            if (inflaterSource.read(buffer, Long.MAX_VALUE) == -1) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        inflater.end();
+        deflatedBytes.clear();
+    }
+
+}
@@ -56,6 +56,12 @@ import java.util.concurrent.TimeUnit;
  */
 public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCallback {
 
+    /**
+     * 默认压缩阈值,小于该字节数的消息不压缩
+     * 较小的消息压缩收益有限,反而增加帧头与CPU开销
+     */
+    public static final long DEFAULT_MINIMUM_DEFLATE_SIZE = 1024;
+
     private static final List<Protocol> ONLY_HTTP1 = Collections.singletonList(Protocol.HTTP_1_1);
 
     /**
@@ -76,6 +82,14 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
     private final Random random;
     private final long pingIntervalMillis;
     private final String key;
+    /**
+     * 握手时请求的扩展,为null时不请求压缩
+     */
+    private final WebSocketExtensions extensions;
+    /**
+     * 小于该字节数的消息不压缩
+     */
+    private final long minimumDeflateSize;
     /**
      * 这个runnable处理传出队列。在进入队列后调用{@link #runWriter()}.
      */
@@ -161,6 +175,11 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
 
     public RealWebSocket(Request request, WebSocketListener listener, Random random,
                          long pingIntervalMillis) {
+        this(request, listener, random, pingIntervalMillis, null, DEFAULT_MINIMUM_DEFLATE_SIZE);
+    }
+
+    public RealWebSocket(Request request, WebSocketListener listener, Random random,
+                         long pingIntervalMillis, WebSocketExtensions extensions, long minimumDeflateSize) {
         if (!Http.GET.equals(request.method())) {
             throw new IllegalArgumentException("Request must be GET: " + request.method());
         }
@@ -168,6 +187,8 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
         this.listener = listener;
         this.random = random;
         this.pingIntervalMillis = pingIntervalMillis;
+        this.extensions = extensions;
+        this.minimumDeflateSize = minimumDeflateSize;
 
         byte[] nonce = new byte[16];
         random.nextBytes(nonce);
@@ -203,12 +224,15 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
                 .eventListener(EventListener.NONE)
                 .protocols(ONLY_HTTP1)
                 .build();
-        final Request request = originalRequest.newBuilder()
+        Request.Builder builder = originalRequest.newBuilder()
                 .header(Header.UPGRADE, "websocket")
                 .header(Header.CONNECTION, Header.UPGRADE)
                 .header(Header.SEC_WEBSOCKET_KEY, key)
-                .header(Header.SEC_WEBSOCKET_VERSION, "13")
-                .build();
+                .header(Header.SEC_WEBSOCKET_VERSION, "13");
+        if (null != extensions && extensions.perMessageDeflate) {
+            builder.header(Header.SEC_WEBSOCKET_EXTENSIONS, extensions.toHeaderValue());
+        }
+        final Request request = builder.build();
         call = Builder.instance.newWebSocketCall(client, request);
         call.timeout().clearTimeout();
         call.enqueue(new Callback() {
@@ -222,6 +246,18 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
                     return;
                 }
 
+                // 协商结果无法满足时不发送任何消息,直接关闭
+                WebSocketExtensions negotiated = WebSocketExtensions.parse(response.headers());
+                if (!isNegotiated(negotiated)) {
+                    synchronized (RealWebSocket.this) {
+                        messageAndCloseQueue.clear();
+                        queueSize = 0;
+                        close(WebSocketProtocol.CLOSE_MANDATORY_EXTENSION,
+                                "unexpected Sec-WebSocket-Extensions in response header");
+                    }
+                    negotiated = null;
+                }
+
                 // 将HTTP流提升为web套接字流.
                 StreamAllocation streamAllocation = Builder.instance.streamAllocation(call);
                 streamAllocation.noNewStreams(); // Prevent connection pooling!
@@ -231,11 +267,13 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
                 try {
                     listener.onOpen(RealWebSocket.this, response);
                     String name = "Httpd WebSocket " + request.url().redact();
-                    initReaderAndWriter(name, streams);
+                    initReaderAndWriter(name, streams, negotiated);
                     streamAllocation.connection().socket().setSoTimeout(0);
                     loopReader();
                 } catch (Exception e) {
                     failWebSocket(e, null);
+                } finally {
+                    IoKit.close(reader);
                 }
             }
 
@@ -273,10 +311,38 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
         }
     }
 
+    /**
+     * 校验服务端返回的扩展是否为本端请求过且能够支持的
+     *
+     * @param negotiated 服务端返回的扩展
+     * @return true: 可以使用
+     */
+    private boolean isNegotiated(WebSocketExtensions negotiated) {
+        if (!negotiated.perMessageDeflate) {
+            return !negotiated.unknownValues;
+        }
+        return null != extensions && extensions.perMessageDeflate && negotiated.isValid(true);
+    }
+
     public void initReaderAndWriter(String name, Streams streams) {
+        initReaderAndWriter(name, streams, null);
+    }
+
+    /**
+     * 初始化读写器
+     *
+     * @param name       线程名称
+     * @param streams    web套接字流
+     * @param negotiated 协商后的扩展,为null时不压缩
+     */
+    public void initReaderAndWriter(String name, Streams streams, WebSocketExtensions negotiated) {
+        boolean perMessageDeflate = null != negotiated && negotiated.perMessageDeflate;
         synchronized (this) {
             this.streams = streams;
-            this.writer = new WebSocketWriter(streams.client, streams.sink, random);
+            this.writer = new WebSocketWriter(streams.client, streams.sink, random, perMessageDeflate,
+                    perMessageDeflate && (negotiated.noContextTakeover(streams.client)
+                            || (null != extensions && extensions.noContextTakeover(streams.client))),
+                    minimumDeflateSize);
             this.executor = new ScheduledThreadPoolExecutor(1, Builder.threadFactory(name, false));
             if (pingIntervalMillis != 0) {
                 executor.scheduleAtFixedRate(
@@ -288,7 +354,8 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
             }
         }
 
-        reader = new WebSocketReader(streams.client, streams.source, this);
+        reader = new WebSocketReader(streams.client, streams.source, this, perMessageDeflate,
+                perMessageDeflate && negotiated.noContextTakeover(!streams.client));
     }
 
     public void loopReader() throws IOException {
@@ -380,6 +447,9 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
                 listener.onClosed(this, code, reason);
             }
         } finally {
+            if (toClose != null) {
+                IoKit.close(writer);
+            }
             IoKit.close(toClose);
         }
     }
@@ -506,10 +576,7 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
 
             } else if (messageOrClose instanceof Message) {
                 ByteString data = ((Message) messageOrClose).data;
-                BufferSink sink = IoKit.buffer(writer.newMessageSink(
-                        ((Message) messageOrClose).formatOpcode, data.size()));
-                sink.write(data);
-                sink.close();
+                writer.writeMessageFrame(((Message) messageOrClose).formatOpcode, data);
                 synchronized (this) {
                     queueSize -= data.size();
                 }
@@ -527,6 +594,9 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
             }
             return true;
         } finally {
+            if (streamsToClose != null) {
+                IoKit.close(writer);
+            }
             IoKit.close(streamsToClose);
         }
     }
@@ -570,6 +640,7 @@ public final class RealWebSocket implements WebSocket, WebSocketReader.FrameCall
         try {
             listener.onFailure(this, e, response);
         } finally {
+            IoKit.close(writer);
             IoKit.close(streamsToClose);
         }
     }
@@ -0,0 +1,275 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.http.socket;
+
+import org.aoju.bus.core.lang.Header;
+import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.http.Builder;
+import org.aoju.bus.http.Headers;
+
+/**
+ * WebSocket 扩展协商(RFC 7692 permessage-deflate)
+ * 客户端使用该对象描述握手时的扩展请求,并解析服务端返回的{@code Sec-WebSocket-Extensions}头
+ * 由于{@link java.util.zip.Deflater}只支持15位的LZ77窗口,
+ * 因此服务端如要求{@code client_max_window_bits}小于15,则视为无法满足的协商结果
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public final class WebSocketExtensions {
+
+    /**
+     * 扩展名称
+     */
+    public static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+    /**
+     * 默认请求:启用压缩,双方均保留上下文
+     */
+    public static final WebSocketExtensions DEFAULT = new WebSocketExtensions(
+            true, null, false, null, false, false);
+
+    private static final String CLIENT_MAX_WINDOW_BITS = "client_max_window_bits";
+    private static final String CLIENT_NO_CONTEXT_TAKEOVER = "client_no_context_takeover";
+    private static final String SERVER_MAX_WINDOW_BITS = "server_max_window_bits";
+    private static final String SERVER_NO_CONTEXT_TAKEOVER = "server_no_context_takeover";
+
+    /**
+     * 是否启用了permessage-deflate
+     */
+    public final boolean perMessageDeflate;
+    /**
+     * 客户端压缩窗口大小,未指定时为null
+     */
+    public final Integer clientMaxWindowBits;
+    /**
+     * 客户端是否在每条消息后重置压缩上下文
+     */
+    public final boolean clientNoContextTakeover;
+    /**
+     * 服务端压缩窗口大小,未指定时为null
+     */
+    public final Integer serverMaxWindowBits;
+    /**
+     * 服务端是否在每条消息后重置压缩上下文
+     */
+    public final boolean serverNoContextTakeover;
+    /**
+     * 是否包含无法识别的扩展或参数
+     */
+    public final boolean unknownValues;
+
+    public WebSocketExtensions(boolean perMessageDeflate,
+                               Integer clientMaxWindowBits,
+                               boolean clientNoContextTakeover,
+                               Integer serverMaxWindowBits,
+                               boolean serverNoContextTakeover,
+                               boolean unknownValues) {
+        this.perMessageDeflate = perMessageDeflate;
+        this.clientMaxWindowBits = clientMaxWindowBits;
+        this.clientNoContextTakeover = clientNoContextTakeover;
+        this.serverMaxWindowBits = serverMaxWindowBits;
+        this.serverNoContextTakeover = serverNoContextTakeover;
+        this.unknownValues = unknownValues;
+    }
+
+    /**
+     * 构建一个permessage-deflate扩展请求
+     *
+     * @param clientNoContextTakeover 客户端每条消息后重置压缩上下文
+     * @param serverNoContextTakeover 要求服务端每条消息后重置压缩上下文
+     * @return 扩展请求
+     */
+    public static WebSocketExtensions perMessageDeflate(boolean clientNoContextTakeover,
+                                                        boolean serverNoContextTakeover) {
+        return new WebSocketExtensions(true, null, clientNoContextTakeover,
+                null, serverNoContextTakeover, false);
+    }
+
+    /**
+     * 解析响应中的{@code Sec-WebSocket-Extensions}头
+     *
+     * @param headers 响应头
+     * @return 协商结果
+     */
+    public static WebSocketExtensions parse(Headers headers) {
+        boolean compressionEnabled = false;
+        Integer clientMaxWindowBits = null;
+        boolean clientNoContextTakeover = false;
+        Integer serverMaxWindowBits = null;
+        boolean serverNoContextTakeover = false;
+        boolean unexpectedValues = false;
+
+        for (int i = 0; i < headers.size(); i++) {
+            if (!Header.SEC_WEBSOCKET_EXTENSIONS.equalsIgnoreCase(headers.name(i))) {
+                continue;
+            }
+            String header = headers.value(i);
+
+            int pos = 0;
+            while (pos < header.length()) {
+                int extensionEnd = Builder.delimiterOffset(header, pos, header.length(), Symbol.C_COMMA);
+                int extensionTokenEnd = Builder.delimiterOffset(header, pos, extensionEnd, Symbol.C_SEMICOLON);
+                String extensionToken = Builder.trimSubstring(header, pos, extensionTokenEnd);
+                pos = extensionTokenEnd + 1;
+
+                if (PERMESSAGE_DEFLATE.equalsIgnoreCase(extensionToken)) {
+                    if (compressionEnabled) {
+                        unexpectedValues = true;
+                    }
+                    compressionEnabled = true;
+
+                    while (pos < extensionEnd) {
+                        int parameterEnd = Builder.delimiterOffset(header, pos, extensionEnd, Symbol.C_SEMICOLON);
+                        int equals = Builder.delimiterOffset(header, pos, parameterEnd, Symbol.C_EQUAL);
+                        String name = Builder.trimSubstring(header, pos, equals);
+                        String value = equals < parameterEnd
+                                ? unquote(Builder.trimSubstring(header, equals + 1, parameterEnd))
+                                : null;
+                        pos = parameterEnd + 1;
+
+                        if (CLIENT_MAX_WINDOW_BITS.equalsIgnoreCase(name)) {
+                            if (clientMaxWindowBits != null) {
+                                unexpectedValues = true;
+                            }
+                            clientMaxWindowBits = toInteger(value);
+                            if (clientMaxWindowBits == null) {
+                                unexpectedValues = true;
+                            }
+                        } else if (CLIENT_NO_CONTEXT_TAKEOVER.equalsIgnoreCase(name)) {
+                            if (clientNoContextTakeover || value != null) {
+                                unexpectedValues = true;
+                            }
+                            clientNoContextTakeover = true;
+                        } else if (SERVER_MAX_WINDOW_BITS.equalsIgnoreCase(name)) {
+                            if (serverMaxWindowBits != null) {
+                                unexpectedValues = true;
+                            }
+                            serverMaxWindowBits = toInteger(value);
+                            if (serverMaxWindowBits == null) {
+                                unexpectedValues = true;
+                            }
+                        } else if (SERVER_NO_CONTEXT_TAKEOVER.equalsIgnoreCase(name)) {
+                            if (serverNoContextTakeover || value != null) {
+                                unexpectedValues = true;
+                            }
+                            serverNoContextTakeover = true;
+                        } else {
+                            unexpectedValues = true;
+                        }
+                    }
+                } else {
+                    unexpectedValues = true;
+                }
+                pos = extensionEnd + 1;
+            }
+        }
+
+        return new WebSocketExtensions(compressionEnabled, clientMaxWindowBits, clientNoContextTakeover,
+                serverMaxWindowBits, serverNoContextTakeover, unexpectedValues);
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.charAt(0) == Symbol.C_DOUBLE_QUOTES
+                && value.charAt(value.length() - 1) == Symbol.C_DOUBLE_QUOTES) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static Integer toInteger(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 转换为握手请求中的{@code Sec-WebSocket-Extensions}头值
+     *
+     * @return 头值, 未启用压缩时为null
+     */
+    public String toHeaderValue() {
+        if (!perMessageDeflate) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder(PERMESSAGE_DEFLATE);
+        if (clientMaxWindowBits != null) {
+            builder.append("; ").append(CLIENT_MAX_WINDOW_BITS).append(Symbol.C_EQUAL).append(clientMaxWindowBits);
+        }
+        if (clientNoContextTakeover) {
+            builder.append("; ").append(CLIENT_NO_CONTEXT_TAKEOVER);
+        }
+        if (serverMaxWindowBits != null) {
+            builder.append("; ").append(SERVER_MAX_WINDOW_BITS).append(Symbol.C_EQUAL).append(serverMaxWindowBits);
+        }
+        if (serverNoContextTakeover) {
+            builder.append("; ").append(SERVER_NO_CONTEXT_TAKEOVER);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 校验协商结果是否能被当前实现支持
+     *
+     * @param isClient 是否为客户端
+     * @return true: 支持
+     */
+    boolean isValid(boolean isClient) {
+        if (unknownValues) {
+            return false;
+        }
+        if (serverMaxWindowBits != null && (serverMaxWindowBits < 8 || serverMaxWindowBits > 15)) {
+            return false;
+        }
+        if (clientMaxWindowBits != null && (clientMaxWindowBits < 8 || clientMaxWindowBits > 15)) {
+            return false;
+        }
+        // Deflater 固定使用15位窗口,只能满足对端对本端窗口不做限制的情况
+        Integer ownMaxWindowBits = isClient ? clientMaxWindowBits : serverMaxWindowBits;
+        return ownMaxWindowBits == null || ownMaxWindowBits == 15;
+    }
+
+    /**
+     * 本端发送的消息是否需要在每条消息后重置压缩上下文
+     *
+     * @param isClient 是否为客户端
+     * @return true: 不保留上下文
+     */
+    boolean noContextTakeover(boolean isClient) {
+        return isClient ? clientNoContextTakeover : serverNoContextTakeover;
+    }
+
+    @Override
+    public String toString() {
+        return "WebSocketExtensions{" + toHeaderValue() + Symbol.C_BRACE_RIGHT;
+    }
+
+}
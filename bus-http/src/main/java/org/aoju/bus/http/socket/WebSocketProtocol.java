@@ -116,6 +116,10 @@ public final class WebSocketProtocol {
      * 当接收到一个空的关闭帧时使用,没有状态码).
      */
     static final int CLOSE_NO_STATUS_CODE = 1005;
+    /**
+     * 无法协商出双方均支持的扩展时使用.
+     */
+    static final int CLOSE_MANDATORY_EXTENSION = 1010;
 
     private WebSocketProtocol() {
         throw new AssertionError("No instances.");
@@ -30,6 +30,7 @@ import org.aoju.bus.core.io.BufferSource;
 import org.aoju.bus.core.io.ByteString;
 import org.aoju.bus.core.lang.Normal;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.ProtocolException;
 import java.util.concurrent.TimeUnit;
@@ -42,7 +43,7 @@ import java.util.concurrent.TimeUnit;
  * @version 6.1.6
  * @since JDK 1.8+
  */
-final class WebSocketReader {
+final class WebSocketReader implements Closeable {
 
     final boolean isClient;
     final BufferSource source;
@@ -51,18 +52,41 @@ final class WebSocketReader {
     private final Buffer messageFrameBuffer = new Buffer();
     private final byte[] maskKey;
     private final Buffer.UnsafeCursor maskCursor;
+    /**
+     * 是否协商了permessage-deflate
+     */
+    private final boolean perMessageDeflate;
+    /**
+     * 对端是否在每条消息后重置压缩上下文
+     */
+    private final boolean noContextTakeover;
+    /**
+     * 首次读取压缩消息时创建
+     */
+    private MessageInflater messageInflater;
     boolean closed;
     int opcode;
     long frameLength;
     boolean isFinalFrame;
     boolean isControlFrame;
+    /**
+     * 当前消息是否经过压缩(首帧的RSV1标志)
+     */
+    boolean readingCompressedMessage;
 
     WebSocketReader(boolean isClient, BufferSource source, FrameCallback frameCallback) {
+        this(isClient, source, frameCallback, false, false);
+    }
+
+    WebSocketReader(boolean isClient, BufferSource source, FrameCallback frameCallback,
+                    boolean perMessageDeflate, boolean noContextTakeover) {
         if (source == null) throw new NullPointerException("source == null");
         if (frameCallback == null) throw new NullPointerException("frameCallback == null");
         this.isClient = isClient;
         this.source = source;
         this.frameCallback = frameCallback;
+        this.perMessageDeflate = perMessageDeflate;
+        this.noContextTakeover = noContextTakeover;
 
         maskKey = isClient ? null : new byte[4];
         maskCursor = isClient ? null : new Buffer.UnsafeCursor();
@@ -98,9 +122,24 @@ final class WebSocketReader {
         }
 
         boolean reservedFlag1 = (b0 & WebSocketProtocol.B0_FLAG_RSV1) != 0;
+        switch (opcode) {
+            case WebSocketProtocol.OPCODE_TEXT:
+            case WebSocketProtocol.OPCODE_BINARY:
+                if (reservedFlag1) {
+                    if (!perMessageDeflate) throw new ProtocolException("Unexpected rsv1 flag");
+                    readingCompressedMessage = true;
+                } else {
+                    readingCompressedMessage = false;
+                }
+                break;
+            default:
+                // RSV1 只允许出现在消息的首个数据帧上
+                if (reservedFlag1) throw new ProtocolException("Unexpected rsv1 flag");
+        }
+
         boolean reservedFlag2 = (b0 & WebSocketProtocol.B0_FLAG_RSV2) != 0;
         boolean reservedFlag3 = (b0 & WebSocketProtocol.B0_FLAG_RSV3) != 0;
-        if (reservedFlag1 || reservedFlag2 || reservedFlag3) {
+        if (reservedFlag2 || reservedFlag3) {
             throw new ProtocolException("Reserved flags are unsupported.");
         }
 
@@ -180,6 +219,15 @@ final class WebSocketReader {
 
         readMessage();
 
+        if (readingCompressedMessage) {
+            MessageInflater messageInflater = this.messageInflater;
+            if (messageInflater == null) {
+                messageInflater = new MessageInflater(noContextTakeover);
+                this.messageInflater = messageInflater;
+            }
+            messageInflater.inflate(messageFrameBuffer);
+        }
+
         if (opcode == WebSocketProtocol.OPCODE_TEXT) {
             frameCallback.onReadMessage(messageFrameBuffer.readUtf8());
         } else {
@@ -221,6 +269,13 @@ final class WebSocketReader {
         }
     }
 
+    @Override
+    public void close() {
+        if (messageInflater != null) {
+            messageInflater.close();
+        }
+    }
+
     public interface FrameCallback {
         void onReadMessage(String text) throws IOException;
 
@@ -27,6 +27,7 @@ package org.aoju.bus.http.socket;
 
 import org.aoju.bus.core.io.*;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Random;
 
@@ -38,7 +39,7 @@ import java.util.Random;
  * @version 6.1.6
  * @since JDK 1.8+
  */
-final class WebSocketWriter {
+final class WebSocketWriter implements Closeable {
 
     final boolean isClient;
     final Random random;
@@ -50,16 +51,40 @@ final class WebSocketWriter {
     final FrameSink frameSink = new FrameSink();
     private final byte[] maskKey;
     private final Buffer.UnsafeCursor maskCursor;
+    /**
+     * 是否协商了permessage-deflate
+     */
+    private final boolean perMessageDeflate;
+    /**
+     * 本端是否在每条消息后重置压缩上下文
+     */
+    private final boolean noContextTakeover;
+    /**
+     * 小于该字节数的消息不压缩
+     */
+    private final long minimumDeflateSize;
+    /**
+     * 首次写入压缩消息时创建
+     */
+    private MessageDeflater messageDeflater;
     boolean writerClosed;
     boolean activeWriter;
 
     WebSocketWriter(boolean isClient, BufferSink sink, Random random) {
+        this(isClient, sink, random, false, false, 0);
+    }
+
+    WebSocketWriter(boolean isClient, BufferSink sink, Random random,
+                    boolean perMessageDeflate, boolean noContextTakeover, long minimumDeflateSize) {
         if (sink == null) throw new NullPointerException("sink == null");
         if (random == null) throw new NullPointerException("random == null");
         this.isClient = isClient;
         this.sink = sink;
         this.sinkBuffer = sink.buffer();
         this.random = random;
+        this.perMessageDeflate = perMessageDeflate;
+        this.noContextTakeover = noContextTakeover;
+        this.minimumDeflateSize = minimumDeflateSize;
 
         maskKey = isClient ? new byte[4] : null;
         maskCursor = isClient ? new Buffer.UnsafeCursor() : null;
@@ -152,6 +177,34 @@ final class WebSocketWriter {
         return frameSink;
     }
 
+    /**
+     * 以单帧写入完整消息,消息达到压缩阈值且协商了permessage-deflate时进行压缩
+     *
+     * @param formatOpcode 消息类型
+     * @param data         消息内容
+     * @throws IOException 异常
+     */
+    void writeMessageFrame(int formatOpcode, ByteString data) throws IOException {
+        if (writerClosed) throw new IOException("closed");
+        if (activeWriter) {
+            throw new IllegalStateException("Another message writer is active. Did you call close()?");
+        }
+
+        buffer.write(data);
+
+        int b0 = formatOpcode | WebSocketProtocol.B0_FLAG_FIN;
+        if (perMessageDeflate && data.size() >= minimumDeflateSize) {
+            MessageDeflater messageDeflater = this.messageDeflater;
+            if (messageDeflater == null) {
+                messageDeflater = new MessageDeflater(noContextTakeover);
+                this.messageDeflater = messageDeflater;
+            }
+            messageDeflater.deflate(buffer);
+            b0 |= WebSocketProtocol.B0_FLAG_RSV1;
+        }
+        writeFrame(b0, buffer.size());
+    }
+
     void writeMessageFrame(int formatOpcode, long byteCount, boolean isFirstFrame,
                            boolean isFinal) throws IOException {
         if (writerClosed) throw new IOException("closed");
@@ -160,6 +213,10 @@ final class WebSocketWriter {
         if (isFinal) {
             b0 |= WebSocketProtocol.B0_FLAG_FIN;
         }
+        writeFrame(b0, byteCount);
+    }
+
+    private void writeFrame(int b0, long byteCount) throws IOException {
         sinkBuffer.writeByte(b0);
 
         int b1 = 0;
@@ -199,6 +256,13 @@ final class WebSocketWriter {
         sink.emit();
     }
 
+    @Override
+    public void close() {
+        if (messageDeflater != null) {
+            messageDeflater.close();
+        }
+    }
+
     final class FrameSink implements Sink {
         int formatOpcode;
         long contentLength;
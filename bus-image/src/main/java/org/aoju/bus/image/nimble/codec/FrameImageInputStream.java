@@ -0,0 +1,87 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.image.nimble.codec;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.nio.ByteBuffer;
+
+/**
+ * 单帧压缩数据的输入流，供并行解码时脱离原始数据流使用
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+final class FrameImageInputStream extends ImageInputStreamImpl
+        implements BytesWithImageDescriptor {
+
+    private final ByteBuffer bytes;
+    private final ImageDescriptor imageDescriptor;
+
+    public FrameImageInputStream(ByteBuffer bytes, ImageDescriptor imageDescriptor) {
+        this.bytes = bytes;
+        this.imageDescriptor = imageDescriptor;
+    }
+
+    @Override
+    public int read() {
+        bitOffset = 0;
+        if (streamPos >= bytes.remaining())
+            return -1;
+
+        return bytes.get(bytes.position() + (int) streamPos++) & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        bitOffset = 0;
+        int n = (int) Math.min(len, bytes.remaining() - streamPos);
+        if (n <= 0)
+            return len == 0 ? 0 : -1;
+
+        ByteBuffer src = bytes.duplicate();
+        src.position(bytes.position() + (int) streamPos);
+        src.get(b, off, n);
+        streamPos += n;
+        return n;
+    }
+
+    @Override
+    public long length() {
+        return bytes.remaining();
+    }
+
+    @Override
+    public ByteBuffer getBytes() {
+        return bytes.duplicate();
+    }
+
+    @Override
+    public ImageDescriptor getImageDescriptor() {
+        return imageDescriptor;
+    }
+
+}
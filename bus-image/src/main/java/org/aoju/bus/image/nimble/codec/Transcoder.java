@@ -26,6 +26,7 @@
 package org.aoju.bus.image.nimble.codec;
 
 import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.thread.NamedThreadFactory;
 import org.aoju.bus.core.toolkit.ByteKit;
 import org.aoju.bus.core.toolkit.IoKit;
 import org.aoju.bus.core.toolkit.StreamKit;
@@ -46,8 +47,8 @@ import org.aoju.bus.logger.Logger;
 import javax.imageio.*;
 import java.awt.image.*;
 import java.io.*;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * @author Kimi Liu
@@ -109,6 +110,9 @@ public class Transcoder implements Closeable {
     private int bitsCompressed = 0;
     private boolean nullifyPixelData;
     private Attributes fileMetaInformation;
+    private int maxFrameThreads = 1;
+    private long maxFrameMemory;
+    private final List<Property> writeProperties = new ArrayList<>();
     private final ImageInputHandler imageInputHandler = new ImageInputHandler() {
         @Override
         public void readValue(ImageInputStream dis, Attributes attrs) throws IOException {
@@ -318,6 +322,36 @@ public class Transcoder implements Closeable {
         return fileMetaInformation;
     }
 
+    public int getMaxFrameThreads() {
+        return maxFrameThreads;
+    }
+
+    /**
+     * 设置多帧图像并行解码/编码的线程数，1表示逐帧顺序处理
+     *
+     * @param maxFrameThreads 线程数
+     */
+    public void setMaxFrameThreads(int maxFrameThreads) {
+        if (maxFrameThreads < 1)
+            throw new IllegalArgumentException("maxFrameThreads: " + maxFrameThreads);
+        this.maxFrameThreads = maxFrameThreads;
+    }
+
+    public long getMaxFrameMemory() {
+        return maxFrameMemory;
+    }
+
+    /**
+     * 设置并行处理时同时在途帧占用内存的上限，0表示仅按线程数限制
+     *
+     * @param maxFrameMemory 内存上限(字节)
+     */
+    public void setMaxFrameMemory(long maxFrameMemory) {
+        if (maxFrameMemory < 0)
+            throw new IllegalArgumentException("maxFrameMemory: " + maxFrameMemory);
+        this.maxFrameMemory = maxFrameMemory;
+    }
+
     @Override
     public void close() throws IOException {
         if (decompressor != null)
@@ -390,9 +424,21 @@ public class Transcoder implements Closeable {
         adjustDataset();
         writeDataset();
         dos.writeHeader(Tag.PixelData, VR.OW, length + padding);
-        for (int i = 0; i < imageDescriptor.getFrames(); i++) {
+        int frames = imageDescriptor.getFrames();
+        int sequential = isPipelined() ? 1 : frames;
+        for (int i = 0; i < sequential; i++) {
             decompressFrame(i);
-            writeFrame();
+            writeFrame(originalBi);
+        }
+        if (sequential < frames) {
+            ColorModel cm = originalBi.getColorModel();
+            boolean rle = srcTransferSyntaxType == TransferSyntaxType.RLE;
+            pipeline(sequential, frameIndex -> {
+                FrameImageInputStream iis = nextEncapsulatedFrame();
+                BufferedImage destination = rle ? createBufferedImage() : null;
+                return worker -> decompress(worker.decompressor, worker.decompressParam, iis,
+                        destination, cm, frameIndex);
+            }, this::writeFrame);
         }
         if (padding != 0)
             dos.write(0);
@@ -408,6 +454,7 @@ public class Transcoder implements Closeable {
         Logger.debug("Compressor: {}", compressor.getClass().getName());
 
         this.compressParam = compressor.getDefaultWriteParam();
+        this.writeProperties.clear();
         setCompressParams(compressorParam.getImageWriteParams());
     }
 
@@ -428,7 +475,9 @@ public class Transcoder implements Closeable {
 
     private void compressPixelData() throws IOException {
         int padding = dis.length() - imageDescriptor.getLength();
-        for (int i = 0; i < imageDescriptor.getFrames(); i++) {
+        int frames = imageDescriptor.getFrames();
+        int sequential = isPipelined() ? 1 : frames;
+        for (int i = 0; i < sequential; i++) {
             if (decompressor == null)
                 readFrame();
             else
@@ -447,6 +496,8 @@ public class Transcoder implements Closeable {
                     : originalBi;
             compressFrame(i);
         }
+        if (sequential < frames)
+            compressFramesPipelined(sequential);
         dis.skipFully(padding);
         dos.writeHeader(Tag.SequenceDelimitationItem, null, 0);
     }
@@ -467,9 +518,8 @@ public class Transcoder implements Closeable {
             else if (name.equals("bitsCompressed"))
                 this.bitsCompressed = ((Number) property.getValue()).intValue();
             else {
-                if (compressParam.getCompressionMode() != ImageWriteParam.MODE_EXPLICIT)
-                    compressParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-                property.setAt(compressParam);
+                setAt(compressParam, property);
+                writeProperties.add(property);
             }
         }
         if (maxPixelValueError >= 0) {
@@ -485,6 +535,12 @@ public class Transcoder implements Closeable {
         }
     }
 
+    private static void setAt(ImageWriteParam param, Property property) {
+        if (param.getCompressionMode() != ImageWriteParam.MODE_EXPLICIT)
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        property.setAt(param);
+    }
+
     private Photometric pmiForCompression(Photometric pmi) {
         return pmi.isYBR() && destTransferSyntaxType == TransferSyntaxType.JPEG_LOSSLESS
                 ? Photometric.RGB
@@ -581,30 +637,41 @@ public class Transcoder implements Closeable {
     }
 
     private BufferedImage decompressFrame(int frameIndex) throws IOException {
-        decompressor.setInput(decompressorParam.patchJPEGLS != null
-                ? new PatchJPEGLSImageInputStream(encapsulatedPixelData, decompressorParam.patchJPEGLS)
-                : encapsulatedPixelData);
         if (srcTransferSyntaxType == TransferSyntaxType.RLE)
             initBufferedImage();
-        decompressParam.setDestination(originalBi);
+        originalBi = decompress(decompressor, decompressParam, encapsulatedPixelData, originalBi,
+                originalBi != null ? originalBi.getColorModel() : null, frameIndex);
+        encapsulatedPixelData.seekNextFrame();
+        return originalBi;
+    }
+
+    private BufferedImage decompress(ImageReader decompressor, ImageReadParam decompressParam,
+                                     javax.imageio.stream.ImageInputStream iis, BufferedImage destination,
+                                     ColorModel cm, int frameIndex) throws IOException {
+        decompressor.setInput(decompressorParam.patchJPEGLS != null
+                ? new PatchJPEGLSImageInputStream(iis, decompressorParam.patchJPEGLS)
+                : iis);
+        decompressParam.setDestination(destination);
         long start = System.currentTimeMillis();
-        originalBi = adjustColorModel(decompressor.read(0, decompressParam));
+        BufferedImage bi = adjustColorModel(decompressor.read(0, decompressParam), cm);
         long end = System.currentTimeMillis();
 
         Logger.debug("Decompressed frame #{} in {} ms, ratio 1:{}", frameIndex + 1, end - start,
-                (float) imageDescriptor.getFrameLength() / encapsulatedPixelData.getStreamPosition());
+                (float) imageDescriptor.getFrameLength() / iis.getStreamPosition());
+        return bi;
+    }
+
+    private FrameImageInputStream nextEncapsulatedFrame() throws IOException {
+        FrameImageInputStream iis = new FrameImageInputStream(encapsulatedPixelData.getBytes(), imageDescriptor);
         encapsulatedPixelData.seekNextFrame();
-        return originalBi;
+        return iis;
     }
 
-    private BufferedImage adjustColorModel(BufferedImage bi) {
+    private BufferedImage adjustColorModel(BufferedImage bi, ColorModel cm) {
         Photometric pmi = imageDescriptor.getPhotometric();
         if (pmi == Photometric.PALETTE_COLOR
                 && !(bi.getColorModel() instanceof PaletteColorModel)) {
-            ColorModel cm;
-            if (originalBi != null) {
-                cm = originalBi.getColorModel();
-            } else {
+            if (cm == null) {
                 int bitsStored = Math.min(imageDescriptor.getBitsStored(), destTransferSyntaxType.getMaxBitsStored());
                 int dataType = bi.getSampleModel().getDataType();
                 cm = pmi.createColorModel(bitsStored, dataType, dataset);
@@ -615,6 +682,14 @@ public class Transcoder implements Closeable {
     }
 
     private void compressFrame(int frameIndex) throws IOException {
+        ExtMemoryOutputStream ios = compress(compressor, compressParam, bi, frameIndex);
+        if (verifier != null)
+            bi2 = verify(verifier, verifyParam, bi, bi2, ios, frameIndex);
+        writeItem(ios);
+    }
+
+    private ExtMemoryOutputStream compress(ImageWriter compressor, ImageWriteParam compressParam,
+                                           BufferedImage bi, int frameIndex) throws IOException {
         ExtMemoryOutputStream ios = new ExtMemoryOutputStream(compressorImageDescriptor);
         compressor.setOutput(compressorParam.patchJPEGLS != null
                 ? new PatchJPEGLSImageOutputStream(ios, compressorParam.patchJPEGLS)
@@ -622,11 +697,14 @@ public class Transcoder implements Closeable {
         long start = System.currentTimeMillis();
         compressor.write(null, new IIOImage(bi, null, null), compressParam);
         long end = System.currentTimeMillis();
-        int length = (int) ios.getStreamPosition();
 
         Logger.debug("Compressed frame #{} in {} ms, ratio {}:1", frameIndex + 1, end - start,
-                (float) imageDescriptor.getFrameLength() / length);
-        verify(ios, frameIndex);
+                (float) imageDescriptor.getFrameLength() / ios.getStreamPosition());
+        return ios;
+    }
+
+    private void writeItem(ExtMemoryOutputStream ios) throws IOException {
+        int length = (int) ios.getStreamPosition();
         if ((length & 1) != 0) {
             ios.write(0);
             length++;
@@ -636,9 +714,113 @@ public class Transcoder implements Closeable {
         ios.flush();
     }
 
+    private void compressFramesPipelined(int from) throws IOException {
+        ColorModel cm = originalBi.getColorModel();
+        pipeline(from, frameIndex -> {
+            if (decompressor == null) {
+                BufferedImage frame = createBufferedImage();
+                readFrame(frame);
+                return worker -> worker.compress(frame, frameIndex);
+            }
+            FrameImageInputStream iis = nextEncapsulatedFrame();
+            return worker -> {
+                worker.originalBi = decompress(worker.decompressor, worker.decompressParam, iis,
+                        worker.originalBi, cm, frameIndex);
+                return worker.compress(worker.originalBi, frameIndex);
+            };
+        }, this::writeItem);
+    }
+
+    private boolean isPipelined() {
+        return maxFrameThreads > 1 && imageDescriptor.getFrames() > 1;
+    }
+
+    /**
+     * 按帧顺序读取数据，在线程池中并行解码/编码，再按原顺序输出
+     * 同时在途的帧数受线程数及内存上限限制
+     *
+     * @param from   起始帧
+     * @param source 顺序读取帧数据，返回在线程池中执行的任务
+     * @param sink   按帧顺序输出结果
+     * @param <T>    任务结果
+     * @throws IOException 读写或编解码失败
+     */
+    private <T> void pipeline(int from, FrameSource<T> source, FrameSink<T> sink) throws IOException {
+        int frames = imageDescriptor.getFrames();
+        int threads = Math.min(maxFrameThreads, frames - from);
+        int maxInFlight = maxFramesInFlight(threads);
+        BlockingQueue<FrameWorker> workers = new ArrayBlockingQueue<>(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory("transcoder-", true));
+        Deque<Future<T>> pending = new ArrayDeque<>(maxInFlight);
+        Logger.debug("Transcode frames #{}-#{} with {} threads, max {} frames in flight",
+                from + 1, frames, threads, maxInFlight);
+        try {
+            for (int i = 0; i < threads; i++)
+                workers.add(new FrameWorker());
+            for (int i = from; i < frames; i++) {
+                FrameTask<T> task = source.next(i);
+                pending.add(executor.submit(() -> {
+                    FrameWorker worker = workers.take();
+                    try {
+                        return task.apply(worker);
+                    } finally {
+                        workers.add(worker);
+                    }
+                }));
+                if (pending.size() >= maxInFlight)
+                    sink.accept(await(pending.poll()));
+            }
+            while (!pending.isEmpty())
+                sink.accept(await(pending.poll()));
+        } finally {
+            for (Future<T> future : pending)
+                future.cancel(true);
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (FrameWorker worker : workers)
+                worker.dispose();
+        }
+    }
+
+    private int maxFramesInFlight(int threads) {
+        int max = threads << 1;
+        if (maxFrameMemory > 0) {
+            // 解码后的帧及其颜色转换、压缩结果
+            long frameMemory = Math.max(1L, 2L * imageDescriptor.getFrameLength());
+            max = (int) Math.min(max, Math.max(1L, maxFrameMemory / frameMemory));
+        }
+        return max;
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IOException(cause);
+        }
+    }
+
     private void readFrame() throws IOException {
         initBufferedImage();
-        WritableRaster raster = originalBi.getRaster();
+        readFrame(originalBi);
+    }
+
+    private void readFrame(BufferedImage bi) throws IOException {
+        WritableRaster raster = bi.getRaster();
         DataBuffer dataBuffer = raster.getDataBuffer();
         switch (dataBuffer.getDataType()) {
             case DataBuffer.TYPE_SHORT:
@@ -699,8 +881,8 @@ public class Transcoder implements Closeable {
         return buffer;
     }
 
-    private void writeFrame() throws IOException {
-        WritableRaster raster = originalBi.getRaster();
+    private void writeFrame(BufferedImage bi) throws IOException {
+        WritableRaster raster = bi.getRaster();
         SampleModel sm = raster.getSampleModel();
         DataBuffer db = raster.getDataBuffer();
         switch (db.getDataType()) {
@@ -722,8 +904,12 @@ public class Transcoder implements Closeable {
     }
 
     private void nullifyUnusedBits() {
+        nullifyUnusedBits(originalBi);
+    }
+
+    private void nullifyUnusedBits(BufferedImage bi) {
         if (imageDescriptor.getBitsStored() < imageDescriptor.getBitsAllocated()) {
-            DataBuffer db = originalBi.getRaster().getDataBuffer();
+            DataBuffer db = bi.getRaster().getDataBuffer();
             switch (db.getDataType()) {
                 case DataBuffer.TYPE_USHORT:
                     nullifyUnusedBits(((DataBufferUShort) db).getData());
@@ -815,9 +1001,11 @@ public class Transcoder implements Closeable {
     }
 
     private void initBufferedImage() {
-        if (originalBi != null)
-            return;
+        if (originalBi == null)
+            originalBi = createBufferedImage();
+    }
 
+    private BufferedImage createBufferedImage() {
         int rows = imageDescriptor.getRows();
         int cols = imageDescriptor.getColumns();
         int samples = imageDescriptor.getSamples();
@@ -832,14 +1020,12 @@ public class Transcoder implements Closeable {
         ColorModel cm = pmi.createColorModel(bitsStored, dataType, dataset);
         SampleModel sm = pmi.createSampleModel(dataType, cols, rows, samples, banded);
         WritableRaster raster = Raster.createWritableRaster(sm, null);
-        originalBi = new BufferedImage(cm, raster, false, null);
+        return new BufferedImage(cm, raster, false, null);
     }
 
-    private void verify(javax.imageio.stream.ImageOutputStream cache, int index)
+    private BufferedImage verify(ImageReader verifier, ImageReadParam verifyParam, BufferedImage bi,
+                                 BufferedImage bi2, javax.imageio.stream.ImageOutputStream cache, int index)
             throws IOException {
-        if (verifier == null)
-            return;
-
         long prevStreamPosition = cache.getStreamPosition();
         int prevBitOffset = cache.getBitOffset();
         cache.seek(0);
@@ -857,6 +1043,7 @@ public class Transcoder implements Closeable {
                     + " from original pixel data" + maxDiff);
         cache.seek(prevStreamPosition);
         cache.setBitOffset(prevBitOffset);
+        return bi2;
     }
 
     private int maxDiff(WritableRaster raster, WritableRaster raster2) {
@@ -949,4 +1136,73 @@ public class Transcoder implements Closeable {
         OutputStream newOutputStream(Transcoder transcoder, Attributes dataset) throws IOException;
     }
 
+    private interface FrameSource<T> {
+        FrameTask<T> next(int frameIndex) throws IOException;
+    }
+
+    private interface FrameTask<T> {
+        T apply(FrameWorker worker) throws IOException;
+    }
+
+    private interface FrameSink<T> {
+        void accept(T result) throws IOException;
+    }
+
+    /**
+     * 并行处理时每个线程独占的编解码器及图像缓冲
+     */
+    private final class FrameWorker {
+
+        private ImageReader decompressor;
+        private ImageReadParam decompressParam;
+        private ImageWriter compressor;
+        private ImageWriteParam compressParam;
+        private ImageReader verifier;
+        private ImageReadParam verifyParam;
+        private BufferedImage originalBi;
+        private BufferedImage bi;
+        private BufferedImage bi2;
+
+        FrameWorker() {
+            if (Transcoder.this.decompressor != null) {
+                decompressor = ImageReaderFactory.getImageReader(decompressorParam);
+                decompressParam = decompressor.getDefaultReadParam();
+                if (srcTransferSyntaxType == TransferSyntaxType.RLE)
+                    originalBi = createBufferedImage();
+            }
+            if (Transcoder.this.compressor != null) {
+                compressor = ImageWriterFactory.getImageWriter(compressorParam);
+                compressParam = compressor.getDefaultWriteParam();
+                for (Property property : writeProperties)
+                    setAt(compressParam, property);
+            }
+            if (Transcoder.this.verifier != null) {
+                verifier = ImageReaderFactory.getImageReader(ImageReaderFactory.getImageReaderParam(destTransferSyntax));
+                verifyParam = verifier.getDefaultReadParam();
+            }
+        }
+
+        ExtMemoryOutputStream compress(BufferedImage frame, int frameIndex) throws IOException {
+            nullifyUnusedBits(frame);
+            BufferedImage src = frame;
+            if (palette2rgb)
+                src = bi = BufferedImages.convertPalettetoRGB(frame, bi);
+            else if (ybr2rgb)
+                src = bi = BufferedImages.convertYBRtoRGB(frame, bi);
+            ExtMemoryOutputStream ios = Transcoder.this.compress(compressor, compressParam, src, frameIndex);
+            if (verifier != null)
+                bi2 = verify(verifier, verifyParam, src, bi2, ios, frameIndex);
+            return ios;
+        }
+
+        void dispose() {
+            if (decompressor != null)
+                decompressor.dispose();
+            if (compressor != null)
+                compressor.dispose();
+            if (verifier != null)
+                verifier.dispose();
+        }
+    }
+
 }
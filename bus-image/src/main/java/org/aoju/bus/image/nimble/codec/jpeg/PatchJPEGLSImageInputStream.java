@@ -75,6 +75,8 @@ public class PatchJPEGLSImageInputStream extends ImageInputStreamImpl
                 ? ((ImagePixelInputStream) iis).getImageDescriptor()
                 : (iis instanceof SegmentedImageStream)
                 ? ((SegmentedImageStream) iis).getImageDescriptor()
+                : (iis instanceof BytesWithImageDescriptor)
+                ? ((BytesWithImageDescriptor) iis).getImageDescriptor()
                 : null;
     }
 
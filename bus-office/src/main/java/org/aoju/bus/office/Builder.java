@@ -101,6 +101,18 @@ public final class Builder {
      * office进程在重新启动之前可以执行的默认最大任务数.
      */
     public static final int DEFAULT_MAX_TASKS_PER_PROCESS = 200;
+    /**
+     * office进程在重新启动之前可以占用的默认最大常驻内存，0表示不限制.
+     */
+    public static final long DEFAULT_MAX_PROCESS_MEMORY = 0L;
+    /**
+     * 有关热备office进程的默认行为.
+     */
+    public static final boolean DEFAULT_WARM_STANDBY = false;
+    /**
+     * 热备office进程的端口号相对于工作进程端口号的默认偏移量.
+     */
+    public static final int DEFAULT_STANDBY_PORT_OFFSET = 1000;
     /**
      * 有关OpenGL使用的默认行为.
      */
@@ -120,6 +132,11 @@ public final class Builder {
      * 默认:30秒
      */
     public static final long DEFAULT_TASK_QUEUE_TIMEOUT = 30000L;
+    /**
+     * 等待中的任务每经过此时长提升一个优先级，避免低优先级任务饿死.
+     * 默认:10秒
+     */
+    public static final long DEFAULT_TASK_PRIORITY_AGING = 10000L;
     /**
      * 启动具有相同URL的office进程时的默认行为已经存在.
      */
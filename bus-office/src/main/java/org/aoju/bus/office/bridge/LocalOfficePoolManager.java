@@ -37,6 +37,7 @@ import org.aoju.bus.office.process.ProcessManager;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.stream.IntStream;
 
 /**
  * 默认的{@link OfficeManager}实现，它使用一个office进程池来执行转换任务.
@@ -48,11 +49,14 @@ import java.util.Arrays;
 public final class LocalOfficePoolManager extends AbstractOfficePoolManager {
 
     private final UnoUrl[] unoUrls;
+    private final UnoUrl[] standbyUrls;
+    private OfficeProcessEntryManager[] entries;
 
     private LocalOfficePoolManager(
-            final UnoUrl[] unoUrls, final OfficeProcessManagerPoolBuilder config) {
+            final UnoUrl[] unoUrls, final UnoUrl[] standbyUrls, final OfficeProcessManagerPoolBuilder config) {
         super(unoUrls.length, config);
         this.unoUrls = Arrays.copyOf(unoUrls, unoUrls.length);
+        this.standbyUrls = null == standbyUrls ? null : Arrays.copyOf(standbyUrls, standbyUrls.length);
     }
 
     /**
@@ -87,10 +91,39 @@ public final class LocalOfficePoolManager extends AbstractOfficePoolManager {
     @Override
     protected OfficeProcessEntryManager[] createPoolEntries() {
 
-        return Arrays.stream(unoUrls)
-                .map(officeUrl -> new OfficeProcessEntryManager(
-                        officeUrl, (OfficeProcessManagerPoolBuilder) config))
+        entries = IntStream.range(0, unoUrls.length)
+                .mapToObj(i -> new OfficeProcessEntryManager(
+                        unoUrls[i], null == standbyUrls ? null : standbyUrls[i],
+                        (OfficeProcessManagerPoolBuilder) config))
                 .toArray(OfficeProcessEntryManager[]::new);
+        return entries;
+    }
+
+    /**
+     * 获取所有office进程在请求路径上同步重新启动的次数
+     *
+     * @return 重新启动次数
+     */
+    public long getRestartCount() {
+        return null == entries ? 0 : Arrays.stream(entries).mapToLong(OfficeProcessEntryManager::getRestartCount).sum();
+    }
+
+    /**
+     * 获取所有office进程切换到热备进程的次数
+     *
+     * @return 切换次数
+     */
+    public long getSwitchCount() {
+        return null == entries ? 0 : Arrays.stream(entries).mapToLong(OfficeProcessEntryManager::getSwitchCount).sum();
+    }
+
+    /**
+     * 获取切换到热备进程所节省的office进程启动时间
+     *
+     * @return 节省的时间，以毫秒为单位
+     */
+    public long getSavedMillis() {
+        return null == entries ? 0 : Arrays.stream(entries).mapToLong(OfficeProcessEntryManager::getSavedMillis).sum();
     }
 
     /**
@@ -114,6 +147,9 @@ public final class LocalOfficePoolManager extends AbstractOfficePoolManager {
         private long processTimeout = org.aoju.bus.office.Builder.DEFAULT_PROCESS_TIMEOUT;
         private long processRetryInterval = org.aoju.bus.office.Builder.DEFAULT_PROCESS_RETRY_INTERVAL;
         private int maxTasksPerProcess = org.aoju.bus.office.Builder.DEFAULT_MAX_TASKS_PER_PROCESS;
+        private long maxProcessMemory = org.aoju.bus.office.Builder.DEFAULT_MAX_PROCESS_MEMORY;
+        private boolean warmStandby = org.aoju.bus.office.Builder.DEFAULT_WARM_STANDBY;
+        private int standbyPortOffset = org.aoju.bus.office.Builder.DEFAULT_STANDBY_PORT_OFFSET;
         private boolean disableOpengl = org.aoju.bus.office.Builder.DEFAULT_DISABLE_OPENGL;
 
         private Builder() {
@@ -150,6 +186,7 @@ public final class LocalOfficePoolManager extends AbstractOfficePoolManager {
             }
 
             final UnoUrl[] unoUrls = org.aoju.bus.office.Builder.buildOfficeUrls(portNumbers, pipeNames);
+            final UnoUrl[] standbyUrls = warmStandby ? buildStandbyUrls() : null;
 
             final OfficeProcessManagerPoolBuilder config =
                     new OfficeProcessManagerPoolBuilder(officeHome, workingDir, processManager);
@@ -159,11 +196,13 @@ public final class LocalOfficePoolManager extends AbstractOfficePoolManager {
             config.setProcessTimeout(processTimeout);
             config.setProcessRetryInterval(processRetryInterval);
             config.setMaxTasksPerProcess(maxTasksPerProcess);
+            config.setMaxProcessMemory(maxProcessMemory);
             config.setDisableOpengl(disableOpengl);
             config.setTaskExecutionTimeout(taskExecutionTimeout);
             config.setTaskQueueTimeout(taskQueueTimeout);
+            config.setTaskPriorityAging(taskPriorityAging);
 
-            final LocalOfficePoolManager manager = new LocalOfficePoolManager(unoUrls, config);
+            final LocalOfficePoolManager manager = new LocalOfficePoolManager(unoUrls, standbyUrls, config);
             if (install) {
                 InstalledOfficeHolder.setInstance(manager);
             }
@@ -376,6 +415,68 @@ public final class LocalOfficePoolManager extends AbstractOfficePoolManager {
             return this;
         }
 
+        /**
+         * 指定office进程在重新启动之前可以占用的最大常驻内存.
+         * 每个任务执行前读取进程的常驻内存，超过此值时重新启动进程.
+         * 默认: 0 (不限制)
+         *
+         * @param maxProcessMemory 最大常驻内存，以字节为单位.
+         * @return 构造器实例.
+         */
+        public Builder maxProcessMemory(final long maxProcessMemory) {
+            Assert.isTrue(maxProcessMemory >= 0,
+                    String.format("The maxProcessMemory %s must greater than or equal to 0", maxProcessMemory));
+            this.maxProcessMemory = maxProcessMemory;
+            return this;
+        }
+
+        /**
+         * 指定是否为每个office进程维护一个预先启动的热备进程.
+         * 进程达到最大任务数、最大常驻内存、任务超时或连接丢失时直接切换到热备进程，
+         * 被替换的进程在后台重新启动并成为新的热备进程，任务无需等待office进程启动.
+         * 热备进程使用工作进程的端口号加上{@link #standbyPortOffset(int)}，或工作进程的管道名称加上"_standby".
+         * 默认: false
+         *
+         * @param warmStandby {@code true}启用热备进程，{@code false}不启用.
+         * @return 构造器实例.
+         */
+        public Builder warmStandby(final boolean warmStandby) {
+            this.warmStandby = warmStandby;
+            return this;
+        }
+
+        /**
+         * 指定热备进程的端口号相对于工作进程端口号的偏移量.
+         * 默认: 1000
+         *
+         * @param standbyPortOffset 端口号偏移量.
+         * @return 构造器实例.
+         */
+        public Builder standbyPortOffset(final int standbyPortOffset) {
+            Assert.isTrue(standbyPortOffset != 0, "The standbyPortOffset must not be 0");
+            this.standbyPortOffset = standbyPortOffset;
+            return this;
+        }
+
+        /**
+         * 按工作进程的顺序构造热备进程的地址
+         *
+         * @return 热备进程的地址
+         */
+        private UnoUrl[] buildStandbyUrls() {
+            final int[] ports = null == portNumbers && null == pipeNames
+                    ? new int[]{org.aoju.bus.office.Builder.DEFAULT_PORT_NUMBER}
+                    : portNumbers;
+            final int[] standbyPorts = null == ports ? null : Arrays.stream(ports).map(port -> port + standbyPortOffset).toArray();
+            if (null != standbyPorts && null != portNumbers) {
+                Assert.isTrue(Arrays.stream(standbyPorts).noneMatch(port -> Arrays.stream(portNumbers).anyMatch(p -> p == port)),
+                        "The standby ports must not overlap the port numbers, adjust the standbyPortOffset");
+            }
+            return org.aoju.bus.office.Builder.buildOfficeUrls(
+                    standbyPorts,
+                    null == pipeNames ? null : Arrays.stream(pipeNames).map(name -> name + "_standby").toArray(String[]::new));
+        }
+
     }
 
 }
@@ -43,6 +43,7 @@ public class OnlineOfficePoolBuilder extends OnlineOfficeEntryBuilder
         implements OfficeManagerPoolBuilder {
 
     private long taskQueueTimeout = Builder.DEFAULT_TASK_QUEUE_TIMEOUT;
+    private long taskPriorityAging = Builder.DEFAULT_TASK_PRIORITY_AGING;
     private File workingDir;
 
     /**
@@ -66,6 +67,16 @@ public class OnlineOfficePoolBuilder extends OnlineOfficeEntryBuilder
         this.taskQueueTimeout = taskQueueTimeout;
     }
 
+    @Override
+    public long getTaskPriorityAging() {
+        return taskPriorityAging;
+    }
+
+    @Override
+    public void setTaskPriorityAging(final long taskPriorityAging) {
+        this.taskPriorityAging = taskPriorityAging;
+    }
+
     @Override
     public File getWorkingDir() {
         return workingDir;
@@ -28,6 +28,7 @@ package org.aoju.bus.office.builtin;
 import org.aoju.bus.core.lang.Assert;
 import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.office.magic.family.DocumentFormat;
+import org.aoju.bus.office.metric.TaskPriority;
 import org.aoju.bus.office.provider.AbstractSourceProvider;
 import org.aoju.bus.office.provider.AbstractTargetProvider;
 
@@ -42,6 +43,9 @@ public abstract class AbstractJob implements OptionalTarget {
 
     protected AbstractSourceProvider source;
     protected AbstractTargetProvider target;
+    protected TaskPriority priority = TaskPriority.NORMAL;
+    protected String tenant;
+    protected int pages;
 
     protected AbstractJob(
             final AbstractSourceProvider source, final AbstractTargetProvider target) {
@@ -58,6 +62,40 @@ public abstract class AbstractJob implements OptionalTarget {
         return this;
     }
 
+    /**
+     * 指定转换的优先级，office池繁忙时高优先级的转换先执行.
+     *
+     * @param priority 转换优先级.
+     * @return 当前作业.
+     */
+    public AbstractJob priority(final TaskPriority priority) {
+        Assert.notNull(priority, "The priority is null");
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * 指定转换所属的租户，office池在同一优先级的各租户之间公平分配.
+     *
+     * @param tenant 租户标识.
+     * @return 当前作业.
+     */
+    public AbstractJob tenant(final String tenant) {
+        this.tenant = tenant;
+        return this;
+    }
+
+    /**
+     * 指定源文档的页数，office池据此估算转换耗时，优先执行耗时较短的转换.
+     *
+     * @param pages 页数.
+     * @return 当前作业.
+     */
+    public AbstractJob pages(final int pages) {
+        this.pages = pages;
+        return this;
+    }
+
     @Override
     public final void execute() throws InstrumentException {
         Assert.notNull(target.getFormat(), "The target format is missing or not supported");
@@ -72,4 +110,18 @@ public abstract class AbstractJob implements OptionalTarget {
      */
     protected abstract void doExecute() throws InstrumentException;
 
+    /**
+     * 将此作业的调度属性应用到任务.
+     *
+     * @param task 要执行的任务.
+     * @param <T>  任务类型.
+     * @return 任务本身.
+     */
+    protected <T extends AbstractOffice> T schedule(final T task) {
+        task.setPriority(priority);
+        task.setTenant(tenant);
+        task.setPages(pages);
+        return task;
+    }
+
 }
@@ -25,7 +25,9 @@
  ********************************************************************************/
 package org.aoju.bus.office.builtin;
 
+import org.aoju.bus.office.metric.TaskPriority;
 import org.aoju.bus.office.provider.SourceDocumentProvider;
+import org.aoju.bus.office.provider.SourceFromFileProvider;
 
 /**
  * 所有office任务实现的基类.
@@ -37,6 +39,9 @@ import org.aoju.bus.office.provider.SourceDocumentProvider;
 public abstract class AbstractOffice implements MadeInOffice {
 
     protected final SourceDocumentProvider source;
+    private TaskPriority priority = TaskPriority.NORMAL;
+    private String tenant;
+    private int pages;
 
     /**
      * 使用指定的源文档创建新任务.
@@ -48,4 +53,52 @@ public abstract class AbstractOffice implements MadeInOffice {
         this.source = source;
     }
 
+    @Override
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * 设置任务的优先级.
+     *
+     * @param priority 任务优先级.
+     */
+    public void setPriority(final TaskPriority priority) {
+        this.priority = null == priority ? TaskPriority.NORMAL : priority;
+    }
+
+    @Override
+    public String getTenant() {
+        return tenant;
+    }
+
+    /**
+     * 设置任务所属的租户.
+     *
+     * @param tenant 租户标识.
+     */
+    public void setTenant(final String tenant) {
+        this.tenant = tenant;
+    }
+
+    @Override
+    public long getSize() {
+        // 流形式的源文档在执行前尚未落盘，大小未知
+        return source instanceof SourceFromFileProvider ? source.getFile().length() : 0;
+    }
+
+    @Override
+    public int getPages() {
+        return pages;
+    }
+
+    /**
+     * 设置源文档的页数，文档加载前无法得知，由调用方提供.
+     *
+     * @param pages 页数.
+     */
+    public void setPages(final int pages) {
+        this.pages = Math.max(0, pages);
+    }
+
 }
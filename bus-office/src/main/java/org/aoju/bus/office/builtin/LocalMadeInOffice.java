@@ -35,6 +35,7 @@ import org.aoju.bus.office.Builder;
 import org.aoju.bus.office.Context;
 import org.aoju.bus.office.bridge.LocalOfficeContextAware;
 import org.aoju.bus.office.magic.Lo;
+import org.aoju.bus.office.magic.family.DocumentFormat;
 import org.aoju.bus.office.magic.filter.FilterChain;
 import org.aoju.bus.office.magic.filter.RefreshFilter;
 import org.aoju.bus.office.provider.SourceDocumentProvider;
@@ -83,6 +84,11 @@ public class LocalMadeInOffice extends AbstractLocalOffice {
         this.storeProperties = storeProperties;
     }
 
+    @Override
+    public DocumentFormat getFormat() {
+        return target.getFormat();
+    }
+
     @Override
     public void execute(final Context context) throws InstrumentException {
         Logger.info("Executing local conversion task...");
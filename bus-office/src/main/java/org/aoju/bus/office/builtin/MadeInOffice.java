@@ -27,7 +27,9 @@ package org.aoju.bus.office.builtin;
 
 import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.office.Context;
+import org.aoju.bus.office.magic.family.DocumentFormat;
 import org.aoju.bus.office.metric.OfficeManager;
+import org.aoju.bus.office.metric.TaskPriority;
 
 /**
  * 表示由{@link OfficeManager}执行的任务.
@@ -46,4 +48,49 @@ public interface MadeInOffice {
      */
     void execute(Context context) throws InstrumentException;
 
+    /**
+     * 获取任务的优先级，office池繁忙时按优先级分配.
+     *
+     * @return 任务优先级.
+     */
+    default TaskPriority getPriority() {
+        return TaskPriority.NORMAL;
+    }
+
+    /**
+     * 获取任务所属的租户，office池在同一优先级的租户之间公平分配.
+     *
+     * @return 租户标识, 未指定时为null.
+     */
+    default String getTenant() {
+        return null;
+    }
+
+    /**
+     * 获取源文档的大小，用于估算转换耗时.
+     *
+     * @return 字节数, 未知时为0.
+     */
+    default long getSize() {
+        return 0;
+    }
+
+    /**
+     * 获取源文档的页数，用于估算转换耗时.
+     *
+     * @return 页数, 未知时为0.
+     */
+    default int getPages() {
+        return 0;
+    }
+
+    /**
+     * 获取转换的目标格式，用于按格式统计转换指标.
+     *
+     * @return 目标格式, 非转换任务时为null.
+     */
+    default DocumentFormat getFormat() {
+        return null;
+    }
+
 }
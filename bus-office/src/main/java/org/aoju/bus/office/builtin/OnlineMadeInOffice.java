@@ -36,6 +36,7 @@ import org.aoju.bus.logger.Logger;
 import org.aoju.bus.office.Builder;
 import org.aoju.bus.office.Context;
 import org.aoju.bus.office.bridge.OnlineOfficeContextAware;
+import org.aoju.bus.office.magic.family.DocumentFormat;
 import org.aoju.bus.office.metric.RequestBuilder;
 import org.aoju.bus.office.provider.SourceDocumentProvider;
 import org.aoju.bus.office.provider.TargetDocumentProvider;
@@ -95,6 +96,11 @@ public class OnlineMadeInOffice extends AbstractOnlineOffice {
         }
     }
 
+    @Override
+    public DocumentFormat getFormat() {
+        return target.getFormat();
+    }
+
     @Override
     public void execute(final Context context) throws InstrumentException {
 
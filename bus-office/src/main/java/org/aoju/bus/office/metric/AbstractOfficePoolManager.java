@@ -31,14 +31,12 @@ import org.aoju.bus.logger.Logger;
 import org.aoju.bus.office.Builder;
 import org.aoju.bus.office.builtin.MadeInOffice;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * OfficeManagerPool负责维护一个用于执行{@link MadeInOffice}的{@link OfficeProcessEntryManager}池
- * 当调用{@link #execute(MadeInOffice)}函数时，池将使用第一个{@link OfficeProcessEntryManager}来执行给定的任务
+ * 当调用{@link #execute(MadeInOffice)}函数时，池将通过{@link TaskScheduler}按任务的优先级、租户及估算耗时
+ * 分配空闲的{@link OfficeProcessEntryManager}来执行给定的任务，并按目标格式记录{@link ConversionMetrics}
  *
  * @author Kimi Liu
  * @version 6.1.6
@@ -51,7 +49,8 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
     private static final int POOL_SHUTDOWN = 2;
     protected final OfficeManagerPoolBuilder config;
     private final AtomicInteger poolState = new AtomicInteger(POOL_STOPPED);
-    private final BlockingQueue<OfficeManager> pool;
+    private final TaskScheduler pool;
+    private final ConversionMetrics metrics = new ConversionMetrics();
     private OfficeManager[] entries;
 
     /**
@@ -65,7 +64,7 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
 
         this.config = config;
 
-        pool = new ArrayBlockingQueue<>(poolSize);
+        pool = new TaskScheduler(config.getTaskPriorityAging());
     }
 
     /**
@@ -81,17 +80,29 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
             throw new IllegalStateException("This office manager is not running.");
         }
 
-        OfficeManager entry = null;
+        final long cost = TaskScheduler.cost(task);
+        final long queued = System.nanoTime();
+        final OfficeManager entry = acquireManager(task, cost);
+        final long started = System.nanoTime();
+        boolean success = false;
         try {
-            entry = acquireManager();
             entry.execute(task);
+            success = true;
         } finally {
-            if (entry != null) {
-                releaseManager(entry);
-            }
+            metrics.record(task.getFormat(), started - queued, System.nanoTime() - started, cost, success);
+            releaseManager(entry);
         }
     }
 
+    /**
+     * 获取按目标格式统计的排队等待时间及转换时间
+     *
+     * @return 转换指标
+     */
+    public ConversionMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public boolean isRunning() {
         return poolState.get() == POOL_STARTED;
@@ -134,15 +145,20 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
     }
 
     /**
-     * 获取管理器，等待配置的超时以使某个条目可用
+     * 为任务获取管理器，等待配置的超时以使某个条目分配给该任务
      *
+     * @param task 要执行的任务
+     * @param cost 任务的估算成本
      * @return 一个有空的office管理器
      * @throws InstrumentException 如果我们找不到管理器
      */
-    private OfficeManager acquireManager() throws InstrumentException {
+    private OfficeManager acquireManager(final MadeInOffice task, final long cost) throws InstrumentException {
+        final long queued = System.nanoTime();
         try {
-            final OfficeManager manager = pool.poll(config.getTaskQueueTimeout(), TimeUnit.MILLISECONDS);
+            final OfficeManager manager = pool.acquire(
+                    task, metrics.estimate(task.getFormat(), cost), config.getTaskQueueTimeout());
             if (manager == null) {
+                metrics.timeout(task.getFormat(), System.nanoTime() - queued);
                 throw new InstrumentException(
                         "No office manager available after " + config.getTaskQueueTimeout() + " millisec.");
             }
@@ -158,14 +174,9 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
      * 使给定的管理器可用于执行任务
      *
      * @param manager office管理器
-     * @throws InstrumentException 如果我们不能释放管理器
      */
-    private void releaseManager(final OfficeManager manager) throws InstrumentException {
-        try {
-            pool.put(manager);
-        } catch (InterruptedException interruptedEx) {
-            throw new InstrumentException("interrupted", interruptedEx);
-        }
+    private void releaseManager(final OfficeManager manager) {
+        pool.release(manager);
     }
 
     /**
@@ -211,6 +222,7 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
 
         protected long taskExecutionTimeout = Builder.DEFAULT_TASK_EXECUTION_TIMEOUT;
         protected long taskQueueTimeout = Builder.DEFAULT_TASK_QUEUE_TIMEOUT;
+        protected long taskPriorityAging = Builder.DEFAULT_TASK_PRIORITY_AGING;
 
         protected AbstractOfficeManagerPoolBuilder() {
             super();
@@ -244,6 +256,21 @@ public abstract class AbstractOfficePoolManager extends AbstractOfficeManager {
             return (B) this;
         }
 
+        /**
+         * 指定任务优先级的老化时间。排队中的任务每等待此时长便提升一个优先级，
+         * 使低优先级的批量任务在持续的高优先级负载下仍能得到执行
+         * 默认: 10000毫秒 (10秒)
+         *
+         * @param taskPriorityAging 优先级老化时间，以毫秒为单位，0表示不提升
+         * @return 当前实例信息
+         */
+        public B taskPriorityAging(final long taskPriorityAging) {
+            Assert.isTrue(taskPriorityAging >= 0,
+                    String.format("The taskPriorityAging %s must greater than or equal to 0", taskPriorityAging));
+            this.taskPriorityAging = taskPriorityAging;
+            return (B) this;
+        }
+
         /**
          * 创建此生成器指定的管理器
          *
@@ -0,0 +1,327 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.metric;
+
+import org.aoju.bus.core.lang.Algorithm;
+import org.aoju.bus.core.lang.Assert;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.FileKit;
+import org.aoju.bus.core.toolkit.HexKit;
+import org.aoju.bus.core.toolkit.ReflectKit;
+import org.aoju.bus.logger.Logger;
+import org.aoju.bus.office.magic.family.DocumentFormat;
+import org.aoju.bus.office.magic.filter.AbstractFilter;
+import org.aoju.bus.office.magic.filter.Filter;
+import org.aoju.bus.office.magic.filter.FilterChain;
+
+import java.awt.geom.Dimension2D;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于内容寻址的转换结果缓存，以源文档内容、目标格式、加载/存储属性及过滤器链的摘要作为键，
+ * 转换结果保存在磁盘目录中，总大小超过上限时按最近访问时间淘汰
+ * 过滤器中含有可变状态(如{@link org.aoju.bus.office.magic.filter.PageCounterFilter}在转换时记录的页数)
+ * 或无法描述的字段时，转换不会被缓存
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public class ConversionCache {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final long maxBytes;
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * 构造缓存，目录中已有的缓存文件会被沿用
+     *
+     * @param directory 缓存目录
+     * @param maxBytes  缓存文件的最大总字节数
+     */
+    public ConversionCache(final File directory, final long maxBytes) {
+        Assert.notNull(directory, "The cache directory is null");
+        Assert.isTrue(maxBytes > 0, "The cache size {} must greater than 0", maxBytes);
+
+        this.directory = FileKit.mkdir(directory);
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    /**
+     * 计算转换的缓存键
+     *
+     * @param source          源文件
+     * @param sourceFormat    源文档格式
+     * @param targetFormat    目标文档格式
+     * @param loadProperties  自定义的加载属性
+     * @param filterChain     过滤器链
+     * @param storeProperties 自定义的存储属性
+     * @return 缓存键，转换不可缓存时为null
+     */
+    public String key(final File source,
+                      final DocumentFormat sourceFormat,
+                      final DocumentFormat targetFormat,
+                      final Map<String, Object> loadProperties,
+                      final FilterChain filterChain,
+                      final Map<String, Object> storeProperties) {
+        final StringBuilder builder = new StringBuilder();
+        if (!describe(builder, null == sourceFormat ? null : sourceFormat.getExtension())
+                || !describe(builder, null == sourceFormat ? null : sourceFormat.getLoadProperties())
+                || !describe(builder, targetFormat.getExtension())
+                || !describe(builder, targetFormat.getMediaType())
+                || !describe(builder, targetFormat.getStoreProperties())
+                || !describe(builder, loadProperties)
+                || !describe(builder, filterChain)
+                || !describe(builder, storeProperties)) {
+            return null;
+        }
+
+        try {
+            final MessageDigest digest = MessageDigest.getInstance(Algorithm.SHA256);
+            final byte[] buffer = new byte[64 * 1024];
+            try (InputStream in = new FileInputStream(source)) {
+                for (int n; (n = in.read(buffer)) != -1; ) {
+                    digest.update(buffer, 0, n);
+                }
+            }
+            digest.update((byte) 0);
+            digest.update(builder.toString().getBytes(StandardCharsets.UTF_8));
+            return HexKit.encodeHexStr(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException ex) {
+            throw new InstrumentException("Could not compute cache key for " + source, ex);
+        }
+    }
+
+    /**
+     * 查找缓存的转换结果，并将其标记为最近访问
+     * 返回的文件可能随时被淘汰，需要读取缓存内容时请使用{@link #get(String, File)}
+     *
+     * @param key 缓存键
+     * @return 缓存文件，未命中时为null
+     */
+    public File get(final String key) {
+        final File file = new File(directory, key);
+        if (!file.isFile()) {
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    /**
+     * 将缓存的转换结果复制到目标文件，复制期间被淘汰时视为未命中
+     *
+     * @param key    缓存键
+     * @param target 目标文件
+     * @return 是否命中
+     */
+    public boolean get(final String key, final File target) {
+        final File file = get(key);
+        if (null == file) {
+            return false;
+        }
+        try {
+            Files.copy(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException ex) {
+            // 复制期间被淘汰
+            Logger.debug("Cached conversion {} is no longer available", key);
+            return false;
+        }
+    }
+
+    /**
+     * 缓存转换结果
+     *
+     * @param key    缓存键
+     * @param result 转换结果文件，不会被移动或修改
+     */
+    public void put(final String key, final File result) {
+        final File file = new File(directory, key);
+        final File temp = new File(directory, key + Thread.currentThread().getId() + TEMP_SUFFIX);
+        try {
+            Files.copy(result.toPath(), temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            // 替换文件和统计大小与淘汰互斥，避免总大小被并发更新覆盖
+            synchronized (this) {
+                final long previous = file.length();
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                if (size.addAndGet(file.length() - previous) > maxBytes) {
+                    evict();
+                }
+            }
+        } catch (IOException ex) {
+            // 缓存失败不影响转换结果
+            Logger.warn("Could not cache conversion " + key, ex);
+            FileKit.delete(temp);
+        }
+    }
+
+    /**
+     * 获取缓存文件的总字节数
+     *
+     * @return 总字节数
+     */
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * 删除所有缓存文件
+     */
+    public synchronized void clear() {
+        final File[] files = directory.listFiles(File::isFile);
+        if (null != files) {
+            for (final File file : files) {
+                FileKit.delete(file);
+            }
+        }
+        size.set(0);
+    }
+
+    /**
+     * 按最近访问时间从旧到新删除缓存文件，直到总大小不超过上限
+     */
+    private synchronized void evict() {
+        final File[] files = directory.listFiles(file -> file.isFile() && !file.getName().endsWith(TEMP_SUFFIX));
+        if (null == files) {
+            return;
+        }
+        final long[] modified = new long[files.length];
+        final Integer[] order = new Integer[files.length];
+        long total = 0;
+        for (int i = 0; i < files.length; i++) {
+            modified[i] = files[i].lastModified();
+            order[i] = i;
+            total += files[i].length();
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> modified[i]));
+        for (int i = 0; i < order.length && total > maxBytes; i++) {
+            final File file = files[order[i]];
+            final long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+        size.set(total);
+    }
+
+    /**
+     * 将参与转换的值以确定的顺序写入描述
+     *
+     * @param builder 描述
+     * @param value   值
+     * @return 值无法描述时为false
+     */
+    private static boolean describe(final StringBuilder builder, final Object value) {
+        if (null == value) {
+            builder.append("null;");
+        } else if (value instanceof CharSequence || value instanceof Number
+                || value instanceof Boolean || value instanceof Character || value instanceof Enum) {
+            builder.append(value.getClass().getSimpleName()).append(':').append(value).append(';');
+        } else if (value instanceof File) {
+            final File file = (File) value;
+            builder.append("File:").append(file.getAbsolutePath()).append(',')
+                    .append(file.length()).append(',').append(file.lastModified()).append(';');
+        } else if (value instanceof Dimension2D) {
+            final Dimension2D dimension = (Dimension2D) value;
+            builder.append("Dimension:").append(dimension.getWidth()).append('x').append(dimension.getHeight()).append(';');
+        } else if (value.getClass().isArray()) {
+            final int length = Array.getLength(value);
+            builder.append('[');
+            for (int i = 0; i < length; i++) {
+                if (!describe(builder, Array.get(value, i))) {
+                    return false;
+                }
+            }
+            builder.append(']');
+        } else if (value instanceof Collection) {
+            builder.append('[');
+            for (final Object element : (Collection<?>) value) {
+                if (!describe(builder, element)) {
+                    return false;
+                }
+            }
+            builder.append(']');
+        } else if (value instanceof Map) {
+            // 按键排序，保证相同内容的映射得到相同的描述
+            final Map<String, Object> sorted = new TreeMap<>();
+            ((Map<?, ?>) value).forEach((key, val) -> sorted.put(String.valueOf(key), val));
+            builder.append('{');
+            for (final Map.Entry<String, Object> entry : sorted.entrySet()) {
+                builder.append(entry.getKey()).append('=');
+                if (!describe(builder, entry.getValue())) {
+                    return false;
+                }
+            }
+            builder.append('}');
+        } else if (value instanceof AbstractFilter) {
+            builder.append(value.getClass().getName()).append('(');
+            if (!describe(builder, ReflectKit.getFieldValue(value, "filters"))) {
+                return false;
+            }
+            builder.append(')');
+        } else if (value instanceof Filter) {
+            builder.append(value.getClass().getName()).append('(');
+            for (final Field field : ReflectKit.getFields(value.getClass())) {
+                final int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers)) {
+                    continue;
+                }
+                if (!Modifier.isFinal(modifiers)) {
+                    Logger.debug("Conversion is not cacheable: mutable field {} in {}",
+                            field.getName(), value.getClass().getName());
+                    return false;
+                }
+                builder.append(field.getName()).append('=');
+                if (!describe(builder, ReflectKit.getFieldValue(value, field))) {
+                    return false;
+                }
+            }
+            builder.append(')');
+        } else {
+            Logger.debug("Conversion is not cacheable: unsupported value of {}", value.getClass().getName());
+            return false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,255 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.metric;
+
+import org.aoju.bus.office.magic.family.DocumentFormat;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按目标{@link DocumentFormat}统计的转换指标：排队等待时间、转换时间、失败及排队超时次数
+ * 同时根据历史的耗时与估算成本之比，为调度器提供任务耗时的估算
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public class ConversionMetrics {
+
+    /**
+     * 无目标格式时使用的统计键
+     */
+    public static final String UNKNOWN = "unknown";
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    /**
+     * 获取统计键
+     *
+     * @param format 目标格式
+     * @return 统计键
+     */
+    private static String key(DocumentFormat format) {
+        return null == format ? UNKNOWN : format.getExtension();
+    }
+
+    /**
+     * 记录一次转换
+     *
+     * @param format    目标格式
+     * @param waitNanos 排队等待时间，纳秒
+     * @param runNanos  转换时间，纳秒
+     * @param cost      估算成本
+     * @param success   是否成功
+     */
+    void record(DocumentFormat format, long waitNanos, long runNanos, long cost, boolean success) {
+        this.recorders.computeIfAbsent(key(format), k -> new Recorder()).record(waitNanos, runNanos, cost, success);
+    }
+
+    /**
+     * 记录一次排队超时
+     *
+     * @param format    目标格式
+     * @param waitNanos 排队等待时间，纳秒
+     */
+    void timeout(DocumentFormat format, long waitNanos) {
+        this.recorders.computeIfAbsent(key(format), k -> new Recorder()).timeout(waitNanos);
+    }
+
+    /**
+     * 根据该格式成功转换的平均单位成本耗时估算任务耗时，无历史数据时直接返回成本
+     *
+     * @param format 目标格式
+     * @param cost   估算成本
+     * @return 估算耗时
+     */
+    double estimate(DocumentFormat format, long cost) {
+        final Recorder recorder = this.recorders.get(key(format));
+        return null == recorder ? cost : recorder.estimate(cost);
+    }
+
+    /**
+     * 获取指定目标格式的统计
+     *
+     * @param format 目标格式，null表示无目标格式的任务
+     * @return 统计快照，无记录时为null
+     */
+    public Stats getStats(DocumentFormat format) {
+        final Recorder recorder = this.recorders.get(key(format));
+        return null == recorder ? null : recorder.snapshot();
+    }
+
+    /**
+     * 获取所有目标格式的统计
+     *
+     * @return 扩展名与统计快照的对应关系
+     */
+    public Map<String, Stats> getStats() {
+        final Map<String, Stats> stats = new TreeMap<>();
+        this.recorders.forEach((key, recorder) -> stats.put(key, recorder.snapshot()));
+        return stats;
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        this.recorders.clear();
+    }
+
+    /**
+     * 单个格式的累计值
+     */
+    private static class Recorder {
+
+        private long count;
+        private long failures;
+        private long timeouts;
+        private long totalWait;
+        private long maxWait;
+        private long totalRun;
+        private long maxRun;
+        private long successRun;
+        private long successCost;
+
+        synchronized void record(long waitNanos, long runNanos, long cost, boolean success) {
+            this.count++;
+            this.totalWait += waitNanos;
+            this.maxWait = Math.max(this.maxWait, waitNanos);
+            this.totalRun += runNanos;
+            this.maxRun = Math.max(this.maxRun, runNanos);
+            if (success) {
+                this.successRun += runNanos;
+                this.successCost += cost;
+            } else {
+                this.failures++;
+            }
+        }
+
+        synchronized void timeout(long waitNanos) {
+            this.timeouts++;
+            this.maxWait = Math.max(this.maxWait, waitNanos);
+        }
+
+        synchronized double estimate(long cost) {
+            if (this.successCost <= 0) {
+                return cost;
+            }
+            return cost * (TimeUnit.NANOSECONDS.toMillis(this.successRun) / (double) this.successCost);
+        }
+
+        synchronized Stats snapshot() {
+            return new Stats(this.count, this.failures, this.timeouts,
+                    TimeUnit.NANOSECONDS.toMillis(this.totalWait), TimeUnit.NANOSECONDS.toMillis(this.maxWait),
+                    TimeUnit.NANOSECONDS.toMillis(this.totalRun), TimeUnit.NANOSECONDS.toMillis(this.maxRun));
+        }
+    }
+
+    /**
+     * 统计快照，时间单位均为毫秒
+     */
+    public static class Stats {
+
+        private final long count;
+        private final long failures;
+        private final long timeouts;
+        private final long totalWaitMillis;
+        private final long maxWaitMillis;
+        private final long totalConvertMillis;
+        private final long maxConvertMillis;
+
+        Stats(long count, long failures, long timeouts, long totalWaitMillis, long maxWaitMillis,
+              long totalConvertMillis, long maxConvertMillis) {
+            this.count = count;
+            this.failures = failures;
+            this.timeouts = timeouts;
+            this.totalWaitMillis = totalWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.totalConvertMillis = totalConvertMillis;
+            this.maxConvertMillis = maxConvertMillis;
+        }
+
+        /**
+         * @return 已执行的转换数，包括失败的转换
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return 失败的转换数
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return 排队超时未能执行的任务数
+         */
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        /**
+         * @return 平均排队等待时间
+         */
+        public long getAverageWaitMillis() {
+            return 0 == count ? 0 : totalWaitMillis / count;
+        }
+
+        /**
+         * @return 最大排队等待时间，包括排队超时的任务
+         */
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        /**
+         * @return 平均转换时间
+         */
+        public long getAverageConvertMillis() {
+            return 0 == count ? 0 : totalConvertMillis / count;
+        }
+
+        /**
+         * @return 最大转换时间
+         */
+        public long getMaxConvertMillis() {
+            return maxConvertMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{count=" + count + ", failures=" + failures + ", timeouts=" + timeouts
+                    + ", avgWait=" + getAverageWaitMillis() + "ms, maxWait=" + maxWaitMillis
+                    + "ms, avgConvert=" + getAverageConvertMillis() + "ms, maxConvert=" + maxConvertMillis + "ms}";
+        }
+    }
+
+}
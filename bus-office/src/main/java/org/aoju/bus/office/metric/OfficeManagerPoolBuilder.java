@@ -49,4 +49,19 @@ public interface OfficeManagerPoolBuilder extends OfficeManagerBuilder {
      */
     void setTaskQueueTimeout(final long taskQueueTimeout);
 
+    /**
+     * 获取任务优先级的老化时间。等待中的任务每经过此时长提升一个优先级，避免低优先级任务饿死
+     * 默认:10秒
+     *
+     * @return 优先级老化时间，以毫秒为单位
+     */
+    long getTaskPriorityAging();
+
+    /**
+     * 设置任务优先级的老化时间
+     *
+     * @param taskPriorityAging 优先级老化时间，以毫秒为单位，0表示不提升
+     */
+    void setTaskPriorityAging(final long taskPriorityAging);
+
 }
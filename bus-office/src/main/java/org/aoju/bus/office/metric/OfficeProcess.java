@@ -31,6 +31,8 @@ import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.FileKit;
 import org.aoju.bus.core.toolkit.ObjectKit;
 import org.aoju.bus.health.Platform;
+import org.aoju.bus.health.builtin.software.OSProcess;
+import org.aoju.bus.health.builtin.software.OperatingSystem;
 import org.aoju.bus.logger.Logger;
 import org.aoju.bus.office.Builder;
 import org.aoju.bus.office.Expense;
@@ -169,6 +171,23 @@ public class OfficeProcess {
         }
     }
 
+    /**
+     * 获取office进程的常驻内存(RSS)
+     *
+     * @return 常驻内存，以字节为单位，无法获取时返回-1
+     */
+    public long getResidentMemory() {
+        if (pid < 0 || !isRunning()) {
+            return -1;
+        }
+        final OperatingSystem os = SystemHolder.get();
+        if (null == os) {
+            return -1;
+        }
+        final OSProcess osProcess = os.getProcess((int) pid);
+        return null == osProcess ? -1 : osProcess.getResidentSetSize();
+    }
+
     /**
      * 获取office进程的退出码
      *
@@ -382,4 +401,25 @@ public class OfficeProcess {
         }
     }
 
+    /**
+     * 延迟加载的操作系统信息，依赖的JNA不存在时为null
+     */
+    private static class SystemHolder {
+
+        private static final OperatingSystem INSTANCE = create();
+
+        private static OperatingSystem create() {
+            try {
+                return new Platform().getOperatingSystem();
+            } catch (LinkageError | RuntimeException ex) {
+                Logger.warn("Process memory cannot be read on this platform: {}", ex.getMessage());
+                return null;
+            }
+        }
+
+        static OperatingSystem get() {
+            return INSTANCE;
+        }
+    }
+
 }
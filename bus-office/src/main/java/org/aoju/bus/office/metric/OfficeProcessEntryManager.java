@@ -42,11 +42,14 @@ import org.aoju.bus.office.magic.UnoUrl;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * OfficeProcessManagerPoolEntry负责执行通过{@link LocalOfficePoolManager}提交的任务
  * 它将向其内部{@link OfficeProcessManager}提交任务，并等待任务完成或到达配置的任务执行超时.
- * OfficeProcessManagerPoolEntry还负责在达到每个进程的最大任务数时重新启动office进程.
+ * OfficeProcessManagerPoolEntry还负责在达到每个进程的最大任务数或最大常驻内存时重新启动office进程.
+ * 指定热备地址时，将额外维护一个预先启动的热备进程，需要重新启动时直接切换到热备进程，
+ * 被替换的进程在后台重新启动并成为新的热备进程，任务无需等待office进程启动.
  *
  * @author Kimi Liu
  * @version 6.1.6
@@ -56,46 +59,19 @@ public class OfficeProcessEntryManager extends AbstractOfficeEntryManager {
 
     private static final String PROPPATH_USE_OPENGL = "VCL/UseOpenGL";
 
-    private final OfficeProcessManager officeProcessManager;
-
     private final AtomicInteger taskCount = new AtomicInteger(0);
-    private final AtomicBoolean disconnectExpected = new AtomicBoolean(false);
+    private final AtomicLong restartCount = new AtomicLong();
+    private final AtomicLong switchCount = new AtomicLong();
+    private final AtomicLong savedMillis = new AtomicLong();
 
     /**
-     * 当连接建立或关闭/丢失/来自office实例时，将通知此连接事件侦听器
+     * 正在执行任务的进程
      */
-    private final OfficeConnectEventListener connectionEventListener =
-            new OfficeConnectEventListener() {
-
-                // 建立联系.
-                @Override
-                public void connected(final OfficeConnectEvent event) {
-                    // 重置任务计数并使任务执行程序可用.
-                    taskCount.set(0);
-                    taskExecutor.setAvailable(true);
-                }
-
-                // 连接已关闭/丢失.
-                @Override
-                public void disconnected(final OfficeConnectEvent event) {
-
-                    // 使任务执行程序不可用.
-                    taskExecutor.setAvailable(false);
-
-                    // 当它来自一个预期的行为(我们已经放在调用函数之前将字段设置为true)，只需要重置即可
-                    // 将期望值断开为false。当我们没有预料到的时候 断开连接后，必须重新启动office进程
-                    // 将取消可能正在运行的任何任务
-                    if (!disconnectExpected.compareAndSet(true, false)) {
-
-                        // 在这里,我们没有预料到这种分离,必须重新启动office进程，取消可能正在运行的任何任务.
-                        Logger.warn("Connection lost unexpectedly; attempting restart");
-                        if (currentFuture != null) {
-                            currentFuture.cancel(true);
-                        }
-                        officeProcessManager.restartDueToLostConnection();
-                    }
-                }
-            };
+    private volatile ProcessSlot active;
+    /**
+     * 热备进程，未启用热备时为null
+     */
+    private volatile ProcessSlot standby;
 
     /**
      * 使用默认配置为指定的office URL创建新的协议池
@@ -114,13 +90,25 @@ public class OfficeProcessEntryManager extends AbstractOfficeEntryManager {
      */
     public OfficeProcessEntryManager(
             final UnoUrl unoUrl, final OfficeProcessManagerEntryBuilder config) {
-        super(config);
+        this(unoUrl, null, config);
+    }
 
-        // 创建处理office实例的流程管理器
-        officeProcessManager = new OfficeProcessManager(unoUrl, config);
+    /**
+     * 使用指定的配置为指定的office URL创建新的协议池，并在热备URL上维护一个热备进程
+     *
+     * @param unoUrl     需要创建的URL
+     * @param standbyUrl 热备进程的URL，为null时不启用热备
+     * @param config     配置
+     */
+    public OfficeProcessEntryManager(
+            final UnoUrl unoUrl, final UnoUrl standbyUrl, final OfficeProcessManagerEntryBuilder config) {
+        super(config);
 
-        // 监听到office实例的任何连接事件.
-        officeProcessManager.getLocalOffice().addConnectionEventListener(connectionEventListener);
+        // 创建处理office实例的流程管理器，并监听到office实例的任何连接事件
+        active = new ProcessSlot(unoUrl, config);
+        if (null != standbyUrl) {
+            standby = new ProcessSlot(standbyUrl, config);
+        }
     }
 
     @Override
@@ -131,64 +119,167 @@ public class OfficeProcessEntryManager extends AbstractOfficeEntryManager {
 
         // 首先检查是否必须重新启动office进程
         final int count = taskCount.getAndIncrement();
-        if (entryConfig.getMaxTasksPerProcess() > 0 && count == entryConfig.getMaxTasksPerProcess()) {
-
+        if (entryConfig.getMaxTasksPerProcess() > 0 && count >= entryConfig.getMaxTasksPerProcess()) {
             Logger.info("Reached limit of {} maximum tasks per process; restarting...",
                     entryConfig.getMaxTasksPerProcess());
-            restart();
-
-            // 此时taskCount将是0而不是1，所以要修复它.
-            taskCount.getAndIncrement();
+            recycle();
+        } else if (entryConfig.getMaxProcessMemory() > 0) {
+            final long memory = active.manager.getResidentMemory();
+            if (memory > entryConfig.getMaxProcessMemory()) {
+                Logger.info("Process memory {} exceeds limit of {} bytes; restarting...",
+                        memory, entryConfig.getMaxProcessMemory());
+                recycle();
+            }
         }
-        task.execute(officeProcessManager.getLocalOffice());
+        task.execute(active.manager.getLocalOffice());
     }
 
     @Override
     protected void handleExecuteTimeoutException(final TimeoutException timeoutEx) {
         // 是任务没有在配置的超时内完成，必须重新启动
-        officeProcessManager.restartDueToTaskTimeout();
+        active.manager.restartDueToTaskTimeout();
     }
 
     @Override
     public boolean isRunning() {
-        return super.isRunning() && officeProcessManager.getLocalOffice().isConnected();
+        return super.isRunning() && active.isReady();
     }
 
     @Override
     public void doStart() throws InstrumentException {
+        start(active);
+        if (null != standby) {
+            start(standby);
+        }
+    }
+
+    @Override
+    public void doStop() throws InstrumentException {
+        InstrumentException firstException = null;
+        for (final ProcessSlot slot : new ProcessSlot[]{active, standby}) {
+            if (null == slot) {
+                continue;
+            }
+            // 从这里开始，任何原因导致与Office进程的断开都是可能的
+            slot.disconnectExpected.set(true);
+            try {
+                // 现在可以停止运行的office进程
+                slot.manager.stopAndWait();
+            } catch (InstrumentException ex) {
+                if (null == firstException) {
+                    firstException = ex;
+                }
+            }
+        }
+        if (null != firstException) {
+            throw firstException;
+        }
+    }
+
+    /**
+     * 获取在请求路径上同步重新启动office进程的次数
+     *
+     * @return 重新启动次数
+     */
+    public long getRestartCount() {
+        return restartCount.get();
+    }
+
+    /**
+     * 获取切换到热备进程的次数，每次切换都避免了一次在请求路径上的重新启动
+     *
+     * @return 切换次数
+     */
+    public long getSwitchCount() {
+        return switchCount.get();
+    }
+
+    /**
+     * 获取切换到热备进程所节省的office进程启动时间
+     *
+     * @return 节省的时间，以毫秒为单位
+     */
+    public long getSavedMillis() {
+        return savedMillis.get();
+    }
+
+    /**
+     * 启动进程并连接到该进程
+     *
+     * @param slot 进程
+     * @throws InstrumentException 如果无法启动
+     */
+    private void start(final ProcessSlot slot) throws InstrumentException {
 
         // 启动office流程并连接到它.
-        officeProcessManager.startAndWait();
+        slot.manager.startAndWait();
 
         // 这里已经成功地建立了连接。检查以禁用OpenGL的使用。如果OpenGL是开着的(LibreOffice)，有些文件无法正常加载
         final OfficeProcessManagerEntryBuilder entryConfig =
                 (OfficeProcessManagerEntryBuilder) config;
         if (entryConfig.isDisableOpengl()
-                && disableOpengl(officeProcessManager.getLocalOffice().getComponentContext())) {
+                && disableOpengl(slot.manager.getLocalOffice().getComponentContext())) {
 
             Logger.info("OpenGL has been disabled and a restart is required; restarting...");
-            restart();
+            restart(slot);
         }
     }
 
-    @Override
-    public void doStop() throws InstrumentException {
-        // 从这里开始，任何原因导致与Office进程的断开都是可能的
-        disconnectExpected.set(true);
+    /**
+     * 重新启动当前进程，热备进程就绪时直接切换到热备进程，被替换的进程在后台重新启动
+     *
+     * @throws InstrumentException 如果无法重新启动
+     */
+    private void recycle() throws InstrumentException {
+        ProcessSlot retired = null;
+        synchronized (this) {
+            final ProcessSlot current = active;
+            if (switchToStandby()) {
+                retired = current;
+            }
+        }
+        if (null == retired) {
+            restartCount.incrementAndGet();
+            restart(active);
+        } else {
+            Logger.info("Switched to the standby process; restarting the retired process in background...");
+            retired.disconnectExpected.set(true);
+            retired.manager.restartInBackground();
+        }
+
+        // 此时taskCount将是0而不是1，所以要修复它.
+        taskCount.getAndIncrement();
+    }
 
-        // 现在可以停止运行的office进程
-        officeProcessManager.stopAndWait();
+    /**
+     * 热备进程就绪时将其切换为当前进程，调用方需持有当前对象的锁
+     *
+     * @return 是否切换
+     */
+    private boolean switchToStandby() {
+        final ProcessSlot next = standby;
+        if (null == next || !next.isReady()) {
+            return false;
+        }
+        standby = active;
+        active = next;
+        taskCount.set(0);
+        switchCount.incrementAndGet();
+        savedMillis.addAndGet(next.manager.getStartupMillis());
+        return true;
     }
 
-    private void restart() throws InstrumentException {
+    private void restart(final ProcessSlot slot) throws InstrumentException {
         // 执行程序不再可用
-        taskExecutor.setAvailable(false);
+        if (slot == active) {
+            taskExecutor.setAvailable(false);
+        }
 
         // 设置预期要断开连接
-        disconnectExpected.set(true);
+        slot.disconnectExpected.set(true);
 
         // 重新启动office实例
-        officeProcessManager.restartAndWait();
+        slot.manager.restartAndWait();
     }
 
     /**
@@ -260,4 +351,70 @@ public class OfficeProcessEntryManager extends AbstractOfficeEntryManager {
         }
     }
 
+    /**
+     * 由{@link OfficeProcessManager}管理的office进程及其连接事件的处理
+     */
+    private class ProcessSlot implements OfficeConnectEventListener {
+
+        private final OfficeProcessManager manager;
+        private final AtomicBoolean disconnectExpected = new AtomicBoolean(false);
+
+        private ProcessSlot(final UnoUrl unoUrl, final OfficeProcessManagerEntryBuilder config) {
+            manager = new OfficeProcessManager(unoUrl, config);
+            manager.getLocalOffice().addConnectionEventListener(this);
+        }
+
+        private boolean isReady() {
+            return manager.getLocalOffice().isConnected();
+        }
+
+        // 建立联系.
+        @Override
+        public void connected(final OfficeConnectEvent event) {
+            synchronized (OfficeProcessEntryManager.this) {
+                // 当前进程不可用时，就绪的热备进程直接接替
+                if (this == active || (this == standby && !active.isReady() && switchToStandby())) {
+                    // 重置任务计数并使任务执行程序可用.
+                    taskCount.set(0);
+                    taskExecutor.setAvailable(true);
+                }
+            }
+        }
+
+        // 连接已关闭/丢失.
+        @Override
+        public void disconnected(final OfficeConnectEvent event) {
+            synchronized (OfficeProcessEntryManager.this) {
+                final boolean expected = disconnectExpected.compareAndSet(true, false);
+                if (this != active) {
+                    // 热备进程意外退出，在后台重新启动
+                    if (!expected) {
+                        Logger.warn("Standby connection lost unexpectedly; attempting restart");
+                        manager.restartDueToLostConnection();
+                    }
+                    return;
+                }
+
+                // 使任务执行程序不可用.
+                taskExecutor.setAvailable(false);
+
+                // 当它来自一个预期的行为(我们已经放在调用函数之前将字段设置为true)，只需要重置即可
+                // 将期望值断开为false。当我们没有预料到的时候 断开连接后，必须重新启动office进程
+                // 将取消可能正在运行的任何任务
+                if (!expected) {
+
+                    // 在这里,我们没有预料到这种分离,必须重新启动office进程，取消可能正在运行的任何任务.
+                    Logger.warn("Connection lost unexpectedly; attempting restart");
+                    if (currentFuture != null) {
+                        currentFuture.cancel(true);
+                    }
+                    if (switchToStandby()) {
+                        taskExecutor.setAvailable(true);
+                    }
+                    manager.restartDueToLostConnection();
+                }
+            }
+        }
+    }
+
 }
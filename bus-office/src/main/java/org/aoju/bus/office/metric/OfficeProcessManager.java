@@ -48,6 +48,7 @@ public class OfficeProcessManager {
     private final LocalOfficeBridgeFactory localOffice;
     private final ExecutorService executor;
     private final OfficeProcessManagerBuilder config;
+    private volatile long startupMillis;
 
     /**
      * 创建具有指定配置的新管理器.
@@ -96,6 +97,7 @@ public class OfficeProcessManager {
      *                应该将{@code restart}设置为{@code false}
      */
     private void doStartProcessAndConnect(final boolean restart) throws InstrumentException {
+        final long start = System.currentTimeMillis();
         process.start(restart);
 
         try {
@@ -108,6 +110,7 @@ public class OfficeProcessManager {
             }
             throw new InstrumentException("Could not establish connection", ex);
         }
+        startupMillis = System.currentTimeMillis() - start;
     }
 
     /**
@@ -163,6 +166,24 @@ public class OfficeProcessManager {
         return localOffice;
     }
 
+    /**
+     * 获取最近一次启动office进程并建立连接所用的时间
+     *
+     * @return 启动耗时，以毫秒为单位
+     */
+    public long getStartupMillis() {
+        return startupMillis;
+    }
+
+    /**
+     * 获取office进程的常驻内存
+     *
+     * @return 常驻内存，以字节为单位，无法获取时返回-1
+     */
+    public long getResidentMemory() {
+        return process.getResidentMemory();
+    }
+
     /**
      * 新启动office进程，并等待连接到重新启动的进程
      *
@@ -180,6 +201,22 @@ public class OfficeProcessManager {
                 });
     }
 
+    /**
+     * 在后台重新启动office进程，不等待其完成
+     */
+    public void restartInBackground() {
+        Logger.info("Executing task 'Restart In Background'...");
+        executor.execute(
+                () -> {
+                    try {
+                        doStopProcess(false);
+                        doStartProcessAndConnect(true);
+                    } catch (InstrumentException officeEx) {
+                        Logger.error("Could not restart process in background.", officeEx);
+                    }
+                });
+    }
+
     /**
      * 当连接丢失时，重新启动office进程
      */
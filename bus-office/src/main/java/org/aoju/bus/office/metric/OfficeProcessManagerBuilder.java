@@ -53,6 +53,11 @@ public class OfficeProcessManagerBuilder extends OfficeProcessBuilder {
      */
     private int maxTasksPerProcess = Builder.DEFAULT_MAX_TASKS_PER_PROCESS;
 
+    /**
+     * Office进程可以占用的最大常驻内存，以字节为单位
+     */
+    private long maxProcessMemory = Builder.DEFAULT_MAX_PROCESS_MEMORY;
+
     /**
      * 禁用OpenGL, {@code false} 禁用OpenGL.
      */
@@ -131,6 +136,24 @@ public class OfficeProcessManagerBuilder extends OfficeProcessBuilder {
         this.maxTasksPerProcess = maxTasksPerProcess;
     }
 
+    /**
+     * 获取office进程在重新启动之前可以占用的最大常驻内存.
+     *
+     * @return 最大常驻内存，以字节为单位，0表示不限制.
+     */
+    public long getMaxProcessMemory() {
+        return maxProcessMemory;
+    }
+
+    /**
+     * 设置office进程在重新启动之前可以占用的最大常驻内存.
+     *
+     * @param maxProcessMemory 最大常驻内存，以字节为单位，0表示不限制.
+     */
+    public void setMaxProcessMemory(final long maxProcessMemory) {
+        this.maxProcessMemory = maxProcessMemory;
+    }
+
     /**
      * 获取启动新office进程时是否必须禁用OpenGL
      *
@@ -41,6 +41,7 @@ public class OfficeProcessManagerPoolBuilder extends OfficeProcessManagerEntryBu
         implements OfficeManagerPoolBuilder {
 
     private long taskQueueTimeout = Builder.DEFAULT_TASK_QUEUE_TIMEOUT;
+    private long taskPriorityAging = Builder.DEFAULT_TASK_PRIORITY_AGING;
 
     /**
      * 使用指定的值创建配置.
@@ -64,4 +65,14 @@ public class OfficeProcessManagerPoolBuilder extends OfficeProcessManagerEntryBu
         this.taskQueueTimeout = taskQueueTimeout;
     }
 
+    @Override
+    public long getTaskPriorityAging() {
+        return taskPriorityAging;
+    }
+
+    @Override
+    public void setTaskPriorityAging(final long taskPriorityAging) {
+        this.taskPriorityAging = taskPriorityAging;
+    }
+
 }
@@ -0,0 +1,232 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.metric;
+
+import org.aoju.bus.office.builtin.MadeInOffice;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * office池前的任务调度器，空闲的{@link OfficeManager}按以下顺序分配给等待中的任务:
+ * <ol>
+ *     <li>优先级，等待时间每超过一个老化周期提升一级，避免低优先级任务饿死</li>
+ *     <li>同一优先级内按租户的虚拟开始时间(start-time fair queueing)，
+ *     每个租户按其任务的估算耗时计费，大量提交的租户不会独占office池</li>
+ *     <li>估算耗时较短的任务优先</li>
+ *     <li>提交顺序</li>
+ * </ol>
+ * 未指定租户的任务各自独立计费
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+final class TaskScheduler {
+
+    /**
+     * 每页估算的成本，以KB计
+     */
+    private static final long PAGE_COST = 50;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<OfficeManager> idle = new ArrayDeque<>();
+    private final List<Ticket> waiting = new ArrayList<>();
+    private final Map<String, Double> finishTags = new HashMap<>();
+    private final long agingNanos;
+    private double virtualTime;
+    private long sequence;
+
+    /**
+     * 构造调度器
+     *
+     * @param aging 优先级老化时间，以毫秒为单位，0表示不提升
+     */
+    TaskScheduler(final long aging) {
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(aging);
+    }
+
+    /**
+     * 估算任务的原始成本: 源文档大小(KB)加上每页{@value #PAGE_COST}
+     *
+     * @param task 任务
+     * @return 成本，至少为1
+     */
+    static long cost(final MadeInOffice task) {
+        return Math.max(1, (task.getSize() >> 10) + task.getPages() * PAGE_COST);
+    }
+
+    /**
+     * 为任务获取一个office管理器，等待直到有管理器分配给该任务或超时
+     *
+     * @param task     任务
+     * @param estimate 任务的估算耗时
+     * @param timeout  超时时间，以毫秒为单位
+     * @return office管理器，超时返回null
+     * @throws InterruptedException 等待时线程被中断
+     */
+    OfficeManager acquire(final MadeInOffice task, final double estimate, final long timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            final Ticket ticket = enqueue(task, estimate);
+            dispatch();
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+            try {
+                while (null == ticket.manager) {
+                    if (nanos <= 0) {
+                        cancel(ticket);
+                        return null;
+                    }
+                    nanos = ticket.condition.awaitNanos(nanos);
+                }
+                return ticket.manager;
+            } catch (InterruptedException ex) {
+                if (null != ticket.manager) {
+                    // 中断前已被分配，交给下一个任务
+                    idle.addFirst(ticket.manager);
+                    dispatch();
+                } else {
+                    cancel(ticket);
+                }
+                throw ex;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 归还office管理器，优先分配给等待中的任务
+     *
+     * @param manager office管理器
+     */
+    void release(final OfficeManager manager) {
+        lock.lock();
+        try {
+            idle.addLast(manager);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 移除所有空闲的office管理器
+     */
+    void clear() {
+        lock.lock();
+        try {
+            idle.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Ticket enqueue(final MadeInOffice task, final double estimate) {
+        final Ticket ticket = new Ticket();
+        ticket.priority = task.getPriority().ordinal();
+        ticket.tenant = task.getTenant();
+        ticket.cost = estimate;
+        ticket.sequence = sequence++;
+        ticket.enqueued = System.nanoTime();
+        ticket.condition = lock.newCondition();
+        if (null == ticket.tenant) {
+            ticket.start = virtualTime;
+        } else {
+            ticket.start = Math.max(virtualTime, finishTags.getOrDefault(ticket.tenant, 0D));
+            finishTags.put(ticket.tenant, ticket.start + estimate);
+        }
+        waiting.add(ticket);
+        return ticket;
+    }
+
+    private void cancel(final Ticket ticket) {
+        waiting.remove(ticket);
+        // 退还尚未执行的最后一个任务的计费
+        if (null != ticket.tenant && Objects.equals(finishTags.get(ticket.tenant), ticket.start + ticket.cost)) {
+            finishTags.put(ticket.tenant, ticket.start);
+        }
+    }
+
+    private void dispatch() {
+        while (!idle.isEmpty() && !waiting.isEmpty()) {
+            final long now = System.nanoTime();
+            Ticket best = null;
+            for (final Ticket ticket : waiting) {
+                ticket.effective = effective(ticket, now);
+                if (null == best || ticket.before(best)) {
+                    best = ticket;
+                }
+            }
+            waiting.remove(best);
+            if (best.start > virtualTime) {
+                virtualTime = best.start;
+                finishTags.values().removeIf(tag -> tag <= virtualTime);
+            }
+            best.manager = idle.pollFirst();
+            best.condition.signal();
+        }
+    }
+
+    private int effective(final Ticket ticket, final long now) {
+        if (agingNanos <= 0) {
+            return ticket.priority;
+        }
+        return (int) Math.max(0, ticket.priority - (now - ticket.enqueued) / agingNanos);
+    }
+
+    /**
+     * 等待中的任务
+     */
+    private static class Ticket {
+
+        private int priority;
+        private int effective;
+        private String tenant;
+        private double start;
+        private double cost;
+        private long sequence;
+        private long enqueued;
+        private Condition condition;
+        private OfficeManager manager;
+
+        boolean before(final Ticket other) {
+            if (effective != other.effective) {
+                return effective < other.effective;
+            }
+            if (start != other.start) {
+                return start < other.start;
+            }
+            if (cost != other.cost) {
+                return cost < other.cost;
+            }
+            return sequence < other.sequence;
+        }
+    }
+
+}
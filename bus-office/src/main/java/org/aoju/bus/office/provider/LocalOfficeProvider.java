@@ -27,16 +27,20 @@ package org.aoju.bus.office.provider;
 
 import com.sun.star.document.UpdateDocMode;
 import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.logger.Logger;
 import org.aoju.bus.office.builtin.AbstractJob;
 import org.aoju.bus.office.builtin.AbstractNorm;
 import org.aoju.bus.office.builtin.LocalMadeInOffice;
+import org.aoju.bus.office.magic.family.DocumentFormat;
 import org.aoju.bus.office.magic.family.FormatRegistry;
 import org.aoju.bus.office.magic.filter.DefaultFilter;
 import org.aoju.bus.office.magic.filter.Filter;
 import org.aoju.bus.office.magic.filter.FilterChain;
+import org.aoju.bus.office.metric.ConversionCache;
 import org.aoju.bus.office.metric.InstalledOfficeHolder;
 import org.aoju.bus.office.metric.OfficeManager;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -67,6 +71,7 @@ public class LocalOfficeProvider extends AbstractProvider {
     private final Map<String, Object> storeProperties;
     private Map<String, Object> loadProperties;
     private FilterChain filterChain;
+    private ConversionCache conversionCache;
 
     public LocalOfficeProvider(
             final OfficeManager officeManager,
@@ -81,6 +86,18 @@ public class LocalOfficeProvider extends AbstractProvider {
         this.storeProperties = storeProperties;
     }
 
+    public LocalOfficeProvider(
+            final OfficeManager officeManager,
+            final FormatRegistry formatRegistry,
+            final Map<String, Object> loadProperties,
+            final FilterChain filterChain,
+            final Map<String, Object> storeProperties,
+            final ConversionCache conversionCache) {
+        this(officeManager, formatRegistry, loadProperties, filterChain, storeProperties);
+
+        this.conversionCache = conversionCache;
+    }
+
     /**
      * 创建一个新的生成器实例.
      *
@@ -158,6 +175,7 @@ public class LocalOfficeProvider extends AbstractProvider {
         private Map<String, Object> loadProperties;
         private FilterChain filterChain;
         private Map<String, Object> storeProperties;
+        private ConversionCache conversionCache;
 
         private Builder() {
             super();
@@ -165,7 +183,8 @@ public class LocalOfficeProvider extends AbstractProvider {
 
         @Override
         public LocalOfficeProvider build() {
-            return new LocalOfficeProvider(officeManager, formatRegistry, loadProperties, filterChain, storeProperties);
+            return new LocalOfficeProvider(officeManager, formatRegistry, loadProperties, filterChain, storeProperties,
+                    conversionCache);
         }
 
         /**
@@ -215,6 +234,17 @@ public class LocalOfficeProvider extends AbstractProvider {
             return this;
         }
 
+        /**
+         * 指定转换结果的缓存，源文档内容、目标格式、属性及过滤器链均相同的转换将直接使用缓存的结果.
+         *
+         * @param conversionCache 转换结果的缓存.
+         * @return 这个构造器实例.
+         */
+        public Builder conversionCache(final ConversionCache conversionCache) {
+            this.conversionCache = conversionCache;
+            return this;
+        }
+
     }
 
     private class Local
@@ -241,8 +271,106 @@ public class LocalOfficeProvider extends AbstractProvider {
 
         @Override
         public void doExecute() throws InstrumentException {
-            final LocalMadeInOffice task = new LocalMadeInOffice(source, target, loadProperties, filterChain, storeProperties);
-            officeManager.execute(task);
+            if (null == conversionCache) {
+                final LocalMadeInOffice task = new LocalMadeInOffice(source, target, loadProperties, filterChain, storeProperties);
+                officeManager.execute(schedule(task));
+                return;
+            }
+
+            // 源文档只获取一次，如果源是输入流，则获取时将写入临时文件
+            final File sourceFile = source.getFile();
+            final String key;
+            try {
+                key = conversionCache.key(sourceFile, source.getFormat(), target.getFormat(),
+                        loadProperties, filterChain, storeProperties);
+            } catch (InstrumentException ex) {
+                source.onConsumed(sourceFile);
+                throw ex;
+            }
+            if (null == key) {
+                final LocalMadeInOffice task = new LocalMadeInOffice(
+                        new CachedSource(source, sourceFile), target, loadProperties, filterChain, storeProperties);
+                officeManager.execute(schedule(task));
+                return;
+            }
+
+            // 复制期间缓存被淘汰时按未命中处理，继续转换
+            final File targetFile = target.getFile();
+            if (conversionCache.get(key, targetFile)) {
+                Logger.debug("Conversion served from cache {}", key);
+                try {
+                    target.onComplete(targetFile);
+                } finally {
+                    source.onConsumed(sourceFile);
+                }
+                return;
+            }
+
+            final LocalMadeInOffice task = new LocalMadeInOffice(
+                    new CachedSource(source, sourceFile), new CachedTarget(target, key, targetFile),
+                    loadProperties, filterChain, storeProperties);
+            officeManager.execute(schedule(task));
+        }
+
+    }
+
+    /**
+     * 已获取的源文档，转换完成后交由原始源处理.
+     */
+    private static class CachedSource extends SourceFromFileProvider {
+
+        private final AbstractSourceProvider source;
+
+        private CachedSource(final AbstractSourceProvider source, final File file) {
+            super(file);
+
+            this.source = source;
+            if (null != source.getFormat()) {
+                setDocumentFormat(source.getFormat());
+            }
+        }
+
+        @Override
+        public void onConsumed(final File file) {
+            source.onConsumed(file);
+        }
+
+    }
+
+    /**
+     * 转换成功后先缓存结果再交由原始目标处理的目标文档.
+     */
+    private class CachedTarget implements TargetDocumentProvider {
+
+        private final AbstractTargetProvider target;
+        private final String key;
+        private final File file;
+
+        private CachedTarget(final AbstractTargetProvider target, final String key, final File file) {
+            this.target = target;
+            this.key = key;
+            this.file = file;
+        }
+
+        @Override
+        public File getFile() {
+            return file;
+        }
+
+        @Override
+        public DocumentFormat getFormat() {
+            return target.getFormat();
+        }
+
+        @Override
+        public void onComplete(final File file) {
+            conversionCache.put(key, file);
+            target.onComplete(file);
+        }
+
+        @Override
+        public void onFailure(final File file, final Exception exception) {
+            target.onFailure(file, exception);
         }
 
     }
@@ -125,7 +125,7 @@ public class OnlineOfficeProvider extends AbstractProvider {
         @Override
         public void doExecute() throws InstrumentException {
             final OnlineMadeInOffice task = new OnlineMadeInOffice(source, target);
-            officeManager.execute(task);
+            officeManager.execute(schedule(task));
         }
 
     }
@@ -456,6 +456,31 @@ public class ExcelKit {
         }
     }
 
+    /**
+     * 获得{@link ExcelStreamWriter},默认写出到第一个sheet,名字为sheet1
+     *
+     * @param destFile 目标文件
+     * @return {@link ExcelStreamWriter}
+     */
+    public static ExcelStreamWriter getStreamWriter(File destFile) {
+        return getStreamWriter(destFile, null);
+    }
+
+    /**
+     * 获得{@link ExcelStreamWriter}
+     *
+     * @param destFile  目标文件
+     * @param sheetName sheet表名
+     * @return {@link ExcelStreamWriter}
+     */
+    public static ExcelStreamWriter getStreamWriter(File destFile, String sheetName) {
+        try {
+            return new ExcelStreamWriter(destFile, sheetName);
+        } catch (NoClassDefFoundError e) {
+            throw new InstrumentException(PoiChecker.NO_POI_ERROR_MSG);
+        }
+    }
+
     /**
      * 将Sheet列号变为列名
      *
@@ -37,7 +37,7 @@ import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
 import org.apache.poi.hssf.record.CellValueRecordInterface;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.util.XMLHelper;
-import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.model.SharedStrings;
 import org.apache.poi.xssf.usermodel.XSSFRichTextString;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.InputSource;
@@ -78,13 +78,13 @@ public class ExcelSaxKit {
     /**
      * 根据数据类型获取数据
      *
-     * @param cellDataType       数据类型枚举
-     * @param value              数据值
-     * @param sharedStringsTable {@link SharedStringsTable}
-     * @param numFmtString       数字格式名
+     * @param cellDataType  数据类型枚举
+     * @param value         数据值
+     * @param sharedStrings {@link SharedStrings}，可为{@link MappedSharedStrings}
+     * @param numFmtString  数字格式名
      * @return 数据值
      */
-    public static Object getDataValue(CellDataType cellDataType, String value, SharedStringsTable sharedStringsTable, String numFmtString) {
+    public static Object getDataValue(CellDataType cellDataType, String value, SharedStrings sharedStrings, String numFmtString) {
         if (null == value) {
             return null;
         }
@@ -110,7 +110,11 @@ public class ExcelSaxKit {
             case SSTINDEX:
                 try {
                     final int index = Integer.parseInt(value);
-                    result = new XSSFRichTextString(sharedStringsTable.getEntryAt(index)).getString();
+                    if (sharedStrings instanceof MappedSharedStrings) {
+                        result = ((MappedSharedStrings) sharedStrings).getString(index);
+                    } else {
+                        result = sharedStrings.getItemAt(index).getString();
+                    }
                 } catch (NumberFormatException e) {
                     result = value;
                 }
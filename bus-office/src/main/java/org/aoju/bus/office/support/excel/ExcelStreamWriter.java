@@ -0,0 +1,1224 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.support.excel;
+
+import org.aoju.bus.core.beans.copier.CopyPlan;
+import org.aoju.bus.core.lang.Assert;
+import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.*;
+import org.aoju.bus.office.support.excel.cell.FormulaCellValue;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.RichTextString;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Excel2007流式写出器
+ * <p>
+ * 与{@link BigExcelWriter}不同，此写出器不创建POI的行、单元格对象，也不使用SXSSF临时文件，
+ * 而是直接将SpreadsheetML写入zip输出流，适合百万行级别的导出：
+ * <ul>
+ *     <li>Bean按类解析一次列与读取方法，之后每行直接调用读取方法，不再转换为Map</li>
+ *     <li>样式表固定生成一次，与{@link StyleSet}的默认样式一致(标题、常规、日期、数字)</li>
+ *     <li>字符串默认写为内联字符串，也可通过{@link #setSharedStrings(boolean)}去重写入共享字符串表</li>
+ * </ul>
+ * 标题、别名、列宽等用法与{@link ExcelWriter}一致，列宽和冻结窗口需在当前sheet写出第一行之前设置
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public class ExcelStreamWriter implements Closeable {
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String NS_PACKAGE_RELATIONSHIPS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    // 样式索引，与STYLES中cellXfs的顺序对应
+    private static final int STYLE_CELL = 1;
+    private static final int STYLE_HEAD = 2;
+    private static final int STYLE_DATE = 3;
+    private static final int STYLE_NUMBER = 4;
+    /**
+     * 固定样式表：0默认，1常规(居中、细边框)，2标题(常规+25%灰色填充)，3日期(格式22)，4数字(格式2)
+     */
+    private static final String STYLES = XML_HEADER
+            + "<styleSheet xmlns=\"" + NS_MAIN + "\">"
+            + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font></fonts>"
+            + "<fills count=\"3\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill>"
+            + "<fill><patternFill patternType=\"solid\"><fgColor indexed=\"22\"/><bgColor indexed=\"64\"/></patternFill></fill></fills>"
+            + "<borders count=\"2\"><border><left/><right/><top/><bottom/><diagonal/></border>"
+            + "<border><left style=\"thin\"><color indexed=\"8\"/></left><right style=\"thin\"><color indexed=\"8\"/></right>"
+            + "<top style=\"thin\"><color indexed=\"8\"/></top><bottom style=\"thin\"><color indexed=\"8\"/></bottom><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"5\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\" vertical=\"center\"/></xf>"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"2\" borderId=\"1\" xfId=\"0\" applyFill=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\" vertical=\"center\"/></xf>"
+            + "<xf numFmtId=\"22\" fontId=\"0\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyNumberFormat=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\" vertical=\"center\"/></xf>"
+            + "<xf numFmtId=\"2\" fontId=\"0\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyNumberFormat=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\" vertical=\"center\"/></xf></cellXfs>"
+            + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+            + "</styleSheet>";
+    /**
+     * 整数按原样写出的最大绝对值，超过后double无法精确表示
+     */
+    private static final long MAX_EXACT_LONG = 1L << 53;
+
+    /**
+     * zip输出流
+     */
+    private final ZipOutputStream zip;
+    /**
+     * 当前zip条目的字符输出
+     */
+    private final Writer writer;
+    /**
+     * 是否在关闭时关闭底层输出流
+     */
+    private final boolean isCloseOut;
+    /**
+     * 已写出的sheet名
+     */
+    private final List<String> sheetNames = new ArrayList<>();
+    /**
+     * Bean类对应的列映射，别名变化时清空
+     */
+    private final Map<Class<?>, RowMapper> mappers = new HashMap<>();
+    /**
+     * 列名缓存，如A、B、AA
+     */
+    private String[] columnNames = new String[0];
+    /**
+     * 共享字符串及其索引，为null表示使用内联字符串
+     */
+    private Map<String, Integer> sharedStrings;
+    /**
+     * 共享字符串引用总数
+     */
+    private int sharedStringCount;
+    /**
+     * 当前sheet名，为null表示当前sheet已结束
+     */
+    private String sheetName;
+    /**
+     * 当前sheet是否已开始写出行数据
+     */
+    private boolean sheetStarted;
+    /**
+     * 当前sheet列宽，key为列号，-1表示默认列宽
+     */
+    private final Map<Integer, Integer> columnWidths = new TreeMap<>();
+    /**
+     * 冻结的列数
+     */
+    private int colSplit;
+    /**
+     * 冻结的行数
+     */
+    private int rowSplit;
+    /**
+     * 当前行
+     */
+    private int currentRow;
+    /**
+     * 标题行别名
+     */
+    private Map<String, String> headerAlias;
+    /**
+     * 是否只保留别名对应的字段
+     */
+    private boolean onlyAlias;
+    /**
+     * 标题顺序比较器
+     */
+    private Comparator<String> aliasComparator;
+    /**
+     * 标题项对应列号缓存，每次写标题更新此缓存
+     */
+    private Map<String, Integer> headLocationCache;
+    /**
+     * 标题版本，每次写标题递增，用于使列映射中的位置缓存失效
+     */
+    private int headVersion;
+    /**
+     * 是否已关闭
+     */
+    private boolean isClosed;
+
+    /**
+     * 构造，默认sheet名为sheet1
+     *
+     * @param destFile 目标文件，可以不存在
+     */
+    public ExcelStreamWriter(File destFile) {
+        this(destFile, null);
+    }
+
+    /**
+     * 构造
+     *
+     * @param destFile  目标文件，可以不存在
+     * @param sheetName sheet名，null表示sheet1
+     */
+    public ExcelStreamWriter(File destFile, String sheetName) {
+        this(FileKit.getOutputStream(destFile), sheetName, true);
+    }
+
+    /**
+     * 构造，默认sheet名为sheet1，关闭时不关闭输出流
+     *
+     * @param out 输出流
+     */
+    public ExcelStreamWriter(OutputStream out) {
+        this(out, null);
+    }
+
+    /**
+     * 构造，关闭时不关闭输出流
+     *
+     * @param out       输出流
+     * @param sheetName sheet名，null表示sheet1
+     */
+    public ExcelStreamWriter(OutputStream out, String sheetName) {
+        this(out, sheetName, false);
+    }
+
+    /**
+     * 构造
+     *
+     * @param out        输出流
+     * @param sheetName  sheet名，null表示sheet1
+     * @param isCloseOut 关闭时是否关闭输出流
+     */
+    private ExcelStreamWriter(OutputStream out, String sheetName, boolean isCloseOut) {
+        this.zip = new ZipOutputStream(out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out));
+        // 压缩是写出的主要开销，默认使用最快的压缩级别
+        this.zip.setLevel(Deflater.BEST_SPEED);
+        this.writer = new BufferedWriter(new OutputStreamWriter(this.zip, StandardCharsets.UTF_8), 64 * 1024);
+        this.isCloseOut = isCloseOut;
+        setSheet(sheetName);
+    }
+
+    /**
+     * 结束当前sheet并开始写出新的sheet，行号归零，列宽、冻结窗口和标题缓存重置
+     *
+     * @param sheetName sheet名，null表示按顺序命名为sheetN
+     * @return this
+     */
+    public ExcelStreamWriter setSheet(String sheetName) {
+        Assert.isFalse(this.isClosed, "ExcelStreamWriter has been closed!");
+        finishSheet();
+        if (StringKit.isBlank(sheetName)) {
+            sheetName = "sheet" + (this.sheetNames.size() + 1);
+        }
+        Assert.isFalse(this.sheetNames.contains(sheetName), "Sheet [{}] already exists!", sheetName);
+        this.sheetNames.add(sheetName);
+        this.sheetName = sheetName;
+        this.sheetStarted = false;
+        this.columnWidths.clear();
+        this.colSplit = 0;
+        this.rowSplit = 0;
+        this.currentRow = 0;
+        this.headLocationCache = null;
+        this.headVersion++;
+        return this;
+    }
+
+    /**
+     * 设置是否将字符串去重写入共享字符串表，需在写出数据前设置
+     * 共享字符串表在内存中保留所有不重复字符串，适合重复值较多的数据，默认使用内联字符串
+     *
+     * @param isSharedStrings 是否使用共享字符串表
+     * @return this
+     */
+    public ExcelStreamWriter setSharedStrings(boolean isSharedStrings) {
+        Assert.isTrue(1 == this.sheetNames.size() && false == this.sheetStarted, "Shared strings must be set before writing!");
+        this.sharedStrings = isSharedStrings ? new LinkedHashMap<>() : null;
+        return this;
+    }
+
+    /**
+     * 设置zip压缩级别，默认为{@link Deflater#BEST_SPEED}，需在写出数据前设置
+     *
+     * @param level 压缩级别，0~9，-1表示zip默认级别
+     * @return this
+     */
+    public ExcelStreamWriter setCompressionLevel(int level) {
+        Assert.isTrue(1 == this.sheetNames.size() && false == this.sheetStarted, "Compression level must be set before writing!");
+        this.zip.setLevel(level);
+        return this;
+    }
+
+    /**
+     * 设置标题别名,key为Map中的key,value为别名
+     *
+     * @param headerAlias 标题别名
+     * @return this
+     */
+    public ExcelStreamWriter setHeaderAlias(Map<String, String> headerAlias) {
+        this.headerAlias = headerAlias;
+        aliasChanged();
+        return this;
+    }
+
+    /**
+     * 清空标题别名,key为Map中的key,value为别名
+     *
+     * @return this
+     */
+    public ExcelStreamWriter clearHeaderAlias() {
+        this.headerAlias = null;
+        aliasChanged();
+        return this;
+    }
+
+    /**
+     * 设置是否只保留别名中的字段值,如果为true,则不设置alias的字段将不被输出,false表示原样输出
+     *
+     * @param isOnlyAlias 是否只保留别名中的字段值
+     * @return this
+     */
+    public ExcelStreamWriter setOnlyAlias(boolean isOnlyAlias) {
+        this.onlyAlias = isOnlyAlias;
+        aliasChanged();
+        return this;
+    }
+
+    /**
+     * 增加标题别名
+     *
+     * @param name  原标题
+     * @param alias 别名
+     * @return this
+     */
+    public ExcelStreamWriter addHeaderAlias(String name, String alias) {
+        Map<String, String> headerAlias = this.headerAlias;
+        if (null == headerAlias) {
+            headerAlias = new LinkedHashMap<>();
+        }
+        this.headerAlias = headerAlias;
+        headerAlias.put(name, alias);
+        aliasChanged();
+        return this;
+    }
+
+    /**
+     * 设置列宽(单位为一个字符的宽度,例如传入width为10,表示10个字符的宽度)
+     * 需在当前sheet写出第一行之前设置
+     *
+     * @param columnIndex 列号(从0开始计数,-1表示所有列的默认宽度)
+     * @param width       宽度(单位1~256个字符宽度)
+     * @return this
+     */
+    public ExcelStreamWriter setColumnWidth(int columnIndex, int width) {
+        checkNotStarted();
+        this.columnWidths.put(columnIndex < 0 ? -1 : columnIndex, width);
+        return this;
+    }
+
+    /**
+     * 设置窗口冻结，需在当前sheet写出第一行之前设置，如果rowSplit为0表示取消冻结
+     *
+     * @param rowSplit 冻结的行及行数，2表示前两行
+     * @return this
+     */
+    public ExcelStreamWriter setFreezePane(int rowSplit) {
+        return setFreezePane(0, rowSplit);
+    }
+
+    /**
+     * 设置窗口冻结，需在当前sheet写出第一行之前设置，如果colSplit和rowSplit为0表示取消冻结
+     *
+     * @param colSplit 冻结的列及列数，2表示前两列
+     * @param rowSplit 冻结的行及行数，2表示前两行
+     * @return this
+     */
+    public ExcelStreamWriter setFreezePane(int colSplit, int rowSplit) {
+        checkNotStarted();
+        this.colSplit = Math.max(0, colSplit);
+        this.rowSplit = Math.max(0, rowSplit);
+        return this;
+    }
+
+    /**
+     * 获得当前行
+     *
+     * @return 当前行
+     */
+    public int getCurrentRow() {
+        return this.currentRow;
+    }
+
+    /**
+     * 跳过当前行
+     *
+     * @return this
+     */
+    public ExcelStreamWriter passCurrentRow() {
+        this.currentRow++;
+        return this;
+    }
+
+    /**
+     * 跨过多行，只能向后跨行
+     *
+     * @param rows 跨过的行数
+     * @return this
+     */
+    public ExcelStreamWriter passRows(int rows) {
+        Assert.isTrue(rows >= 0, "Rows can not be negative!");
+        this.currentRow += rows;
+        return this;
+    }
+
+    /**
+     * 写出数据，如果当前行为0则写出标题行
+     * data中元素支持的类型与{@link ExcelWriter#write(Iterable)}一致
+     *
+     * @param data 数据
+     * @return this
+     */
+    public ExcelStreamWriter write(Iterable<?> data) {
+        return write(data, 0 == getCurrentRow());
+    }
+
+    /**
+     * 写出数据
+     * data中元素支持的类型与{@link ExcelWriter#write(Iterable, boolean)}一致
+     *
+     * @param data             数据
+     * @param isWriteKeyAsHead 是否强制写出标题行(Map或Bean)
+     * @return this
+     */
+    public ExcelStreamWriter write(Iterable<?> data, boolean isWriteKeyAsHead) {
+        boolean isFirst = true;
+        for (Object object : data) {
+            writeRow(object, isFirst && isWriteKeyAsHead);
+            isFirst = false;
+        }
+        return this;
+    }
+
+    /**
+     * 写出一行标题数据，写出后当前行号+1，并更新标题项对应列号缓存
+     *
+     * @param rowData 一行的数据
+     * @return this
+     */
+    public ExcelStreamWriter writeHeadRow(Iterable<?> rowData) {
+        checkOpen();
+        final Map<String, Integer> headLocationCache = new HashMap<>();
+        startRow();
+        int i = 0;
+        for (Object value : rowData) {
+            writeCell(i, value, true);
+            headLocationCache.put(StringKit.toString(value), i);
+            i++;
+        }
+        endRow();
+        this.headLocationCache = headLocationCache;
+        this.headVersion++;
+        return this;
+    }
+
+    /**
+     * 写出一行,根据rowBean数据类型不同,写出情况如下：
+     *
+     * <pre>
+     * 1、如果为Iterable,直接写出一行
+     * 2、如果为Map,isWriteKeyAsHead为true写出两行,Map的keys做为一行,values做为第二行,否则只写出一行values
+     * 3、如果为Bean,按类解析的列写出,isWriteKeyAsHead为true写出两行,字段名(或别名)做为一行,values做为第二行,否则只写出一行values
+     * </pre>
+     *
+     * @param rowBean          写出的Bean
+     * @param isWriteKeyAsHead 为true写出两行,Map的keys做为一行,values做为第二行,否则只写出一行values
+     * @return this
+     */
+    public ExcelStreamWriter writeRow(Object rowBean, boolean isWriteKeyAsHead) {
+        if (rowBean instanceof Iterable) {
+            return writeRow((Iterable<?>) rowBean);
+        }
+        if (rowBean instanceof Map) {
+            final Map<?, ?> rowMap = (Map<?, ?>) rowBean;
+            if (MapKit.isNotEmpty(this.headerAlias)) {
+                return writeRow(MapKit.newTreeMap((Map) rowMap, getCachedAliasComparator()), isWriteKeyAsHead);
+            }
+            return writeRow(rowMap, isWriteKeyAsHead);
+        }
+        if (null != rowBean) {
+            // 已解析过的类无需再判断是否为Bean
+            final RowMapper mapper = this.mappers.get(rowBean.getClass());
+            if (null != mapper || BeanKit.isBean(rowBean.getClass())) {
+                return writeBean(rowBean, mapper, isWriteKeyAsHead);
+            }
+        }
+        // 其它转为字符串默认输出
+        return writeRow(CollKit.newArrayList(rowBean));
+    }
+
+    /**
+     * 将一个Map写入到Excel,isWriteKeyAsHead为true写出两行,Map的keys做为一行,values做为第二行,否则只写出一行values
+     * 如果rowMap为空(包括null),则跳过当前行
+     *
+     * @param rowMap           写出的Map
+     * @param isWriteKeyAsHead 为true写出两行,Map的keys做为一行,values做为第二行,否则只写出一行values
+     * @return this
+     */
+    public ExcelStreamWriter writeRow(Map<?, ?> rowMap, boolean isWriteKeyAsHead) {
+        checkOpen();
+        if (MapKit.isEmpty(rowMap)) {
+            return passCurrentRow();
+        }
+
+        final Map<?, ?> aliasMap = aliasMap(rowMap);
+        if (isWriteKeyAsHead) {
+            writeHeadRow(aliasMap.keySet());
+        }
+
+        // 如果已经写出标题行，根据标题行找对应的值写入
+        if (MapKit.isNotEmpty(this.headLocationCache)) {
+            final Object[] cells = new Object[this.headLocationCache.size()];
+            final boolean[] present = new boolean[cells.length];
+            Integer location;
+            for (Map.Entry<?, ?> entry : aliasMap.entrySet()) {
+                location = this.headLocationCache.get(StringKit.toString(entry.getKey()));
+                if (null != location && location < cells.length) {
+                    cells[location] = entry.getValue();
+                    present[location] = true;
+                }
+            }
+            writeCells(cells, present);
+        } else {
+            writeRow(aliasMap.values());
+        }
+        return this;
+    }
+
+    /**
+     * 写出一行数据，写出后当前行号+1
+     *
+     * @param rowData 一行的数据
+     * @return this
+     */
+    public ExcelStreamWriter writeRow(Iterable<?> rowData) {
+        checkOpen();
+        startRow();
+        int i = 0;
+        for (Object value : rowData) {
+            writeCell(i++, value, false);
+        }
+        endRow();
+        return this;
+    }
+
+    /**
+     * 结束写出并关闭，依次写出共享字符串表、样式表和工作簿结构
+     */
+    @Override
+    public void close() {
+        if (this.isClosed) {
+            return;
+        }
+        try {
+            finishSheet();
+            if (null != this.sharedStrings) {
+                writeSharedStrings();
+            }
+            writeEntry("xl/styles.xml", STYLES);
+            writeWorkbook();
+            this.writer.flush();
+            this.zip.finish();
+            this.zip.flush();
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        } finally {
+            this.isClosed = true;
+            this.sharedStrings = null;
+            this.mappers.clear();
+            if (this.isCloseOut) {
+                IoKit.close(this.zip);
+            }
+        }
+    }
+
+    /**
+     * 按Bean类的列映射写出一行
+     *
+     * @param bean             Bean对象
+     * @param mapper           已解析的列映射，null表示需解析
+     * @param isWriteKeyAsHead 是否写出标题行
+     * @return this
+     */
+    private ExcelStreamWriter writeBean(Object bean, RowMapper mapper, boolean isWriteKeyAsHead) {
+        checkOpen();
+        if (null == mapper) {
+            mapper = createMapper(bean.getClass());
+            this.mappers.put(bean.getClass(), mapper);
+        }
+        if (0 == mapper.headers.length) {
+            return passCurrentRow();
+        }
+        if (isWriteKeyAsHead) {
+            writeHeadRow(Arrays.asList(mapper.headers));
+        }
+
+        startRow();
+        if (MapKit.isNotEmpty(this.headLocationCache)) {
+            // 根据标题行找对应的值写入，位置按标题版本缓存
+            final int[] locations = mapper.locate(this.headLocationCache, this.headVersion);
+            final Object[] cells = new Object[this.headLocationCache.size()];
+            final boolean[] present = new boolean[cells.length];
+            for (int i = 0; i < locations.length; i++) {
+                final int location = locations[i];
+                if (location >= 0 && location < cells.length && mapper.read(i, bean, cells, location)) {
+                    present[location] = true;
+                }
+            }
+            for (int i = 0; i < cells.length; i++) {
+                if (present[i]) {
+                    writeCell(i, cells[i], false);
+                }
+            }
+        } else {
+            final Object[] value = new Object[1];
+            for (int i = 0; i < mapper.readers.length; i++) {
+                if (mapper.read(i, bean, value, 0)) {
+                    writeCell(i, value[0], false);
+                }
+            }
+        }
+        endRow();
+        return this;
+    }
+
+    /**
+     * 创建Bean类的列映射，列顺序与{@link ExcelWriter}一致：无别名时按字段顺序，
+     * 有别名时无别名的字段按名称排在前，有别名的字段按别名加入顺序排在后
+     *
+     * @param beanClass Bean类
+     * @return 列映射
+     */
+    private RowMapper createMapper(Class<?> beanClass) {
+        final CopyPlan.Reader[] readers = CopyPlan.readers(beanClass);
+        if (MapKit.isEmpty(this.headerAlias)) {
+            final String[] headers = new String[readers.length];
+            for (int i = 0; i < readers.length; i++) {
+                headers[i] = readers[i].getFieldName();
+            }
+            return new RowMapper(headers, readers);
+        }
+
+        final Map<String, CopyPlan.Reader> ordered = new TreeMap<>(getCachedAliasComparator());
+        for (CopyPlan.Reader reader : readers) {
+            ordered.put(reader.getFieldName(), reader);
+        }
+        final List<String> headers = new ArrayList<>(ordered.size());
+        final List<CopyPlan.Reader> columns = new ArrayList<>(ordered.size());
+        String aliasName;
+        for (Map.Entry<String, CopyPlan.Reader> entry : ordered.entrySet()) {
+            aliasName = this.headerAlias.get(entry.getKey());
+            if (null != aliasName) {
+                headers.add(aliasName);
+            } else if (false == this.onlyAlias) {
+                headers.add(entry.getKey());
+            } else {
+                continue;
+            }
+            columns.add(entry.getValue());
+        }
+        return new RowMapper(headers.toArray(new String[0]), columns.toArray(new CopyPlan.Reader[0]));
+    }
+
+    /**
+     * 按位置写出一行中存在的单元格
+     *
+     * @param cells   单元格值
+     * @param present 对应位置是否有值
+     */
+    private void writeCells(Object[] cells, boolean[] present) {
+        startRow();
+        for (int i = 0; i < cells.length; i++) {
+            if (present[i]) {
+                writeCell(i, cells[i], false);
+            }
+        }
+        endRow();
+    }
+
+    /**
+     * 开始一行
+     */
+    private void startRow() {
+        try {
+            if (false == this.sheetStarted) {
+                startSheet();
+            }
+            this.writer.write("<row r=\"");
+            this.writer.write(Integer.toString(this.currentRow + 1));
+            this.writer.write("\">");
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 结束一行，当前行号+1
+     */
+    private void endRow() {
+        try {
+            this.writer.write("</row>");
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        this.currentRow++;
+    }
+
+    /**
+     * 写出单元格，样式规则与{@link CellKit#setCellValue(org.apache.poi.ss.usermodel.Cell, Object, StyleSet, boolean)}一致
+     *
+     * @param column   列号
+     * @param value    值
+     * @param isHeader 是否为标题单元格
+     */
+    private void writeCell(int column, Object value, boolean isHeader) {
+        final Writer writer = this.writer;
+        try {
+            writer.write("<c r=\"");
+            writer.write(columnName(column));
+            writer.write(Integer.toString(this.currentRow + 1));
+            writer.write("\" s=\"");
+            if (value instanceof Date || value instanceof TemporalAccessor || value instanceof Calendar) {
+                writer.write(Integer.toString(STYLE_DATE));
+                writeDate(value);
+            } else if (value instanceof Number) {
+                final boolean decimal = value instanceof Double || value instanceof Float || value instanceof BigDecimal;
+                writer.write(Integer.toString(decimal ? STYLE_NUMBER : (isHeader ? STYLE_HEAD : STYLE_CELL)));
+                writeNumber((Number) value);
+            } else {
+                writer.write(Integer.toString(isHeader ? STYLE_HEAD : STYLE_CELL));
+                if (null == value) {
+                    writeString(Normal.EMPTY);
+                } else if (value instanceof Boolean) {
+                    writer.write(((Boolean) value) ? "\" t=\"b\"><v>1</v></c>" : "\" t=\"b\"><v>0</v></c>");
+                } else if (value instanceof FormulaCellValue) {
+                    writer.write("\"><f>");
+                    escape(((FormulaCellValue) value).getValue());
+                    writer.write("</f></c>");
+                } else if (value instanceof RichTextString) {
+                    writeString(((RichTextString) value).getString());
+                } else {
+                    writeString(value.toString());
+                }
+            }
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 写出日期单元格的值部分，日期转换为Excel序列值
+     *
+     * @param value 日期值
+     * @throws IOException IO异常
+     */
+    private void writeDate(Object value) throws IOException {
+        final double excelDate;
+        if (value instanceof Date) {
+            excelDate = DateUtil.getExcelDate((Date) value);
+        } else if (value instanceof Calendar) {
+            excelDate = DateUtil.getExcelDate((Calendar) value, false);
+        } else if (value instanceof Instant) {
+            excelDate = DateUtil.getExcelDate(Date.from((Instant) value));
+        } else if (value instanceof LocalDateTime) {
+            excelDate = DateUtil.getExcelDate((LocalDateTime) value);
+        } else if (value instanceof LocalDate) {
+            excelDate = DateUtil.getExcelDate((LocalDate) value);
+        } else {
+            // 其它时间类型只设置样式
+            this.writer.write("\"/>");
+            return;
+        }
+        this.writer.write("\"><v>");
+        this.writer.write(Double.toString(excelDate));
+        this.writer.write("</v></c>");
+    }
+
+    /**
+     * 写出数字单元格的值部分
+     *
+     * @param value 数字
+     * @throws IOException IO异常
+     */
+    private void writeNumber(Number value) throws IOException {
+        final Writer writer = this.writer;
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            final long longValue = value.longValue();
+            if (longValue < MAX_EXACT_LONG && longValue > -MAX_EXACT_LONG) {
+                writer.write("\"><v>");
+                writer.write(Long.toString(longValue));
+                writer.write("</v></c>");
+                return;
+            }
+        }
+        final double doubleValue = value.doubleValue();
+        if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+            writer.write("\" t=\"e\"><v>#NUM!</v></c>");
+        } else {
+            writer.write("\"><v>");
+            writer.write(Double.toString(doubleValue));
+            writer.write("</v></c>");
+        }
+    }
+
+    /**
+     * 写出字符串单元格的类型和值部分
+     *
+     * @param value 字符串
+     * @throws IOException IO异常
+     */
+    private void writeString(String value) throws IOException {
+        final Writer writer = this.writer;
+        if (null != this.sharedStrings) {
+            Integer index = this.sharedStrings.get(value);
+            if (null == index) {
+                index = this.sharedStrings.size();
+                this.sharedStrings.put(value, index);
+            }
+            this.sharedStringCount++;
+            writer.write("\" t=\"s\"><v>");
+            writer.write(Integer.toString(index));
+            writer.write("</v></c>");
+        } else {
+            writer.write("\" t=\"inlineStr\"><is>");
+            writeText(value);
+            writer.write("</is></c>");
+        }
+    }
+
+    /**
+     * 写出t标签，首尾有空白时保留空白
+     *
+     * @param value 文本
+     * @throws IOException IO异常
+     */
+    private void writeText(String value) throws IOException {
+        final int length = value.length();
+        if (length > 0 && (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(length - 1)))) {
+            this.writer.write("<t xml:space=\"preserve\">");
+        } else {
+            this.writer.write("<t>");
+        }
+        escape(value);
+        this.writer.write("</t>");
+    }
+
+    /**
+     * 转义并写出XML文本，XML中不允许的控制字符按Excel的_xHHHH_方式编码
+     *
+     * @param value 文本
+     * @throws IOException IO异常
+     */
+    private void escape(String value) throws IOException {
+        final Writer writer = this.writer;
+        final int length = value.length();
+        int from = 0;
+        char c;
+        for (int i = 0; i < length; i++) {
+            c = value.charAt(i);
+            final String replacement;
+            if (c == '<') {
+                replacement = "&lt;";
+            } else if (c == '>') {
+                replacement = "&gt;";
+            } else if (c == '&') {
+                replacement = "&amp;";
+            } else if (c == '"') {
+                replacement = "&quot;";
+            } else if ((c < 0x20 && c != '\t' && c != '\n' && c != '\r') || c == 0xFFFE || c == 0xFFFF) {
+                replacement = String.format("_x%04X_", (int) c);
+            } else if (c == '_' && isEscapeSequence(value, i)) {
+                // 文本本身形如_xHHHH_时转义下划线，避免读取时被解码
+                replacement = "_x005F_";
+            } else {
+                continue;
+            }
+            if (i > from) {
+                writer.write(value, from, i - from);
+            }
+            writer.write(replacement);
+            from = i + 1;
+        }
+        if (length > from) {
+            writer.write(value, from, length - from);
+        }
+    }
+
+    /**
+     * 给定位置是否为_xHHHH_形式的转义序列
+     *
+     * @param value 文本
+     * @param index 下划线位置
+     * @return 是否为转义序列
+     */
+    private static boolean isEscapeSequence(String value, int index) {
+        if (index + 7 > value.length() || value.charAt(index + 1) != 'x' || value.charAt(index + 6) != '_') {
+            return false;
+        }
+        for (int i = index + 2; i < index + 6; i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取列名，按需扩展缓存
+     *
+     * @param column 列号
+     * @return 列名
+     */
+    private String columnName(int column) {
+        String[] columnNames = this.columnNames;
+        if (column >= columnNames.length) {
+            columnNames = Arrays.copyOf(columnNames, Math.max(column + 1, columnNames.length * 2));
+            this.columnNames = columnNames;
+        }
+        String name = columnNames[column];
+        if (null == name) {
+            name = ExcelKit.indexToColName(column);
+            columnNames[column] = name;
+        }
+        return name;
+    }
+
+    /**
+     * 开始写出sheet，写出列宽、冻结窗口等需在sheetData之前的部分
+     *
+     * @throws IOException IO异常
+     */
+    private void startSheet() throws IOException {
+        this.sheetStarted = true;
+        this.zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + this.sheetNames.size() + ".xml"));
+        final Writer writer = this.writer;
+        writer.write(XML_HEADER);
+        writer.write("<worksheet xmlns=\"" + NS_MAIN + "\" xmlns:r=\"" + NS_RELATIONSHIPS + "\">");
+        writer.write("<sheetViews><sheetView workbookViewId=\"0\"");
+        if (1 == this.sheetNames.size()) {
+            writer.write(" tabSelected=\"1\"");
+        }
+        if (this.colSplit > 0 || this.rowSplit > 0) {
+            writer.write("><pane");
+            if (this.colSplit > 0) {
+                writer.write(" xSplit=\"" + this.colSplit + "\"");
+            }
+            if (this.rowSplit > 0) {
+                writer.write(" ySplit=\"" + this.rowSplit + "\"");
+            }
+            final String activePane = this.colSplit > 0 ? (this.rowSplit > 0 ? "bottomRight" : "topRight") : "bottomLeft";
+            writer.write(" topLeftCell=\"" + columnName(this.colSplit) + (this.rowSplit + 1)
+                    + "\" activePane=\"" + activePane + "\" state=\"frozen\"/></sheetView></sheetViews>");
+        } else {
+            writer.write("/></sheetViews>");
+        }
+        final Integer defaultWidth = this.columnWidths.get(-1);
+        writer.write("<sheetFormatPr defaultRowHeight=\"15\"");
+        if (null != defaultWidth) {
+            writer.write(" baseColWidth=\"" + defaultWidth + "\"");
+        }
+        writer.write("/>");
+        if (this.columnWidths.size() > (null == defaultWidth ? 0 : 1)) {
+            writer.write("<cols>");
+            for (Map.Entry<Integer, Integer> entry : this.columnWidths.entrySet()) {
+                if (entry.getKey() >= 0) {
+                    final int index = entry.getKey() + 1;
+                    writer.write("<col min=\"" + index + "\" max=\"" + index + "\" width=\"" + entry.getValue() + "\" customWidth=\"1\"/>");
+                }
+            }
+            writer.write("</cols>");
+        }
+        writer.write("<sheetData>");
+    }
+
+    /**
+     * 结束当前sheet，未写出任何行的sheet也会生成
+     */
+    private void finishSheet() {
+        if (null == this.sheetName) {
+            return;
+        }
+        try {
+            if (false == this.sheetStarted) {
+                startSheet();
+            }
+            this.writer.write("</sheetData></worksheet>");
+            this.writer.flush();
+            this.zip.closeEntry();
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        this.sheetName = null;
+    }
+
+    /**
+     * 写出共享字符串表
+     *
+     * @throws IOException IO异常
+     */
+    private void writeSharedStrings() throws IOException {
+        this.zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+        final Writer writer = this.writer;
+        writer.write(XML_HEADER);
+        writer.write("<sst xmlns=\"" + NS_MAIN + "\" count=\"" + this.sharedStringCount
+                + "\" uniqueCount=\"" + this.sharedStrings.size() + "\">");
+        for (String value : this.sharedStrings.keySet()) {
+            writer.write("<si>");
+            writeText(value);
+            writer.write("</si>");
+        }
+        writer.write("</sst>");
+        writer.flush();
+        this.zip.closeEntry();
+    }
+
+    /**
+     * 写出工作簿、关系和内容类型，sheet的关系编号为rId1~rIdN，与{@link org.aoju.bus.office.support.excel.sax.Excel07SaxReader}的编号规则一致
+     *
+     * @throws IOException IO异常
+     */
+    private void writeWorkbook() throws IOException {
+        final int sheetCount = this.sheetNames.size();
+        final StringBuilder workbook = new StringBuilder(XML_HEADER)
+                .append("<workbook xmlns=\"").append(NS_MAIN).append("\" xmlns:r=\"").append(NS_RELATIONSHIPS).append("\"><sheets>");
+        final StringBuilder relationships = new StringBuilder(XML_HEADER)
+                .append("<Relationships xmlns=\"").append(NS_PACKAGE_RELATIONSHIPS).append("\">");
+        final StringBuilder contentTypes = new StringBuilder(XML_HEADER)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= sheetCount; i++) {
+            workbook.append("<sheet name=\"").append(escapeAttribute(this.sheetNames.get(i - 1)))
+                    .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+            relationships.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"").append(NS_RELATIONSHIPS).append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+            contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        workbook.append("</sheets></workbook>");
+        relationships.append("<Relationship Id=\"rId").append(sheetCount + 1)
+                .append("\" Type=\"").append(NS_RELATIONSHIPS).append("/styles\" Target=\"styles.xml\"/>");
+        if (null != this.sharedStrings) {
+            relationships.append("<Relationship Id=\"rId").append(sheetCount + 2)
+                    .append("\" Type=\"").append(NS_RELATIONSHIPS).append("/sharedStrings\" Target=\"sharedStrings.xml\"/>");
+            contentTypes.append("<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>");
+        }
+        relationships.append("</Relationships>");
+        contentTypes.append("</Types>");
+
+        writeEntry("xl/workbook.xml", workbook.toString());
+        writeEntry("xl/_rels/workbook.xml.rels", relationships.toString());
+        writeEntry("_rels/.rels", XML_HEADER + "<Relationships xmlns=\"" + NS_PACKAGE_RELATIONSHIPS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + NS_RELATIONSHIPS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        writeEntry("[Content_Types].xml", contentTypes.toString());
+    }
+
+    /**
+     * 写出一个完整的zip条目
+     *
+     * @param name    条目名
+     * @param content 内容
+     * @throws IOException IO异常
+     */
+    private void writeEntry(String name, String content) throws IOException {
+        this.zip.putNextEntry(new ZipEntry(name));
+        this.writer.write(content);
+        this.writer.flush();
+        this.zip.closeEntry();
+    }
+
+    /**
+     * 转义XML属性值
+     *
+     * @param value 属性值
+     * @return 转义后的值
+     */
+    private static String escapeAttribute(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * 检查当前sheet未开始写出行数据
+     */
+    private void checkNotStarted() {
+        checkOpen();
+        Assert.isFalse(this.sheetStarted, "Sheet [{}] has already been started!", this.sheetName);
+    }
+
+    /**
+     * 检查写出器未关闭
+     */
+    private void checkOpen() {
+        Assert.isFalse(this.isClosed, "ExcelStreamWriter has been closed!");
+    }
+
+    /**
+     * 别名变化后清除已解析的列映射和比较器
+     */
+    private void aliasChanged() {
+        this.aliasComparator = null;
+        this.mappers.clear();
+    }
+
+    /**
+     * 为指定的key列表添加标题别名,如果没有定义key的别名,在onlyAlias为false时使用原key
+     *
+     * @param rowMap 键列表
+     * @return 别名列表
+     */
+    private Map<?, ?> aliasMap(Map<?, ?> rowMap) {
+        if (MapKit.isEmpty(this.headerAlias)) {
+            return rowMap;
+        }
+
+        final Map<Object, Object> filteredMap = MapKit.newHashMap(rowMap.size(), true);
+        String aliasName;
+        for (Map.Entry<?, ?> entry : rowMap.entrySet()) {
+            aliasName = this.headerAlias.get(entry.getKey());
+            if (null != aliasName) {
+                // 别名键值对加入
+                filteredMap.put(aliasName, entry.getValue());
+            } else if (false == this.onlyAlias) {
+                // 保留无别名设置的键值对
+                filteredMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return filteredMap;
+    }
+
+    /**
+     * 获取单例的别名比较器,比较器的顺序为别名加入的顺序，无别名的键按自然顺序排在前
+     *
+     * @return Comparator 比较器
+     */
+    private Comparator<String> getCachedAliasComparator() {
+        if (MapKit.isEmpty(this.headerAlias)) {
+            return null;
+        }
+        Comparator<String> aliasComparator = this.aliasComparator;
+        if (null == aliasComparator) {
+            final Map<String, Integer> order = new HashMap<>();
+            for (String key : this.headerAlias.keySet()) {
+                order.putIfAbsent(key, order.size());
+            }
+            aliasComparator = (o1, o2) -> {
+                final int index1 = order.getOrDefault(o1, -1);
+                final int index2 = order.getOrDefault(o2, -1);
+                if (index1 == index2) {
+                    // 位置相同使用自然排序，null排在末尾
+                    if (null == o1 || null == o2) {
+                        return o1 == o2 ? 0 : (null == o1 ? 1 : -1);
+                    }
+                    return o1.compareTo(o2);
+                }
+                return index1 < index2 ? -1 : 1;
+            };
+            this.aliasComparator = aliasComparator;
+        }
+        return aliasComparator;
+    }
+
+    /**
+     * Bean类的列映射：标题与读取方法一一对应
+     */
+    private static class RowMapper {
+
+        private final String[] headers;
+        private final CopyPlan.Reader[] readers;
+        /**
+         * 各列在标题行中的位置，-1表示标题行中不存在
+         */
+        private int[] locations;
+        private int locationVersion = -1;
+
+        RowMapper(String[] headers, CopyPlan.Reader[] readers) {
+            this.headers = headers;
+            this.readers = readers;
+        }
+
+        /**
+         * 获取各列在标题行中的位置
+         *
+         * @param headLocationCache 标题项对应列号
+         * @param headVersion       标题版本
+         * @return 位置
+         */
+        int[] locate(Map<String, Integer> headLocationCache, int headVersion) {
+            if (this.locationVersion != headVersion) {
+                final int[] locations = new int[this.headers.length];
+                for (int i = 0; i < locations.length; i++) {
+                    final Integer location = headLocationCache.get(this.headers[i]);
+                    locations[i] = null == location ? -1 : location;
+                }
+                this.locations = locations;
+                this.locationVersion = headVersion;
+            }
+            return this.locations;
+        }
+
+        /**
+         * 读取一列的值，读取失败时跳过该列，与{@link BeanKit#beanToMap(Object)}一致
+         *
+         * @param column 列
+         * @param bean   Bean对象
+         * @param target 目标数组
+         * @param index  目标位置
+         * @return 是否读取成功
+         */
+        boolean read(int column, Object bean, Object[] target, int index) {
+            try {
+                target[index] = this.readers[column].get(bean);
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+
+}
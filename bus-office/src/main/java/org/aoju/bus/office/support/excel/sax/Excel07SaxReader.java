@@ -39,7 +39,7 @@ import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.ss.usermodel.BuiltinFormats;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
-import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.model.SharedStrings;
 import org.apache.poi.xssf.model.StylesTable;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.xml.sax.Attributes;
@@ -70,7 +70,7 @@ public class Excel07SaxReader extends DefaultHandler implements ExcelSaxReader<E
     // 单元格的格式表，对应style.xml
     private StylesTable stylesTable;
     // excel 2007 的共享字符串表,对应sharedString.xml
-    private SharedStringsTable sharedStringsTable;
+    private SharedStrings sharedStrings;
     // sheet的索引
     private int sheetIndex;
     // 当前非空行
@@ -195,7 +195,7 @@ public class Excel07SaxReader extends DefaultHandler implements ExcelSaxReader<E
 
         // 获取共享字符串表
         try {
-            this.sharedStringsTable = xssfReader.getSharedStringsTable();
+            this.sharedStrings = xssfReader.getSharedStringsTable();
         } catch (IOException | InvalidFormatException e) {
             throw new InstrumentException(e);
         }
@@ -203,6 +203,27 @@ public class Excel07SaxReader extends DefaultHandler implements ExcelSaxReader<E
         return readSheets(xssfReader, idOrRid);
     }
 
+    /**
+     * 使用外部提供的样式表和共享字符串表读取单个sheet，用于多个sheet共享同一份表的场景
+     *
+     * @param sheetInputStream sheet流，读取后不关闭
+     * @param sheetIndex       sheet序号，从0开始
+     * @param stylesTable      样式表，可为null
+     * @param sharedStrings    共享字符串表
+     * @return this
+     * @throws InstrumentException POI异常
+     */
+    Excel07SaxReader readSheet(InputStream sheetInputStream, int sheetIndex,
+                               StylesTable stylesTable, SharedStrings sharedStrings) throws InstrumentException {
+        this.stylesTable = stylesTable;
+        this.sharedStrings = sharedStrings;
+        this.sheetIndex = sheetIndex;
+        this.index = 0;
+        ExcelSaxKit.readFrom(sheetInputStream, this);
+        rowHandler.doAfterAllAnalysed();
+        return this;
+    }
+
     /**
      * 读到一个xml开始标签时的回调处理方法
      */
@@ -327,7 +348,7 @@ public class Excel07SaxReader extends DefaultHandler implements ExcelSaxReader<E
      */
     private void endCell() {
         final String contentStr = StringKit.trim(lastContent);
-        final Object value = ExcelSaxKit.getDataValue(this.cellDataType, contentStr, this.sharedStringsTable, this.numFmtString);
+        final Object value = ExcelSaxKit.getDataValue(this.cellDataType, contentStr, this.sharedStrings, this.numFmtString);
         // 补全单元格之间的空格
         fillBlankCell(preCoordinate, curCoordinate, false);
         addCellValue(curCell++, value);
@@ -0,0 +1,588 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.support.excel.sax;
+
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.core.toolkit.MathKit;
+import org.aoju.bus.core.toolkit.StringKit;
+import org.aoju.bus.core.toolkit.ThreadKit;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 低内存的Excel2007流式读取器
+ * <p>
+ * 与{@link Excel07SaxReader}的区别：
+ * <ul>
+ *     <li>共享字符串表使用{@link MappedSharedStrings}写入临时文件并内存映射，堆中只保留少量LRU缓存</li>
+ *     <li>支持将多个sheet并发读取到各自的{@link RowHandler}，见{@link #read(File, Map)}</li>
+ *     <li>支持拉取方式的{@link Iterator}/{@link Stream}，后台线程按有限的预读行数解析，消费端处理慢时解析自动阻塞</li>
+ * </ul>
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public class Excel07StreamReader implements ExcelSaxReader<Excel07StreamReader> {
+
+    /**
+     * 默认预读行数
+     */
+    public static final int DEFAULT_READ_AHEAD = 1024;
+    // sheet r:Id前缀
+    private static final String RID_PREFIX = "rId";
+
+    /**
+     * 行处理器
+     */
+    private RowHandler rowHandler;
+    /**
+     * 共享字符串LRU缓存条目数
+     */
+    private int cacheSize = MappedSharedStrings.DEFAULT_CACHE_SIZE;
+    /**
+     * 拉取模式下的最大预读行数
+     */
+    private int readAhead = DEFAULT_READ_AHEAD;
+
+    /**
+     * 构造，用于{@link #iterator(File, String)}等拉取方式读取
+     */
+    public Excel07StreamReader() {
+        this(null);
+    }
+
+    /**
+     * 构造
+     *
+     * @param rowHandler 行处理器
+     */
+    public Excel07StreamReader(RowHandler rowHandler) {
+        this.rowHandler = rowHandler;
+    }
+
+    /**
+     * 设置行处理器
+     *
+     * @param rowHandler 行处理器
+     * @return this
+     */
+    public Excel07StreamReader setRowHandler(RowHandler rowHandler) {
+        this.rowHandler = rowHandler;
+        return this;
+    }
+
+    /**
+     * 设置共享字符串LRU缓存条目数
+     *
+     * @param cacheSize 缓存条目数
+     * @return this
+     */
+    public Excel07StreamReader setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    /**
+     * 设置拉取模式下的最大预读行数
+     *
+     * @param readAhead 预读行数，必须大于0
+     * @return this
+     */
+    public Excel07StreamReader setReadAhead(int readAhead) {
+        if (readAhead < 1) {
+            throw new IllegalArgumentException("Read ahead must be positive: " + readAhead);
+        }
+        this.readAhead = readAhead;
+        return this;
+    }
+
+    @Override
+    public Excel07StreamReader read(File file, int rid) throws InstrumentException {
+        return read(file, RID_PREFIX + rid);
+    }
+
+    @Override
+    public Excel07StreamReader read(File file, String idOrRid) throws InstrumentException {
+        final OPCPackage opcPackage = open(file);
+        try {
+            return read(opcPackage, idOrRid);
+        } finally {
+            opcPackage.revert();
+        }
+    }
+
+    @Override
+    public Excel07StreamReader read(InputStream in, int rid) throws InstrumentException {
+        return read(in, RID_PREFIX + rid);
+    }
+
+    @Override
+    public Excel07StreamReader read(InputStream in, String idOrRid) throws InstrumentException {
+        try (final OPCPackage opcPackage = OPCPackage.open(in)) {
+            return read(opcPackage, idOrRid);
+        } catch (IOException | InvalidFormatException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 开始读取Excel，Sheet编号从0开始计数
+     *
+     * @param opcPackage {@link OPCPackage}，Excel包，读取后不关闭
+     * @param idOrRid    Excel中的sheet id或者rid编号，rid必须加rId前缀，例如rId1，如果为-1处理所有编号的sheet
+     * @return this
+     * @throws InstrumentException POI异常
+     */
+    public Excel07StreamReader read(OPCPackage opcPackage, String idOrRid) throws InstrumentException {
+        return read(newXSSFReader(opcPackage), idOrRid);
+    }
+
+    /**
+     * 开始读取Excel，Sheet编号从0开始计数
+     *
+     * @param xssfReader {@link XSSFReader}，Excel读取器
+     * @param idOrRid    Excel中的sheet id或者rid编号，rid必须加rId前缀，例如rId1，如果为-1处理所有编号的sheet
+     * @return this
+     * @throws InstrumentException POI异常
+     */
+    public Excel07StreamReader read(XSSFReader xssfReader, String idOrRid) throws InstrumentException {
+        try (final MappedSharedStrings sharedStrings = openSharedStrings(xssfReader)) {
+            final StylesTable stylesTable = getStylesTable(xssfReader);
+            final int sheetIndex = getSheetIndex(new SheetSaxReader().read(xssfReader), idOrRid);
+            if (sheetIndex > -1) {
+                // 根据 rId# 或 rSheet# 查找sheet
+                readSheet(xssfReader.getSheet(RID_PREFIX + (sheetIndex + 1)), sheetIndex, this.rowHandler, stylesTable, sharedStrings);
+            } else {
+                // 遍历所有sheet
+                final Iterator<InputStream> sheetInputStreams = xssfReader.getSheetsData();
+                int index = 0;
+                while (sheetInputStreams.hasNext()) {
+                    readSheet(sheetInputStreams.next(), index++, this.rowHandler, stylesTable, sharedStrings);
+                }
+            }
+        } catch (IOException | InvalidFormatException e) {
+            throw new InstrumentException(e);
+        }
+        return this;
+    }
+
+    /**
+     * 并发读取多个sheet，每个sheet使用各自的行处理器，各sheet共享同一份共享字符串表和样式表
+     * 行处理器在不同线程中被调用，但同一个处理器只会被一个线程调用
+     *
+     * @param file     Excel文件
+     * @param handlers sheet id或者rid编号(rid必须加rId前缀)与行处理器的对应关系
+     * @return this
+     * @throws InstrumentException POI异常
+     */
+    public Excel07StreamReader read(File file, Map<String, RowHandler> handlers) throws InstrumentException {
+        final OPCPackage opcPackage = open(file);
+        try {
+            return read(newXSSFReader(opcPackage), handlers);
+        } finally {
+            opcPackage.revert();
+        }
+    }
+
+    /**
+     * 并发读取多个sheet，每个sheet使用各自的行处理器，各sheet共享同一份共享字符串表和样式表
+     * 行处理器在不同线程中被调用，但同一个处理器只会被一个线程调用
+     *
+     * @param xssfReader {@link XSSFReader}，Excel读取器
+     * @param handlers   sheet id或者rid编号(rid必须加rId前缀)与行处理器的对应关系
+     * @return this
+     * @throws InstrumentException POI异常
+     */
+    public Excel07StreamReader read(XSSFReader xssfReader, Map<String, RowHandler> handlers) throws InstrumentException {
+        if (handlers.isEmpty()) {
+            return this;
+        }
+        final List<InputStream> sheetInputStreams = new ArrayList<>(handlers.size());
+        try (final MappedSharedStrings sharedStrings = openSharedStrings(xssfReader)) {
+            final StylesTable stylesTable = getStylesTable(xssfReader);
+            final SheetSaxReader ridReader = new SheetSaxReader().read(xssfReader);
+            // 在当前线程中依次打开各sheet流，解析工作交由线程池完成
+            final List<Callable<Void>> tasks = new ArrayList<>(handlers.size());
+            for (Map.Entry<String, RowHandler> entry : handlers.entrySet()) {
+                final int sheetIndex = getSheetIndex(ridReader, entry.getKey());
+                if (sheetIndex < 0) {
+                    throw new InstrumentException("Invalid sheet id or rid: {}", entry.getKey());
+                }
+                final InputStream sheetInputStream = xssfReader.getSheet(RID_PREFIX + (sheetIndex + 1));
+                sheetInputStreams.add(sheetInputStream);
+                final RowHandler handler = entry.getValue();
+                tasks.add(() -> {
+                    new Excel07SaxReader(handler).readSheet(sheetInputStream, sheetIndex, stylesTable, sharedStrings);
+                    return null;
+                });
+            }
+            invokeAll(tasks);
+        } catch (IOException | InvalidFormatException e) {
+            throw new InstrumentException(e);
+        } finally {
+            sheetInputStreams.forEach(IoKit::close);
+        }
+        return this;
+    }
+
+    /**
+     * 以拉取方式读取Excel，后台线程解析并最多预读{@link #setReadAhead(int)}行
+     * 使用完毕后须关闭返回的迭代器，以便提前结束时停止后台解析并释放文件
+     *
+     * @param file    Excel文件
+     * @param idOrRid Excel中的sheet id或者rid编号，rid必须加rId前缀，例如rId1，如果为-1处理所有编号的sheet
+     * @return 行迭代器
+     */
+    public RowIterator iterator(File file, String idOrRid) {
+        return new RowIterator(file, idOrRid);
+    }
+
+    /**
+     * 以拉取方式读取Excel为{@link Stream}，关闭流时停止后台解析
+     *
+     * @param file    Excel文件
+     * @param idOrRid Excel中的sheet id或者rid编号，rid必须加rId前缀，例如rId1，如果为-1处理所有编号的sheet
+     * @return 行流
+     */
+    public Stream<SheetRow> stream(File file, String idOrRid) {
+        final RowIterator iterator = iterator(file, idOrRid);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+    }
+
+    /**
+     * 只读方式打开Excel包
+     *
+     * @param file Excel文件
+     * @return {@link OPCPackage}
+     */
+    private static OPCPackage open(File file) {
+        try {
+            return OPCPackage.open(file, PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 创建{@link XSSFReader}
+     *
+     * @param opcPackage {@link OPCPackage}
+     * @return {@link XSSFReader}
+     */
+    private static XSSFReader newXSSFReader(OPCPackage opcPackage) {
+        try {
+            return new XSSFReader(opcPackage);
+        } catch (IOException | OpenXML4JException e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 获取共享样式表，样式非必须
+     *
+     * @param xssfReader {@link XSSFReader}
+     * @return 样式表，不存在为null
+     */
+    private static StylesTable getStylesTable(XSSFReader xssfReader) {
+        try {
+            return xssfReader.getStylesTable();
+        } catch (IOException | InvalidFormatException ignore) {
+            return null;
+        }
+    }
+
+    /**
+     * 将sheet id或者rid转换为sheet序号
+     *
+     * @param ridReader {@link SheetSaxReader}
+     * @param idOrRid   sheet id或者rid编号
+     * @return sheet序号，-1表示所有sheet
+     */
+    private static int getSheetIndex(SheetSaxReader ridReader, String idOrRid) {
+        if (MathKit.isInteger(idOrRid)) {
+            final String rid = ridReader.getRidBySheetId(idOrRid);
+            if (StringKit.isNotEmpty(rid)) {
+                idOrRid = rid;
+            }
+        }
+        return Integer.parseInt(StringKit.removePrefixIgnoreCase(idOrRid, RID_PREFIX));
+    }
+
+    /**
+     * 读取单个sheet，读取后关闭流
+     *
+     * @param sheetInputStream sheet流
+     * @param sheetIndex       sheet序号
+     * @param rowHandler       行处理器
+     * @param stylesTable      样式表
+     * @param sharedStrings    共享字符串表
+     */
+    private static void readSheet(InputStream sheetInputStream, int sheetIndex, RowHandler rowHandler,
+                                  StylesTable stylesTable, MappedSharedStrings sharedStrings) {
+        try {
+            new Excel07SaxReader(rowHandler).readSheet(sheetInputStream, sheetIndex, stylesTable, sharedStrings);
+        } finally {
+            IoKit.close(sheetInputStream);
+        }
+    }
+
+    /**
+     * 并发执行解析任务，任一任务失败则抛出其原始异常
+     *
+     * @param tasks 任务列表
+     */
+    private static void invokeAll(List<Callable<Void>> tasks) {
+        final ExecutorService executor = ThreadKit.newExecutor(
+                Math.min(tasks.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InstrumentException(e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 将解析线程中的异常转换为可直接抛出的运行时异常
+     *
+     * @param e 异常
+     * @return 运行时异常
+     */
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new InstrumentException(e);
+    }
+
+    /**
+     * 打开共享字符串表
+     *
+     * @param xssfReader {@link XSSFReader}
+     * @return {@link MappedSharedStrings}
+     * @throws IOException            IO异常
+     * @throws InvalidFormatException 格式异常
+     */
+    private MappedSharedStrings openSharedStrings(XSSFReader xssfReader) throws IOException, InvalidFormatException {
+        final InputStream in = xssfReader.getSharedStringsData();
+        try {
+            return new MappedSharedStrings(in, this.cacheSize);
+        } finally {
+            IoKit.close(in);
+        }
+    }
+
+    /**
+     * 拉取模式下的一行数据
+     */
+    public static class SheetRow {
+
+        private final int sheetIndex;
+        private final long rowIndex;
+        private final List<Object> cells;
+
+        /**
+         * 构造
+         *
+         * @param sheetIndex sheet序号
+         * @param rowIndex   行号，从0开始
+         * @param cells      行数据列表
+         */
+        public SheetRow(int sheetIndex, long rowIndex, List<Object> cells) {
+            this.sheetIndex = sheetIndex;
+            this.rowIndex = rowIndex;
+            this.cells = cells;
+        }
+
+        /**
+         * 获取sheet序号
+         *
+         * @return sheet序号
+         */
+        public int getSheetIndex() {
+            return sheetIndex;
+        }
+
+        /**
+         * 获取行号，从0开始
+         *
+         * @return 行号
+         */
+        public long getRowIndex() {
+            return rowIndex;
+        }
+
+        /**
+         * 获取行数据列表
+         *
+         * @return 行数据列表
+         */
+        public List<Object> getCells() {
+            return cells;
+        }
+
+        @Override
+        public String toString() {
+            return "SheetRow{sheetIndex=" + sheetIndex + ", rowIndex=" + rowIndex + ", cells=" + cells + '}';
+        }
+    }
+
+    /**
+     * 拉取模式行迭代器，后台线程通过有界队列提供数据，队列满时解析线程阻塞
+     */
+    public class RowIterator implements Iterator<SheetRow>, Closeable {
+
+        // 结束标记
+        private final Object end = new Object();
+        private final BlockingQueue<Object> queue;
+        private final Thread producer;
+        private volatile boolean closed;
+        private volatile Throwable failure;
+        private SheetRow next;
+        private boolean done;
+
+        /**
+         * 构造并启动后台解析线程
+         *
+         * @param file    Excel文件
+         * @param idOrRid sheet id或者rid编号
+         */
+        RowIterator(File file, String idOrRid) {
+            this.queue = new ArrayBlockingQueue<>(readAhead);
+            final Excel07StreamReader reader = new Excel07StreamReader(this::offer).setCacheSize(cacheSize);
+            this.producer = ThreadKit.newThread(() -> {
+                try {
+                    reader.read(file, idOrRid);
+                } catch (Throwable e) {
+                    if (false == closed) {
+                        failure = e;
+                    }
+                } finally {
+                    if (false == closed) {
+                        try {
+                            queue.put(end);
+                        } catch (InterruptedException ignore) {
+                            // 已关闭
+                        }
+                    }
+                }
+            }, "excel-stream-reader", true);
+            this.producer.start();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null != next) {
+                return true;
+            }
+            if (done || closed) {
+                return false;
+            }
+            final Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InstrumentException(e);
+            }
+            if (end == item) {
+                done = true;
+                if (null != failure) {
+                    throw rethrow(failure);
+                }
+                return false;
+            }
+            next = (SheetRow) item;
+            return true;
+        }
+
+        @Override
+        public SheetRow next() {
+            if (false == hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final SheetRow row = next;
+            next = null;
+            return row;
+        }
+
+        /**
+         * 停止后台解析并丢弃已预读的行
+         */
+        @Override
+        public void close() {
+            if (false == closed) {
+                closed = true;
+                producer.interrupt();
+                queue.clear();
+            }
+        }
+
+        /**
+         * 解析线程回调，队列满时阻塞直到消费端取走数据
+         *
+         * @param sheetIndex sheet序号
+         * @param rowIndex   行号
+         * @param rowList    行数据列表
+         */
+        private void offer(int sheetIndex, long rowIndex, List<Object> rowList) {
+            if (closed) {
+                throw new InstrumentException("Row iterator closed");
+            }
+            try {
+                queue.put(new SheetRow(sheetIndex, rowIndex, rowList));
+            } catch (InterruptedException e) {
+                throw new InstrumentException(e);
+            }
+        }
+    }
+
+}
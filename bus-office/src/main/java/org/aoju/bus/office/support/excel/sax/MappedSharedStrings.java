@@ -0,0 +1,412 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.office.support.excel.sax;
+
+import org.aoju.bus.core.lang.Normal;
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.map.FixedLinkedHashMap;
+import org.aoju.bus.core.toolkit.FileKit;
+import org.aoju.bus.core.toolkit.IoKit;
+import org.aoju.bus.office.support.excel.ExcelSaxKit;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 基于内存映射文件的共享字符串表
+ * <p>
+ * {@link org.apache.poi.xssf.model.SharedStringsTable}会将sharedStrings.xml全部解析到堆中，
+ * 共享字符串较多时内存占用往往数倍于文件本身。此实现以SAX方式解析一次，
+ * 将字符串写入临时数据文件并建立偏移索引，读取时通过内存映射按需解码，
+ * 并使用一个较小的LRU缓存保存最近访问的字符串
+ * <p>
+ * 读取方法是线程安全的，可在多个sheet并发解析时共享同一实例，使用完毕后需调用{@link #close()}删除临时文件
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public class MappedSharedStrings implements SharedStrings, Closeable {
+
+    /**
+     * 默认LRU缓存条目数
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+    /**
+     * 数据文件映射分段大小，写入时保证单个字符串不跨越分段
+     */
+    private static final int SEGMENT_SIZE = 1 << 30;
+    /**
+     * 索引条目大小：8字节偏移量 + 4字节长度，长度为-1表示null
+     */
+    private static final int ENTRY_SIZE = 12;
+    /**
+     * 每个索引分段的条目数
+     */
+    private static final int ENTRIES_PER_SEGMENT = SEGMENT_SIZE / ENTRY_SIZE;
+
+    /**
+     * 最近访问字符串缓存
+     */
+    private final FixedLinkedHashMap<Integer, String> cache;
+    /**
+     * 字符串数据临时文件
+     */
+    private final File dataFile;
+    /**
+     * 偏移索引临时文件
+     */
+    private final File indexFile;
+    /**
+     * 数据文件映射分段
+     */
+    private ByteBuffer[] data;
+    /**
+     * 索引文件映射分段
+     */
+    private ByteBuffer[] index;
+    /**
+     * 字符串引用总数，对应sst的count属性
+     */
+    private int count;
+    /**
+     * 不重复字符串数
+     */
+    private int uniqueCount;
+
+    /**
+     * 构造
+     *
+     * @param in sharedStrings.xml流，读取后不关闭，为null表示无共享字符串
+     */
+    public MappedSharedStrings(InputStream in) {
+        this(in, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * 构造
+     *
+     * @param in        sharedStrings.xml流，读取后不关闭，为null表示无共享字符串
+     * @param cacheSize LRU缓存条目数
+     */
+    public MappedSharedStrings(InputStream in, int cacheSize) {
+        this.cache = new FixedLinkedHashMap<>(cacheSize);
+        try {
+            this.dataFile = File.createTempFile("sst", ".data");
+            this.indexFile = File.createTempFile("sst", ".index");
+        } catch (IOException e) {
+            throw new InstrumentException(e);
+        }
+        try {
+            final long length;
+            try (final StoreWriter writer = new StoreWriter(this.dataFile, this.indexFile)) {
+                if (null != in) {
+                    ExcelSaxKit.readFrom(in, new Handler(writer));
+                }
+                length = writer.position;
+                this.uniqueCount = writer.size;
+                if (this.count < this.uniqueCount) {
+                    this.count = this.uniqueCount;
+                }
+            }
+            this.data = map(this.dataFile, length, SEGMENT_SIZE);
+            this.index = map(this.indexFile, (long) this.uniqueCount * ENTRY_SIZE, ENTRIES_PER_SEGMENT * ENTRY_SIZE);
+        } catch (IOException e) {
+            close();
+            throw new InstrumentException(e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 按分段映射文件
+     *
+     * @param file    文件
+     * @param length  有效长度
+     * @param segment 分段大小
+     * @return 映射分段
+     * @throws IOException IO异常
+     */
+    private static ByteBuffer[] map(File file, long length, int segment) throws IOException {
+        final ByteBuffer[] buffers = new ByteBuffer[(int) ((length + segment - 1) / segment)];
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            for (int i = 0; i < buffers.length; i++) {
+                final long position = (long) i * segment;
+                buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segment, length - position));
+            }
+        }
+        return buffers;
+    }
+
+    /**
+     * 获取解码后的字符串，已处理_xHHHH_转义
+     *
+     * @param idx 字符串索引
+     * @return 字符串，无文本时为null
+     */
+    public String getString(int idx) {
+        final Integer key = idx;
+        String value;
+        synchronized (this.cache) {
+            value = this.cache.get(key);
+        }
+        if (null == value) {
+            value = getRaw(idx);
+            if (null != value) {
+                if (value.indexOf("_x") >= 0) {
+                    value = new XSSFRichTextString(value).getString();
+                }
+                synchronized (this.cache) {
+                    this.cache.put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public RichTextString getItemAt(int idx) {
+        final String raw = getRaw(idx);
+        return null == raw ? null : new XSSFRichTextString(raw);
+    }
+
+    @Override
+    public int getCount() {
+        return this.count;
+    }
+
+    @Override
+    public int getUniqueCount() {
+        return this.uniqueCount;
+    }
+
+    /**
+     * 关闭并删除临时文件
+     */
+    @Override
+    public void close() {
+        this.data = null;
+        this.index = null;
+        synchronized (this.cache) {
+            this.cache.clear();
+        }
+        FileKit.delete(this.dataFile);
+        FileKit.delete(this.indexFile);
+    }
+
+    /**
+     * 从映射文件中读取未解码的原始字符串
+     *
+     * @param idx 字符串索引
+     * @return 原始字符串
+     */
+    private String getRaw(int idx) {
+        if (idx < 0 || idx >= this.uniqueCount) {
+            throw new IndexOutOfBoundsException("Index: " + idx + ", Size: " + this.uniqueCount);
+        }
+        final ByteBuffer[] data = this.data;
+        final ByteBuffer[] index = this.index;
+        if (null == data || null == index) {
+            throw new IllegalStateException("Shared strings closed");
+        }
+        final ByteBuffer entries = index[idx / ENTRIES_PER_SEGMENT];
+        final int at = (idx % ENTRIES_PER_SEGMENT) * ENTRY_SIZE;
+        final long offset = entries.getLong(at);
+        final int length = entries.getInt(at + 8);
+        if (length < 0) {
+            return null;
+        }
+        if (0 == length) {
+            return Normal.EMPTY;
+        }
+        // 使用副本读取，避免并发修改共享缓冲区的position
+        final ByteBuffer segment = data[(int) (offset / SEGMENT_SIZE)].duplicate();
+        segment.position((int) (offset % SEGMENT_SIZE));
+        final byte[] bytes = new byte[length];
+        segment.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 临时文件写出器
+     */
+    private static class StoreWriter implements Closeable {
+
+        private final OutputStream data;
+        private final DataOutputStream index;
+        private long position;
+        private int size;
+
+        StoreWriter(File dataFile, File indexFile) throws IOException {
+            this.data = new BufferedOutputStream(new FileOutputStream(dataFile), 64 * 1024);
+            this.index = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile), 64 * 1024));
+        }
+
+        /**
+         * 写出一个字符串及其索引
+         *
+         * @param value 原始字符串，可为null
+         * @throws IOException IO异常
+         */
+        void write(String value) throws IOException {
+            if (null == value) {
+                this.index.writeLong(this.position);
+                this.index.writeInt(-1);
+            } else {
+                final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > SEGMENT_SIZE) {
+                    throw new InstrumentException("Shared string too large: {} bytes", bytes.length);
+                }
+                // 剩余空间不足时填充至下一分段，保证字符串不跨越映射分段
+                final long remaining = SEGMENT_SIZE - this.position % SEGMENT_SIZE;
+                if (bytes.length > remaining) {
+                    for (long i = 0; i < remaining; i++) {
+                        this.data.write(0);
+                    }
+                    this.position += remaining;
+                }
+                this.index.writeLong(this.position);
+                this.index.writeInt(bytes.length);
+                this.data.write(bytes);
+                this.position += bytes.length;
+            }
+            this.size++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.data.close();
+            } finally {
+                IoKit.close(this.index);
+            }
+        }
+    }
+
+    /**
+     * sharedStrings.xml解析器，富文本取各段文本拼接，忽略注音(rPh)
+     */
+    private class Handler extends DefaultHandler {
+
+        private final StoreWriter writer;
+        private final StringBuilder text = new StringBuilder();
+        private StringBuilder runs;
+        private String plain;
+        private boolean inText;
+        private boolean inRun;
+        private boolean inPhonetic;
+
+        Handler(StoreWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "sst":
+                    final String count = attributes.getValue("count");
+                    if (null != count) {
+                        try {
+                            MappedSharedStrings.this.count = Integer.parseInt(count);
+                        } catch (NumberFormatException ignore) {
+                            // ignore
+                        }
+                    }
+                    break;
+                case "si":
+                    this.runs = null;
+                    this.plain = null;
+                    break;
+                case "r":
+                    this.inRun = true;
+                    if (null == this.runs) {
+                        this.runs = new StringBuilder();
+                    }
+                    break;
+                case "rPh":
+                    this.inPhonetic = true;
+                    break;
+                case "t":
+                    if (false == this.inPhonetic) {
+                        this.inText = true;
+                        this.text.setLength(0);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "t":
+                    if (this.inText) {
+                        this.inText = false;
+                        if (this.inRun) {
+                            this.runs.append(this.text);
+                        } else {
+                            this.plain = this.text.toString();
+                        }
+                    }
+                    break;
+                case "r":
+                    this.inRun = false;
+                    break;
+                case "rPh":
+                    this.inPhonetic = false;
+                    break;
+                case "si":
+                    try {
+                        this.writer.write(null != this.runs ? this.runs.toString() : this.plain);
+                    } catch (IOException e) {
+                        throw new InstrumentException(e);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (this.inText) {
+                this.text.append(ch, start, length);
+            }
+        }
+    }
+
+}
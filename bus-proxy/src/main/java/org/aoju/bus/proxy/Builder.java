@@ -27,17 +27,25 @@ package org.aoju.bus.proxy;
 
 import org.aoju.bus.core.lang.Normal;
 import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.ClassKit;
+import org.aoju.bus.core.toolkit.ReflectKit;
 import org.aoju.bus.proxy.aspects.Aspectj;
 import org.aoju.bus.proxy.factory.AbstractFactory;
 import org.aoju.bus.proxy.invoker.NullInvoker;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Kimi Liu
@@ -49,6 +57,9 @@ public class Builder {
     public static final Object[] EMPTY_ARGUMENTS = Normal.EMPTY_OBJECT_ARRAY;
     public static final Class[] EMPTY_ARGUMENT_TYPES = Normal.EMPTY_CLASS_ARRAY;
     private static final Map wrapperClassMap = new HashMap();
+    private static final Map<Method, MethodHandle> METHOD_HANDLE_CACHE = new ConcurrentHashMap<>();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle ARGUMENTS_FILTER;
 
     static {
         wrapperClassMap.put(Integer.TYPE, Integer.class);
@@ -59,6 +70,12 @@ public class Builder {
         wrapperClassMap.put(Float.TYPE, Float.class);
         wrapperClassMap.put(Double.TYPE, Double.class);
         wrapperClassMap.put(Byte.TYPE, Byte.class);
+        try {
+            ARGUMENTS_FILTER = LOOKUP.findStatic(Builder.class, "nullToEmpty",
+                    MethodType.methodType(Object[].class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new InstrumentException(e);
+        }
     }
 
     public static Object createNullObject(Factory factory, Class[] proxyClasses) {
@@ -102,6 +119,78 @@ public class Builder {
         return (Class) wrapperClassMap.get(primitiveType);
     }
 
+    /**
+     * 获取方法对应的{@link MethodHandle},用于替代{@link Method#invoke(Object, Object...)}
+     * 类型统一为(Object, Object[])Object,静态方法忽略第一个参数,无返回值的方法返回null
+     * 通过{@code (Object) handle.invokeExact(target, arguments)}调用,目标方法抛出的异常原样抛出
+     *
+     * @param method 方法
+     * @return 方法句柄
+     */
+    public static MethodHandle getMethodHandle(Method method) {
+        MethodHandle handle = METHOD_HANDLE_CACHE.get(method);
+        if (null == handle) {
+            ReflectKit.setAccessible(method);
+            try {
+                handle = LOOKUP.unreflect(method);
+            } catch (IllegalAccessException e) {
+                throw new InstrumentException(e);
+            }
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            final int count = method.getParameterCount();
+            handle = handle.asType(MethodType.genericMethodType(count + 1))
+                    .asSpreader(Object[].class, count);
+            // 参数为null时按空参数处理
+            handle = MethodHandles.filterArguments(handle, 1, ARGUMENTS_FILTER);
+            METHOD_HANDLE_CACHE.putIfAbsent(method, handle);
+        }
+        return handle;
+    }
+
+    /**
+     * 检查调用对象和参数是否与方法匹配,检查规则与{@link Method#invoke(Object, Object...)}一致
+     * 检查通过后,{@link #getMethodHandle(Method)}返回的方法句柄抛出的异常都来自目标方法
+     *
+     * @param method    方法
+     * @param target    调用对象
+     * @param arguments 参数
+     * @throws NullPointerException     实例方法的调用对象为null
+     * @throws IllegalArgumentException 调用对象或参数与方法不匹配
+     */
+    public static void checkInvocation(Method method, Object target, Object[] arguments) {
+        if (!Modifier.isStatic(method.getModifiers())) {
+            if (null == target) {
+                throw new NullPointerException("target is null: " + method);
+            }
+            if (!method.getDeclaringClass().isInstance(target)) {
+                throw new IllegalArgumentException("object is not an instance of declaring class: " + method);
+            }
+        }
+        final Class<?>[] types = method.getParameterTypes();
+        final int count = null == arguments ? 0 : arguments.length;
+        if (count != types.length) {
+            throw new IllegalArgumentException("wrong number of arguments: " + method);
+        }
+        for (int i = 0; i < count; i++) {
+            final Object argument = arguments[i];
+            if (!ClassKit.isAssignable(null == argument ? null : argument.getClass(), types[i], true)) {
+                throw new IllegalArgumentException("argument type mismatch: " + method);
+            }
+        }
+    }
+
+    /**
+     * 参数为null时返回空参数
+     *
+     * @param arguments 参数
+     * @return 参数
+     */
+    private static Object[] nullToEmpty(Object[] arguments) {
+        return null == arguments ? EMPTY_ARGUMENTS : arguments;
+    }
+
 
     /**
      * 使用切面代理对象
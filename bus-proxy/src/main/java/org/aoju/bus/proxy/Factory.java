@@ -29,7 +29,6 @@ import org.aoju.bus.proxy.factory.cglib.CglibFactory;
 import org.aoju.bus.proxy.factory.javassist.JavassistFactory;
 
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 
@@ -93,11 +92,7 @@ public class Factory {
         }
 
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-            try {
-                return method.invoke(delegateProvider.getObject(), args);
-            } catch (InvocationTargetException e) {
-                throw e.getTargetException();
-            }
+            return (Object) Builder.getMethodHandle(method).invokeExact(delegateProvider.getObject(), args);
         }
     }
 
@@ -140,11 +135,7 @@ public class Factory {
         }
 
         public Object proceed() throws Throwable {
-            try {
-                return method.invoke(target, arguments);
-            } catch (InvocationTargetException e) {
-                throw e.getTargetException();
-            }
+            return (Object) Builder.getMethodHandle(method).invokeExact(target, arguments);
         }
 
     }
@@ -0,0 +1,135 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.proxy.factory;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 按{@link ClassLoader}隔离的生成类缓存
+ * 查找不加锁,{@link ClassLoader}和生成的类都只被弱引用,不会阻止其被回收;
+ * 同一个{@link ClassLoader}和键只会生成一次类
+ *
+ * @param <K> 键类型
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public class ClassCache<K> {
+
+    private final ConcurrentMap<LoaderKey, ConcurrentMap<K, WeakReference<Class>>> loaderToClassCache = new ConcurrentHashMap<>();
+    /**
+     * 启动类加载器(null)对应的缓存
+     */
+    private final ConcurrentMap<K, WeakReference<Class>> bootstrapClassCache = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ClassLoader> queue = new ReferenceQueue<>();
+
+    /**
+     * 获取类,不存在或已被回收时生成
+     *
+     * @param classLoader 类加载器
+     * @param key         键
+     * @param generator   类生成器,缓存中不存在时调用
+     * @return 类
+     */
+    public Class get(ClassLoader classLoader, K key, Supplier<Class> generator) {
+        final ConcurrentMap<K, WeakReference<Class>> classCache = getClassCache(classLoader);
+        final WeakReference<Class> reference = classCache.get(key);
+        final Class clazz = null == reference ? null : reference.get();
+        if (null != clazz) {
+            return clazz;
+        }
+        // 生成的类在返回前需要强引用,避免刚放入缓存就被回收
+        final Class[] created = new Class[1];
+        classCache.compute(key, (k, old) -> {
+            created[0] = null == old ? null : old.get();
+            if (null == created[0]) {
+                created[0] = generator.get();
+                return new WeakReference<>(created[0]);
+            }
+            return old;
+        });
+        return created[0];
+    }
+
+    private ConcurrentMap<K, WeakReference<Class>> getClassCache(ClassLoader classLoader) {
+        if (null == classLoader) {
+            return this.bootstrapClassCache;
+        }
+        final ConcurrentMap<K, WeakReference<Class>> cache = this.loaderToClassCache.get(new LoaderKey(classLoader, null));
+        if (null != cache) {
+            return cache;
+        }
+        expunge();
+        return this.loaderToClassCache.computeIfAbsent(new LoaderKey(classLoader, this.queue),
+                loader -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * 清理已被回收的类加载器对应的缓存
+     */
+    private void expunge() {
+        Reference<? extends ClassLoader> reference;
+        while (null != (reference = this.queue.poll())) {
+            this.loaderToClassCache.remove(reference);
+        }
+    }
+
+    /**
+     * 以对象标识比较的类加载器弱引用
+     */
+    private static class LoaderKey extends WeakReference<ClassLoader> {
+
+        private final int hash;
+
+        LoaderKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.hash = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof LoaderKey)) {
+                return false;
+            }
+            final ClassLoader classLoader = get();
+            return null != classLoader && classLoader == ((LoaderKey) object).get();
+        }
+    }
+
+}
@@ -27,10 +27,6 @@ package org.aoju.bus.proxy.factory;
 
 import org.aoju.bus.core.lang.Symbol;
 
-import java.lang.ref.WeakReference;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  * 用于存储基于特定类型{@link AbstractProxyClass}的代理的实现类的缓存。
@@ -42,44 +38,20 @@ import java.util.WeakHashMap;
  */
 public class ProxyClassCache {
 
-    private final Map loaderToClassCache = new WeakHashMap();
+    private final ClassCache<String> classCache = new ClassCache<>();
     private final ProxyClass proxyClassGenerator;
 
     public ProxyClassCache(ProxyClass proxyClassGenerator) {
         this.proxyClassGenerator = proxyClassGenerator;
     }
 
-    public synchronized Class getProxyClass(ClassLoader classLoader, Class[] proxyClasses) {
-        final Map classCache = getClassCache(classLoader);
-        final String key = toClassCacheKey(proxyClasses);
-        Class proxyClass;
-        WeakReference proxyClassReference = (WeakReference) classCache.get(key);
-        if (proxyClassReference == null) {
-            proxyClass = proxyClassGenerator.createProxy(classLoader, proxyClasses);
-            classCache.put(key, new WeakReference(proxyClass));
-        } else {
-            synchronized (proxyClassReference) {
-                proxyClass = (Class) proxyClassReference.get();
-                if (proxyClass == null) {
-                    proxyClass = proxyClassGenerator.createProxy(classLoader, proxyClasses);
-                    classCache.put(key, new WeakReference(proxyClass));
-                }
-            }
-        }
-        return proxyClass;
-    }
-
-    private Map getClassCache(ClassLoader classLoader) {
-        Map cache = (Map) loaderToClassCache.get(classLoader);
-        if (cache == null) {
-            cache = new HashMap();
-            loaderToClassCache.put(classLoader, cache);
-        }
-        return cache;
+    public Class getProxyClass(ClassLoader classLoader, Class[] proxyClasses) {
+        return classCache.get(classLoader, toClassCacheKey(proxyClasses),
+                () -> proxyClassGenerator.createProxy(classLoader, proxyClasses));
     }
 
     private String toClassCacheKey(Class[] proxyClasses) {
-        final StringBuffer sb = new StringBuffer();
+        final StringBuilder sb = new StringBuilder();
         for (int i = 0; i < proxyClasses.length; i++) {
             Class proxyInterface = proxyClasses[i];
             sb.append(proxyInterface.getName());
@@ -91,4 +63,3 @@ public class ProxyClassCache {
     }
 
 }
-
@@ -31,14 +31,12 @@ import javassist.CtConstructor;
 import javassist.CtMethod;
 import org.aoju.bus.core.lang.Normal;
 import org.aoju.bus.core.lang.Symbol;
+import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.proxy.Builder;
 import org.aoju.bus.proxy.Invocation;
+import org.aoju.bus.proxy.factory.ClassCache;
 
-import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  * 这个类实际上是所有基于Javassist方法调用的超类
@@ -50,7 +48,7 @@ import java.util.WeakHashMap;
  */
 public abstract class JavassistInvocation implements Invocation {
 
-    private static WeakHashMap loaderToClassCache = new WeakHashMap();
+    private static final ClassCache<String> CLASS_CACHE = new ClassCache<>();
     protected final Method method;
     protected final Object target;
     protected final Object[] arguments;
@@ -124,35 +122,15 @@ public abstract class JavassistInvocation implements Invocation {
         return invocationClass;
     }
 
-    private static Map getClassCache(ClassLoader classLoader) {
-        Map cache = (Map) loaderToClassCache.get(classLoader);
-        if (cache == null) {
-            cache = new HashMap();
-            loaderToClassCache.put(classLoader, cache);
-        }
-        return cache;
-    }
-
-    synchronized static Class getMethodInvocationClass(ClassLoader classLoader,
-                                                       Method interfaceMethod)
-            throws CannotCompileException {
-        final Map classCache = getClassCache(classLoader);
-        final String key = toClassCacheKey(interfaceMethod);
-        final WeakReference invocationClassRef = (WeakReference) classCache.get(key);
-        Class invocationClass;
-        if (invocationClassRef == null) {
-            invocationClass = createInvocationClass(classLoader, interfaceMethod);
-            classCache.put(key, new WeakReference(invocationClass));
-        } else {
-            synchronized (invocationClassRef) {
-                invocationClass = (Class) invocationClassRef.get();
-                if (invocationClass == null) {
-                    invocationClass = createInvocationClass(classLoader, interfaceMethod);
-                    classCache.put(key, new WeakReference(invocationClass));
-                }
+    static Class getMethodInvocationClass(ClassLoader classLoader,
+                                          Method interfaceMethod) {
+        return CLASS_CACHE.get(classLoader, toClassCacheKey(interfaceMethod), () -> {
+            try {
+                return createInvocationClass(classLoader, interfaceMethod);
+            } catch (CannotCompileException e) {
+                throw new InstrumentException("Could not compile class.", e);
             }
-        }
-        return invocationClass;
+        });
     }
 
     private static String getSimpleName(Class c) {
@@ -25,11 +25,11 @@
  ********************************************************************************/
 package org.aoju.bus.proxy.intercept;
 
-import org.aoju.bus.core.toolkit.ClassKit;
-import org.aoju.bus.core.toolkit.ReflectKit;
+import org.aoju.bus.proxy.Builder;
 import org.aoju.bus.proxy.aspects.Aspectj;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -71,14 +71,16 @@ public class JavassistInterceptor implements InvocationHandler, Serializable {
 
         // 开始前回调
         if (aspectj.before(target, method, args)) {
-            ReflectKit.setAccessible(method);
+            final MethodHandle handle = Builder.getMethodHandle(method);
+            // 调用对象或参数不匹配时直接抛出,不作为业务异常回调
+            Builder.checkInvocation(method, target, args);
 
             try {
-                result = method.invoke(ClassKit.isStatic(method) ? null : target, args);
-            } catch (InvocationTargetException e) {
+                result = (Object) handle.invokeExact(target, args);
+            } catch (Throwable e) {
                 // 异常回调(只捕获业务代码导致的异常,而非反射导致的异常)
-                if (aspectj.afterException(target, method, args, e.getTargetException())) {
-                    throw e;
+                if (aspectj.afterException(target, method, args, e)) {
+                    throw new InvocationTargetException(e);
                 }
             }
         }
@@ -34,6 +34,7 @@ import org.aoju.bus.extra.json.JsonKit;
 
 import java.lang.annotation.Annotation;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -77,7 +78,12 @@ public final class Builder {
      * 不做任何处理
      */
     public static final String OVERALL = "OVERALL";
-    private static final WordTree sensitiveTree = new WordTree();
+    /**
+     * 敏感词匹配器,更换词库或过滤规则时整体替换
+     */
+    private static volatile WordMatcher sensitiveMatcher = new WordMatcher(Collections.emptyList());
+    private static volatile Collection<String> sensitiveWords = Collections.emptyList();
+    private static volatile Filter<Character> sensitiveFilter = StopChar::isNotStopChar;
 
     /**
      * 每次都创建一个新的对象,避免线程问题
@@ -146,7 +152,7 @@ public final class Builder {
      * @return 是否已经被初始化
      */
     public static boolean isInited() {
-        return !sensitiveTree.isEmpty();
+        return !sensitiveMatcher.isEmpty();
     }
 
     /**
@@ -171,9 +177,9 @@ public final class Builder {
      *
      * @param sensitiveWords 敏感词列表
      */
-    public static void init(Collection<String> sensitiveWords) {
-        sensitiveTree.clear();
-        sensitiveTree.addWords(sensitiveWords);
+    public static synchronized void init(Collection<String> sensitiveWords) {
+        Builder.sensitiveMatcher = new WordMatcher(sensitiveWords, sensitiveFilter);
+        Builder.sensitiveWords = sensitiveWords;
     }
 
     /**
@@ -205,9 +211,10 @@ public final class Builder {
      *
      * @param charFilter 过滤函数
      */
-    public static void setCharFilter(Filter<Character> charFilter) {
+    public static synchronized void setCharFilter(Filter<Character> charFilter) {
         if (charFilter != null) {
-            sensitiveTree.setCharFilter(charFilter);
+            sensitiveFilter = charFilter;
+            sensitiveMatcher = new WordMatcher(sensitiveWords, charFilter);
         }
     }
 
@@ -218,7 +225,7 @@ public final class Builder {
      * @return 是否包含
      */
     public static boolean containsSensitive(String text) {
-        return sensitiveTree.isMatch(text);
+        return sensitiveMatcher.isMatch(text);
     }
 
     /**
@@ -228,7 +235,7 @@ public final class Builder {
      * @return 是否包含
      */
     public static boolean containsSensitive(Object obj) {
-        return sensitiveTree.isMatch(JsonKit.toJsonString(obj));
+        return sensitiveMatcher.isMatch(JsonKit.toJsonString(obj));
     }
 
     /**
@@ -238,7 +245,7 @@ public final class Builder {
      * @return 敏感词
      */
     public static String getFindedFirstSensitive(String text) {
-        return sensitiveTree.match(text);
+        return sensitiveMatcher.match(text);
     }
 
     /**
@@ -248,7 +255,7 @@ public final class Builder {
      * @return 敏感词
      */
     public static String getFindedFirstSensitive(Object obj) {
-        return sensitiveTree.match(JsonKit.toJsonString(obj));
+        return sensitiveMatcher.match(JsonKit.toJsonString(obj));
     }
 
     /**
@@ -258,7 +265,7 @@ public final class Builder {
      * @return 敏感词
      */
     public static List<String> getFindedAllSensitive(String text) {
-        return sensitiveTree.matchAll(text);
+        return sensitiveMatcher.matchAll(text);
     }
 
     /**
@@ -272,7 +279,7 @@ public final class Builder {
      * @return 敏感词
      */
     public static List<String> getFindedAllSensitive(String text, boolean isDensityMatch, boolean isGreedMatch) {
-        return sensitiveTree.matchAll(text, -1, isDensityMatch, isGreedMatch);
+        return sensitiveMatcher.matchAll(text, -1, isDensityMatch, isGreedMatch);
     }
 
     /**
@@ -282,7 +289,7 @@ public final class Builder {
      * @return 敏感词
      */
     public static List<String> getFindedAllSensitive(Object bean) {
-        return sensitiveTree.matchAll(JsonKit.toJsonString(bean));
+        return sensitiveMatcher.matchAll(JsonKit.toJsonString(bean));
     }
 
     /**
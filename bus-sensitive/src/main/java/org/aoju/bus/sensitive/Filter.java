@@ -89,7 +89,7 @@ public class Filter implements com.alibaba.fastjson.serializer.ContextValueFilte
         // 信息初始化
         final java.lang.reflect.Field field = context.getField();
         final Class clazz = context.getBeanClass();
-        final List<java.lang.reflect.Field> fieldList = ClassKit.getAllFieldList(clazz);
+        final List<java.lang.reflect.Field> fieldList = Plan.of(clazz).getFields();
         sensitiveContext.setCurrentField(field);
         sensitiveContext.setCurrentObject(object);
         sensitiveContext.setBeanClass(clazz);
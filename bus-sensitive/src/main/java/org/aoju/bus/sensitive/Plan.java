@@ -0,0 +1,641 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.sensitive;
+
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.toolkit.ClassKit;
+import org.aoju.bus.core.toolkit.TypeKit;
+import org.aoju.bus.sensitive.annotation.Condition;
+import org.aoju.bus.sensitive.annotation.Entry;
+import org.aoju.bus.sensitive.annotation.Shield;
+import org.aoju.bus.sensitive.annotation.Strategy;
+import org.aoju.bus.sensitive.provider.ConditionProvider;
+import org.aoju.bus.sensitive.provider.StrategyProvider;
+import org.aoju.bus.sensitive.strategy.BuiltInStrategy;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 脱敏计划
+ * 每个类只解析一次:需要处理的字段、对应的条件和策略,字段通过{@link MethodHandle}读写
+ * 克隆时只做浅拷贝,对{@link Entry}标记的嵌套对象、数组和集合在修改前再拷贝,原始对象保持不变
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public final class Plan {
+
+    private static final Map<Class<?>, Plan> PLAN_CACHE = new ConcurrentHashMap<>();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    /**
+     * 集合类型的无参构造,无法实例化的类型对应{@link #NO_CONSTRUCTOR}
+     */
+    private static final Map<Class<?>, MethodHandle> COLLECTION_CONSTRUCTORS = new ConcurrentHashMap<>();
+    private static final MethodHandle NO_CONSTRUCTOR = MethodHandles.constant(Object.class, null);
+    /**
+     * 原集合和字段类型都无法实例化时,按顺序选择字段可以接收的集合类型
+     */
+    private static final Class<?>[] COLLECTION_TYPES = {
+            ArrayList.class, LinkedHashSet.class, TreeSet.class, LinkedList.class, ArrayDeque.class
+    };
+
+    /**
+     * 所有字段,包含父类字段
+     */
+    private final List<Field> fields;
+    /**
+     * 需要处理的字段
+     */
+    private final Step[] steps;
+    /**
+     * 浅拷贝时复制的实例字段
+     */
+    private final Accessor[] accessors;
+    /**
+     * 无参构造,为空表示无法浅拷贝
+     */
+    private final MethodHandle constructor;
+
+    private Plan(Class<?> clazz) {
+        this.fields = Collections.unmodifiableList(ClassKit.getAllFieldList(clazz));
+        final List<Step> steps = new ArrayList<>();
+        final List<Accessor> accessors = new ArrayList<>();
+        for (Field field : this.fields) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            final Accessor accessor = new Accessor(field);
+            accessors.add(accessor);
+            final Step step = Step.of(accessor);
+            if (null != step) {
+                steps.add(step);
+            }
+        }
+        this.steps = steps.toArray(new Step[0]);
+        this.accessors = accessors.toArray(new Accessor[0]);
+        this.constructor = TypeKit.isJavaBean(clazz) ? constructor(clazz) : null;
+    }
+
+    /**
+     * 获取类的脱敏计划
+     *
+     * @param clazz 类
+     * @return 脱敏计划
+     */
+    public static Plan of(Class<?> clazz) {
+        return PLAN_CACHE.computeIfAbsent(clazz, Plan::new);
+    }
+
+    /**
+     * 所有字段,包含父类字段
+     *
+     * @return 字段列表
+     */
+    public List<Field> getFields() {
+        return this.fields;
+    }
+
+    /**
+     * 是否有需要处理的字段
+     *
+     * @return 是否有需要处理的字段
+     */
+    public boolean isEmpty() {
+        return this.steps.length == 0;
+    }
+
+    /**
+     * 是否可以浅拷贝
+     *
+     * @return 是否可以浅拷贝
+     */
+    public boolean isCopyable() {
+        return null != this.constructor;
+    }
+
+    /**
+     * 浅拷贝对象,字段值直接复制
+     *
+     * @param object 对象
+     * @param <T>    对象类型
+     * @return 新对象
+     */
+    public <T> T copy(T object) {
+        try {
+            final Object copy = this.constructor.invoke();
+            for (Accessor accessor : this.accessors) {
+                accessor.set(copy, accessor.get(object));
+            }
+            return (T) copy;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 对对象执行脱敏
+     *
+     * @param context     上下文
+     * @param object      对象
+     * @param names       需要处理的字段名,为空表示全部
+     * @param copyOnWrite 是否在修改嵌套对象、数组和集合前先拷贝,用于浅拷贝后的对象
+     */
+    public void apply(Context context, Object object, Set<String> names, boolean copyOnWrite) {
+        for (Step step : this.steps) {
+            if (null != names && !names.contains(step.accessor.field.getName())) {
+                continue;
+            }
+            context.setAllFieldList(this.fields);
+            context.setCurrentObject(object);
+            context.setCurrentField(step.accessor.field);
+            switch (step.kind) {
+                case BEAN:
+                    applyBean(context, object, step, names, copyOnWrite);
+                    break;
+                case ARRAY:
+                    applyArray(context, object, step, names, copyOnWrite);
+                    break;
+                case COLLECTION:
+                    applyCollection(context, object, step, names, copyOnWrite);
+                    break;
+                default:
+                    step.apply(context, object);
+            }
+        }
+    }
+
+    private void applyBean(Context context, Object object, Step step, Set<String> names, boolean copyOnWrite) {
+        final Object value = step.accessor.get(object);
+        final Object target = nested(context, value, names, copyOnWrite);
+        if (target != value) {
+            step.accessor.set(object, target);
+        }
+    }
+
+    private void applyArray(Context context, Object object, Step step, Set<String> names, boolean copyOnWrite) {
+        final Object value = step.accessor.get(object);
+        if (!(value instanceof Object[]) || ((Object[]) value).length == 0) {
+            return;
+        }
+        Object[] arrays = (Object[]) value;
+        final Object first = firstNotNull(Arrays.asList(arrays));
+        if (null == first) {
+            return;
+        }
+        if (needHandleEntryType(first.getClass())) {
+            // 逐个处理嵌套对象
+            if (copyOnWrite) {
+                arrays = arrays.clone();
+            }
+            boolean changed = false;
+            for (int i = 0; i < arrays.length; i++) {
+                final Object element = nested(context, arrays[i], names, copyOnWrite);
+                changed |= element != arrays[i];
+                arrays[i] = element;
+            }
+            if (copyOnWrite && changed) {
+                step.accessor.set(object, arrays);
+            }
+        } else {
+            // 基础值,直接循环设置即可
+            final Object newArray = Array.newInstance(first.getClass(), arrays.length);
+            for (int i = 0; i < arrays.length; i++) {
+                Array.set(newArray, i, step.mask(context, arrays[i]));
+            }
+            step.accessor.set(object, newArray);
+        }
+    }
+
+    private void applyCollection(Context context, Object object, Step step, Set<String> names, boolean copyOnWrite) {
+        final Object value = step.accessor.get(object);
+        if (!(value instanceof Collection) || ((Collection<?>) value).isEmpty()) {
+            return;
+        }
+        final Collection<Object> collection = (Collection<Object>) value;
+        final Object first = firstNotNull(collection);
+        if (null == first) {
+            return;
+        }
+        if (needHandleEntryType(first.getClass())) {
+            // 逐个处理嵌套对象
+            if (copyOnWrite) {
+                final Collection<Object> copies = newCollection(collection, step.accessor.field.getType());
+                if (null == copies) {
+                    // 无法创建同类型的集合时不拷贝,保持原始集合不变
+                    return;
+                }
+                boolean changed = false;
+                for (Object element : collection) {
+                    final Object target = nested(context, element, names, true);
+                    changed |= target != element;
+                    copies.add(target);
+                }
+                if (changed) {
+                    step.accessor.set(object, copies);
+                }
+            } else {
+                for (Object element : collection) {
+                    nested(context, element, names, false);
+                }
+            }
+        } else {
+            // 基础值,直接循环设置即可
+            final Collection<Object> newResult = newCollection(collection, step.accessor.field.getType());
+            if (null == newResult) {
+                return;
+            }
+            for (Object element : collection) {
+                newResult.add(step.mask(context, element));
+            }
+            step.accessor.set(object, newResult);
+        }
+    }
+
+    /**
+     * 创建与原集合同类型的空集合,依次尝试:
+     * (1)原集合的类型,有序集合和优先队列保留比较器
+     * (2)字段声明的具体类型
+     * (3)字段类型可以接收的常用集合类型
+     *
+     * @param source    原集合
+     * @param fieldType 字段类型
+     * @return 新集合, 都无法创建时返回null
+     */
+    private static Collection<Object> newCollection(Collection<?> source, Class<?> fieldType) {
+        Collection<Object> result = null;
+        if (source instanceof SortedSet) {
+            result = new TreeSet<>((Comparator<Object>) ((SortedSet<?>) source).comparator());
+        } else if (source instanceof PriorityQueue) {
+            result = new PriorityQueue<>(Math.max(1, source.size()),
+                    (Comparator<Object>) ((PriorityQueue<?>) source).comparator());
+        } else {
+            result = newCollection(source.getClass());
+        }
+        if (null == result || !fieldType.isInstance(result)) {
+            result = newCollection(fieldType);
+        }
+        if (null == result) {
+            for (Class<?> clazz : COLLECTION_TYPES) {
+                if (fieldType.isAssignableFrom(clazz)) {
+                    return newCollection(clazz);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 通过无参构造创建集合
+     *
+     * @param clazz 集合类型
+     * @return 新集合, 类型不是可以实例化的集合时返回null
+     */
+    private static Collection<Object> newCollection(Class<?> clazz) {
+        final MethodHandle constructor = COLLECTION_CONSTRUCTORS.computeIfAbsent(clazz, key -> {
+            if (!Collection.class.isAssignableFrom(key) || key.isInterface()
+                    || !Modifier.isPublic(key.getModifiers()) || Modifier.isAbstract(key.getModifiers())) {
+                return NO_CONSTRUCTOR;
+            }
+            final MethodHandle handle = constructor(key);
+            return null == handle ? NO_CONSTRUCTOR : handle;
+        });
+        if (NO_CONSTRUCTOR == constructor) {
+            return null;
+        }
+        try {
+            return (Collection<Object>) constructor.invoke();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InstrumentException(e);
+        }
+    }
+
+    /**
+     * 处理嵌套对象
+     *
+     * @return 处理后的对象,拷贝时为新对象
+     */
+    private static Object nested(Context context, Object value, Set<String> names, boolean copyOnWrite) {
+        if (null == value) {
+            return null;
+        }
+        final Plan plan = of(value.getClass());
+        if (plan.isEmpty()) {
+            return value;
+        }
+        Object target = value;
+        if (copyOnWrite) {
+            target = plan.isCopyable() ? plan.copy(value) : Provider.clone(value);
+        }
+        plan.apply(context, target, names, copyOnWrite && plan.isCopyable());
+        return target;
+    }
+
+    private static Object firstNotNull(Iterable<?> iterable) {
+        for (Object element : iterable) {
+            if (null != element) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 需要特殊处理的列表/对象类型
+     *
+     * @param fieldTypeClass 字段类型
+     * @return 是否
+     */
+    private static boolean needHandleEntryType(final Class fieldTypeClass) {
+        if (TypeKit.isBase(fieldTypeClass)
+                || TypeKit.isMap(fieldTypeClass)) {
+            return false;
+        }
+        return TypeKit.isJavaBean(fieldTypeClass)
+                || TypeKit.isArray(fieldTypeClass)
+                || TypeKit.isCollection(fieldTypeClass);
+    }
+
+    private static MethodHandle constructor(Class<?> clazz) {
+        try {
+            final Constructor<?> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return LOOKUP.unreflectConstructor(constructor);
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private enum Kind {
+        /**
+         * 字段值
+         */
+        VALUE,
+        /**
+         * {@link Entry}标记的对象
+         */
+        BEAN,
+        /**
+         * {@link Entry}标记的数组
+         */
+        ARRAY,
+        /**
+         * {@link Entry}标记的集合
+         */
+        COLLECTION
+    }
+
+    /**
+     * 字段读写
+     */
+    private static final class Accessor {
+
+        private final Field field;
+        private final MethodHandle getter;
+        /**
+         * 为空时(如final字段)使用反射写入
+         */
+        private final MethodHandle setter;
+
+        Accessor(Field field) {
+            this.field = field;
+            field.setAccessible(true);
+            try {
+                this.getter = LOOKUP.unreflectGetter(field).asType(GETTER);
+            } catch (IllegalAccessException e) {
+                throw new InstrumentException(e);
+            }
+            MethodHandle setter;
+            try {
+                setter = LOOKUP.unreflectSetter(field).asType(SETTER);
+            } catch (IllegalAccessException e) {
+                setter = null;
+            }
+            this.setter = setter;
+        }
+
+        Object get(Object target) {
+            try {
+                return (Object) this.getter.invokeExact(target);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InstrumentException(e);
+            }
+        }
+
+        void set(Object target, Object value) {
+            try {
+                if (null == this.setter) {
+                    this.field.set(target, value);
+                } else {
+                    this.setter.invokeExact(target, value);
+                }
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InstrumentException(e);
+            }
+        }
+    }
+
+    /**
+     * 单个字段的处理
+     * 生效顺序如下：
+     * (1)Shield
+     * (2)系统内置自定义注解
+     * (3)用户自定义注解
+     */
+    private static final class Step {
+
+        private final Accessor accessor;
+        private final Kind kind;
+        private final Shield shield;
+        /**
+         * 带有{@link Strategy}的注解
+         */
+        private final Annotation annotation;
+        /**
+         * 带有{@link Condition}的注解对应的条件类
+         */
+        private final Class<? extends ConditionProvider> conditionClass;
+        /**
+         * 条件和策略每次使用都创建新实例,与逐次实例化时一样,实现类可以持有状态
+         * 系统内置策略由{@link Registry}统一持有
+         */
+        private final Creator<ConditionProvider> shieldCondition;
+        private final Creator<StrategyProvider> shieldStrategy;
+        private final Creator<ConditionProvider> condition;
+        private final Creator<StrategyProvider> strategy;
+
+        private Step(Accessor accessor, Kind kind, Shield shield, Annotation annotation,
+                     Class<? extends ConditionProvider> conditionClass) {
+            this.accessor = accessor;
+            this.kind = kind;
+            this.shield = shield;
+            this.annotation = annotation;
+            this.conditionClass = conditionClass;
+            this.shieldCondition = null == shield ? null : new Creator<>(shield.condition());
+            this.shieldStrategy = null == shield ? null : new Creator<>(shield.strategy());
+            this.condition = null == conditionClass ? null : new Creator<>(conditionClass);
+            Creator<StrategyProvider> strategy = null;
+            if (null != annotation) {
+                final Class<? extends StrategyProvider> clazz = annotation.annotationType().getAnnotation(Strategy.class).value();
+                if (!BuiltInStrategy.class.equals(clazz)) {
+                    strategy = new Creator<>(clazz);
+                }
+            }
+            this.strategy = strategy;
+        }
+
+        static Step of(Accessor accessor) {
+            final Field field = accessor.field;
+            final Shield shield = field.getAnnotation(Shield.class);
+            Annotation strategy = null;
+            Class<? extends ConditionProvider> condition = null;
+            for (Annotation annotation : field.getAnnotations()) {
+                if (null == strategy && null != annotation.annotationType().getAnnotation(Strategy.class)) {
+                    strategy = annotation;
+                }
+                final Condition conditionAnnotation = annotation.annotationType().getAnnotation(Condition.class);
+                if (null == condition && null != conditionAnnotation) {
+                    condition = conditionAnnotation.value();
+                }
+            }
+
+            Kind kind = Kind.VALUE;
+            if (null != field.getAnnotation(Entry.class)) {
+                final Class<?> type = field.getType();
+                if (TypeKit.isJavaBean(type)) {
+                    kind = Kind.BEAN;
+                } else if (TypeKit.isArray(type)) {
+                    kind = Kind.ARRAY;
+                } else if (TypeKit.isCollection(type)) {
+                    kind = Kind.COLLECTION;
+                }
+            }
+            if (kind == Kind.VALUE && null == shield && null == strategy) {
+                return null;
+            }
+            return new Step(accessor, kind, shield, strategy, condition);
+        }
+
+        /**
+         * 处理字段值,依次应用{@link Shield}和自定义注解的策略
+         */
+        void apply(Context context, Object object) {
+            if (null != this.shield && shieldCondition().valid(context)) {
+                context.setShield(this.shield);
+                this.accessor.set(object, shieldStrategy().build(this.accessor.get(object), context));
+            }
+            if (null != this.annotation && (null == this.conditionClass || condition().valid(context))) {
+                this.accessor.set(object, strategy().build(this.accessor.get(object), context));
+            }
+        }
+
+        /**
+         * 处理数组或集合中的单个值,{@link Shield}生效时不再应用自定义注解
+         */
+        Object mask(Context context, Object entry) {
+            if (null != this.shield && shieldCondition().valid(context)) {
+                context.setShield(this.shield);
+                return shieldStrategy().build(entry, context);
+            }
+            if (null != this.annotation && (null == this.conditionClass || condition().valid(context))) {
+                return strategy().build(entry, context);
+            }
+            return entry;
+        }
+
+        private ConditionProvider shieldCondition() {
+            return this.shieldCondition.create();
+        }
+
+        private StrategyProvider shieldStrategy() {
+            return this.shieldStrategy.create();
+        }
+
+        private ConditionProvider condition() {
+            return this.condition.create();
+        }
+
+        private StrategyProvider strategy() {
+            if (null == this.strategy) {
+                return Registry.require(this.annotation.annotationType());
+            }
+            return this.strategy.create();
+        }
+    }
+
+    /**
+     * 条件或策略的创建,构造方法在首次使用时解析
+     *
+     * @param <T> 条件或策略类型
+     */
+    private static final class Creator<T> {
+
+        private final Class<? extends T> clazz;
+        private volatile MethodHandle constructor;
+
+        Creator(Class<? extends T> clazz) {
+            this.clazz = clazz;
+        }
+
+        T create() {
+            MethodHandle constructor = this.constructor;
+            if (null == constructor) {
+                constructor = Plan.constructor(this.clazz);
+                if (null == constructor) {
+                    return ClassKit.newInstance(this.clazz);
+                }
+                this.constructor = constructor;
+            }
+            try {
+                return (T) constructor.invoke();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InstrumentException(e);
+            }
+        }
+    }
+
+}
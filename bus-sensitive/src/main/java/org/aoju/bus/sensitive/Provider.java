@@ -30,17 +30,10 @@ import com.alibaba.fastjson.TypeReference;
 import com.alibaba.fastjson.serializer.ContextValueFilter;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import org.aoju.bus.core.lang.Symbol;
-import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.*;
-import org.aoju.bus.sensitive.annotation.Condition;
 import org.aoju.bus.sensitive.annotation.*;
-import org.aoju.bus.sensitive.provider.ConditionProvider;
-import org.aoju.bus.sensitive.provider.StrategyProvider;
-import org.aoju.bus.sensitive.strategy.BuiltInStrategy;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.util.*;
 
 /**
@@ -53,11 +46,6 @@ import java.util.*;
  */
 public class Provider<T> {
 
-    /**
-     * 脱敏属性
-     */
-    private String[] value;
-
     /**
      * 深度复制
      * 1. 为了避免深拷贝要求用户实现 clone 和 序列化的相关接口
@@ -112,6 +100,7 @@ public class Provider<T> {
      * 原始对象不变,返回脱敏后的新对象
      * 1. 为什么这么设计？
      * 不能因为脱敏,就导致代码中的对象被改变 否则代码逻辑会出现问题
+     * 2. 克隆时只做浅拷贝,嵌套对象在修改前再拷贝,无法浅拷贝时使用{@link #clone(Object)}
      *
      * @param object     原始对象
      * @param annotation 注解信息
@@ -123,24 +112,32 @@ public class Provider<T> {
             return object;
         }
 
+        Set<String> names = null;
         if (ObjectKit.isNotEmpty(annotation)) {
             Sensitive sensitive = (Sensitive) annotation;
-            this.value = sensitive.field();
+            if (ArrayKit.isNotEmpty(sensitive.field())) {
+                names = new HashSet<>(Arrays.asList(sensitive.field()));
+            }
         }
 
         // 1. 初始化
-        final Class clazz = object.getClass();
+        final Plan plan = Plan.of(object.getClass());
         final Context context = new Context();
 
         if (clone) {
-            // 2. 深度复制,不改变原始对象
+            // 2. 复制,不改变原始对象
+            if (plan.isCopyable()) {
+                T copy = plan.copy(object);
+                plan.apply(context, copy, names, true);
+                return copy;
+            }
             T copy = clone(object);
-            handleClassField(context, copy, clazz);
+            plan.apply(context, copy, names, false);
             return copy;
         }
 
         // 3. 脱敏处理
-        handleClassField(context, object, clazz);
+        plan.apply(context, object, names, false);
         return object;
     }
 
@@ -157,262 +154,9 @@ public class Provider<T> {
             return JSON.toJSONString(object);
         }
 
-        if (ObjectKit.isNotEmpty(annotation)) {
-            Sensitive sensitive = (Sensitive) annotation;
-            this.value = sensitive.field();
-        }
-
         final Context context = new Context();
         ContextValueFilter filter = new Filter(context);
         return JSON.toJSONString(object, filter);
     }
 
-    /**
-     * 处理脱敏相关信息
-     *
-     * @param context    执行上下文
-     * @param copyObject 拷贝的新对象
-     * @param clazz      class 类型
-     */
-    private void handleClassField(final Context context,
-                                  final Object copyObject,
-                                  final Class clazz) {
-        // 每一个实体对应的字段,只对当前 clazz 生效
-        List<Field> fieldList = ClassKit.getAllFieldList(clazz);
-        context.setAllFieldList(fieldList);
-        context.setCurrentObject(copyObject);
-
-        try {
-            for (Field field : fieldList) {
-                if (ArrayKit.isNotEmpty(this.value)) {
-                    if (!Arrays.asList(this.value).contains(field.getName())) {
-                        continue;
-                    }
-                }
-                // 设置当前处理的字段
-                final Class fieldTypeClass = field.getType();
-                context.setCurrentField(field);
-
-                // 处理 @Entry 注解
-                Entry sensitiveEntry = field.getAnnotation(Entry.class);
-                if (ObjectKit.isNotNull(sensitiveEntry)) {
-                    if (TypeKit.isJavaBean(fieldTypeClass)) {
-                        // 为普通 javabean 对象
-                        final Object fieldNewObject = field.get(copyObject);
-                        handleClassField(context, fieldNewObject, fieldTypeClass);
-                    } else if (TypeKit.isArray(fieldTypeClass)) {
-                        // 为数组类型
-                        Object[] arrays = (Object[]) field.get(copyObject);
-                        if (ArrayKit.isNotEmpty(arrays)) {
-                            Object firstArrayEntry = arrays[0];
-                            final Class entryFieldClass = firstArrayEntry.getClass();
-
-                            //1. 如果需要特殊处理,则循环特殊处理
-                            if (needHandleEntryType(entryFieldClass)) {
-                                for (Object arrayEntry : arrays) {
-                                    handleClassField(context, arrayEntry, entryFieldClass);
-                                }
-                            } else {
-                                //2, 基础值,直接循环设置即可
-                                final int arrayLength = arrays.length;
-                                Object newArray = Array.newInstance(entryFieldClass, arrayLength);
-                                for (int i = 0; i < arrayLength; i++) {
-                                    Object entry = arrays[i];
-                                    Object result = handleSensitiveEntry(context, entry, field);
-                                    Array.set(newArray, i, result);
-                                }
-                                field.set(copyObject, newArray);
-                            }
-                        }
-                    } else if (TypeKit.isCollection(fieldTypeClass)) {
-                        // Collection 接口的子类
-                        final Collection<Object> entryCollection = (Collection<Object>) field.get(copyObject);
-                        if (CollKit.isNotEmpty(entryCollection)) {
-                            Object firstCollectionEntry = entryCollection.iterator().next();
-                            Class collectionEntryClass = firstCollectionEntry.getClass();
-
-                            //1. 如果需要特殊处理,则循环特殊处理
-                            if (needHandleEntryType(collectionEntryClass)) {
-                                for (Object collectionEntry : entryCollection) {
-                                    handleClassField(context, collectionEntry, collectionEntryClass);
-                                }
-                            } else {
-                                //2, 基础值,直接循环设置即可
-                                List<Object> newResultList = new ArrayList<>(entryCollection.size());
-                                for (Object entry : entryCollection) {
-                                    Object result = handleSensitiveEntry(context, entry, field);
-                                    newResultList.add(result);
-                                }
-                                field.set(copyObject, newResultList);
-                            }
-                        }
-                    } else {
-                        // 1. 常见的基本类型,不做处理
-                        // 2. 如果为 map,暂时不支持处理 后期可以考虑支持 value 的脱敏,或者 key 的脱敏
-                        // 3. 其他
-                        // 处理单个字段脱敏信息
-                        handleSensitive(context, copyObject, field);
-                    }
-                } else {
-                    handleSensitive(context, copyObject, field);
-                }
-            }
-
-        } catch (IllegalAccessException e) {
-            throw new InstrumentException(e);
-        }
-    }
-
-    /**
-     * 处理需脱敏的单个对象
-     * <p>
-     * 1. 为了简化操作,所有的自定义注解使用多个,不生效
-     * 2. 生效顺序如下：
-     * (1)Sensitive
-     * (2)系统内置自定义注解
-     * (3)用户自定义注解
-     *
-     * @param context 上下文
-     * @param entry   明细
-     * @param field   字段信息
-     * @return 处理后的信息
-     */
-    private Object handleSensitiveEntry(final Context context,
-                                        final Object entry,
-                                        final Field field) {
-        try {
-            //处理 @Field
-            Shield sensitive = field.getAnnotation(Shield.class);
-            if (ObjectKit.isNotNull(sensitive)) {
-                Class<? extends ConditionProvider> conditionClass = sensitive.condition();
-                ConditionProvider condition = conditionClass.newInstance();
-                if (condition.valid(context)) {
-                    context.setShield(sensitive);
-                    Class<? extends StrategyProvider> strategyClass = sensitive.strategy();
-                    StrategyProvider strategy = strategyClass.newInstance();
-                    return strategy.build(entry, context);
-                }
-            }
-
-            // 获取所有的注解
-            Annotation[] annotations = field.getAnnotations();
-            if (ArrayKit.isNotEmpty(annotations)) {
-                ConditionProvider condition = getCondition(annotations);
-                if (ObjectKit.isNull(condition)
-                        || condition.valid(context)) {
-                    StrategyProvider strategy = getStrategy(annotations);
-                    if (ObjectKit.isNotNull(strategy)) {
-                        return strategy.build(entry, context);
-                    }
-                }
-            }
-            return entry;
-        } catch (InstantiationException | IllegalAccessException e) {
-            throw new InstrumentException(e);
-        }
-    }
-
-    /**
-     * 处理脱敏信息
-     *
-     * @param context    上下文
-     * @param copyObject 复制的对象
-     * @param field      当前字段
-     */
-    private void handleSensitive(final Context context,
-                                 final Object copyObject,
-                                 final Field field) {
-        try {
-            //处理 @Field
-            Shield sensitive = field.getAnnotation(Shield.class);
-            if (sensitive != null) {
-                Class<? extends ConditionProvider> conditionClass = sensitive.condition();
-                ConditionProvider condition = conditionClass.newInstance();
-                if (condition.valid(context)) {
-                    context.setShield(sensitive);
-                    Class<? extends StrategyProvider> strategyClass = sensitive.strategy();
-                    StrategyProvider strategy = strategyClass.newInstance();
-                    final Object originalFieldVal = field.get(copyObject);
-                    final Object result = strategy.build(originalFieldVal, context);
-                    field.set(copyObject, result);
-                }
-            }
-
-            // 系统内置自定义注解的处理,获取所有的注解
-            Annotation[] annotations = field.getAnnotations();
-            if (ArrayKit.isNotEmpty(annotations)) {
-                ConditionProvider condition = getCondition(annotations);
-                if (ObjectKit.isNull(condition)
-                        || condition.valid(context)) {
-                    StrategyProvider strategy = getStrategy(annotations);
-                    if (ObjectKit.isNotNull(strategy)) {
-                        final Object originalFieldVal = field.get(copyObject);
-                        final Object result = strategy.build(originalFieldVal, context);
-                        field.set(copyObject, result);
-                    }
-                }
-            }
-        } catch (InstantiationException | IllegalAccessException e) {
-            throw new InstrumentException(e);
-        }
-    }
-
-    /**
-     * 获取策略
-     *
-     * @param annotations 字段对应注解
-     * @return 策略
-     */
-    private StrategyProvider getStrategy(final Annotation[] annotations) {
-        for (Annotation annotation : annotations) {
-            Strategy strategy = annotation.annotationType().getAnnotation(Strategy.class);
-            if (ObjectKit.isNotNull(strategy)) {
-                Class<? extends StrategyProvider> clazz = strategy.value();
-                if (BuiltInStrategy.class.equals(clazz)) {
-                    return Registry.require(annotation.annotationType());
-                } else {
-                    return ClassKit.newInstance(clazz);
-                }
-            }
-        }
-        return null;
-    }
-
-    /**
-     * 获取用户自定义条件
-     *
-     * @param annotations 字段上的注解
-     * @return 对应的用户自定义条件
-     */
-    private ConditionProvider getCondition(final Annotation[] annotations) {
-        for (Annotation annotation : annotations) {
-            Condition condition = annotation.annotationType().getAnnotation(Condition.class);
-            if (ObjectKit.isNotNull(condition)) {
-                Class<? extends ConditionProvider> clazz = condition.value();
-                return ClassKit.newInstance(clazz);
-            }
-        }
-        return null;
-    }
-
-    /**
-     * 需要特殊处理的列表/对象类型
-     *
-     * @param fieldTypeClass 字段类型
-     * @return 是否
-     */
-    private boolean needHandleEntryType(final Class fieldTypeClass) {
-        if (TypeKit.isBase(fieldTypeClass)
-                || TypeKit.isMap(fieldTypeClass)) {
-            return false;
-        }
-
-        if (TypeKit.isJavaBean(fieldTypeClass)
-                || TypeKit.isArray(fieldTypeClass)
-                || TypeKit.isCollection(fieldTypeClass)) {
-            return true;
-        }
-        return false;
-    }
-
 }
@@ -0,0 +1,448 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.sensitive;
+
+import org.aoju.bus.core.lang.Filter;
+
+import java.util.*;
+
+/**
+ * 编译后的单词匹配器,基于AC自动机(Aho-Corasick)
+ * 单词树编译为基本类型数组表示的状态机,状态的子节点按字符有序连续存放,根节点使用直接寻址表,
+ * 匹配时对文本只扫描一遍,失配时沿失败指针回退
+ * 停顿字符过滤、密集匹配和贪婪匹配的结果与{@link WordTree}一致
+ * 实例创建后不可变,可在多线程间共享,更换词库时重新创建实例即可
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public class WordMatcher {
+
+    /**
+     * 每个状态的子节点在{@link #labels}和{@link #targets}中的开始位置,长度为状态数+1
+     */
+    private final int[] first;
+    /**
+     * 子节点对应的字符,每个状态内有序
+     */
+    private final char[] labels;
+    /**
+     * 子节点状态
+     */
+    private final int[] targets;
+    /**
+     * 根节点的直接寻址表,0表示无此字符
+     */
+    private final int[] roots;
+    /**
+     * 失败指针
+     */
+    private final int[] fails;
+    /**
+     * 以该状态结尾的单词长度(不含停顿字符),0表示不是单词结尾
+     */
+    private final int[] outputs;
+    /**
+     * 沿失败指针最近的单词结尾状态,0表示无
+     */
+    private final int[] dicts;
+    /**
+     * 参与匹配的字符,按位存储
+     */
+    private final long[] accepts;
+    /**
+     * 最长单词长度(不含停顿字符)
+     */
+    private final int maxLength;
+
+    /**
+     * 构造,使用{@link StopChar}过滤停顿字符
+     *
+     * @param words 单词集合
+     */
+    public WordMatcher(Collection<String> words) {
+        this(words, StopChar::isNotStopChar);
+    }
+
+    /**
+     * 构造
+     *
+     * @param words      单词集合
+     * @param charFilter 字符过滤规则,当accept为false时,此字符不参与匹配
+     */
+    public WordMatcher(Collection<String> words, Filter<Character> charFilter) {
+        this.accepts = new long[(Character.MAX_VALUE + 1) >>> 6];
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            if (charFilter.accept((char) c)) {
+                this.accepts[c >>> 6] |= 1L << c;
+            }
+        }
+
+        // 过滤停顿字符后排序,相同前缀的单词相邻,子节点字符有序
+        final Set<String> set = new HashSet<>();
+        final StringBuilder builder = new StringBuilder();
+        for (String word : words) {
+            if (null == word) {
+                continue;
+            }
+            builder.setLength(0);
+            for (int i = 0; i < word.length(); i++) {
+                final char c = word.charAt(i);
+                if (accept(c)) {
+                    builder.append(c);
+                }
+            }
+            if (builder.length() > 0) {
+                set.add(builder.toString());
+            }
+        }
+        final String[] sorted = set.toArray(new String[0]);
+        Arrays.sort(sorted);
+
+        // 按层序建树,每个节点对应有序单词中的一个区间
+        int capacity = Math.max(16, sorted.length * 2);
+        int[] first = new int[capacity + 1];
+        int[] outputs = new int[capacity];
+        int[] lows = new int[capacity];
+        int[] highs = new int[capacity];
+        char[] labels = new char[capacity];
+        int[] targets = new int[capacity];
+        final int[] roots = new int[Character.MAX_VALUE + 1];
+        int maxLength = 0;
+
+        highs[0] = sorted.length;
+        int nodes = 1;
+        int edges = 0;
+        int depth = 0;
+        int depthEnd = 1;
+        for (int node = 0; node < nodes; node++) {
+            if (node == depthEnd) {
+                depth++;
+                depthEnd = nodes;
+            }
+            first[node] = edges;
+            int k = lows[node];
+            final int high = highs[node];
+            if (k < high && sorted[k].length() == depth) {
+                outputs[node] = depth;
+                maxLength = depth;
+                k++;
+            }
+            while (k < high) {
+                final char c = sorted[k].charAt(depth);
+                int m = k + 1;
+                while (m < high && sorted[m].charAt(depth) == c) {
+                    m++;
+                }
+                if (nodes == outputs.length) {
+                    capacity = nodes * 2;
+                    first = Arrays.copyOf(first, capacity + 1);
+                    outputs = Arrays.copyOf(outputs, capacity);
+                    lows = Arrays.copyOf(lows, capacity);
+                    highs = Arrays.copyOf(highs, capacity);
+                }
+                if (edges == labels.length) {
+                    labels = Arrays.copyOf(labels, edges * 2);
+                    targets = Arrays.copyOf(targets, edges * 2);
+                }
+                lows[nodes] = k;
+                highs[nodes] = m;
+                labels[edges] = c;
+                targets[edges] = nodes;
+                if (node == 0) {
+                    roots[c] = nodes;
+                }
+                edges++;
+                nodes++;
+                k = m;
+            }
+        }
+        first[nodes] = edges;
+
+        this.first = Arrays.copyOf(first, nodes + 1);
+        this.labels = Arrays.copyOf(labels, edges);
+        this.targets = Arrays.copyOf(targets, edges);
+        this.outputs = Arrays.copyOf(outputs, nodes);
+        this.roots = roots;
+        this.maxLength = maxLength;
+        this.fails = new int[nodes];
+        this.dicts = new int[nodes];
+
+        // 层序计算失败指针,父节点及更浅的节点已先行计算
+        for (int node = 0; node < nodes; node++) {
+            for (int e = this.first[node]; e < this.first[node + 1]; e++) {
+                final int child = this.targets[e];
+                int fail = 0;
+                if (node != 0) {
+                    fail = next(this.fails[node], this.labels[e]);
+                }
+                this.fails[child] = fail;
+                this.dicts[child] = this.outputs[fail] > 0 ? fail : this.dicts[fail];
+            }
+        }
+    }
+
+    /**
+     * 是否没有任何单词
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return this.maxLength == 0;
+    }
+
+    /**
+     * 指定文本是否包含词库中的词
+     *
+     * @param text 被检查的文本
+     * @return 是否包含
+     */
+    public boolean isMatch(String text) {
+        if (null == text || isEmpty()) {
+            return false;
+        }
+        int state = 0;
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (accept(c)) {
+                state = next(state, c);
+                if (this.outputs[state] > 0 || this.dicts[state] > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获得第一个匹配的关键字
+     *
+     * @param text 被检查的文本
+     * @return 匹配到的关键字
+     */
+    public String match(String text) {
+        if (null == text) {
+            return null;
+        }
+        final List<String> matchAll = matchAll(text, 1);
+        return matchAll.isEmpty() ? null : matchAll.get(0);
+    }
+
+    /**
+     * 找出所有匹配的关键字
+     *
+     * @param text 被检查的文本
+     * @return 匹配的词列表
+     */
+    public List<String> matchAll(String text) {
+        return matchAll(text, -1);
+    }
+
+    /**
+     * 找出所有匹配的关键字
+     *
+     * @param text  被检查的文本
+     * @param limit 限制匹配个数
+     * @return 匹配的词列表
+     */
+    public List<String> matchAll(String text, int limit) {
+        return matchAll(text, limit, false, false);
+    }
+
+    /**
+     * 找出所有匹配的关键字,结果按开始位置排列,同一位置按长度排列
+     * 密集匹配原则：假如关键词有 ab,b，文本是abab，将匹配 [ab,b,ab]
+     * 贪婪匹配（最长匹配）原则：假如关键字a,ab，最长匹配将匹配[a, ab]
+     *
+     * @param text           被检查的文本
+     * @param limit          限制匹配个数
+     * @param isDensityMatch 是否使用密集匹配原则
+     * @param isGreedMatch   是否使用贪婪匹配（最长匹配）原则
+     * @return 匹配的词列表
+     */
+    public List<String> matchAll(String text, int limit, boolean isDensityMatch, boolean isGreedMatch) {
+        if (null == text) {
+            return null;
+        }
+        final Matching matching = new Matching(text, limit, isDensityMatch, isGreedMatch);
+        if (isEmpty()) {
+            return matching.found;
+        }
+
+        int state = 0;
+        // 参与匹配的字符序号
+        int index = -1;
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (false == accept(c)) {
+                continue;
+            }
+            index++;
+            matching.positions[index % this.maxLength] = i;
+            state = next(state, c);
+            for (int s = this.outputs[state] > 0 ? state : this.dicts[state]; s > 0; s = this.dicts[s]) {
+                matching.add(index - this.outputs[s] + 1, this.outputs[s]);
+            }
+            // 超出最长单词长度的位置不会再有新的匹配,可以确定结果
+            if (matching.select(index - this.maxLength + 1)) {
+                return matching.found;
+            }
+        }
+        matching.select(index);
+        return matching.found;
+    }
+
+    /**
+     * 字符是否参与匹配
+     *
+     * @param c 字符
+     * @return 是否参与匹配
+     */
+    private boolean accept(char c) {
+        return (this.accepts[c >>> 6] & (1L << c)) != 0;
+    }
+
+    /**
+     * 状态转移,失配时沿失败指针回退
+     *
+     * @param state 当前状态
+     * @param c     字符
+     * @return 下一个状态
+     */
+    private int next(int state, char c) {
+        while (state != 0) {
+            int low = this.first[state];
+            int high = this.first[state + 1] - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final char label = this.labels[mid];
+                if (label < c) {
+                    low = mid + 1;
+                } else if (label > c) {
+                    high = mid - 1;
+                } else {
+                    return this.targets[mid];
+                }
+            }
+            state = this.fails[state];
+        }
+        return this.roots[c];
+    }
+
+    /**
+     * 一次匹配的状态,按开始位置缓存尚未确定的匹配
+     */
+    private class Matching {
+
+        private final String text;
+        private final int limit;
+        private final boolean isDensityMatch;
+        private final boolean isGreedMatch;
+        private final List<String> found = new ArrayList<>();
+        /**
+         * 最近{@link #maxLength}个参与匹配字符在文本中的位置
+         */
+        private final int[] positions = new int[maxLength];
+        /**
+         * 按开始位置缓存的匹配长度,同一开始位置的长度递增
+         */
+        private final int[][] lengths = new int[maxLength][];
+        private final int[] counts = new int[maxLength];
+        /**
+         * 下一个待确定的开始位置
+         */
+        private int cursor;
+
+        Matching(String text, int limit, boolean isDensityMatch, boolean isGreedMatch) {
+            this.text = text;
+            this.limit = limit;
+            this.isDensityMatch = isDensityMatch;
+            this.isGreedMatch = isGreedMatch;
+        }
+
+        /**
+         * 缓存一个匹配
+         *
+         * @param start  开始位置
+         * @param length 长度
+         */
+        void add(int start, int length) {
+            if (start < this.cursor) {
+                // 已被前面的匹配跳过
+                return;
+            }
+            final int slot = start % maxLength;
+            int[] array = this.lengths[slot];
+            if (null == array) {
+                array = this.lengths[slot] = new int[2];
+            } else if (this.counts[slot] == array.length) {
+                array = this.lengths[slot] = Arrays.copyOf(array, array.length * 2);
+            }
+            array[this.counts[slot]++] = length;
+        }
+
+        /**
+         * 确定开始位置不大于{@code until}的匹配
+         *
+         * @param until 开始位置
+         * @return 是否已达到限制个数
+         */
+        boolean select(int until) {
+            while (this.cursor <= until) {
+                final int slot = this.cursor % maxLength;
+                final int count = this.counts[slot];
+                if (count == 0) {
+                    this.cursor++;
+                    continue;
+                }
+                final int taken = this.isGreedMatch ? count : 1;
+                int end = this.cursor;
+                for (int k = 0; k < taken; k++) {
+                    end = this.cursor + this.lengths[slot][k] - 1;
+                    this.found.add(this.text.substring(this.positions[slot], this.positions[end % maxLength] + 1));
+                    if (this.limit > 0 && this.found.size() >= this.limit) {
+                        return true;
+                    }
+                }
+                this.counts[slot] = 0;
+                if (this.isDensityMatch) {
+                    this.cursor++;
+                } else {
+                    // 非密集匹配,跳过匹配到的词
+                    for (int start = this.cursor + 1; start <= end; start++) {
+                        this.counts[start % maxLength] = 0;
+                    }
+                    this.cursor = end + 1;
+                }
+            }
+            return false;
+        }
+    }
+
+}
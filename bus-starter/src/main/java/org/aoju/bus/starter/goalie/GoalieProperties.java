@@ -61,6 +61,14 @@ public class GoalieProperties {
             private String key;
             private String type;
             private String offset;
+            /**
+             * 是否流式加密响应,不再整体缓冲报文
+             */
+            private boolean streaming;
+            /**
+             * 流式加密时,报文超过该大小(字节)或大小未知时在弹性线程池中加密
+             */
+            private long threshold = 64 * 1024;
         }
 
         @Data
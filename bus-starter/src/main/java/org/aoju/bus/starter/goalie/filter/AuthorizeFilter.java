@@ -26,15 +26,12 @@
 package org.aoju.bus.starter.goalie.filter;
 
 import org.aoju.bus.base.consts.ErrorCode;
-import org.aoju.bus.base.entity.OAuth2;
 import org.aoju.bus.core.lang.exception.BusinessException;
-import org.aoju.bus.core.toolkit.BeanKit;
 import org.aoju.bus.goalie.Assets;
 import org.aoju.bus.goalie.Athlete;
 import org.aoju.bus.goalie.Consts;
 import org.aoju.bus.goalie.Context;
 import org.aoju.bus.goalie.metric.Authorize;
-import org.aoju.bus.goalie.metric.Delegate;
 import org.aoju.bus.starter.goalie.GoalieConfiguration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -48,10 +45,8 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * 访问鉴权
@@ -79,21 +74,18 @@ public class AuthorizeFilter implements WebFilter {
 
         String method = params.get(Consts.METHOD);
         String version = params.get(Consts.VERSION);
-        List<Assets> assetsList = athlete.getAssets().parallelStream()
-            .filter(asset -> Objects.equals(method, asset.getMethod())).collect(Collectors.toList());
-
-        if (assetsList.size() < 1) {
+        Map<String, Assets> versions = athlete.getAssets(method);
+        if (null == versions) {
             return Mono.error(new BusinessException(ErrorCode.EM_100103));
         }
 
-        Assets assets = assetsList.parallelStream()
-            .filter(c -> Objects.equals(version, c.getVersion())).findFirst()
-            .orElseThrow(() -> new BusinessException(ErrorCode.EM_100102));
+        Assets assets = versions.get(version);
+        if (null == assets) {
+            throw new BusinessException(ErrorCode.EM_100102);
+        }
 
         //校验方法
         checkMethod(exchange.getRequest(), assets);
-        //校验参数
-        checkTokenIfNecessary(exchange.getRequest(), assets, params);
         //填充Ip
         fillXParam(exchange, params);
 
@@ -101,7 +93,9 @@ public class AuthorizeFilter implements WebFilter {
         cleanParam(params);
         context.setAssets(assets);
 
-        return chain.filter(exchange);
+        //校验 token 并填充参数
+        return checkTokenIfNecessary(exchange.getRequest(), assets, params)
+            .then(Mono.defer(() -> chain.filter(exchange)));
     }
 
     /**
@@ -129,20 +123,24 @@ public class AuthorizeFilter implements WebFilter {
      * @param request 请求
      * @param assets  路由
      * @param params  参数
+     * @return 校验结果
      */
-    private void checkTokenIfNecessary(ServerHttpRequest request, Assets assets, Map<String, String> params) {
+    private Mono<Void> checkTokenIfNecessary(ServerHttpRequest request, Assets assets, Map<String, String> params) {
         // 访问授权校验
-        if (assets.isToken()) {
-            String token = request.getHeaders().getFirst(Consts.X_ACCESS_TOKEN);
-            Delegate delegate = authorize.authorize(token);
-            if (delegate.isOk()) {
-                OAuth2 auth2 = delegate.getOAuth2();
-                Map<String, Object> map = BeanKit.beanToMap(auth2, false, true);
-                map.forEach((k, v) -> params.put(k, v.toString()));
-            } else {
-                throw new BusinessException(delegate.getMessage().errcode, delegate.getMessage().errmsg);
-            }
+        if (!assets.isToken()) {
+            return Mono.empty();
         }
+        String token = request.getHeaders().getFirst(Consts.X_ACCESS_TOKEN);
+        // 未返回认证结果时拒绝访问
+        return authorize.authorizeAsync(token)
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new BusinessException(ErrorCode.EM_100100))))
+                .flatMap(delegate -> {
+                    if (delegate.isOk()) {
+                        params.putAll(delegate.getParams());
+                        return Mono.<Void>empty();
+                    }
+                    return Mono.error(new BusinessException(delegate.getMessage().errcode, delegate.getMessage().errmsg));
+                });
     }
 
     /**
@@ -28,7 +28,9 @@ package org.aoju.bus.starter.goalie.filter;
 import com.alibaba.fastjson.JSON;
 import org.aoju.bus.base.entity.Message;
 import org.aoju.bus.core.lang.Charset;
+import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.ObjectKit;
+import org.aoju.bus.crypto.Builder;
 import org.aoju.bus.crypto.Mode;
 import org.aoju.bus.crypto.Padding;
 import org.aoju.bus.crypto.symmetric.AES;
@@ -43,6 +45,7 @@ import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
@@ -50,8 +53,12 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.PostConstruct;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 
@@ -71,11 +78,15 @@ public class EncryptFilter implements WebFilter {
     GoalieProperties.Server.Encrypt encrypt;
 
     private Symmetric symmetric;
+    private SecretKeySpec secretKey;
+    private IvParameterSpec iv;
 
     @PostConstruct
     public void init() {
         if ("AES".equals(encrypt.getType())) {
             symmetric = new AES(Mode.CBC, Padding.PKCS7Padding, encrypt.getKey().getBytes(), encrypt.getOffset().getBytes());
+            secretKey = new SecretKeySpec(encrypt.getKey().getBytes(), "AES");
+            iv = new IvParameterSpec(encrypt.getOffset().getBytes());
         }
     }
 
@@ -102,11 +113,29 @@ public class EncryptFilter implements WebFilter {
         }
     }
 
+    /**
+     * 为每个响应创建独立的加密器,与{@link #symmetric}的算法、密钥和偏移量一致
+     *
+     * @return 加密器
+     */
+    private Cipher createCipher() {
+        Cipher cipher = Builder.createCipher("AES/" + Mode.CBC.name() + "/" + Padding.PKCS7Padding.name());
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, iv);
+        } catch (Exception e) {
+            throw new InstrumentException(e);
+        }
+        return cipher;
+    }
+
     private ServerHttpResponseDecorator process(ServerWebExchange exchange) {
         return new ServerHttpResponseDecorator(exchange.getResponse()) {
             @Override
             public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
                 boolean isSign = Context.get(exchange).getAssets().isSign();
+                if (isSign && encrypt.isStreaming() && "AES".equals(encrypt.getType())) {
+                    return super.writeWith(stream(body));
+                }
                 if (isSign) {
                     Flux<? extends DataBuffer> flux = Flux.from(body);
                     return super.writeWith(DataBufferUtils.join(flux).map(dataBuffer -> {
@@ -119,6 +148,29 @@ public class EncryptFilter implements WebFilter {
                 }
                 return super.writeWith(body);
             }
+
+            /**
+             * 流式加密:逐块加密data字段,不缓冲、不重新解析报文
+             */
+            private Flux<DataBuffer> stream(Publisher<? extends DataBuffer> body) {
+                HttpHeaders headers = getDelegate().getHeaders();
+                long length = headers.getContentLength();
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+
+                StreamingEncryptor encryptor = new StreamingEncryptor(createCipher());
+                Flux<? extends DataBuffer> flux = Flux.from(body);
+                if (length < 0 || length > encrypt.getThreshold()) {
+                    flux = flux.publishOn(Schedulers.boundedElastic());
+                }
+                return flux.map(dataBuffer -> {
+                    try {
+                        return bufferFactory().wrap(encryptor.update(dataBuffer.asByteBuffer()));
+                    } finally {
+                        DataBufferUtils.release(dataBuffer);
+                    }
+                }).concatWith(Mono.fromSupplier(() -> bufferFactory().wrap(encryptor.finish())))
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+            }
         };
     }
 
@@ -0,0 +1,292 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.starter.goalie.filter;
+
+import org.aoju.bus.core.lang.exception.InstrumentException;
+
+import javax.crypto.Cipher;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 流式加密响应报文中的{@code data}字段
+ * 逐字节扫描JSON,顶层{@code data}字段以外的内容原样输出;{@code data}的值(原始JSON文本)
+ * 分块送入加密器,密文按3字节对齐分块进行Base64编码后作为JSON字符串输出,
+ * 与先整体加密再整体编码的结果相同。值为{@code null}时不加密
+ * 每个响应使用一个实例,非线程安全
+ *
+ * @author Justubborn
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+final class StreamingEncryptor {
+
+    private static final byte[] FIELD = {'d', 'a', 't', 'a'};
+
+    private final Cipher cipher;
+    private final Base64.Encoder encoder = Base64.getEncoder();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+    /**
+     * 密文中尚未凑够3字节、等待编码的部分
+     */
+    private byte[] carry = new byte[0];
+
+    private State state = State.SCAN;
+    /**
+     * 扫描位置的嵌套层级,顶层对象内部为1
+     */
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private boolean expectKey;
+    private boolean keyString;
+    /**
+     * 当前字段名与"data"已匹配的长度,-1表示不匹配
+     */
+    private int keyMatched;
+    private boolean dataKey;
+    /**
+     * data值内部的嵌套层级
+     */
+    private int valueDepth;
+    private boolean valueIsString;
+    private boolean valueIsContainer;
+
+    StreamingEncryptor(Cipher cipher) {
+        this.cipher = cipher;
+    }
+
+    /**
+     * 处理一块响应数据
+     *
+     * @param buffer 响应数据
+     * @return 需要输出的数据
+     */
+    byte[] update(ByteBuffer buffer) {
+        byte[] chunk = new byte[buffer.remaining()];
+        buffer.get(chunk);
+        if (state == State.PASS) {
+            return chunk;
+        }
+
+        out.reset();
+        int passFrom = 0;
+        int valueFrom = 0;
+        for (int i = 0; i < chunk.length && state != State.PASS; i++) {
+            byte b = chunk[i];
+            if (state == State.SCAN) {
+                if (scan(b)) {
+                    state = State.BEFORE_VALUE;
+                }
+                continue;
+            }
+            if (state == State.BEFORE_VALUE) {
+                if (isWhitespace(b)) {
+                    continue;
+                }
+                if (b == 'n') {
+                    // null不加密
+                    state = State.PASS;
+                    continue;
+                }
+                out.write(chunk, passFrom, i - passFrom);
+                out.write('"');
+                state = State.VALUE;
+                valueFrom = i;
+                valueIsString = b == '"';
+                valueIsContainer = b == '{' || b == '[';
+                valueDepth = 0;
+                inString = false;
+                escaped = false;
+            }
+            if (valueEnds(b)) {
+                int end = valueIsString || valueIsContainer ? i + 1 : i;
+                encrypt(chunk, valueFrom, end - valueFrom);
+                finishValue();
+                passFrom = end;
+                state = State.PASS;
+            }
+        }
+
+        if (state == State.VALUE) {
+            encrypt(chunk, valueFrom, chunk.length - valueFrom);
+        } else {
+            out.write(chunk, passFrom, chunk.length - passFrom);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 响应结束时调用,输出剩余数据
+     *
+     * @return 需要输出的数据
+     */
+    byte[] finish() {
+        out.reset();
+        if (state == State.VALUE) {
+            // 报文被截断,仍然输出完整的密文
+            finishValue();
+            state = State.PASS;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 扫描字段名,遇到顶层data字段后的冒号时返回true
+     */
+    private boolean scan(byte b) {
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+                keyMatched = -1;
+            } else if (b == '\\') {
+                escaped = true;
+            } else if (b == '"') {
+                inString = false;
+                dataKey = keyString && keyMatched == FIELD.length;
+                keyString = false;
+            } else if (keyString && keyMatched >= 0) {
+                keyMatched = keyMatched < FIELD.length && FIELD[keyMatched] == b ? keyMatched + 1 : -1;
+            }
+            return false;
+        }
+        switch (b) {
+            case '"':
+                inString = true;
+                keyString = depth == 1 && expectKey;
+                keyMatched = 0;
+                expectKey = false;
+                return false;
+            case '{':
+            case '[':
+                depth++;
+                expectKey = depth == 1 && b == '{';
+                return false;
+            case '}':
+            case ']':
+                depth--;
+                return false;
+            case ',':
+                expectKey = depth == 1;
+                return false;
+            case ':':
+                boolean found = depth == 1 && dataKey;
+                dataKey = false;
+                return found;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 判断{@code b}是否结束了data的值,字符串和对象以最后一个字节结束,其它值以其后的分隔符结束
+     */
+    private boolean valueEnds(byte b) {
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (b == '\\') {
+                escaped = true;
+            } else if (b == '"') {
+                inString = false;
+                return valueIsString;
+            }
+            return false;
+        }
+        switch (b) {
+            case '"':
+                inString = true;
+                return false;
+            case '{':
+            case '[':
+                valueDepth++;
+                return false;
+            case '}':
+            case ']':
+                return valueDepth == 0 || --valueDepth == 0;
+            case ',':
+                return valueDepth == 0;
+            default:
+                return valueDepth == 0 && isWhitespace(b);
+        }
+    }
+
+    private void encrypt(byte[] data, int offset, int length) {
+        if (length > 0) {
+            encode(cipher.update(data, offset, length), false);
+        }
+    }
+
+    private void finishValue() {
+        try {
+            encode(cipher.doFinal(), true);
+        } catch (Exception e) {
+            throw new InstrumentException(e);
+        }
+        out.write('"');
+    }
+
+    private void encode(byte[] encrypted, boolean last) {
+        int length = null == encrypted ? 0 : encrypted.length;
+        byte[] all = new byte[carry.length + length];
+        System.arraycopy(carry, 0, all, 0, carry.length);
+        if (length > 0) {
+            System.arraycopy(encrypted, 0, all, carry.length, length);
+        }
+        int aligned = last ? all.length : all.length - all.length % 3;
+        if (aligned > 0) {
+            byte[] encoded = encoder.encode(aligned == all.length ? all : Arrays.copyOf(all, aligned));
+            out.write(encoded, 0, encoded.length);
+        }
+        carry = Arrays.copyOfRange(all, aligned, all.length);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private enum State {
+        /**
+         * 查找顶层data字段
+         */
+        SCAN,
+        /**
+         * 已找到data字段的冒号,等待值开始
+         */
+        BEFORE_VALUE,
+        /**
+         * 正在加密data字段的值
+         */
+        VALUE,
+        /**
+         * data字段已处理或不需要处理,其余内容原样输出
+         */
+        PASS
+    }
+
+}
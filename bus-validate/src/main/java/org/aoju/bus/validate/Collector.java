@@ -90,10 +90,10 @@ public class Collector {
     public List<Collector> getResult() {
         List<Collector> list = new ArrayList<>(16);
         for (Collector collector : this.result) {
-            if (collector instanceof Collector) {
-                list.addAll(collector.getResult());
+            if (null == collector.result) {
+                list.add(collector);
             } else {
-                throw new IllegalArgumentException("不支持收集的校验结果对象：" + collector);
+                list.addAll(collector.getResult());
             }
         }
         return list;
@@ -104,7 +104,15 @@ public class Collector {
     }
 
     public boolean isPass() {
-        return this.result.stream().allMatch(Collector::isPass);
+        if (null == this.result) {
+            return this.pass;
+        }
+        for (Collector collector : this.result) {
+            if (!collector.isPass()) {
+                return false;
+            }
+        }
+        return true;
     }
 
 }
@@ -0,0 +1,360 @@
+/*********************************************************************************
+ *                                                                               *
+ * The MIT License (MIT)                                                         *
+ *                                                                               *
+ * Copyright (c) 2015-2020 aoju.org and other contributors.                      *
+ *                                                                               *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy  *
+ * of this software and associated documentation files (the "Software"), to deal *
+ * in the Software without restriction, including without limitation the rights  *
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell     *
+ * copies of the Software, and to permit persons to whom the Software is         *
+ * furnished to do so, subject to the following conditions:                      *
+ *                                                                               *
+ * The above copyright notice and this permission notice shall be included in    *
+ * all copies or substantial portions of the Software.                           *
+ *                                                                               *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR    *
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,      *
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE   *
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER        *
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, *
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN     *
+ * THE SOFTWARE.                                                                 *
+ *                                                                               *
+ ********************************************************************************/
+package org.aoju.bus.validate;
+
+import org.aoju.bus.core.lang.exception.InstrumentException;
+import org.aoju.bus.core.lang.exception.ValidateException;
+import org.aoju.bus.core.toolkit.ClassKit;
+import org.aoju.bus.core.toolkit.ObjectKit;
+import org.aoju.bus.core.toolkit.StringKit;
+import org.aoju.bus.validate.annotation.*;
+import org.aoju.bus.validate.validators.Matcher;
+import org.aoju.bus.validate.validators.Property;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 校验计划
+ * 每个类只解析一次:类上的校验注解、是否校验内部属性以及各字段的读取方式和注解;
+ * 每个校验注解也只解析一次,校验时直接据此生成{@link Property}
+ *
+ * @author Kimi Liu
+ * @version 6.1.6
+ * @since JDK 1.8+
+ */
+public final class Plan {
+
+    private static final Map<Class<?>, Plan> PLAN_CACHE = new ConcurrentHashMap<>();
+    private static final Map<Class<? extends Annotation>, Boolean> COMPLEX_CACHE = new ConcurrentHashMap<>();
+    private static final Map<Annotation, Rule> RULE_CACHE = new ConcurrentHashMap<>();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<?> clazz;
+    /**
+     * 类上的校验注解
+     */
+    private final List<Annotation> annotations;
+    /**
+     * 类上是否标记了{@link Inside}
+     */
+    private final boolean inside;
+    /**
+     * 所有字段,包含父类字段,仅在校验对象内部时才解析
+     */
+    private volatile Entry[] entries;
+
+    private Plan(Class<?> clazz) {
+        this.clazz = clazz;
+        final List<Annotation> list = new ArrayList<>();
+        for (Annotation annotation : clazz.getAnnotations()) {
+            if (isComplex(annotation.annotationType())) {
+                list.add(annotation);
+            }
+        }
+        this.annotations = Collections.unmodifiableList(list);
+        this.inside = null != clazz.getAnnotation(Inside.class);
+    }
+
+    /**
+     * 获取类的校验计划
+     *
+     * @param clazz 类
+     * @return 校验计划
+     */
+    public static Plan of(Class<?> clazz) {
+        return PLAN_CACHE.computeIfAbsent(clazz, Plan::new);
+    }
+
+    /**
+     * 是否为校验器注解,即标记了{@link Complex}
+     *
+     * @param annotationType 注解类型
+     * @return the boolean
+     */
+    public static boolean isComplex(Class<? extends Annotation> annotationType) {
+        return COMPLEX_CACHE.computeIfAbsent(annotationType, type -> null != type.getAnnotation(Complex.class));
+    }
+
+    /**
+     * 获取校验注解的解析结果
+     *
+     * @param annotation 校验注解
+     * @return 解析结果
+     */
+    public static Rule rule(Annotation annotation) {
+        Rule rule = RULE_CACHE.get(annotation);
+        if (null == rule) {
+            rule = new Rule(annotation);
+            RULE_CACHE.putIfAbsent(annotation, rule);
+        }
+        return rule;
+    }
+
+    /**
+     * 类上的校验注解
+     *
+     * @return 校验注解
+     */
+    public List<Annotation> getAnnotations() {
+        return this.annotations;
+    }
+
+    /**
+     * 类上是否标记了{@link Inside}
+     *
+     * @return the boolean
+     */
+    public boolean isInside() {
+        return this.inside;
+    }
+
+    /**
+     * 类上既没有校验注解也没有标记{@link Inside}
+     *
+     * @return the boolean
+     */
+    public boolean isEmpty() {
+        return this.annotations.isEmpty() && !this.inside;
+    }
+
+    /**
+     * 所有字段,包含父类字段
+     *
+     * @return 字段信息
+     */
+    public Entry[] getEntries() {
+        Entry[] entries = this.entries;
+        if (null == entries) {
+            final Field[] fields = ClassKit.getAllFields(this.clazz);
+            entries = new Entry[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                entries[i] = new Entry(fields[i]);
+            }
+            this.entries = entries;
+        }
+        return entries;
+    }
+
+    /**
+     * 字段信息
+     */
+    public static final class Entry {
+
+        private final String name;
+        private final MethodHandle getter;
+        private final Annotation[] annotations;
+        /**
+         * 字段上是否标记了{@link Inside}
+         */
+        private final boolean inside;
+
+        Entry(Field field) {
+            this.name = field.getName();
+            this.annotations = field.getDeclaredAnnotations();
+            this.inside = Arrays.stream(this.annotations).anyMatch(an -> an instanceof Inside);
+            field.setAccessible(true);
+            try {
+                MethodHandle getter = LOOKUP.unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    getter = MethodHandles.dropArguments(getter.asType(MethodType.methodType(Object.class)), 0, Object.class);
+                }
+                this.getter = getter.asType(GETTER);
+            } catch (IllegalAccessException e) {
+                throw new InstrumentException("无法校验指定字段", e);
+            }
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public Annotation[] getAnnotations() {
+            return this.annotations;
+        }
+
+        public boolean isInside() {
+            return this.inside;
+        }
+
+        /**
+         * 读取字段值
+         *
+         * @param target 对象
+         * @return 字段值
+         */
+        public Object get(Object target) {
+            try {
+                return (Object) this.getter.invokeExact(target);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InstrumentException("无法校验指定字段", e);
+            }
+        }
+    }
+
+    /**
+     * 校验注解的解析结果,与被校验的值无关的部分
+     */
+    public static final class Rule {
+
+        private final Annotation annotation;
+        private final String[] group;
+        private final String errmsg;
+        private final String errcode;
+        /**
+         * 注解上指定的属性名称,为空表示沿用当前属性名称
+         */
+        private final String field;
+        private final boolean array;
+        private final Class<?> clazz;
+        private final String name;
+        private final Class<? extends ValidateException> exception;
+        /**
+         * 由{@link Filler}标记的插值参数
+         */
+        private final Map<String, Object> param;
+        /**
+         * 注解上的父级校验注解
+         */
+        private final Annotation[] parents;
+        /**
+         * 校验器,注册中心中找不到时为空
+         */
+        private final Matcher matcher;
+
+        Rule(Annotation annotation) {
+            final Class<? extends Annotation> annotationType = annotation.annotationType();
+            try {
+                this.annotation = annotation;
+                this.group = (String[]) annotationType.getMethod(Builder.GROUP).invoke(annotation);
+                this.errmsg = (String) annotationType.getMethod(Builder.ERRMSG).invoke(annotation);
+                this.errcode = (String) annotationType.getMethod(Builder.ERRCODE).invoke(annotation);
+                final String name = (String) annotationType.getMethod(Builder.FIELD).invoke(annotation);
+                this.field = Builder.DEFAULT_FIELD.equals(name) ? null : name;
+
+                final Map<String, Object> param = new HashMap<>();
+                for (Method m : annotationType.getDeclaredMethods()) {
+                    Filler filler = m.getAnnotation(Filler.class);
+                    if (ObjectKit.isNotEmpty(filler)) {
+                        Object invoke = m.invoke(annotation);
+                        if (m.getReturnType().isArray()) {
+                            param.put(filler.value(), Arrays.toString((Object[]) invoke));
+                        } else {
+                            param.put(filler.value(), invoke);
+                        }
+                    }
+                }
+                this.param = Collections.unmodifiableMap(param);
+            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+                throw new InstrumentException("非法的校验注解,没有定义通用的校验属性:" + annotationType.getName(), e);
+            }
+
+            boolean array = false;
+            Class<?> clazz = null;
+            String name = null;
+            Class<? extends ValidateException> exception = null;
+            final List<Annotation> parents = new ArrayList<>();
+            for (Annotation anno : annotationType.getAnnotations()) {
+                if (isComplex(anno.annotationType())) {
+                    parents.add(anno);
+                } else if (anno instanceof Array) {
+                    array = true;
+                } else if (anno instanceof Complex) {
+                    clazz = ((Complex) anno).clazz();
+                    name = ((Complex) anno).value();
+                } else if (anno instanceof ValidEx) {
+                    exception = ((ValidEx) anno).value();
+                }
+            }
+            if (ObjectKit.isEmpty(clazz) || StringKit.isEmpty(name)) {
+                throw new InstrumentException("非法的校验注解,没有使用Complex元注解表示校验器:" + annotationType.getName());
+            }
+            this.array = array;
+            this.clazz = clazz;
+            this.name = name;
+            this.exception = exception;
+            this.parents = parents.toArray(new Annotation[0]);
+            this.matcher = (Matcher) Registry.getInstance().require(name, clazz);
+        }
+
+        /**
+         * 注解上指定的属性名称
+         *
+         * @return 属性名称, 为空表示沿用当前属性名称
+         */
+        public String getField() {
+            return this.field;
+        }
+
+        /**
+         * 注解上的父级校验注解
+         *
+         * @return 父级校验注解
+         */
+        public Annotation[] getParents() {
+            return this.parents;
+        }
+
+        /**
+         * 创建校验器属性对象,被校验的值仅在格式化错误信息时才转换为字符串
+         *
+         * @param field  属性名称
+         * @param object 被校验的值
+         * @return 校验器属性对象
+         */
+        public Property property(String field, Object object) {
+            Property property = new Property();
+            property.setAnnotation(this.annotation);
+            property.setErrmsg(this.errmsg);
+            property.setGroup(this.group);
+            property.setField(field);
+            property.setErrcode(this.errcode);
+            property.setArray(this.array);
+            property.setClazz(this.clazz);
+            property.setName(this.name);
+            property.setException(this.exception);
+            property.setMatcher(this.matcher);
+            property.setValue(object);
+            property.addParam(Builder.FIELD, field);
+            for (Map.Entry<String, Object> entry : this.param.entrySet()) {
+                property.addParam(entry.getKey(), entry.getValue());
+            }
+            return property;
+        }
+    }
+
+}
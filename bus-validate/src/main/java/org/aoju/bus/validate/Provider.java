@@ -28,7 +28,6 @@ package org.aoju.bus.validate;
 import org.aoju.bus.core.lang.exception.NoSuchException;
 import org.aoju.bus.core.lang.exception.ValidateException;
 import org.aoju.bus.core.toolkit.ObjectKit;
-import org.aoju.bus.validate.annotation.Complex;
 import org.aoju.bus.validate.validators.Property;
 
 import java.lang.annotation.Annotation;
@@ -38,7 +37,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * 服务提供者
@@ -133,8 +131,7 @@ public class Provider {
      * @return the boolean
      */
     public static boolean isAnnotation(Annotation annotation) {
-        Class<? extends Annotation> annotationType = annotation.annotationType();
-        return annotationType.getAnnotation(Complex.class) != null;
+        return Plan.isComplex(annotation.annotationType());
     }
 
     /**
@@ -225,8 +222,7 @@ public class Provider {
      * @return list
      */
     public static List<Annotation> getAnnotation(Class<?> clazz) {
-        Annotation[] annotations = clazz.getAnnotations();
-        return Arrays.stream(annotations).filter(Provider::isAnnotation).collect(Collectors.toList());
+        return Plan.of(clazz).getAnnotations();
     }
 
 }
@@ -28,18 +28,13 @@ package org.aoju.bus.validate;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.aoju.bus.core.lang.Assert;
-import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.toolkit.ObjectKit;
-import org.aoju.bus.core.toolkit.StringKit;
 import org.aoju.bus.validate.annotation.*;
 import org.aoju.bus.validate.validators.Checker;
 import org.aoju.bus.validate.validators.Property;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -157,8 +152,7 @@ public class Validated extends Provider {
             }
         }
         if (ObjectKit.isNotEmpty(this.object)) {
-            Class<?> clazz = this.object.getClass();
-            List<Annotation> clazzAnnotations = this.getAnnotation(clazz);
+            List<Annotation> clazzAnnotations = this.getAnnotation(this.object.getClass());
             for (Annotation annotation : clazzAnnotations) {
                 Property property = build(annotation, this.object);
                 list.add(property);
@@ -176,9 +170,7 @@ public class Validated extends Provider {
      */
     private Context resolve(Context context, Annotation[] annotations) {
         if (ObjectKit.isNotEmpty(this.object)) {
-            Class<?> clazz = this.object.getClass();
-            Inside inside = clazz.getAnnotation(Inside.class);
-            if (ObjectKit.isNotEmpty(inside)) {
+            if (Plan.of(this.object.getClass()).isInside()) {
                 context.setInside(true);
             }
         }
@@ -229,60 +221,13 @@ public class Validated extends Provider {
      */
     public Property build(Annotation annotation, Object object) {
         Assert.isTrue(this.isAnnotation(annotation), "尝试从非校验注解上获取信息:" + annotation);
-        Class<? extends Annotation> annotationType = annotation.annotationType();
-        try {
-            String[] groups = (String[]) annotationType.getMethod(Builder.GROUP).invoke(annotation);
-            String errmsg = (String) annotationType.getMethod(Builder.ERRMSG).invoke(annotation);
-            String errcode = (String) annotationType.getMethod(Builder.ERRCODE).invoke(annotation);
-            String name = (String) annotationType.getMethod(Builder.FIELD).invoke(annotation);
-            this.field = Builder.DEFAULT_FIELD.equals(name) ? this.field : name;
-            Property property = new Property();
-            property.setAnnotation(annotation);
-            property.setErrmsg(errmsg);
-            property.setGroup(groups);
-            property.setField(this.field);
-            property.setErrcode(errcode);
-            property.addParam(Builder.FIELD, this.field);
-
-            if (ObjectKit.isNotEmpty(object) && object.getClass().isArray()) {
-                property.addParam(Builder.VAL, Arrays.toString((Object[]) object));
-            } else {
-                property.addParam(Builder.VAL, String.valueOf(object));
-            }
-
-            Method[] declaredMethods = annotationType.getDeclaredMethods();
-            for (Method m : declaredMethods) {
-                Filler filler = m.getAnnotation(Filler.class);
-                if (ObjectKit.isNotEmpty(filler)) {
-                    Class<?> returnType = m.getReturnType();
-                    Object invoke = m.invoke(annotation);
-                    if (returnType.isArray()) {
-                        property.addParam(filler.value(), Arrays.toString((Object[]) invoke));
-                    } else {
-                        property.addParam(filler.value(), invoke);
-                    }
-                }
-            }
-            Annotation[] parentAnnos = annotationType.getAnnotations();
-            for (Annotation anno : parentAnnos) {
-                if (this.isAnnotation(anno)) {
-                    property.addParentProperty(build(anno, object));
-                } else if (anno instanceof Array) {
-                    property.setArray(true);
-                } else if (anno instanceof Complex) {
-                    property.setClazz(((Complex) anno).clazz());
-                    property.setName(((Complex) anno).value());
-                } else if (anno instanceof ValidEx) {
-                    property.setException(((ValidEx) anno).value());
-                }
-            }
-            if (ObjectKit.isEmpty(property.getClazz()) || StringKit.isEmpty(property.getName())) {
-                throw new InstrumentException("非法的校验注解,没有使用Complex元注解表示校验器:" + annotationType.getName());
-            }
-            return property;
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            throw new InstrumentException("非法的校验注解,没有定义通用的校验属性:" + annotationType.getName(), e);
+        Plan.Rule rule = Plan.rule(annotation);
+        this.field = null == rule.getField() ? this.field : rule.getField();
+        Property property = rule.property(this.field, object);
+        for (Annotation parent : rule.getParents()) {
+            property.addParentProperty(build(parent, object));
         }
+        return property;
     }
 
 }
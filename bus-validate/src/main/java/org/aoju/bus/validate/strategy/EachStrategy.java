@@ -37,6 +37,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 容器元素内部校验
@@ -47,24 +48,17 @@ import java.util.Map;
  */
 public class EachStrategy implements Matcher<Object, Each> {
 
+    /**
+     * 注解对应的校验器
+     */
+    private final Map<Each, List<Matcher>> cache = new ConcurrentHashMap<>();
+
     @Override
     public boolean on(Object object, Each annotation, Context context) {
         if (ObjectKit.isEmpty(object)) {
             return false;
         }
-        List<Matcher> list = new ArrayList<>();
-        for (String name : annotation.value()) {
-            if (!Registry.getInstance().contains(name)) {
-                throw new NoSuchException("尝试使用一个不存在的校验器：" + name);
-            }
-            list.add((Matcher) Registry.getInstance().require(name));
-        }
-        for (Class<? extends Matcher> clazz : annotation.classes()) {
-            if (!Registry.getInstance().contains(clazz.getSimpleName())) {
-                throw new NoSuchException("尝试使用一个不存在的校验器：" + clazz.getName());
-            }
-            list.add((Matcher) Registry.getInstance().require(clazz.getSimpleName()));
-        }
+        List<Matcher> list = this.cache.computeIfAbsent(annotation, this::resolve);
 
         if (Provider.isArray(object)) {
             for (Object item : (Object[]) object) {
@@ -89,6 +83,29 @@ public class EachStrategy implements Matcher<Object, Each> {
         return true;
     }
 
+    /**
+     * 根据注解获取校验器
+     *
+     * @param annotation 注解
+     * @return 校验器集合
+     */
+    private List<Matcher> resolve(Each annotation) {
+        List<Matcher> list = new ArrayList<>();
+        for (String name : annotation.value()) {
+            if (!Registry.getInstance().contains(name)) {
+                throw new NoSuchException("尝试使用一个不存在的校验器：" + name);
+            }
+            list.add((Matcher) Registry.getInstance().require(name));
+        }
+        for (Class<? extends Matcher> clazz : annotation.classes()) {
+            if (!Registry.getInstance().contains(clazz.getSimpleName())) {
+                throw new NoSuchException("尝试使用一个不存在的校验器：" + clazz.getName());
+            }
+            list.add((Matcher) Registry.getInstance().require(clazz.getSimpleName()));
+        }
+        return list;
+    }
+
     /**
      * 快速执行多个校验器,一旦有一个校验不通过,则返回false
      *
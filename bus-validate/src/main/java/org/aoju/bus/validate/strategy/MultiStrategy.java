@@ -33,6 +33,8 @@ import org.aoju.bus.validate.validators.Matcher;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 多规则匹配校验
@@ -43,8 +45,29 @@ import java.util.List;
  */
 public class MultiStrategy implements Matcher<Object, Multi> {
 
+    /**
+     * 注解对应的校验器
+     */
+    private final Map<Multi, List<Matcher>> cache = new ConcurrentHashMap<>();
+
     @Override
     public boolean on(Object object, Multi multi, Context context) {
+        List<Matcher> validators = this.cache.computeIfAbsent(multi, this::resolve);
+        for (Matcher validator : validators) {
+            if (!validator.on(object, null, context)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 根据注解获取校验器
+     *
+     * @param multi 注解
+     * @return 校验器集合
+     */
+    private List<Matcher> resolve(Multi multi) {
         List<Matcher> validators = new ArrayList<>();
         for (String validatorName : multi.value()) {
             if (!Registry.getInstance().contains(validatorName)) {
@@ -58,12 +81,7 @@ public class MultiStrategy implements Matcher<Object, Multi> {
             }
             validators.add((Matcher) Registry.getInstance().require(clazz.getSimpleName()));
         }
-        for (Matcher validator : validators) {
-            if (!validator.on(object, null, context)) {
-                return false;
-            }
-        }
-        return true;
+        return validators;
     }
 
 }
@@ -26,18 +26,14 @@
 package org.aoju.bus.validate.validators;
 
 import org.aoju.bus.core.lang.Normal;
-import org.aoju.bus.core.lang.exception.InstrumentException;
 import org.aoju.bus.core.lang.exception.NoSuchException;
 import org.aoju.bus.core.lang.exception.ValidateException;
 import org.aoju.bus.core.toolkit.ArrayKit;
-import org.aoju.bus.core.toolkit.ClassKit;
 import org.aoju.bus.core.toolkit.ObjectKit;
 import org.aoju.bus.logger.Logger;
 import org.aoju.bus.validate.*;
-import org.aoju.bus.validate.annotation.Inside;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -82,48 +78,47 @@ public class Checker {
      */
     public Collector inside(Validated validated) {
         Collector collector = new Collector(validated);
-        try {
-            Object object = validated.getObject();
-            if (ObjectKit.isNotEmpty(object)) {
-                Field[] fields = ClassKit.getAllFields(object.getClass());
-                for (Field field : fields) {
-                    Object value = ClassKit.readField(field, object, true);
-                    Annotation[] annotations = field.getDeclaredAnnotations();
-
-                    String[] xFields = validated.getContext().getField();
-                    String[] xSkip = validated.getContext().getSkip() == null ? null : validated.getContext().getSkip();
-
-                    // 过滤当前需跳过的属性
-                    if (ArrayKit.isNotEmpty(xSkip)
-                            && Arrays.asList(xSkip).contains(field.getName())) {
-                        continue;
-                    }
-                    // 过滤当前需要校验的属性
-                    if (ArrayKit.isNotEmpty(xFields)
-                            && !Arrays.asList(xFields).contains(field.getName())) {
-                        continue;
-                    }
-                    // 属性校验开始
-                    validated.getContext().setInside(false);
-                    validated = new Validated(value, annotations, validated.getContext(), field.getName());
-
-                    if (value != null && Provider.isCollection(value)
-                            && hasInside(annotations)) {
-                        collector.collect(doCollectionInside(validated));
-                    } else if (value != null && Provider.isArray(value)
-                            && hasInside(annotations)) {
-                        collector.collect(doArrayInside(validated));
-                    }
-                    if (validated.getList().isEmpty()) {
-                        continue;
-                    }
-                    collector.collect(validated.access());
+        Object object = validated.getObject();
+        if (ObjectKit.isNotEmpty(object)) {
+            for (Plan.Entry entry : Plan.of(object.getClass()).getEntries()) {
+                String[] xFields = validated.getContext().getField();
+                String[] xSkip = validated.getContext().getSkip() == null ? null : validated.getContext().getSkip();
+
+                // 过滤当前需跳过的属性
+                if (ArrayKit.isNotEmpty(xSkip)
+                        && Arrays.asList(xSkip).contains(entry.getName())) {
+                    continue;
                 }
-            } else {
-                Logger.debug("当前被校验的对象为null, 忽略校验对象内部字段: {}", validated);
+                // 过滤当前需要校验的属性
+                if (ArrayKit.isNotEmpty(xFields)
+                        && !Arrays.asList(xFields).contains(entry.getName())) {
+                    continue;
+                }
+                Object value = entry.get(object);
+                Annotation[] annotations = entry.getAnnotations();
+
+                // 属性校验开始
+                validated.getContext().setInside(false);
+                // 属性及属性值的类型上都没有校验注解时无需校验
+                if (annotations.length == 0 && (null == value || Plan.of(value.getClass()).isEmpty())) {
+                    continue;
+                }
+                validated = new Validated(value, annotations, validated.getContext(), entry.getName());
+
+                if (value != null && Provider.isCollection(value)
+                        && entry.isInside()) {
+                    collector.collect(doCollectionInside(validated));
+                } else if (value != null && Provider.isArray(value)
+                        && entry.isInside()) {
+                    collector.collect(doArrayInside(validated));
+                }
+                if (validated.getList().isEmpty()) {
+                    continue;
+                }
+                collector.collect(validated.access());
             }
-        } catch (IllegalAccessException e) {
-            throw new InstrumentException("无法校验指定字段", e);
+        } else {
+            Logger.debug("当前被校验的对象为null, 忽略校验对象内部字段: {}", validated);
         }
         return collector;
     }
@@ -136,7 +131,10 @@ public class Checker {
      * @return 校验结果
      */
     private Collector doObject(Validated validated, Property property) {
-        Matcher matcher = (Matcher) Registry.getInstance().require(property.getName(), property.getClazz());
+        Matcher matcher = property.getMatcher();
+        if (ObjectKit.isEmpty(matcher)) {
+            matcher = (Matcher) Registry.getInstance().require(property.getName(), property.getClazz());
+        }
         if (ObjectKit.isEmpty(matcher)) {
             throw new NoSuchException(String.format("无法找到指定的校验器, name:%s, class:%s",
                     property.getName(),
@@ -166,9 +164,9 @@ public class Checker {
     private Collector doCollection(Validated validated, Property property) {
         Collector collector = new Collector(validated);
         Collection<?> collection = (Collection<?>) validated.getObject();
+        Annotation[] annotations = {property.getAnnotation()};
         for (Object item : collection) {
-            Validated itemTarget = new Validated(item, new Annotation[]{property.getAnnotation()},
-                    validated.getContext());
+            Validated itemTarget = new Validated(item, annotations, validated.getContext());
             Collector checked = itemTarget.access();
             collector.collect(checked);
         }
@@ -186,9 +184,9 @@ public class Checker {
     private Collector doArrayObject(Validated validated, Property property) {
         Collector collector = new Collector(validated);
         Object[] array = (Object[]) validated.getObject();
+        Annotation[] annotations = {property.getAnnotation()};
         for (int i = 0; i < array.length; i++) {
-            Validated itemTarget = new Validated(array[i],
-                    new Annotation[]{property.getAnnotation()}, validated.getContext());
+            Validated itemTarget = new Validated(array[i], annotations, validated.getContext());
             Collector checked = itemTarget.access();
             collector.collect(checked);
         }
@@ -225,14 +223,4 @@ public class Checker {
         return collector;
     }
 
-    /**
-     * 是否为内部校验注解
-     *
-     * @param annotations 注解
-     * @return 校验结果
-     */
-    private boolean hasInside(Annotation[] annotations) {
-        return Arrays.stream(annotations).anyMatch(an -> an instanceof Inside);
-    }
-
 }
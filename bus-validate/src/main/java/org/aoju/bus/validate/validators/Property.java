@@ -30,9 +30,12 @@ import org.aoju.bus.core.lang.exception.ValidateException;
 import org.aoju.bus.core.text.Replacers;
 import org.aoju.bus.core.toolkit.CollKit;
 import org.aoju.bus.core.toolkit.MapKit;
+import org.aoju.bus.core.toolkit.ObjectKit;
+import org.aoju.bus.validate.Builder;
 
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -86,6 +89,14 @@ public class Property {
      * 校验属性信息
      */
     private List<Property> list;
+    /**
+     * 校验器,为空时按名称从注册中心查找
+     */
+    private Matcher matcher;
+    /**
+     * 被校验的值,仅在读取校验参数时才转换为插值参数
+     */
+    private transient Object value;
 
     public Property() {
         this.list = new ArrayList<>();
@@ -120,13 +131,32 @@ public class Property {
         this.param.put(name, value);
     }
 
+    /**
+     * 获取错误信息的字符串插值参数
+     *
+     * @return 插值参数
+     */
+    public Map<String, Object> getParam() {
+        if (MapKit.isEmpty(this.param)) {
+            this.param = new HashMap<>();
+        }
+        if (!this.param.containsKey(Builder.VAL)) {
+            if (ObjectKit.isNotEmpty(this.value) && this.value.getClass().isArray()) {
+                this.param.put(Builder.VAL, Arrays.toString((Object[]) this.value));
+            } else {
+                this.param.put(Builder.VAL, String.valueOf(this.value));
+            }
+        }
+        return this.param;
+    }
+
     /**
      * 获取字符串插值后的验证信息
      *
      * @return the string
      */
     public String getFormatted() {
-        return new Replacers(this.param).replace(this.errmsg);
+        return new Replacers(this.getParam()).replace(this.errmsg);
     }
 
 }